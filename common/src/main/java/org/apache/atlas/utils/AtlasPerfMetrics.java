@@ -0,0 +1,225 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.utils;
+
+import org.apache.atlas.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process registry of latency histograms, keyed by operation name - for example 'EntityREST.getById'. Latencies
+ * are recorded by AtlasPerfTracer. Also holds named counters - for example hits of a cache - which components
+ * increment directly.
+ *
+ * Recording is lock-free and cheap enough to be always enabled; it can be turned off with atlas.perf.metrics.enabled.
+ */
+public final class AtlasPerfMetrics {
+    private static final Logger LOG = LoggerFactory.getLogger(AtlasPerfMetrics.class);
+
+    public static final String PERF_METRICS_ENABLED_PROPERTY = "atlas.perf.metrics.enabled";
+    public static final String MBEAN_NAME                    = "org.apache.atlas:type=PerfMetrics";
+
+    public static final String STAT_COUNT = "count";
+    public static final String STAT_AVG   = "avgUs";
+    public static final String STAT_P50   = "p50Us";
+    public static final String STAT_P99   = "p99Us";
+    public static final String STAT_P999  = "p999Us";
+    public static final String STAT_MAX   = "maxUs";
+
+    // guards against tags that embed parameters without parentheses
+    private static final int MAX_OPERATIONS = 1000;
+
+    private static final ConcurrentMap<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, AtomicLong>       COUNTERS   = new ConcurrentHashMap<>();
+    private static final boolean                                 ENABLED    = isEnabledInConfiguration();
+
+    private AtlasPerfMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * @param operation name of the operation; parameters given in parentheses, as in a perf-tracer tag, are ignored
+     */
+    public static void record(String operation, long elapsedNanos) {
+        if (!ENABLED || operation == null) {
+            return;
+        }
+
+        String           name      = getOperationName(operation);
+        LatencyHistogram histogram = HISTOGRAMS.get(name);
+
+        if (histogram == null) {
+            if (HISTOGRAMS.size() >= MAX_OPERATIONS) {
+                return;
+            }
+
+            LatencyHistogram newHistogram = new LatencyHistogram();
+
+            histogram = HISTOGRAMS.putIfAbsent(name, newHistogram);
+
+            if (histogram == null) {
+                histogram = newHistogram;
+            }
+        }
+
+        histogram.record(elapsedNanos);
+    }
+
+    /**
+     * @return copy of the histogram of the given operation; null if no latency has been recorded for the operation
+     */
+    public static LatencyHistogram getHistogram(String operation) {
+        LatencyHistogram histogram = HISTOGRAMS.get(operation);
+
+        return histogram != null ? histogram.copy() : null;
+    }
+
+    /**
+     * @return statistics of all operations, sorted by operation name
+     */
+    public static Map<String, Map<String, Long>> getLatencies() {
+        Map<String, Map<String, Long>> ret = new TreeMap<>();
+
+        for (Map.Entry<String, LatencyHistogram> entry : HISTOGRAMS.entrySet()) {
+            LatencyHistogram  histogram = entry.getValue().copy();
+            Map<String, Long> stats     = new LinkedHashMap<>();
+
+            stats.put(STAT_COUNT, histogram.getCount());
+            stats.put(STAT_AVG, toMicros(histogram.getMean()));
+            stats.put(STAT_P50, toMicros(histogram.getPercentile(50)));
+            stats.put(STAT_P99, toMicros(histogram.getPercentile(99)));
+            stats.put(STAT_P999, toMicros(histogram.getPercentile(99.9)));
+            stats.put(STAT_MAX, toMicros(histogram.getMax()));
+
+            ret.put(entry.getKey(), stats);
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return counter of the given name, created if not present; callers are expected to hold on to the counter
+     */
+    public static AtomicLong getCounter(String name) {
+        AtomicLong ret = COUNTERS.get(name);
+
+        if (ret == null) {
+            AtomicLong newCounter = new AtomicLong();
+
+            ret = COUNTERS.putIfAbsent(name, newCounter);
+
+            if (ret == null) {
+                ret = newCounter;
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return values of all counters, sorted by counter name
+     */
+    public static Map<String, Long> getCounters() {
+        Map<String, Long> ret = new TreeMap<>();
+
+        for (Map.Entry<String, AtomicLong> entry : COUNTERS.entrySet()) {
+            ret.put(entry.getKey(), entry.getValue().get());
+        }
+
+        return ret;
+    }
+
+    // counters are set to 0 rather than removed, as they are held by the components incrementing them
+    public static void reset() {
+        HISTOGRAMS.clear();
+
+        for (AtomicLong counter : COUNTERS.values()) {
+            counter.set(0);
+        }
+    }
+
+    /**
+     * Registers the JMX view of the metrics with the platform MBean server, if not already registered.
+     */
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName  objectName  = new ObjectName(MBEAN_NAME);
+
+            if (!mbeanServer.isRegistered(objectName)) {
+                mbeanServer.registerMBean(new StandardMBean(new MXBean(), AtlasPerfMetricsMXBean.class, true), objectName);
+            }
+        } catch (Exception e) {
+            LOG.warn("failed to register MBean {}", MBEAN_NAME, e);
+        }
+    }
+
+    static String getOperationName(String tag) {
+        int idx = tag.indexOf('(');
+
+        return idx > 0 ? tag.substring(0, idx) : tag;
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static boolean isEnabledInConfiguration() {
+        boolean ret = true;
+
+        try {
+            ret = ApplicationProperties.get().getBoolean(PERF_METRICS_ENABLED_PROPERTY, true);
+        } catch (Exception e) {
+            LOG.info("failed to read {}; perf metrics are enabled", PERF_METRICS_ENABLED_PROPERTY, e);
+        }
+
+        return ret;
+    }
+
+    private static class MXBean implements AtlasPerfMetricsMXBean {
+        @Override
+        public Map<String, Map<String, Long>> getLatencies() {
+            return AtlasPerfMetrics.getLatencies();
+        }
+
+        @Override
+        public Map<String, Long> getCounters() {
+            return AtlasPerfMetrics.getCounters();
+        }
+
+        @Override
+        public void reset() {
+            AtlasPerfMetrics.reset();
+        }
+    }
+}
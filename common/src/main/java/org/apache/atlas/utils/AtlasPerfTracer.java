@@ -20,14 +20,25 @@ package org.apache.atlas.utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.TimeUnit;
 
 /**
- * Handles logging of performance measurements.
+ * Handles logging of performance measurements. Measurements are also recorded in AtlasPerfMetrics, when enabled,
+ * under the name of the operation - hence tracers are created even when the perf logger is not enabled for debug.
+ * The tag logged, which usually includes parameters of the operation, is to be set only when isPerfTraceEnabled():
+ *
+ *   perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getById");
+ *
+ *   if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+ *       perf.setTag("EntityREST.getById(" + guid + ")");
+ *   }
  */
 public final class AtlasPerfTracer {
     protected final Logger logger;
-    protected final String tag;
+    protected final String operation;
+    protected       String tag;
     private   final long   startTimeMs;
+    private   final long   startTimeNanos;
 
     private static long reportingThresholdMs = 0L;
 
@@ -39,12 +50,18 @@ public final class AtlasPerfTracer {
         return AtlasPerfTracer.getPerfLogger(cls.getName());
     }
 
+    /**
+     * @return true if measurements are logged, hence tags are to be set
+     */
     public static boolean isPerfTraceEnabled(Logger logger) {
         return logger.isDebugEnabled();
     }
 
-    public static AtlasPerfTracer getPerfTracer(Logger logger, String tag) {
-        return new AtlasPerfTracer(logger, tag);
+    /**
+     * @return tracer of the given operation; null if neither perf metrics nor the perf logger is enabled
+     */
+    public static AtlasPerfTracer getPerfTracer(Logger logger, String operation) {
+        return AtlasPerfMetrics.isEnabled() || logger.isDebugEnabled() ? new AtlasPerfTracer(logger, operation) : null;
     }
 
     public static void log(AtlasPerfTracer tracer) {
@@ -53,28 +70,49 @@ public final class AtlasPerfTracer {
         }
     }
 
-    private AtlasPerfTracer(Logger logger, String tag) {
-        this.logger = logger;
-        this.tag    = tag;
-        startTimeMs = System.currentTimeMillis();
+    private AtlasPerfTracer(Logger logger, String operation) {
+        this.logger         = logger;
+        this.operation      = operation;
+        this.tag            = operation;
+        this.startTimeMs    = System.currentTimeMillis();
+        this.startTimeNanos = System.nanoTime();
+    }
+
+    public String getOperation() {
+        return operation;
     }
 
     public String getTag() {
         return tag;
     }
 
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
     public long getStartTime() {
         return startTimeMs;
     }
 
     public long getElapsedTime() {
-        return System.currentTimeMillis() - startTimeMs;
+        return TimeUnit.NANOSECONDS.toMillis(getElapsedTimeNanos());
+    }
+
+    public long getElapsedTimeNanos() {
+        return System.nanoTime() - startTimeNanos;
     }
 
     public void log() {
-        long elapsedTime = getElapsedTime();
-        if (elapsedTime > reportingThresholdMs) {
-            logger.debug("PERF|{}|{}", tag, elapsedTime);
+        long elapsedTimeNanos = getElapsedTimeNanos();
+
+        AtlasPerfMetrics.record(operation, elapsedTimeNanos);
+
+        if (logger.isDebugEnabled()) {
+            long elapsedTime = TimeUnit.NANOSECONDS.toMillis(elapsedTimeNanos);
+
+            if (elapsedTime > reportingThresholdMs) {
+                logger.debug("PERF|{}|{}", tag, elapsedTime);
+            }
         }
     }
 }
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.utils;
+
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+    @Test
+    public void testBucketBoundsCoverValues() {
+        long[] values = new long[] { 0, 1, 15, 16, 17, 31, 32, 1000, 123456789, Long.MAX_VALUE };
+
+        for (long value : values) {
+            int index = LatencyHistogram.getBucketIndex(value);
+
+            assertTrue(LatencyHistogram.getBucketUpperBound(index) >= value, "value=" + value);
+            assertTrue(index == 0 || LatencyHistogram.getBucketUpperBound(index - 1) < value, "value=" + value);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(histogram.getCount(), 1000);
+        assertEquals(histogram.getMax(), 1000000);
+        assertEquals(histogram.getMean(), 500500);
+        assertWithinError(histogram.getPercentile(50), 500000);
+        assertWithinError(histogram.getPercentile(99), 990000);
+        assertWithinError(histogram.getPercentile(99.9), 999000);
+        assertEquals(histogram.getPercentile(100), 1000000);
+    }
+
+    @Test
+    public void testMerge() {
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+
+        for (int i = 0; i < 99; i++) {
+            fast.record(1000);
+        }
+
+        slow.record(1000000);
+
+        LatencyHistogram merged = fast.copy();
+
+        merged.merge(slow);
+
+        assertEquals(merged.getCount(), 100);
+        assertEquals(merged.getMax(), 1000000);
+        assertWithinError(merged.getPercentile(50), 1000);
+        assertEquals(merged.getPercentile(100), 1000000);
+        assertEquals(fast.getCount(), 99);
+    }
+
+    @Test
+    public void testPerfTracerRecordsLatency() {
+        AtlasPerfTracer perf = AtlasPerfTracer.getPerfTracer(AtlasPerfTracer.getPerfLogger("LatencyHistogramTest"), "LatencyHistogramTest.op");
+
+        // recorded under the operation, whatever the tag
+        perf.setTag("LatencyHistogramTest.op(param1)");
+        perf.log();
+
+        Map<String, Long> stats = AtlasPerfMetrics.getLatencies().get("LatencyHistogramTest.op");
+
+        assertNotNull(stats);
+        assertEquals(stats.get(AtlasPerfMetrics.STAT_COUNT), Long.valueOf(1));
+    }
+
+    private static void assertWithinError(long actual, long expected) {
+        assertTrue(Math.abs(actual - expected) <= expected / 16, "actual=" + actual + ", expected=" + expected);
+    }
+}
@@ -19,6 +19,8 @@ package org.apache.atlas.repository.graphdb;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -106,6 +108,25 @@ public interface AtlasGraph<V, E> {
      */
     AtlasVertex<V, E> getVertex(String vertexId);
 
+    /**
+     * Gets the vertices with the specified ids, in a single lookup where supported by the implementation.
+     * Ids of vertices that do not exist are skipped.
+     *
+     * @param vertexIds
+     * @return vertices, in the order of the given ids
+     */
+    List<AtlasVertex<V, E>> getVertices(List<String> vertexIds);
+
+    /**
+     * Loads the properties of the given vertices - and their adjacent edges with the given labels - from the
+     * storage backend in a single round trip, where supported by the implementation. Subsequent reads of these
+     * properties and edges in the current transaction are served from the transaction cache.
+     *
+     * @param vertices vertices to load
+     * @param edgeLabels labels of the adjacent edges to load as well; none if empty
+     */
+    void prefetch(Collection<? extends AtlasVertex<V, E>> vertices, Set<String> edgeLabels);
+
     /**
      * Gets the names of the indexes on edges
      * type.
@@ -293,6 +314,21 @@ public interface AtlasGraph<V, E> {
      */
     Object executeGremlinScript(String query, boolean isPath) throws AtlasBaseException;
 
+    /**
+     * Executes a Gremlin script with the given bindings, returns an object with the result.
+     * Literal values should be passed as bindings rather than formatted into the query, so that
+     * implementations can reuse the compiled script across invocations.
+     *
+     * @param query
+     * @param bindings values referenced by the query
+     * @param isPath whether this is a path query
+     *
+     * @return the result from executing the script
+     *
+     * @throws AtlasBaseException
+     */
+    Object executeGremlinScript(String query, Map<String, Object> bindings, boolean isPath) throws AtlasBaseException;
+
     /**
      * Executes a Gremlin script using a ScriptEngineManager provided by consumer, returns an object with the result.
      * This is useful for scenarios where an operation executes large number of queries.
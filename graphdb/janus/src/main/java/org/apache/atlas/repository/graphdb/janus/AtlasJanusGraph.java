@@ -28,10 +28,13 @@ import org.janusgraph.core.PropertyKey;
 import org.janusgraph.core.SchemaViolationException;
 import org.janusgraph.core.JanusGraph;
 import org.janusgraph.core.JanusGraphIndexQuery;
+import org.janusgraph.core.JanusGraphVertex;
 import org.janusgraph.core.schema.JanusGraphIndex;
 import org.janusgraph.core.schema.JanusGraphManagement;
 import org.janusgraph.core.util.JanusGraphCleanup;
+import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.AtlasException;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.groovy.GroovyExpression;
 import org.apache.atlas.repository.graphdb.AtlasEdge;
@@ -44,12 +47,10 @@ import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.graphdb.GremlinVersion;
 import org.apache.atlas.repository.graphdb.janus.query.AtlasJanusGraphQuery;
 import org.apache.atlas.repository.graphdb.utils.IteratorToIterableAdapter;
-import org.apache.tinkerpop.gremlin.groovy.CompilerCustomizerProvider;
-import org.apache.tinkerpop.gremlin.groovy.DefaultImportCustomizerProvider;
+import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
-import org.apache.tinkerpop.gremlin.process.traversal.P;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ImmutablePath;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -57,13 +58,17 @@ import org.apache.tinkerpop.gremlin.structure.io.IoCore;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONMapper;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
 import org.janusgraph.diskstorage.BackendException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.script.Bindings;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -74,6 +79,11 @@ import java.util.Set;
  * Janus implementation of AtlasGraph.
  */
 public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusEdge> {
+    private static final Logger LOG = LoggerFactory.getLogger(AtlasJanusGraph.class);
+
+    public static final String SCRIPT_ENGINE_POOL_SIZE           = "atlas.graph.gremlin.script.engine.pool.size";
+    public static final String SCRIPT_ENGINE_POOL_BORROW_TIMEOUT = "atlas.graph.gremlin.script.engine.pool.borrow.timeout.ms";
+    public static final String SCRIPT_ENGINE_CACHE_SIZE          = "atlas.graph.gremlin.script.engine.cache.size";
 
     private final ConvertGremlinValueFunction GREMLIN_VALUE_CONVERSION_FUNCTION = new ConvertGremlinValueFunction();
 
@@ -84,9 +94,12 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         }
     }
 
-    private final Set<String> multiProperties;
+    private final Set<String>                multiProperties;
+    private final AtlasJanusScriptEnginePool scriptEnginePool;
 
     public AtlasJanusGraph() {
+        scriptEnginePool = createScriptEnginePool();
+
         //determine multi-properties once at startup
         JanusGraphManagement mgmt = null;
         try {
@@ -228,6 +241,65 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         return GraphDbObjectFactory.createVertex(this, vertex);
     }
 
+    @Override
+    public List<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> getVertices(List<String> vertexIds) {
+        List<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> ret = new ArrayList<>(vertexIds.size());
+
+        if (vertexIds.isEmpty()) { // vertices() with no ids returns all vertices
+            return ret;
+        }
+
+        // existence of the vertices not in the transaction cache is checked in one backend call; the vertices are
+        // returned in no particular order
+        Map<String, Vertex> vertices = new HashMap<>();
+        Iterator<Vertex>    it       = getGraph().vertices(vertexIds.toArray());
+
+        while (it.hasNext()) {
+            Vertex vertex = it.next();
+
+            vertices.put(vertex.id().toString(), vertex);
+        }
+
+        for (String vertexId : vertexIds) {
+            Vertex vertex = vertices.get(vertexId);
+
+            if (vertex != null) {
+                ret.add(GraphDbObjectFactory.createVertex(this, vertex));
+            }
+        }
+
+        return ret;
+    }
+
+    @Override
+    public void prefetch(Collection<? extends AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> vertices, Set<String> edgeLabels) {
+        if (vertices == null || vertices.size() < 2) {
+            return;
+        }
+
+        List<JanusGraphVertex> janusVertices = new ArrayList<>(vertices.size());
+
+        for (AtlasVertex<AtlasJanusVertex, AtlasJanusEdge> vertex : vertices) {
+            Vertex wrapped = vertex != null ? vertex.getV().getWrappedElement() : null;
+
+            if (wrapped instanceof JanusGraphVertex) {
+                janusVertices.add((JanusGraphVertex) wrapped);
+            }
+        }
+
+        if (janusVertices.size() < 2) {
+            return;
+        }
+
+        // multi-vertex queries load the relations of all vertices in one backend call, and add them to the
+        // transaction's vertex cache; results are not needed here
+        getGraph().multiQuery(janusVertices).properties();
+
+        if (edgeLabels != null && !edgeLabels.isEmpty()) {
+            getGraph().multiQuery(janusVertices).direction(Direction.BOTH).labels(edgeLabels.toArray(new String[edgeLabels.size()])).edges();
+        }
+    }
+
     public static <T> T getSingleElement(Iterator<T> it, String id) {
         if (!it.hasNext()) {
             return null;
@@ -285,6 +357,24 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         } catch (BackendException ignoreEx) {}
     }
 
+    private static AtlasJanusScriptEnginePool createScriptEnginePool() {
+        int  poolSize      = Runtime.getRuntime().availableProcessors();
+        int  cacheSize     = 500;
+        long borrowTimeout = 1000;
+
+        try {
+            Configuration conf = ApplicationProperties.get();
+
+            poolSize      = conf.getInt(SCRIPT_ENGINE_POOL_SIZE, poolSize);
+            cacheSize     = conf.getInt(SCRIPT_ENGINE_CACHE_SIZE, cacheSize);
+            borrowTimeout = conf.getLong(SCRIPT_ENGINE_POOL_BORROW_TIMEOUT, borrowTimeout);
+        } catch (AtlasException e) {
+            LOG.warn("failed to read script engine pool configuration; using defaults", e);
+        }
+
+        return new AtlasJanusScriptEnginePool(poolSize, cacheSize, borrowTimeout);
+    }
+
     private JanusGraph getGraph() {
         return AtlasJanusGraphDatabase.getGraphInstance();
     }
@@ -301,46 +391,39 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
 
     @Override
     public GremlinGroovyScriptEngine getGremlinScriptEngine() {
-        Set<String> extraImports = new HashSet<String>();
-        extraImports.add(java.util.function.Function.class.getName());
-
-        Set<String> extraStaticImports = new HashSet<String>();
-        extraStaticImports.add(P.class.getName() + ".*");
-        extraStaticImports.add(__.class.getName() + ".*");
-        CompilerCustomizerProvider provider = new DefaultImportCustomizerProvider(extraImports, extraStaticImports);
-
-        GremlinGroovyScriptEngine scriptEngine = new GremlinGroovyScriptEngine(provider);
-
-        return scriptEngine;
+        return scriptEnginePool.borrowEngine();
     }
 
     @Override
     public void releaseGremlinScriptEngine(ScriptEngine scriptEngine) {
-        if (scriptEngine instanceof GremlinGroovyScriptEngine) {
-            try {
-                ((GremlinGroovyScriptEngine)scriptEngine).close();
-            } catch (Exception e) {
-                // ignore
-            }
-        }
+        scriptEnginePool.releaseEngine(scriptEngine);
     }
 
     @Override
     public Object executeGremlinScript(String query, boolean isPath) throws AtlasBaseException {
-        Object result = executeGremlinScript(query);
+        return executeGremlinScript(query, null, isPath);
+    }
+
+    @Override
+    public Object executeGremlinScript(String query, Map<String, Object> userBindings, boolean isPath) throws AtlasBaseException {
+        Object result = executeGremlinScript(query, userBindings);
         return convertGremlinValue(result);
     }
 
-    private Object executeGremlinScript(String gremlinQuery) throws AtlasBaseException {
+    private Object executeGremlinScript(String gremlinQuery, Map<String, Object> userBindings) throws AtlasBaseException {
         GremlinGroovyScriptEngine scriptEngine = getGremlinScriptEngine();
 
         try {
             Bindings bindings = scriptEngine.createBindings();
 
+            if (userBindings != null) {
+                bindings.putAll(userBindings);
+            }
+
             bindings.put("graph", getGraph());
             bindings.put("g", getGraph().traversal());
 
-            Object result = scriptEngine.eval(gremlinQuery, bindings);
+            Object result = scriptEnginePool.eval(scriptEngine, gremlinQuery, bindings);
 
             return result;
         } catch (ScriptException e) {
@@ -359,10 +442,14 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         bindings.putAll(userBindings);
         bindings.put("g", getGraph().traversal());
 
-        Object result = scriptEngine.eval(query, bindings);
+        Object result = scriptEnginePool.eval(scriptEngine, query, bindings);
         return convertGremlinValue(result);
     }
 
+    public AtlasJanusScriptEnginePool getScriptEnginePool() {
+        return scriptEnginePool;
+    }
+
     @Override
     public GroovyExpression generatePersisentToLogicalConversionExpression(GroovyExpression expr, AtlasType type) {
         //nothing special needed, value is stored in required type
@@ -0,0 +1,237 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.graphdb.janus;
+
+import org.apache.atlas.utils.AtlasPerfMetrics;
+import org.apache.tinkerpop.gremlin.groovy.CompilerCustomizerProvider;
+import org.apache.tinkerpop.gremlin.groovy.DefaultImportCustomizerProvider;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of GremlinGroovyScriptEngine instances. Each pooled engine keeps an LRU cache of compiled scripts,
+ * keyed by the script text; callers are expected to pass literal values as bindings so that the script text stays
+ * the same across invocations.
+ *
+ * Groovy classes generated for compiled scripts are held by the engine's classloader, hence an engine is replaced
+ * with a fresh one once its cache has turned over completely - this keeps Metaspace usage bounded.
+ *
+ * Hits, misses and evictions of the compiled-script caches of all pools are available in AtlasPerfMetrics counters.
+ */
+public class AtlasJanusScriptEnginePool {
+    private static final Logger LOG = LoggerFactory.getLogger(AtlasJanusScriptEnginePool.class);
+
+    public static final String METRIC_HITS      = "AtlasJanusScriptEnginePool.hits";
+    public static final String METRIC_MISSES    = "AtlasJanusScriptEnginePool.misses";
+    public static final String METRIC_EVICTIONS = "AtlasJanusScriptEnginePool.evictions";
+
+    private static final AtomicLong TOTAL_HITS      = AtlasPerfMetrics.getCounter(METRIC_HITS);
+    private static final AtomicLong TOTAL_MISSES    = AtlasPerfMetrics.getCounter(METRIC_MISSES);
+    private static final AtomicLong TOTAL_EVICTIONS = AtlasPerfMetrics.getCounter(METRIC_EVICTIONS);
+
+    private final int                             maxEngines;
+    private final int                             cacheSize;
+    private final long                            borrowTimeoutMs;
+    private final BlockingQueue<PooledEngine>     idleEngines;
+    private final Map<ScriptEngine, PooledEngine> borrowedEngines = new ConcurrentHashMap<>();
+    private final AtomicInteger                   engineCount     = new AtomicInteger(0);
+    private final AtomicLong                      hitCount        = new AtomicLong(0);
+    private final AtomicLong                      missCount       = new AtomicLong(0);
+    private final AtomicLong                      evictionCount   = new AtomicLong(0);
+
+    public AtlasJanusScriptEnginePool(int maxEngines, int cacheSize, long borrowTimeoutMs) {
+        this.maxEngines      = Math.max(1, maxEngines);
+        this.cacheSize       = Math.max(1, cacheSize);
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.idleEngines     = new ArrayBlockingQueue<>(this.maxEngines);
+
+        LOG.info("AtlasJanusScriptEnginePool(maxEngines={}, cacheSize={}, borrowTimeoutMs={})", this.maxEngines, this.cacheSize, this.borrowTimeoutMs);
+    }
+
+    /**
+     * Borrows an engine from the pool. When all pooled engines are in use and none is returned within
+     * borrowTimeoutMs, an un-pooled engine is returned, which will be closed on release.
+     */
+    public GremlinGroovyScriptEngine borrowEngine() {
+        PooledEngine ret = idleEngines.poll();
+
+        if (ret == null) {
+            if (engineCount.incrementAndGet() <= maxEngines) {
+                ret = new PooledEngine();
+            } else {
+                engineCount.decrementAndGet();
+
+                try {
+                    ret = idleEngines.poll(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                if (ret == null) {
+                    LOG.warn("all {} pooled script engines are in use; creating an un-pooled engine", maxEngines);
+
+                    return createEngine();
+                }
+            }
+        }
+
+        borrowedEngines.put(ret.engine, ret);
+
+        return ret.engine;
+    }
+
+    public void releaseEngine(ScriptEngine scriptEngine) {
+        if (scriptEngine == null) {
+            return;
+        }
+
+        PooledEngine pooledEngine = borrowedEngines.remove(scriptEngine);
+
+        if (pooledEngine == null) {
+            closeEngine(scriptEngine);
+        } else {
+            if (pooledEngine.evictionsSinceCreate >= cacheSize) {
+                LOG.debug("recycling script engine after {} evictions", pooledEngine.evictionsSinceCreate);
+
+                closeEngine(pooledEngine.engine);
+
+                pooledEngine = new PooledEngine();
+            }
+
+            idleEngines.offer(pooledEngine);
+        }
+    }
+
+    /**
+     * Evaluates the given script using a compiled script from the engine's cache. Engines not obtained from this
+     * pool evaluate the script directly; as they have no cache, these evaluations are not counted as hits or misses.
+     */
+    public Object eval(ScriptEngine scriptEngine, String script, Bindings bindings) throws ScriptException {
+        PooledEngine pooledEngine = borrowedEngines.get(scriptEngine);
+
+        if (pooledEngine == null) {
+            return scriptEngine.eval(script, bindings);
+        }
+
+        return pooledEngine.getCompiledScript(script).eval(bindings);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public int getEngineCount() {
+        return engineCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "AtlasJanusScriptEnginePool{engines=" + engineCount.get() + ", idle=" + idleEngines.size() +
+               ", hits=" + hitCount.get() + ", misses=" + missCount.get() + ", evictions=" + evictionCount.get() + "}";
+    }
+
+    static GremlinGroovyScriptEngine createEngine() {
+        Set<String> extraImports = new HashSet<String>();
+        extraImports.add(java.util.function.Function.class.getName());
+
+        Set<String> extraStaticImports = new HashSet<String>();
+        extraStaticImports.add(P.class.getName() + ".*");
+        extraStaticImports.add(__.class.getName() + ".*");
+        CompilerCustomizerProvider provider = new DefaultImportCustomizerProvider(extraImports, extraStaticImports);
+
+        return new GremlinGroovyScriptEngine(provider);
+    }
+
+    private static void closeEngine(ScriptEngine scriptEngine) {
+        if (scriptEngine instanceof GremlinGroovyScriptEngine) {
+            try {
+                ((GremlinGroovyScriptEngine) scriptEngine).close();
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+    }
+
+    private class PooledEngine {
+        final GremlinGroovyScriptEngine   engine               = createEngine();
+        final Map<String, CompiledScript> compiledScripts;
+        int                               evictionsSinceCreate = 0;
+
+        PooledEngine() {
+            // an engine is used by one thread at a time, hence no synchronization is needed on the cache
+            compiledScripts = new LinkedHashMap<String, CompiledScript>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledScript> eldest) {
+                    boolean ret = size() > cacheSize;
+
+                    if (ret) {
+                        evictionsSinceCreate++;
+                        evictionCount.incrementAndGet();
+                        TOTAL_EVICTIONS.incrementAndGet();
+                    }
+
+                    return ret;
+                }
+            };
+        }
+
+        CompiledScript getCompiledScript(String script) throws ScriptException {
+            CompiledScript ret = compiledScripts.get(script);
+
+            if (ret == null) {
+                missCount.incrementAndGet();
+                TOTAL_MISSES.incrementAndGet();
+
+                ret = engine.compile(script);
+
+                compiledScripts.put(script, ret);
+            } else {
+                hitCount.incrementAndGet();
+                TOTAL_HITS.incrementAndGet();
+            }
+
+            return ret;
+        }
+    }
+}
@@ -39,6 +39,7 @@ import org.testng.annotations.Test;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -181,6 +182,59 @@ public class AtlasJanusDatabaseTest {
 
     }
 
+    @Test
+    public <V, E> void testPrefetch() {
+
+        AtlasGraph<V, E> graph = (AtlasGraph<V, E>) getGraph();
+        AtlasVertex<V, E> v1 = graph.addVertex();
+        AtlasVertex<V, E> v2 = graph.addVertex();
+        v1.setProperty("name", "Jeff");
+        v2.setProperty("name", "Fred");
+        AtlasEdge<V, E> edge = graph.addEdge(v1, v2, "knows");
+        graph.commit();
+
+        List<AtlasVertex<V, E>> vertices = new ArrayList<>();
+        vertices.add(graph.getVertex(v1.getId().toString()));
+        vertices.add(graph.getVertex(v2.getId().toString()));
+
+        graph.prefetch(vertices, Collections.singleton("knows"));
+
+        assertEquals(vertices.get(0).getProperty("name", String.class), "Jeff");
+        assertEquals(vertices.get(1).getProperty("name", String.class), "Fred");
+        assertEdgesMatch(vertices.get(0).getEdges(AtlasEdgeDirection.OUT, "knows"), edge);
+        assertEdgesMatch(vertices.get(1).getEdges(AtlasEdgeDirection.IN, "knows"), edge);
+
+        // nothing to batch with fewer than two vertices
+        graph.prefetch(Collections.singletonList(vertices.get(0)), Collections.singleton("knows"));
+        graph.prefetch(Collections.<AtlasVertex<V, E>>emptyList(), Collections.<String>emptySet());
+    }
+
+    @Test
+    public <V, E> void testGetVertices() {
+
+        AtlasGraph<V, E> graph = (AtlasGraph<V, E>) getGraph();
+        AtlasVertex<V, E> v1 = graph.addVertex();
+        AtlasVertex<V, E> v2 = graph.addVertex();
+        AtlasVertex<V, E> v3 = graph.addVertex();
+        v1.setProperty("name", "Jeff");
+        v2.setProperty("name", "Fred");
+        v3.setProperty("name", "Bob");
+        graph.commit();
+
+        String removedId = v3.getId().toString();
+        graph.removeVertex(v3);
+        graph.commit();
+
+        // in the order of the ids; ids of removed vertices are skipped
+        List<AtlasVertex<V, E>> vertices = graph.getVertices(Arrays.asList(v2.getId().toString(), removedId, v1.getId().toString()));
+
+        assertEquals(vertices.size(), 2);
+        assertEquals(vertices.get(0).getProperty("name", String.class), "Fred");
+        assertEquals(vertices.get(1).getProperty("name", String.class), "Jeff");
+
+        assertTrue(graph.getVertices(Collections.<String>emptyList()).isEmpty());
+    }
+
     @Test
     public <V, E> void testRemoveEdge() {
 
@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.graphdb.janus;
+
+import org.apache.atlas.utils.AtlasPerfMetrics;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.testng.annotations.Test;
+
+import javax.script.Bindings;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+public class AtlasJanusScriptEnginePoolTest {
+
+    @Test
+    public void testCompiledScriptIsReused() throws Exception {
+        AtlasJanusScriptEnginePool pool   = new AtlasJanusScriptEnginePool(1, 10, 10);
+        GremlinGroovyScriptEngine  engine = pool.borrowEngine();
+
+        assertEquals(pool.eval(engine, "x + 1", bindings(engine, 1)), 2);
+        assertEquals(pool.eval(engine, "x + 1", bindings(engine, 41)), 42);
+        assertEquals(pool.getMissCount(), 1);
+        assertEquals(pool.getHitCount(), 1);
+
+        pool.releaseEngine(engine);
+
+        assertSame(pool.borrowEngine(), engine);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedScriptIsEvicted() throws Exception {
+        AtlasJanusScriptEnginePool pool   = new AtlasJanusScriptEnginePool(1, 2, 10);
+        GremlinGroovyScriptEngine  engine = pool.borrowEngine();
+
+        pool.eval(engine, "x + 1", bindings(engine, 1));
+        pool.eval(engine, "x + 2", bindings(engine, 1));
+        pool.eval(engine, "x + 1", bindings(engine, 1));
+        pool.eval(engine, "x + 3", bindings(engine, 1));
+
+        assertEquals(pool.getEvictionCount(), 1);
+
+        pool.eval(engine, "x + 1", bindings(engine, 1));
+
+        assertEquals(pool.getHitCount(), 2);
+        assertEquals(pool.getMissCount(), 3);
+    }
+
+    @Test
+    public void testEngineIsRecycledAfterCacheTurnover() throws Exception {
+        AtlasJanusScriptEnginePool pool   = new AtlasJanusScriptEnginePool(1, 1, 10);
+        GremlinGroovyScriptEngine  engine = pool.borrowEngine();
+
+        pool.eval(engine, "x + 1", bindings(engine, 1));
+        pool.eval(engine, "x + 2", bindings(engine, 1));
+        pool.releaseEngine(engine);
+
+        assertNotSame(pool.borrowEngine(), engine);
+        assertEquals(pool.getEngineCount(), 1);
+    }
+
+    @Test
+    public void testUnpooledEngineWhenPoolIsExhausted() throws Exception {
+        AtlasJanusScriptEnginePool pool    = new AtlasJanusScriptEnginePool(1, 10, 10);
+        GremlinGroovyScriptEngine  engine1 = pool.borrowEngine();
+        GremlinGroovyScriptEngine  engine2 = pool.borrowEngine();
+
+        assertNotSame(engine1, engine2);
+        assertEquals(pool.getEngineCount(), 1);
+
+        // an un-pooled engine has no cache: its evaluations are neither hits nor misses
+        assertEquals(pool.eval(engine2, "x + 1", bindings(engine2, 1)), 2);
+        assertEquals(pool.getMissCount(), 0);
+        assertEquals(pool.getHitCount(), 0);
+
+        pool.releaseEngine(engine2);
+        pool.releaseEngine(engine1);
+
+        assertSame(pool.borrowEngine(), engine1);
+    }
+
+    @Test
+    public void testCountsAreInPerfMetrics() throws Exception {
+        AtlasJanusScriptEnginePool pool   = new AtlasJanusScriptEnginePool(1, 10, 10);
+        GremlinGroovyScriptEngine  engine = pool.borrowEngine();
+        long                       hits   = AtlasPerfMetrics.getCounters().get(AtlasJanusScriptEnginePool.METRIC_HITS);
+        long                       misses = AtlasPerfMetrics.getCounters().get(AtlasJanusScriptEnginePool.METRIC_MISSES);
+
+        pool.eval(engine, "x + 1", bindings(engine, 1));
+        pool.eval(engine, "x + 1", bindings(engine, 2));
+
+        assertEquals(AtlasPerfMetrics.getCounters().get(AtlasJanusScriptEnginePool.METRIC_HITS).longValue(), hits + 1);
+        assertEquals(AtlasPerfMetrics.getCounters().get(AtlasJanusScriptEnginePool.METRIC_MISSES).longValue(), misses + 1);
+    }
+
+    private Bindings bindings(GremlinGroovyScriptEngine engine, int x) {
+        Bindings ret = engine.createBindings();
+
+        ret.put("x", x);
+
+        return ret;
+    }
+}
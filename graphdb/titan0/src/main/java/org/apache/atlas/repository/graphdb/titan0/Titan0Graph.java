@@ -201,6 +201,27 @@ public class Titan0Graph implements AtlasGraph<Titan0Vertex, Titan0Edge> {
         return GraphDbObjectFactory.createVertex(this, v);
     }
 
+    @Override
+    public List<AtlasVertex<Titan0Vertex, Titan0Edge>> getVertices(List<String> vertexIds) {
+        // not supported in a single lookup; vertices are looked up one at a time
+        List<AtlasVertex<Titan0Vertex, Titan0Edge>> ret = new ArrayList<>(vertexIds.size());
+
+        for (String vertexId : vertexIds) {
+            AtlasVertex<Titan0Vertex, Titan0Edge> vertex = getVertex(vertexId);
+
+            if (vertex != null) {
+                ret.add(vertex);
+            }
+        }
+
+        return ret;
+    }
+
+    @Override
+    public void prefetch(Collection<? extends AtlasVertex<Titan0Vertex, Titan0Edge>> vertices, Set<String> edgeLabels) {
+        // not supported; properties and edges are loaded as they are read
+    }
+
     @Override
     public Iterable<AtlasVertex<Titan0Vertex, Titan0Edge>> getVertices(String key, Object value) {
 
@@ -275,6 +296,19 @@ public class Titan0Graph implements AtlasGraph<Titan0Vertex, Titan0Edge> {
         return convertGremlinScriptResult(isPath, result);
     }
 
+    @Override
+    public Object executeGremlinScript(String query, Map<String, Object> bindings, boolean isPath) throws AtlasBaseException {
+        ScriptEngine engine = getGremlinScriptEngine();
+
+        try {
+            return executeGremlinScript(engine, bindings, query, isPath);
+        } catch (ScriptException e) {
+            throw new AtlasBaseException(AtlasErrorCode.GREMLIN_SCRIPT_EXECUTION_FAILED, e, query);
+        } finally {
+            releaseGremlinScriptEngine(engine);
+        }
+    }
+
     private Object convertGremlinScriptResult(boolean isPath, Object result) {
         if (isPath) {
             List<Object> path = convertPathQueryResultToList(result);
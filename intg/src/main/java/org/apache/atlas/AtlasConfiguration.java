@@ -40,7 +40,11 @@ public enum AtlasConfiguration {
 
     //search configuration
     SEARCH_MAX_LIMIT("atlas.search.maxlimit", 10000),
-    SEARCH_DEFAULT_LIMIT("atlas.search.defaultlimit", 100);
+    SEARCH_DEFAULT_LIMIT("atlas.search.defaultlimit", 100),
+
+    //streamed responses: number of entities retrieved and written at a time
+    REST_STREAM_PAGE_SIZE("atlas.rest.stream.page.size", 100),
+    REST_STREAM_DSL_MAX_LIMIT("atlas.rest.stream.dsl.maxlimit", 100000);
 
     private static final Configuration APPLICATION_PROPERTIES;
 
@@ -52,6 +52,7 @@ public class AtlasSearchResult implements Serializable {
     private AttributeSearchResult          attributes;
     private List<AtlasFullTextResult>      fullTextResult;
     private Map<String, AtlasEntityHeader> referredEntities;
+    private String                         nextCursor;
 
     public AtlasSearchResult() {}
 
@@ -126,8 +127,15 @@ public class AtlasSearchResult implements Serializable {
         this.referredEntities = referredEntities;
     }
 
+    /**
+     * @return cursor to be set in the search parameters to get the next page of a basic search; null if there are no more results
+     */
+    public String getNextCursor() { return nextCursor; }
+
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
     @Override
-    public int hashCode() { return Objects.hash(queryType, searchParameters, queryText, type, classification, entities, attributes, fullTextResult, referredEntities); }
+    public int hashCode() { return Objects.hash(queryType, searchParameters, queryText, type, classification, entities, attributes, fullTextResult, referredEntities, nextCursor); }
 
     @Override
     public boolean equals(Object o) {
@@ -142,7 +150,8 @@ public class AtlasSearchResult implements Serializable {
                Objects.equals(entities, that.entities) &&
                Objects.equals(attributes, that.attributes) &&
                Objects.equals(fullTextResult, that.fullTextResult) &&
-               Objects.equals(referredEntities, that.referredEntities);
+               Objects.equals(referredEntities, that.referredEntities) &&
+               Objects.equals(nextCursor, that.nextCursor);
     }
 
     public void addEntity(AtlasEntityHeader newEntity) {
@@ -184,6 +193,7 @@ public class AtlasSearchResult implements Serializable {
                 ", attributes=" + attributes +
                 ", fullTextResult=" + fullTextResult +
                 ", referredEntities=" + referredEntities +
+                ", nextCursor=" + nextCursor +
                 '}';
     }
 
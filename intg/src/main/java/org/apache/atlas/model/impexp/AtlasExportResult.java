@@ -61,6 +61,7 @@ public class AtlasExportResult implements Serializable {
     private Map<String, Integer> metrics;
     private AtlasExportData      data;
     private OperationStatus      operationStatus;
+    private long                 changeMarker;
 
 
     public AtlasExportResult() {
@@ -143,6 +144,20 @@ public class AtlasExportResult implements Serializable {
         this.operationStatus = operationStatus;
     }
 
+    /**
+     * @return time at which the export started, less atlas.export.change.marker.safety.window.ms - so that changes
+     * committed around the start of the export are exported again, rather than missed. To export only entities
+     * changed since this export, specify this value in option 'changedSince' of the next export request.
+     * Incremental exports cannot carry deletes: entities deleted since are not removed from the importing cluster.
+     */
+    public long getChangeMarker() {
+        return changeMarker;
+    }
+
+    public void setChangeMarker(long changeMarker) {
+        this.changeMarker = changeMarker;
+    }
+
 
     public void incrementMeticsCounter(String key) {
         incrementMeticsCounter(key, 1);
@@ -171,6 +186,7 @@ public class AtlasExportResult implements Serializable {
 
         sb.append(", data='").append(data).append("'");
         sb.append(", operationStatus='").append(operationStatus).append("'");
+        sb.append(", changeMarker='").append(changeMarker).append("'");
         sb.append("}");
 
         return sb;
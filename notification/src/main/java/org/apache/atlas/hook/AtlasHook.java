@@ -52,7 +52,11 @@ public abstract class AtlasHook {
     private static boolean logFailedMessages;
     private static FailedMessagesLogger failedMessagesLogger;
     private static int notificationRetryInterval;
+    private static boolean notifyAsynchronously;
     public static final String ATLAS_NOTIFICATION_RETRY_INTERVAL = "atlas.notification.hook.retry.interval";
+    public static final String ATLAS_NOTIFICATION_ASYNCHRONOUS = "atlas.notification.hook.asynchronous";
+
+    private static final String FLUSH_THREAD_NAME = "atlas-hook-notification-flush";
 
     public static final String ATLAS_NOTIFICATION_FAILED_MESSAGES_FILENAME_KEY =
             "atlas.notification.failed.messages.filename";
@@ -82,6 +86,7 @@ public abstract class AtlasHook {
         }
 
         notificationRetryInterval = atlasProperties.getInt(ATLAS_NOTIFICATION_RETRY_INTERVAL, 1000);
+        notifyAsynchronously = atlasProperties.getBoolean(ATLAS_NOTIFICATION_ASYNCHRONOUS, false);
         notificationInterface = NotificationProvider.get();
 
         String currentUser = "";
@@ -94,6 +99,20 @@ public abstract class AtlasHook {
 
         notificationInterface.setCurrentUser(currentUser);
 
+        if (notifyAsynchronously) {
+            // messages sent asynchronously might not have been delivered yet when a short-lived process - like Hive CLI - exits
+            Runtime.getRuntime().addShutdownHook(new Thread(FLUSH_THREAD_NAME) {
+                @Override
+                public void run() {
+                    try {
+                        notificationInterface.close();
+                    } catch (Exception excp) {
+                        LOG.error("Failed to flush pending notifications on shutdown", excp);
+                    }
+                }
+            });
+        }
+
         LOG.info("Created Atlas Hook");
     }
 
@@ -115,7 +134,41 @@ public abstract class AtlasHook {
      * @param maxRetries maximum number of retries while sending message to messaging system
      */
     public static void notifyEntities(List<HookNotification> messages, int maxRetries) {
-        notifyEntitiesInternal(messages, maxRetries, notificationInterface, logFailedMessages, failedMessagesLogger);
+        if (notifyAsynchronously) {
+            notifyEntitiesAsync(messages, notificationInterface, logFailedMessages, failedMessagesLogger);
+        } else {
+            notifyEntitiesInternal(messages, maxRetries, notificationInterface, logFailedMessages, failedMessagesLogger);
+        }
+    }
+
+    /**
+     * Sends the messages without waiting for the messaging system to acknowledge them. Retries are left to the
+     * producer (see producer configuration 'retries'); messages that could not be sent are written to the failed
+     * messages log, if enabled.
+     */
+    @VisibleForTesting
+    static void notifyEntitiesAsync(List<HookNotification> messages, NotificationInterface notificationInterface,
+                                    final boolean shouldLogFailedMessages, final FailedMessagesLogger logger) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            notificationInterface.sendAsync(NotificationInterface.NotificationType.HOOK, messages, new NotificationInterface.SendCallback() {
+                @Override
+                public void onFailure(List<String> failedMessages, Exception excp) {
+                    LOG.error("Failed to notify atlas of {} message(s)", failedMessages.size(), excp);
+
+                    if (shouldLogFailedMessages && logger != null) {
+                        for (String msg : failedMessages) {
+                            logger.log(msg);
+                        }
+                    }
+                }
+            });
+        } catch (Exception e) {
+            LOG.error("Failed to notify atlas for entity {}", messages, e);
+        }
     }
 
     @VisibleForTesting
@@ -18,6 +18,7 @@
 package org.apache.atlas.kafka;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.SettableFuture;
 import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.notification.AbstractNotification;
@@ -28,6 +29,7 @@ import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationConverter;
 import org.apache.commons.lang.StringUtils;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
@@ -42,6 +44,7 @@ import org.springframework.stereotype.Component;
 import javax.inject.Inject;
 import java.util.*;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 /**
  * Kafka specific access point to the Atlas notification framework.
@@ -56,6 +59,9 @@ public class KafkaNotification extends AbstractNotification implements Service {
     public    static final String ATLAS_ENTITIES_TOPIC       = "ATLAS_ENTITIES";
     protected static final String CONSUMER_GROUP_ID_PROPERTY = "group.id";
 
+    public static final String SEND_MAX_INFLIGHT_MESSAGES_PROPERTY = "atlas.notification.send.max.inflight.messages";
+    public static final int    DEFAULT_SEND_MAX_INFLIGHT_MESSAGES  = 1000;
+
     private static final Map<NotificationType, String> TOPIC_MAP = new HashMap<NotificationType, String>() {
         {
             put(NotificationType.HOOK, ATLAS_HOOK_TOPIC);
@@ -65,6 +71,7 @@ public class KafkaNotification extends AbstractNotification implements Service {
 
     private final Properties    properties;
     private final Long          pollTimeOutMs;
+    private final Semaphore     inflightMessages;
     private       KafkaConsumer consumer;
     private       KafkaProducer producer;
 
@@ -101,6 +108,8 @@ public class KafkaNotification extends AbstractNotification implements Service {
         properties.put("enable.auto.commit", kafkaConf.getBoolean("enable.auto.commit", oldApiCommitEnableFlag));
         properties.put("session.timeout.ms", kafkaConf.getString("session.timeout.ms", "30000"));
 
+        inflightMessages = new Semaphore(applicationProperties.getInt(SEND_MAX_INFLIGHT_MESSAGES_PROPERTY, DEFAULT_SEND_MAX_INFLIGHT_MESSAGES));
+
         LOG.info("<== KafkaNotification()");
     }
 
@@ -110,8 +119,9 @@ public class KafkaNotification extends AbstractNotification implements Service {
 
         LOG.info("==> KafkaNotification()");
 
-        this.properties    = properties;
-        this.pollTimeOutMs = 1000L;
+        this.properties       = properties;
+        this.pollTimeOutMs    = 1000L;
+        this.inflightMessages = new Semaphore(DEFAULT_SEND_MAX_INFLIGHT_MESSAGES);
 
         LOG.info("<== KafkaNotification()");
     }
@@ -163,6 +173,8 @@ public class KafkaNotification extends AbstractNotification implements Service {
         LOG.info("==> KafkaNotification.close()");
 
         if (producer != null) {
+            // deliver messages sent with sendAsync() before closing
+            producer.flush();
             producer.close();
 
             producer = null;
@@ -175,23 +187,48 @@ public class KafkaNotification extends AbstractNotification implements Service {
     // ----- AbstractNotification --------------------------------------------
     @Override
     public void sendInternal(NotificationType type, List<String> messages) throws NotificationException {
+        sendInternal(type, messages, null);
+    }
+
+    @Override
+    public void sendInternal(NotificationType type, List<String> messages, List<String> keys) throws NotificationException {
         if (producer == null) {
             createProducer();
         }
 
-        sendInternalToProducer(producer, type, messages);
+        sendInternalToProducer(producer, type, messages, keys);
+    }
+
+    @Override
+    protected Future<Void> sendInternalAsync(NotificationType type, List<String> messages, List<String> keys, SendCallback callback) {
+        if (producer == null) {
+            createProducer();
+        }
+
+        return sendInternalToProducerAsync(producer, type, messages, keys, callback);
     }
 
     @VisibleForTesting
     void sendInternalToProducer(Producer p, NotificationType type, List<String> messages) throws NotificationException {
+        sendInternalToProducer(p, type, messages, null);
+    }
+
+    /**
+     * Messages having a key are sent to the partition of the key, which keeps the messages about an entity in order
+     * irrespective of the number of partitions and consumers. Messages without a key are spread across partitions.
+     */
+    @VisibleForTesting
+    void sendInternalToProducer(Producer p, NotificationType type, List<String> messages, List<String> keys) throws NotificationException {
         String               topic           = TOPIC_MAP.get(type);
         List<MessageContext> messageContexts = new ArrayList<>();
 
-        for (String message : messages) {
-            ProducerRecord record = new ProducerRecord(topic, message);
+        for (int i = 0; i < messages.size(); i++) {
+            String         message = messages.get(i);
+            String         key     = keys != null && i < keys.size() ? keys.get(i) : null;
+            ProducerRecord record  = key != null ? new ProducerRecord(topic, key, message) : new ProducerRecord(topic, message);
 
             if (LOG.isDebugEnabled()) {
-                LOG.debug("Sending message for topic {}: {}", topic, message);
+                LOG.debug("Sending message for topic {}, key {}: {}", topic, key, message);
             }
 
             Future future = p.send(record);
@@ -222,6 +259,54 @@ public class KafkaNotification extends AbstractNotification implements Service {
     }
 
 
+    /**
+     * Sends the messages without waiting for the acknowledgements. At most SEND_MAX_INFLIGHT_MESSAGES_PROPERTY
+     * messages are left unacknowledged; the caller is blocked when this limit is reached.
+     */
+    @VisibleForTesting
+    Future<Void> sendInternalToProducerAsync(Producer p, NotificationType type, List<String> messages, List<String> keys, SendCallback callback) {
+        String           topic   = TOPIC_MAP.get(type);
+        AsyncSendContext context = new AsyncSendContext(messages.size(), callback);
+
+        for (int i = 0; i < messages.size(); i++) {
+            final String message = messages.get(i);
+            String       key     = keys != null && i < keys.size() ? keys.get(i) : null;
+
+            try {
+                inflightMessages.acquire();
+            } catch (InterruptedException excp) {
+                Thread.currentThread().interrupt();
+
+                context.onCompletion(message, excp);
+
+                continue;
+            }
+
+            try {
+                ProducerRecord record = key != null ? new ProducerRecord(topic, key, message) : new ProducerRecord(topic, message);
+
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Sending message asynchronously for topic {}, key {}: {}", topic, key, message);
+                }
+
+                p.send(record, new Callback() {
+                    @Override
+                    public void onCompletion(RecordMetadata metadata, Exception excp) {
+                        inflightMessages.release();
+
+                        context.onCompletion(message, excp);
+                    }
+                });
+            } catch (Exception excp) {
+                inflightMessages.release();
+
+                context.onCompletion(message, excp);
+            }
+        }
+
+        return context.getFuture();
+    }
+
     public KafkaConsumer getKafkaConsumer(Properties consumerProperties, NotificationType type, boolean autoCommitEnabled) {
         if(this.consumer == null) {
             try {
@@ -268,6 +353,62 @@ public class KafkaNotification extends AbstractNotification implements Service {
         LOG.info("<== KafkaNotification.createProducer()");
     }
 
+    /**
+     * Tracks acknowledgements of messages sent in a sendAsync() call; completes the future once all are acknowledged.
+     */
+    private static class AsyncSendContext {
+        private final SettableFuture<Void> future         = SettableFuture.create();
+        private final List<String>         failedMessages = new ArrayList<>();
+        private final SendCallback         callback;
+        private       int                  pendingCount;
+        private       Exception            lastFailureException;
+
+        AsyncSendContext(int messageCount, SendCallback callback) {
+            this.pendingCount = messageCount;
+            this.callback     = callback;
+
+            if (messageCount == 0) {
+                future.set(null);
+            }
+        }
+
+        SettableFuture<Void> getFuture() {
+            return future;
+        }
+
+        void onCompletion(String message, Exception excp) {
+            synchronized (this) {
+                if (excp != null) {
+                    failedMessages.add(message);
+
+                    lastFailureException = excp;
+                }
+
+                pendingCount--;
+
+                if (pendingCount > 0) {
+                    return;
+                }
+            }
+
+            if (lastFailureException == null) {
+                future.set(null);
+            } else {
+                LOG.error("Failed to send {} notification message(s)", failedMessages.size(), lastFailureException);
+
+                if (callback != null) {
+                    try {
+                        callback.onFailure(failedMessages, lastFailureException);
+                    } catch (Exception e) {
+                        LOG.warn("Notification send callback failed", e);
+                    }
+                }
+
+                future.setException(new NotificationException(lastFailureException, failedMessages));
+            }
+        }
+    }
+
     private class MessageContext {
         private final Future<RecordMetadata> future;
         private final String                 message;
@@ -18,6 +18,7 @@
 package org.apache.atlas.notification;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.SettableFuture;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.model.notification.AtlasNotificationBaseMessage;
 import org.apache.atlas.model.notification.AtlasNotificationMessage;
@@ -36,6 +37,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.atlas.model.notification.AtlasNotificationBaseMessage.MESSAGE_COMPRESSION_ENABLED;
@@ -81,12 +83,21 @@ public abstract class AbstractNotification implements NotificationInterface {
     @Override
     public <T> void send(NotificationType type, List<T> messages) throws NotificationException {
         List<String> strMessages = new ArrayList<>(messages.size());
+        List<String> msgKeys     = new ArrayList<>(messages.size());
 
-        for (int index = 0; index < messages.size(); index++) {
-            createNotificationMessages(messages.get(index), strMessages);
-        }
+        createNotificationMessages(messages, strMessages, msgKeys);
 
-        sendInternal(type, strMessages);
+        sendInternal(type, strMessages, msgKeys);
+    }
+
+    @Override
+    public <T> Future<Void> sendAsync(NotificationType type, List<T> messages, SendCallback callback) {
+        List<String> strMessages = new ArrayList<>(messages.size());
+        List<String> msgKeys     = new ArrayList<>(messages.size());
+
+        createNotificationMessages(messages, strMessages, msgKeys);
+
+        return sendInternalAsync(type, strMessages, msgKeys, callback);
     }
 
     @Override
@@ -110,6 +121,62 @@ public abstract class AbstractNotification implements NotificationInterface {
      */
     protected abstract void sendInternal(NotificationType type, List<String> messages) throws NotificationException;
 
+    /**
+     * Send the given messages, along with the key of each message. Messages having the same key are expected to be
+     * delivered in the order they were sent. Implementations that don't support keys can ignore them.
+     *
+     * @param type      the message type
+     * @param messages  the array of messages to send
+     * @param keys      key of each message; null elements for messages without a key
+     *
+     * @throws NotificationException if an error occurs while sending
+     */
+    protected void sendInternal(NotificationType type, List<String> messages, List<String> keys) throws NotificationException {
+        sendInternal(type, messages);
+    }
+
+    /**
+     * Send the given messages without waiting for them to be acknowledged. This implementation sends synchronously;
+     * implementations backed by an asynchronous producer should override.
+     *
+     * @param type      the message type
+     * @param messages  the array of messages to send
+     * @param keys      key of each message; null elements for messages without a key
+     * @param callback  callback to be notified of messages that could not be sent; can be null
+     *
+     * @return handle that completes once all messages are sent
+     */
+    protected Future<Void> sendInternalAsync(NotificationType type, List<String> messages, List<String> keys, SendCallback callback) {
+        SettableFuture<Void> ret = SettableFuture.create();
+
+        try {
+            sendInternal(type, messages, keys);
+
+            ret.set(null);
+        } catch (NotificationException excp) {
+            if (callback != null) {
+                callback.onFailure(excp.getFailedMessages() != null ? excp.getFailedMessages() : messages, excp);
+            }
+
+            ret.setException(excp);
+        }
+
+        return ret;
+    }
+
+    private <T> void createNotificationMessages(List<T> messages, List<String> strMessages, List<String> msgKeys) {
+        for (T message : messages) {
+            String msgKey = NotificationMessageKeys.getKey(message);
+
+            createNotificationMessages(message, strMessages);
+
+            // all splits of a message share its key, so that they are delivered in order
+            while (msgKeys.size() < strMessages.size()) {
+                msgKeys.add(msgKey);
+            }
+        }
+    }
+
 
     // ----- utility methods -------------------------------------------------
 
@@ -21,6 +21,7 @@ import org.apache.atlas.notification.entity.EntityMessageDeserializer;
 import org.apache.atlas.notification.hook.HookMessageDeserializer;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * Interface to the Atlas notification framework.
@@ -59,6 +60,17 @@ public interface NotificationInterface {
         }
     }
 
+    /**
+     * Callback to be notified of messages that could not be sent by {@link #sendAsync(NotificationType, List, SendCallback)}.
+     */
+    interface SendCallback {
+        /**
+         * @param failedMessages  serialized messages that could not be sent
+         * @param excp            cause of the failure
+         */
+        void onFailure(List<String> failedMessages, Exception excp);
+    }
+
     /**
      *
      * @param user Name of the user under which the processes is running
@@ -99,7 +111,22 @@ public interface NotificationInterface {
     <T> void send(NotificationType type, List<T> messages) throws NotificationException;
 
     /**
-     * Shutdown any notification producers and consumers associated with this interface instance.
+     * Send the given messages, without waiting for them to be acknowledged. The call blocks only while the number of
+     * unacknowledged messages exceeds the configured in-flight limit.
+     *
+     * @param type      the message type
+     * @param messages  the list of messages to send
+     * @param callback  callback to be notified of messages that could not be sent; can be null
+     * @param <T>       the message type
+     *
+     * @return handle that completes once all messages are acknowledged; fails with NotificationException if any
+     *         message could not be sent
+     */
+    <T> Future<Void> sendAsync(NotificationType type, List<T> messages, SendCallback callback);
+
+    /**
+     * Shutdown any notification producers and consumers associated with this interface instance. Messages sent
+     * earlier with sendAsync() are flushed before the producer is closed.
      */
     void close();
 }
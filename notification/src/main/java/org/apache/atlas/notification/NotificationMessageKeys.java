@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.AtlasClient;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.v1.model.instance.Referenceable;
+import org.apache.atlas.v1.model.instance.Struct;
+import org.apache.atlas.v1.model.notification.EntityNotificationV1;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityDeleteRequest;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityPartialUpdateRequest;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Derives the key of the entity a notification message is about. Messages with the same key must be processed in
+ * the order they were sent; messages with different keys can be processed independently.
+ */
+public final class NotificationMessageKeys {
+    private NotificationMessageKeys() { }
+
+    /**
+     * Returns the key of the given hook or entity notification message, or null for other messages.
+     */
+    public static String getKey(Object message) {
+        String ret = null;
+
+        if (message instanceof HookNotification) {
+            ret = getKey((HookNotification) message);
+        } else if (message instanceof EntityNotificationV1) {
+            ret = getKey((EntityNotificationV1) message);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns guid of the entity the entity notification is about; typeName:qualifiedName when guid is not available.
+     */
+    public static String getKey(EntityNotificationV1 message) {
+        Referenceable entity = message.getEntity();
+        String        ret    = null;
+
+        if (entity != null) {
+            ret = entity.getId() != null ? entity.getId()._getId() : null;
+
+            if (ret == null) {
+                ret = getKey(entity);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns typeName:uniqueAttributeValue of the entity the hook message is about, or null if the message is not
+     * about an entity. Hooks add referred entities (database, inputs/outputs) ahead of the entity being notified,
+     * hence the last entity of create/update messages is used.
+     */
+    public static String getKey(HookNotification message) {
+        String ret = null;
+
+        if (message instanceof EntityCreateRequest) { // also EntityUpdateRequest
+            List<Referenceable> entities = ((EntityCreateRequest) message).getEntities();
+
+            if (entities != null && !entities.isEmpty()) {
+                ret = getKey(entities.get(entities.size() - 1));
+            }
+        } else if (message instanceof EntityPartialUpdateRequest) {
+            EntityPartialUpdateRequest request = (EntityPartialUpdateRequest) message;
+
+            ret = getKey(request.getTypeName(), request.getAttributeValue());
+        } else if (message instanceof EntityDeleteRequest) {
+            EntityDeleteRequest request = (EntityDeleteRequest) message;
+
+            ret = getKey(request.getTypeName(), request.getAttributeValue());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns typeName:uniqueAttributeValue of every entity the hook message creates, updates, deletes or refers to -
+     * including entities in attribute values, like the database of a table or the inputs of a process. Messages that
+     * share any of these keys must be processed in the order they were sent. Returns an empty set if the message is
+     * not about entities.
+     */
+    public static Set<String> getEntityKeys(HookNotification message) {
+        Set<String> ret = new HashSet<>();
+
+        if (message instanceof EntityCreateRequest) { // also EntityUpdateRequest
+            addEntityKeys(((EntityCreateRequest) message).getEntities(), ret);
+        } else if (message instanceof EntityPartialUpdateRequest) {
+            EntityPartialUpdateRequest request = (EntityPartialUpdateRequest) message;
+
+            ret.add(getKey(request.getTypeName(), request.getAttributeValue()));
+
+            addEntityKeys(request.getEntity(), ret);
+        } else if (message instanceof EntityDeleteRequest) {
+            EntityDeleteRequest request = (EntityDeleteRequest) message;
+
+            ret.add(getKey(request.getTypeName(), request.getAttributeValue()));
+        }
+
+        return ret;
+    }
+
+    // references by guid (Id) are not keyed, as they can't be matched with references by unique attribute
+    private static void addEntityKeys(Object value, Set<String> keys) {
+        if (value instanceof Struct) { // also Referenceable
+            Struct struct = (Struct) value;
+
+            if (struct instanceof Referenceable) {
+                keys.add(getKey((Referenceable) struct));
+            }
+
+            if (struct.getValues() != null) {
+                addEntityKeys(struct.getValues().values(), keys);
+            }
+        } else if (value instanceof Map) {
+            Map map = (Map) value;
+
+            if (Referenceable.JSON_CLASS_REFERENCE.equals(map.get("jsonClass"))) {
+                addEntityKeys(new Referenceable(map), keys);
+            } else {
+                addEntityKeys(map.values(), keys);
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection) value) {
+                addEntityKeys(element, keys);
+            }
+        }
+    }
+
+    private static String getKey(Referenceable entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        return getKey(entity.getTypeName(), entity.get(AtlasClient.QUALIFIED_NAME));
+    }
+
+    private static String getKey(String typeName, Object uniqueAttributeValue) {
+        return uniqueAttributeValue != null ? typeName + ":" + uniqueAttributeValue : typeName;
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.atlas.model.notification.HookNotification;
 import org.apache.atlas.notification.NotificationException;
 import org.apache.atlas.notification.NotificationInterface;
 import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.testng.annotations.BeforeMethod;
@@ -31,6 +32,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -121,6 +123,22 @@ public class AtlasHookTest {
         verify(failedMessagesLogger, times(1)).log("test message2");
     }
 
+    @Test
+    public void testFailedMessagesAreLoggedOnAsyncSendFailure() {
+        List<HookNotification> hookNotifications = Arrays.<HookNotification>asList(new EntityCreateRequest("user"));
+
+        AtlasHook.notifyEntitiesAsync(hookNotifications, notificationInterface, true, failedMessagesLogger);
+
+        ArgumentCaptor<NotificationInterface.SendCallback> callback = ArgumentCaptor.forClass(NotificationInterface.SendCallback.class);
+
+        verify(notificationInterface).sendAsync(eq(NotificationInterface.NotificationType.HOOK), eq(hookNotifications), callback.capture());
+
+        callback.getValue().onFailure(Arrays.asList("test message1", "test message2"), new Exception());
+
+        verify(failedMessagesLogger, times(1)).log("test message1");
+        verify(failedMessagesLogger, times(1)).log("test message2");
+    }
+
     @Test
     public void testFailedMessageIsNotLoggedIfNotANotificationException() throws Exception {
         List<HookNotification> hookNotifications = new ArrayList<>();
@@ -20,10 +20,12 @@ package org.apache.atlas.kafka;
 import org.apache.atlas.notification.NotificationConsumer;
 import org.apache.atlas.notification.NotificationException;
 import org.apache.atlas.notification.NotificationInterface;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.TopicPartition;
+import org.mockito.ArgumentCaptor;
 import org.testng.annotations.Test;
 import java.util.Arrays;
 import java.util.ArrayList;
@@ -34,10 +36,13 @@ import java.util.Properties;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
@@ -87,6 +92,68 @@ public class KafkaNotificationMockTest {
         verify(producer).send(expectedRecord);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldSendKeyedMessagesWithKey() throws NotificationException,
+            ExecutionException, InterruptedException {
+        Properties configProperties = mock(Properties.class);
+        KafkaNotification kafkaNotification = new KafkaNotification(configProperties);
+
+        Producer producer = mock(Producer.class);
+        String topicName = kafkaNotification.getTopicName(NotificationInterface.NotificationType.HOOK);
+        String message1 = "This is a test message1";
+        String message2 = "This is a test message2";
+        String key1 = "hive_table:default.t1@cl1";
+        Future returnValue = mock(Future.class);
+        when(returnValue.get()).thenReturn(new RecordMetadata(new TopicPartition(topicName, 0), 0, 0));
+        ProducerRecord expectedRecord1 = new ProducerRecord(topicName, key1, message1);
+        ProducerRecord expectedRecord2 = new ProducerRecord(topicName, message2);
+        when(producer.send(expectedRecord1)).thenReturn(returnValue);
+        when(producer.send(expectedRecord2)).thenReturn(returnValue);
+
+        kafkaNotification.sendInternalToProducer(producer, NotificationInterface.NotificationType.HOOK,
+                Arrays.asList(message1, message2), Arrays.asList(key1, null));
+
+        verify(producer).send(expectedRecord1);
+        verify(producer).send(expectedRecord2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldCompleteAsyncSendOnAcknowledgement() throws Exception {
+        Properties configProperties = mock(Properties.class);
+        KafkaNotification kafkaNotification = new KafkaNotification(configProperties);
+
+        Producer producer = mock(Producer.class);
+        String topicName = kafkaNotification.getTopicName(NotificationInterface.NotificationType.HOOK);
+        String message1 = "This is a test message1";
+        String message2 = "This is a test message2";
+        NotificationInterface.SendCallback sendCallback = mock(NotificationInterface.SendCallback.class);
+
+        Future<Void> future = kafkaNotification.sendInternalToProducerAsync(producer, NotificationInterface.NotificationType.HOOK,
+                Arrays.asList(message1, message2), null, sendCallback);
+
+        ArgumentCaptor<Callback> callbacks = ArgumentCaptor.forClass(Callback.class);
+        verify(producer).send(eq(new ProducerRecord(topicName, message1)), callbacks.capture());
+        verify(producer).send(eq(new ProducerRecord(topicName, message2)), callbacks.capture());
+
+        assertFalse(future.isDone());
+
+        callbacks.getAllValues().get(0).onCompletion(new RecordMetadata(new TopicPartition(topicName, 0), 0, 0), null);
+        callbacks.getAllValues().get(1).onCompletion(null, new RuntimeException("Simulating exception"));
+
+        assertTrue(future.isDone());
+        verify(sendCallback).onFailure(eq(Arrays.asList(message2)), any(Exception.class));
+
+        try {
+            future.get();
+            fail("Should have thrown ExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NotificationException);
+            assertEquals(((NotificationException) e.getCause()).getFailedMessages(), Arrays.asList(message2));
+        }
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void shouldThrowExceptionIfProducerFails() throws NotificationException,
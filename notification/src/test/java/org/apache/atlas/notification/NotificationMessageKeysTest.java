@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.v1.model.instance.Referenceable;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityDeleteRequest;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityPartialUpdateRequest;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityUpdateRequest;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.TypeRequest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+public class NotificationMessageKeysTest {
+    @Test
+    public void testKeyIsSameForMessagesOnSameEntity() {
+        Referenceable db     = entity("hive_db", "default@cl1");
+        Referenceable table  = entity("hive_table", "default.t1@cl1");
+        Referenceable table2 = entity("hive_table", "default.t2@cl1");
+
+        String createKey = NotificationMessageKeys.getKey(new EntityCreateRequest("user", db, table));
+        String updateKey = NotificationMessageKeys.getKey(new EntityUpdateRequest("user", db, table));
+        String deleteKey = NotificationMessageKeys.getKey(new EntityDeleteRequest("user", "hive_table", "qualifiedName", "default.t1@cl1"));
+        String otherKey  = NotificationMessageKeys.getKey(new EntityCreateRequest("user", db, table2));
+
+        Assert.assertEquals(createKey, "hive_table:default.t1@cl1");
+        Assert.assertEquals(updateKey, createKey);
+        Assert.assertEquals(deleteKey, createKey);
+        Assert.assertNotEquals(otherKey, createKey);
+    }
+
+    @Test
+    public void testKeyForPartialUpdate() {
+        String key = NotificationMessageKeys.getKey(new EntityPartialUpdateRequest("user", "hive_db", "qualifiedName", "default@cl1", entity("hive_db", "default@cl1")));
+
+        Assert.assertEquals(key, "hive_db:default@cl1");
+    }
+
+    @Test
+    public void testKeyWithoutUniqueAttribute() {
+        Referenceable entity = new Referenceable("hdfs_path", Collections.<String, Object>emptyMap());
+
+        Assert.assertEquals(NotificationMessageKeys.getKey(new EntityCreateRequest("user", entity)), "hdfs_path");
+        Assert.assertNull(NotificationMessageKeys.getKey(new TypeRequest()));
+    }
+
+    @Test
+    public void testEntityKeysIncludeReferredEntities() {
+        Referenceable db      = entity("hive_db", "default@cl1");
+        Referenceable table   = entity("hive_table", "default.t1@cl1");
+        Referenceable process = entity("hive_process", "p1@cl1");
+
+        table.set("db", db);
+        process.set("inputs", Collections.singletonList(entity("hive_table", "default.t1@cl1")));
+        process.set("outputs", Collections.singletonList(entity("hive_table", "default.t2@cl1")));
+
+        Assert.assertEquals(NotificationMessageKeys.getEntityKeys(new EntityCreateRequest("user", table)),
+                            new HashSet<>(Arrays.asList("hive_db:default@cl1", "hive_table:default.t1@cl1")));
+        Assert.assertEquals(NotificationMessageKeys.getEntityKeys(new EntityCreateRequest("user", process)),
+                            new HashSet<>(Arrays.asList("hive_process:p1@cl1", "hive_table:default.t1@cl1", "hive_table:default.t2@cl1")));
+        Assert.assertEquals(NotificationMessageKeys.getEntityKeys(new EntityDeleteRequest("user", "hive_db", "qualifiedName", "default@cl1")),
+                            Collections.singleton("hive_db:default@cl1"));
+        Assert.assertTrue(NotificationMessageKeys.getEntityKeys(new TypeRequest()).isEmpty());
+    }
+
+    @Test
+    public void testEntityKeysOfNotNormalizedReferences() {
+        Map<String, Object> db       = new HashMap<>();
+        Map<String, Object> dbValues = new HashMap<>();
+        Referenceable       table    = entity("hive_table", "default.t1@cl1");
+
+        dbValues.put("qualifiedName", "default@cl1");
+
+        db.put("jsonClass", Referenceable.JSON_CLASS_REFERENCE);
+        db.put("typeName", "hive_db");
+        db.put("values", dbValues);
+
+        table.set("db", db);
+
+        Assert.assertTrue(NotificationMessageKeys.getEntityKeys(new EntityCreateRequest("user", table)).contains("hive_db:default@cl1"));
+    }
+
+    private Referenceable entity(String typeName, String qualifiedName) {
+        Map<String, Object> values = new HashMap<>();
+
+        values.put("qualifiedName", qualifiedName);
+
+        return new Referenceable(typeName, values);
+    }
+}
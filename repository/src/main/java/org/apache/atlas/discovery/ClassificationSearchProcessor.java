@@ -21,11 +21,11 @@ import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graph.GraphHelper;
 import org.apache.atlas.repository.graphdb.AtlasEdge;
 import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
-import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
 import org.apache.atlas.type.AtlasClassificationType;
@@ -38,8 +38,6 @@ import org.apache.commons.collections.PredicateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.script.ScriptEngine;
-import javax.script.ScriptException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -56,7 +54,7 @@ public class ClassificationSearchProcessor extends SearchProcessor {
     private static final Logger LOG      = LoggerFactory.getLogger(ClassificationSearchProcessor.class);
     private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("ClassificationSearchProcessor");
 
-    private final AtlasIndexQuery indexQuery;
+    private final String          indexQueryString;
     private final AtlasGraphQuery tagGraphQueryWithAttributes;
     private final AtlasGraphQuery entityGraphQueryTraitNames;
     private       Predicate       entityPredicateTraitNames;
@@ -64,6 +62,10 @@ public class ClassificationSearchProcessor extends SearchProcessor {
     private final String              gremlinTagFilterQuery;
     private final Map<String, Object> gremlinQueryBindings;
 
+    // types of classifications searched; an entity is found once for each of its classifications of these types
+    private final Set<String> typeAndSubTypes;
+    private final boolean     isMatchAll;
+
 
     public ClassificationSearchProcessor(SearchContext context) {
         super(context);
@@ -73,7 +75,6 @@ public class ClassificationSearchProcessor extends SearchProcessor {
         final Set<String>             indexAttributes    = new HashSet<>();
         final Set<String>             graphAttributes    = new HashSet<>();
         final Set<String>             allAttributes      = new HashSet<>();
-        final Set<String>             typeAndSubTypes;
         final String                  typeAndSubTypesQryStr;
 
         if (context.getSearchParameters().getIncludeSubClassifications()) {
@@ -84,6 +85,8 @@ public class ClassificationSearchProcessor extends SearchProcessor {
             typeAndSubTypesQryStr = classificationType.getTypeQryStr();
         }
 
+        isMatchAll = classificationType == SearchContext.MATCH_ALL_CLASSIFICATION;
+
         processSearchAttributes(classificationType, filterCriteria, indexAttributes, graphAttributes, allAttributes);
 
         // for classification search, if any attribute can't be handled by index query - switch to all filter by Graph query
@@ -105,7 +108,7 @@ public class ClassificationSearchProcessor extends SearchProcessor {
             indexQueryString = STRAY_OR_PATTERN.matcher(indexQueryString).replaceAll(")");
             indexQueryString = STRAY_ELIPSIS_PATTERN.matcher(indexQueryString).replaceAll("");
 
-            this.indexQuery = graph.indexQuery(Constants.VERTEX_INDEX, indexQueryString);
+            this.indexQueryString = indexQueryString;
 
             Predicate typeNamePredicate  = SearchPredicateUtil.getINPredicateGenerator()
                                                               .generatePredicate(Constants.TYPE_NAME_PROPERTY_KEY, typeAndSubTypes, String.class);
@@ -116,7 +119,7 @@ public class ClassificationSearchProcessor extends SearchProcessor {
                 inMemoryPredicate = typeNamePredicate;
             }
         } else {
-            indexQuery = null;
+            indexQueryString = null;
         }
 
         if (context.getSearchParameters().getTagFilters() != null) {
@@ -179,32 +182,60 @@ public class ClassificationSearchProcessor extends SearchProcessor {
 
         List<AtlasVertex> ret = new ArrayList<>();
 
-        AtlasPerfTracer perf = null;
+        AtlasPerfTracer           perf       = AtlasPerfTracer.getPerfTracer(PERF_LOG, "ClassificationSearchProcessor.execute");
+        IndexPagePrefetcher.Pages indexPages = null;
 
         if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "ClassificationSearchProcessor.execute(" + context +  ")");
+            perf.setTag("ClassificationSearchProcessor.execute(" + context +  ")");
         }
 
         try {
-            final int     startIdx   = context.getSearchParameters().getOffset();
-            final int     limit      = context.getSearchParameters().getLimit();
-            final boolean activeOnly = context.getSearchParameters().getExcludeDeletedEntities();
-
-            // query to start at 0, even though startIdx can be higher - because few results in earlier retrieval could
-            // have been dropped: like non-active-entities or duplicate-entities (same entity pointed to by multiple
-            // classifications in the result)
-            //
-            // first 'startIdx' number of entries will be ignored
-            int qryOffset = 0;
-            int resultIdx = qryOffset;
-
-            final Set<String>       processedGuids         = new HashSet<>();
+            final SearchCursor cursor     = context.getCursor();
+            final int          limit      = context.getSearchParameters().getLimit();
+            final boolean      activeOnly = context.getSearchParameters().getExcludeDeletedEntities();
+            final int          startIdx;
+            final int          windowSize;
+            int                qryOffset;
+
+            if (cursor != null) {
+                // continue from the window where the previous page stopped; first 'startIdx' number of entries in
+                // that window were consumed by earlier pages. Entities before the window that can be found again are
+                // in the cursor, so that the window has the same entries as it had for the previous page
+                startIdx   = cursor.getConsumed();
+                windowSize = cursor.getWindowSize();
+                qryOffset  = cursor.getQueryOffset();
+            } else {
+                // query to start at 0, even though startIdx can be higher - because few results in earlier retrieval could
+                // have been dropped: like non-active-entities or duplicate-entities (same entity pointed to by multiple
+                // classifications in the result)
+                //
+                // first 'startIdx' number of entries will be ignored
+                startIdx   = context.getSearchParameters().getOffset();
+                windowSize = limit;
+                qryOffset  = 0;
+            }
+
+            int resultIdx = 0;
+
+            final Set<String>       processedGuids         = new HashSet<>(); // of entities found, to remove duplicates
+            final Set<String>       cursorGuids            = new HashSet<>(); // of these, ones that can be found again
+            final Set<String>       windowGuids            = new HashSet<>(); // of these, ones found in the current window
             final List<AtlasVertex> entityVertices         = new ArrayList<>();
             final List<AtlasVertex> classificationVertices = new ArrayList<>();
 
-            for (; ret.size() < limit; qryOffset += limit) {
+            if (cursor != null) {
+                processedGuids.addAll(cursor.getProcessedGuids());
+                cursorGuids.addAll(cursor.getProcessedGuids());
+            }
+
+            if (indexQueryString != null) {
+                indexPages = getIndexPages(Constants.VERTEX_INDEX, indexQueryString, qryOffset, windowSize);
+            }
+
+            for (; ret.size() < limit; qryOffset += windowSize) {
                 entityVertices.clear();
                 classificationVertices.clear();
+                windowGuids.clear();
 
                 if (context.terminateSearch()) {
                     LOG.warn("query terminated: {}", context.getSearchParameters());
@@ -212,21 +243,19 @@ public class ClassificationSearchProcessor extends SearchProcessor {
                     break;
                 }
 
-                if (indexQuery != null) {
-                    Iterator<AtlasIndexQuery.Result> queryResult = indexQuery.vertices(qryOffset, limit);
+                if (indexPages != null) {
+                    classificationVertices.addAll(indexPages.next());
 
-                    if (!queryResult.hasNext()) { // no more results from index query - end of search
+                    if (classificationVertices.isEmpty()) { // no more results from index query - end of search
                         break;
                     }
 
-                    getVerticesFromIndexQueryResult(queryResult, classificationVertices);
-
                     // Do in-memory filtering before the graph query
                     CollectionUtils.filter(classificationVertices, inMemoryPredicate);
                 } else {
                     if (context.getSearchParameters().getTagFilters() == null) {
                         // We can use single graph query to determine in this case
-                        Iterator<AtlasVertex> queryResult = entityGraphQueryTraitNames.vertices(qryOffset, limit).iterator();
+                        Iterator<AtlasVertex> queryResult = entityGraphQueryTraitNames.vertices(qryOffset, windowSize).iterator();
 
                         if (!queryResult.hasNext()) { // no more results - end of search
                             break;
@@ -234,7 +263,7 @@ public class ClassificationSearchProcessor extends SearchProcessor {
 
                         getVertices(queryResult, entityVertices);
                     } else {
-                        Iterator<AtlasVertex> queryResult = tagGraphQueryWithAttributes.vertices(qryOffset, limit).iterator();
+                        Iterator<AtlasVertex> queryResult = tagGraphQueryWithAttributes.vertices(qryOffset, windowSize).iterator();
 
                         if (!queryResult.hasNext()) { // no more results - end of search
                             break;
@@ -262,22 +291,39 @@ public class ClassificationSearchProcessor extends SearchProcessor {
 
                             String guid = AtlasGraphUtilsV1.getIdFromVertex(entityVertex);
 
-                            if (processedGuids.contains(guid)) {
+                            if (!processedGuids.add(guid)) {
                                 continue;
                             }
 
-                            entityVertices.add(entityVertex);
+                            if (canBeFoundAgain(entityVertex)) {
+                                cursorGuids.add(guid);
+                                windowGuids.add(guid);
+                            }
 
-                            processedGuids.add(guid);
+                            entityVertices.add(entityVertex);
                         }
                     }
                 }
 
                 super.filter(entityVertices);
 
+                int windowStartIdx = resultIdx;
+
                 resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
+
+                if (ret.size() == limit) {
+                    Set<String> guidsBeforeWindow = new HashSet<>(cursorGuids);
+
+                    guidsBeforeWindow.removeAll(windowGuids);
+
+                    setNextCursor(qryOffset, windowSize, resultIdx - windowStartIdx, guidsBeforeWindow);
+                }
             }
         } finally {
+            if (indexPages != null) {
+                indexPages.close();
+            }
+
             AtlasPerfTracer.log(perf);
         }
 
@@ -288,6 +334,36 @@ public class ClassificationSearchProcessor extends SearchProcessor {
         return ret;
     }
 
+    // an entity is found once for each of its classification vertices of the searched types - including deleted ones,
+    // which remain under soft delete; only entities with more than one need to be carried in the cursor
+    private boolean canBeFoundAgain(AtlasVertex entityVertex) {
+        int count = 0;
+
+        if (isMatchAll) {
+            Iterable<AtlasEdge> edges = entityVertex.getEdges(AtlasEdgeDirection.OUT);
+
+            for (AtlasEdge edge : edges) {
+                if (context.getTypeRegistry().getClassificationTypeByName(edge.getLabel()) != null && ++count > 1) {
+                    return true;
+                }
+            }
+        } else {
+            String entityTypeName = GraphHelper.getTypeName(entityVertex);
+
+            for (String classificationName : typeAndSubTypes) {
+                Iterable<AtlasEdge> edges = entityVertex.getEdges(AtlasEdgeDirection.OUT, GraphHelper.getTraitLabel(entityTypeName, classificationName));
+
+                for (AtlasEdge edge : edges) {
+                    if (++count > 1) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
     @Override
     public void filter(List<AtlasVertex> entityVertices) {
         if (LOG.isDebugEnabled()) {
@@ -305,14 +381,13 @@ public class ClassificationSearchProcessor extends SearchProcessor {
                 gremlinQueryBindings.put("guids", guids);
 
                 try {
-                    AtlasGraph        graph               = context.getGraph();
-                    ScriptEngine      gremlinScriptEngine = graph.getGremlinScriptEngine();
-                    List<AtlasVertex> atlasVertices       = (List<AtlasVertex>) graph.executeGremlinScript(gremlinScriptEngine, gremlinQueryBindings, gremlinTagFilterQuery, false);
+                    AtlasGraph        graph         = context.getGraph();
+                    List<AtlasVertex> atlasVertices = (List<AtlasVertex>) graph.executeGremlinScript(gremlinTagFilterQuery, gremlinQueryBindings, false);
 
                     if (CollectionUtils.isNotEmpty(atlasVertices)) {
                         entityVertices.addAll(atlasVertices);
                     }
-                } catch (AtlasBaseException | ScriptException e) {
+                } catch (AtlasBaseException e) {
                     LOG.warn(e.getMessage(), e);
                 }
             }
@@ -32,7 +32,7 @@ import org.apache.atlas.model.discovery.SearchParameters;
 import org.apache.atlas.model.instance.AtlasEntityHeader;
 import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.model.profile.AtlasUserSavedSearch;
-import org.apache.atlas.query.AtlasDSL;
+import org.apache.atlas.query.DSLQueryCache;
 import org.apache.atlas.query.GremlinQuery;
 import org.apache.atlas.query.QueryParams;
 import org.apache.atlas.repository.Constants;
@@ -55,6 +55,7 @@ import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.AtlasGremlinQueryProvider;
 import org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery;
 import org.apache.atlas.util.SearchTracker;
+import org.apache.atlas.util.SearchTracker.ActiveSearch;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
@@ -96,11 +97,15 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
     private final int                             maxTypesLengthInIdxQuery;
     private final int                             maxTagsLengthInIdxQuery;
     private final UserProfileService              userProfileService;
+    private final DSLQueryCache                   dslQueryCache;
+    private final SearchResultCache               searchResultCache;
+    private final IndexPagePrefetcher             indexPagePrefetcher;
 
     @Inject
     EntityDiscoveryService(AtlasTypeRegistry typeRegistry,
                            AtlasGraph graph, GraphBackedSearchIndexer indexer, SearchTracker searchTracker,
-                           UserProfileService userProfileService) throws AtlasException {
+                           UserProfileService userProfileService, DSLQueryCache dslQueryCache,
+                           SearchResultCache searchResultCache, IndexPagePrefetcher indexPagePrefetcher) throws AtlasException {
         this.graph                    = graph;
         this.entityRetriever          = new EntityGraphRetriever(typeRegistry);
         this.indexer                  = indexer;
@@ -111,11 +116,25 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         this.maxTypesLengthInIdxQuery = ApplicationProperties.get().getInt(Constants.INDEX_SEARCH_TYPES_MAX_QUERY_STR_LENGTH, 512);
         this.maxTagsLengthInIdxQuery  = ApplicationProperties.get().getInt(Constants.INDEX_SEARCH_TAGS_MAX_QUERY_STR_LENGTH, 512);
         this.userProfileService       = userProfileService;
+        this.dslQueryCache            = dslQueryCache;
+        this.searchResultCache        = searchResultCache;
+        this.indexPagePrefetcher      = indexPagePrefetcher;
     }
 
     @Override
     @GraphTransaction
     public AtlasSearchResult searchUsingDslQuery(String dslQuery, int limit, int offset) throws AtlasBaseException {
+        String                         cacheKey     = searchResultCache.isEnabled() ? searchResultCache.getKey(dslQuery, limit, offset) : null;
+        SearchResultCache.Dependencies dependencies = cacheKey != null ? searchResultCache.getDependenciesOnAnyType() : null;
+
+        if (cacheKey != null) {
+            AtlasSearchResult cachedResult = searchResultCache.get(cacheKey);
+
+            if (cachedResult != null) {
+                return cachedResult;
+            }
+        }
+
         AtlasSearchResult ret          = new AtlasSearchResult(dslQuery, AtlasQueryType.DSL);
         GremlinQuery      gremlinQuery = toGremlinQuery(dslQuery, limit, offset);
         String            queryStr     = gremlinQuery.queryStr();
@@ -164,6 +183,10 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
             }
         }
 
+        if (cacheKey != null) {
+            searchResultCache.put(cacheKey, ret, dependencies);
+        }
+
         return ret;
     }
 
@@ -416,12 +439,32 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         searchParameters.setLimit(params.limit());
         searchParameters.setOffset(params.offset());
 
-        SearchContext context  = new SearchContext(searchParameters, typeRegistry, graph, indexer.getVertexIndexKeys());
+        String                         cacheKey     = searchResultCache.isEnabled() ? searchResultCache.getKey(searchParameters) : null;
+        SearchResultCache.Dependencies dependencies = cacheKey != null ? searchResultCache.getDependencies(searchParameters) : null;
+
+        if (cacheKey != null) {
+            AtlasSearchResult cachedResult = searchResultCache.get(cacheKey);
+
+            if (cachedResult != null) {
+                return cachedResult;
+            }
+        }
+
+        SearchContext context  = new SearchContext(searchParameters, typeRegistry, graph, indexer.getVertexIndexKeys(), indexPagePrefetcher);
         String        searchID = searchTracker.add(context); // For future cancellations
 
         try {
             List<AtlasVertex> resultList = context.getSearchProcessor().execute();
 
+            // results of a terminated search are incomplete: fail the search, rather than return them as if complete
+            if (context.terminateSearch()) {
+                ActiveSearch search = searchTracker.getActiveSearch(searchID);
+                String       reason = search != null && search.isTimedOut() ? "exceeded " + SearchTracker.SEARCH_MAX_DURATION_MS_PROPERTY + "=" + searchTracker.getMaxDurationMs()
+                                                                          : "terminated on request";
+
+                throw new AtlasBaseException(AtlasErrorCode.SEARCH_TERMINATED, searchID, reason);
+            }
+
             // By default any attribute that shows up in the search parameter should be sent back in the response
             // If additional values are requested then the entityAttributes will be a superset of the all search attributes
             // and the explicitly requested attribute(s)
@@ -455,52 +498,51 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
                 }
             }
 
-            for (AtlasVertex atlasVertex : resultList) {
-                AtlasEntityHeader entity = entityRetriever.toAtlasEntityHeader(atlasVertex, resultAttributes);
+            List<AtlasEntityHeader> entities      = entityRetriever.toAtlasEntityHeaders(resultList, resultAttributes);
+            Set<String>             referredGuids = new HashSet<>();
+
+            for (int i = 0; i < entities.size(); i++) {
+                AtlasEntityHeader entity = entities.get(i);
 
                 if(searchParameters.getIncludeClassificationAttributes()) {
-                    entity.setClassifications(entityRetriever.getClassifications(atlasVertex));
+                    entity.setClassifications(entityRetriever.getClassifications(resultList.get(i)));
                 }
 
                 ret.addEntity(entity);
 
-                // populate ret.referredEntities
+                // collect guids of entities to populate ret.referredEntities
                 for (String entityAttribute : entityAttributes) {
                     Object attrValue = entity.getAttribute(entityAttribute);
 
                     if (attrValue instanceof AtlasObjectId) {
-                        AtlasObjectId objId = (AtlasObjectId) attrValue;
-
-                        if (ret.getReferredEntities() == null) {
-                            ret.setReferredEntities(new HashMap<String, AtlasEntityHeader>());
-                        }
-
-                        if (!ret.getReferredEntities().containsKey(objId.getGuid())) {
-                            ret.getReferredEntities().put(objId.getGuid(), entityRetriever.toAtlasEntityHeader(objId.getGuid()));
-                        }
+                        referredGuids.add(((AtlasObjectId) attrValue).getGuid());
                     } else if (attrValue instanceof Collection) {
                         Collection objIds = (Collection) attrValue;
 
                         for (Object obj : objIds) {
                             if (obj instanceof AtlasObjectId) {
-                                AtlasObjectId objId = (AtlasObjectId) obj;
-
-                                if (ret.getReferredEntities() == null) {
-                                    ret.setReferredEntities(new HashMap<String, AtlasEntityHeader>());
-                                }
-
-                                if (!ret.getReferredEntities().containsKey(objId.getGuid())) {
-                                    ret.getReferredEntities().put(objId.getGuid(), entityRetriever.toAtlasEntityHeader(objId.getGuid()));
-                                }
+                                referredGuids.add(((AtlasObjectId) obj).getGuid());
                             }
                         }
                     }
                 }
             }
+
+            if (!referredGuids.isEmpty()) {
+                ret.setReferredEntities(entityRetriever.toAtlasEntityHeaders(referredGuids));
+            }
+
+            if (context.getNextCursor() != null) {
+                ret.setNextCursor(context.getNextCursor().encode());
+            }
         } finally {
             searchTracker.remove(searchID);
         }
 
+        if (cacheKey != null) {
+            searchResultCache.put(cacheKey, ret, dependencies);
+        }
+
         return ret;
     }
 
@@ -585,14 +627,9 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
                 Object  firstElement = queryResult.get(0);
 
                 if (firstElement instanceof AtlasVertex) {
-                    List<AtlasVertex>       vertices   = (List<AtlasVertex>) queryResult;
-                    List<AtlasEntityHeader> resultList = new ArrayList<>(vertices.size());
-
-                    for (AtlasVertex vertex : vertices) {
-                        resultList.add(entityRetriever.toAtlasEntityHeader(vertex));
-                    }
+                    List<AtlasVertex> vertices = (List<AtlasVertex>) queryResult;
 
-                    ret.setEntities(resultList);
+                    ret.setEntities(entityRetriever.toAtlasEntityHeaders(vertices, Collections.<String>emptySet()));
                 }
             }
 
@@ -671,7 +708,7 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
 
     private GremlinQuery toGremlinQuery(String query, int limit, int offset) throws AtlasBaseException {
         QueryParams                 params       = QueryParams.getNormalizedParams(limit, offset);
-        GremlinQuery                gremlinQuery = new AtlasDSL.Translator(query, typeRegistry, params.offset(), params.limit()).translate();
+        GremlinQuery                gremlinQuery = dslQueryCache.translate(query, params.offset(), params.limit());
 
         if (LOG.isDebugEnabled()) {
             LOG.debug("Translated Gremlin Query: {}", gremlinQuery.queryStr());
@@ -31,6 +31,8 @@ import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageDirection;
 import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageRelation;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graph.GraphHelper;
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
@@ -38,16 +40,17 @@ import org.apache.atlas.repository.store.graph.v1.EntityGraphRetriever;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.type.AtlasTypeUtil;
-import org.apache.atlas.util.AtlasGremlinQueryProvider;
-import org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery;
 import org.apache.atlas.v1.model.lineage.SchemaResponse.SchemaDetails;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -62,15 +65,13 @@ public class EntityLineageService implements AtlasLineageService {
     private static final String OUTPUT_PROCESS_EDGE = "__Process.outputs";
     private static final String COLUMNS             = "columns";
 
-    private final AtlasGraph                graph;
-    private final AtlasGremlinQueryProvider gremlinQueryProvider;
-    private final EntityGraphRetriever      entityRetriever;
-    private final AtlasTypeRegistry         atlasTypeRegistry;
+    private final AtlasGraph           graph;
+    private final EntityGraphRetriever entityRetriever;
+    private final AtlasTypeRegistry    atlasTypeRegistry;
 
     @Inject
     EntityLineageService(AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph) {
         this.graph = atlasGraph;
-        this.gremlinQueryProvider = AtlasGremlinQueryProvider.INSTANCE;
         this.entityRetriever = new EntityGraphRetriever(typeRegistry);
         this.atlasTypeRegistry = typeRegistry;
     }
@@ -90,7 +91,7 @@ public class EntityLineageService implements AtlasLineageService {
             } else if (direction.equals(LineageDirection.OUTPUT)) {
                 lineageInfo = getLineageInfo(guid, LineageDirection.OUTPUT, depth);
             } else if (direction.equals(LineageDirection.BOTH)) {
-                lineageInfo = getBothLineageInfo(guid, depth);
+                lineageInfo = getLineageInfo(guid, LineageDirection.BOTH, depth);
             } else {
                 throw new AtlasBaseException(AtlasErrorCode.INSTANCE_LINEAGE_INVALID_PARAMS, "direction", direction.toString());
             }
@@ -166,83 +167,98 @@ public class EntityLineageService implements AtlasLineageService {
     }
 
     private AtlasLineageInfo getLineageInfo(String guid, LineageDirection direction, int depth) throws AtlasBaseException {
-        Map<String, AtlasEntityHeader> entities     = new HashMap<>();
-        Set<LineageRelation>           relations    = new HashSet<>();
-        String                         lineageQuery = getLineageQuery(guid, direction, depth);
-
-        List paths = (List) graph.executeGremlinScript(lineageQuery, true);
-
-        if (CollectionUtils.isNotEmpty(paths)) {
-            for (Object path : paths) {
-                if (path instanceof List) {
-                    List vertices = (List) path;
-
-                    if (CollectionUtils.isNotEmpty(vertices)) {
-                        AtlasEntityHeader prev = null;
-
-                        for (Object vertex : vertices) {
-                            if (!(vertex instanceof AtlasVertex)) {
-                                continue;
-                            }
-
-                            AtlasEntityHeader entity = entityRetriever.toAtlasEntityHeader((AtlasVertex) vertex);
-
-                            if (!entities.containsKey(entity.getGuid())) {
-                                entities.put(entity.getGuid(), entity);
-                            }
-
-                            if (prev != null) {
-                                if (direction.equals(LineageDirection.INPUT)) {
-                                    relations.add(new LineageRelation(entity.getGuid(), prev.getGuid()));
-                                } else if (direction.equals(LineageDirection.OUTPUT)) {
-                                    relations.add(new LineageRelation(prev.getGuid(), entity.getGuid()));
-                                }
-                            }
-                            prev = entity;
-                        }
-                    }
-                }
-            }
+        Map<String, AtlasEntityHeader> entities  = new HashMap<>();
+        Set<LineageRelation>           relations = new HashSet<>();
+        AtlasVertex                    vertex    = entityRetriever.getEntityVertex(guid);
+
+        if (direction.equals(LineageDirection.BOTH)) {
+            traverseLineage(vertex, Arrays.asList(LineageDirection.INPUT, LineageDirection.OUTPUT), depth, entities, relations);
+        } else {
+            traverseLineage(vertex, Collections.singletonList(direction), depth, entities, relations);
         }
 
         return new AtlasLineageInfo(guid, entities, relations, direction, depth);
     }
 
-    private AtlasLineageInfo getBothLineageInfo(String guid, int depth) throws AtlasBaseException {
-        AtlasLineageInfo inputLineage  = getLineageInfo(guid, LineageDirection.INPUT, depth);
-        AtlasLineageInfo outputLineage = getLineageInfo(guid, LineageDirection.OUTPUT, depth);
-        AtlasLineageInfo ret           = inputLineage;
+    /**
+     * Breadth-first walk over process input/output edges, starting from the given dataset vertex. All the given
+     * directions are walked in the same traversal; each vertex is expanded at most once per direction and its
+     * entity header is built only once.
+     */
+    private void traverseLineage(AtlasVertex startVertex, List<LineageDirection> directions, int depth,
+                                 Map<String, AtlasEntityHeader> entities, Set<LineageRelation> relations) throws AtlasBaseException {
+        Map<Object, String>                       vertexGuids = new HashMap<>();
+        Map<LineageDirection, Set<Object>>        visited     = new HashMap<>();
+        List<Pair<AtlasVertex, LineageDirection>> current     = new ArrayList<>();
+
+        for (LineageDirection direction : directions) {
+            visited.put(direction, new HashSet<>(Collections.singleton(startVertex.getId())));
+            current.add(Pair.of(startVertex, direction));
+        }
+
+        for (int level = 0; (depth < 1 || level < depth) && !current.isEmpty(); level++) {
+            List<Pair<AtlasVertex, LineageDirection>> next = new ArrayList<>();
 
-        ret.getRelations().addAll(outputLineage.getRelations());
-        ret.getGuidEntityMap().putAll(outputLineage.getGuidEntityMap());
-        ret.setLineageDirection(LineageDirection.BOTH);
+            for (Pair<AtlasVertex, LineageDirection> item : current) {
+                AtlasVertex      datasetVertex = item.getLeft();
+                LineageDirection direction     = item.getRight();
+                boolean          isInput       = direction.equals(LineageDirection.INPUT);
+                String           incomingLabel = isInput ? OUTPUT_PROCESS_EDGE : INPUT_PROCESS_EDGE;
+                String           outgoingLabel = isInput ? INPUT_PROCESS_EDGE : OUTPUT_PROCESS_EDGE;
+                Set<Object>      visitedIds    = visited.get(direction);
 
-        return ret;
+                for (AtlasEdge processEdge : (Iterable<AtlasEdge>) datasetVertex.getEdges(AtlasEdgeDirection.IN, incomingLabel)) {
+                    AtlasVertex processVertex = processEdge.getOutVertex();
+
+                    for (AtlasEdge datasetEdge : (Iterable<AtlasEdge>) processVertex.getEdges(AtlasEdgeDirection.OUT, outgoingLabel)) {
+                        AtlasVertex adjacentVertex = datasetEdge.getInVertex();
+
+                        if (!isDataSet(adjacentVertex)) {
+                            continue;
+                        }
+
+                        String datasetGuid  = getEntityGuid(datasetVertex, vertexGuids, entities);
+                        String processGuid  = getEntityGuid(processVertex, vertexGuids, entities);
+                        String adjacentGuid = getEntityGuid(adjacentVertex, vertexGuids, entities);
+
+                        if (isInput) {
+                            relations.add(new LineageRelation(processGuid, datasetGuid));
+                            relations.add(new LineageRelation(adjacentGuid, processGuid));
+                        } else {
+                            relations.add(new LineageRelation(datasetGuid, processGuid));
+                            relations.add(new LineageRelation(processGuid, adjacentGuid));
+                        }
+
+                        if (visitedIds.add(adjacentVertex.getId())) {
+                            next.add(Pair.of(adjacentVertex, direction));
+                        }
+                    }
+                }
+            }
+
+            current = next;
+        }
     }
 
-    private String getLineageQuery(String entityGuid, LineageDirection direction, int depth) {
-        String lineageQuery = null;
+    private String getEntityGuid(AtlasVertex vertex, Map<Object, String> vertexGuids, Map<String, AtlasEntityHeader> entities) throws AtlasBaseException {
+        String ret = vertexGuids.get(vertex.getId());
+
+        if (ret == null) {
+            AtlasEntityHeader entity = entityRetriever.toAtlasEntityHeader(vertex);
 
-        if (direction.equals(LineageDirection.INPUT)) {
-            lineageQuery = generateLineageQuery(entityGuid, depth, OUTPUT_PROCESS_EDGE, INPUT_PROCESS_EDGE);
+            ret = entity.getGuid();
 
-        } else if (direction.equals(LineageDirection.OUTPUT)) {
-            lineageQuery = generateLineageQuery(entityGuid, depth, INPUT_PROCESS_EDGE, OUTPUT_PROCESS_EDGE);
+            vertexGuids.put(vertex.getId(), ret);
+            entities.put(ret, entity);
         }
 
-        return lineageQuery;
+        return ret;
     }
 
-    private String generateLineageQuery(String entityGuid, int depth, String incomingFrom, String outgoingTo) {
-        String lineageQuery;
-        if (depth < 1) {
-            String query = gremlinQueryProvider.getQuery(AtlasGremlinQuery.FULL_LINEAGE);
-            lineageQuery = String.format(query, entityGuid, incomingFrom, outgoingTo);
-        } else {
-            String query = gremlinQueryProvider.getQuery(AtlasGremlinQuery.PARTIAL_LINEAGE);
-            lineageQuery = String.format(query, entityGuid, incomingFrom, outgoingTo, depth);
-        }
-        return lineageQuery;
+    private boolean isDataSet(AtlasVertex vertex) {
+        List<String> superTypes = GraphHelper.getSuperTypeNames(vertex);
+
+        return CollectionUtils.isNotEmpty(superTypes) && superTypes.contains(AtlasClient.DATA_SET_SUPER_TYPE);
     }
 
     private boolean entityExists(String guid) {
@@ -20,7 +20,6 @@ package org.apache.atlas.discovery;
 import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
-import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.type.AtlasClassificationType;
 import org.apache.atlas.type.AtlasEntityType;
@@ -45,7 +44,7 @@ public class EntitySearchProcessor extends SearchProcessor {
     private static final Logger LOG      = LoggerFactory.getLogger(EntitySearchProcessor.class);
     private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("EntitySearchProcessor");
 
-    private final AtlasIndexQuery indexQuery;
+    private final String          indexQueryString;
     private final AtlasGraphQuery graphQuery;
     private       Predicate       graphQueryPredicate;
     private       Predicate       filterGraphQueryPredicate;
@@ -135,9 +134,9 @@ public class EntitySearchProcessor extends SearchProcessor {
             indexQueryString = STRAY_OR_PATTERN.matcher(indexQueryString).replaceAll(")");
             indexQueryString = STRAY_ELIPSIS_PATTERN.matcher(indexQueryString).replaceAll("");
 
-            this.indexQuery = context.getGraph().indexQuery(Constants.VERTEX_INDEX, indexQueryString);
+            this.indexQueryString = indexQueryString;
         } else {
-            this.indexQuery = null;
+            this.indexQueryString = null;
         }
 
         if (CollectionUtils.isNotEmpty(graphAttributes) || !typeSearchByIndex) {
@@ -177,7 +176,7 @@ public class EntitySearchProcessor extends SearchProcessor {
             }
 
             // Filter condition for the STATUS
-            if (context.getSearchParameters().getExcludeDeletedEntities() && this.indexQuery == null) {
+            if (context.getSearchParameters().getExcludeDeletedEntities() && this.indexQueryString == null) {
                 graphQuery.has(Constants.STATE_PROPERTY_KEY, "ACTIVE");
                 if (graphQueryPredicate != null) {
                     graphQueryPredicate = PredicateUtils.andPredicate(graphQueryPredicate, activePredicate);
@@ -218,25 +217,44 @@ public class EntitySearchProcessor extends SearchProcessor {
 
         List<AtlasVertex> ret = new ArrayList<>();
 
-        AtlasPerfTracer perf = null;
+        AtlasPerfTracer           perf       = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntitySearchProcessor.execute");
+        IndexPagePrefetcher.Pages indexPages = null;
 
         if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntitySearchProcessor.execute(" + context +  ")");
+            perf.setTag("EntitySearchProcessor.execute(" + context +  ")");
         }
 
         try {
-            final int startIdx = context.getSearchParameters().getOffset();
-            final int limit    = context.getSearchParameters().getLimit();
+            final SearchCursor cursor = context.getCursor();
+            final int          limit  = context.getSearchParameters().getLimit();
+            final int          startIdx;
+            final int          windowSize;
+            int                qryOffset;
+
+            if (cursor != null) {
+                // continue from the window where the previous page stopped; first 'startIdx' number of entries in
+                // that window were consumed by earlier pages
+                startIdx   = cursor.getConsumed();
+                windowSize = cursor.getWindowSize();
+                qryOffset  = cursor.getQueryOffset();
+            } else {
+                // when subsequent filtering stages are involved, query should start at 0 even though startIdx can be higher
+                //
+                // first 'startIdx' number of entries will be ignored
+                startIdx   = context.getSearchParameters().getOffset();
+                windowSize = limit;
+                qryOffset  = (nextProcessor != null || (graphQuery != null && indexQueryString != null)) ? 0 : startIdx;
+            }
 
-            // when subsequent filtering stages are involved, query should start at 0 even though startIdx can be higher
-            //
-            // first 'startIdx' number of entries will be ignored
-            int qryOffset = (nextProcessor != null || (graphQuery != null && indexQuery != null)) ? 0 : startIdx;
-            int resultIdx = qryOffset;
+            int resultIdx = cursor != null ? 0 : qryOffset;
 
             final List<AtlasVertex> entityVertices = new ArrayList<>();
 
-            for (; ret.size() < limit; qryOffset += limit) {
+            if (indexQueryString != null) {
+                indexPages = getIndexPages(Constants.VERTEX_INDEX, indexQueryString, qryOffset, windowSize);
+            }
+
+            for (; ret.size() < limit; qryOffset += windowSize) {
                 entityVertices.clear();
 
                 if (context.terminateSearch()) {
@@ -245,15 +263,13 @@ public class EntitySearchProcessor extends SearchProcessor {
                     break;
                 }
 
-                if (indexQuery != null) {
-                    Iterator<AtlasIndexQuery.Result> idxQueryResult = indexQuery.vertices(qryOffset, limit);
+                if (indexPages != null) {
+                    entityVertices.addAll(indexPages.next());
 
-                    if (!idxQueryResult.hasNext()) { // no more results from index query - end of search
+                    if (entityVertices.isEmpty()) { // no more results from index query - end of search
                         break;
                     }
 
-                    getVerticesFromIndexQueryResult(idxQueryResult, entityVertices);
-
                     // Do in-memory filtering before the graph query
                     CollectionUtils.filter(entityVertices, inMemoryPredicate);
 
@@ -261,7 +277,7 @@ public class EntitySearchProcessor extends SearchProcessor {
                         CollectionUtils.filter(entityVertices, graphQueryPredicate);
                     }
                 } else {
-                    Iterator<AtlasVertex> queryResult = graphQuery.vertices(qryOffset, limit).iterator();
+                    Iterator<AtlasVertex> queryResult = graphQuery.vertices(qryOffset, windowSize).iterator();
 
                     if (!queryResult.hasNext()) { // no more results from query - end of search
                         break;
@@ -272,9 +288,19 @@ public class EntitySearchProcessor extends SearchProcessor {
 
                 super.filter(entityVertices);
 
+                int windowStartIdx = resultIdx;
+
                 resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
+
+                if (ret.size() == limit) {
+                    setNextCursor(qryOffset, windowSize, resultIdx - windowStartIdx);
+                }
             }
         } finally {
+            if (indexPages != null) {
+                indexPages.close();
+            }
+
             AtlasPerfTracer.log(perf);
         }
 
@@ -20,7 +20,6 @@ package org.apache.atlas.discovery;
 import org.apache.atlas.model.discovery.SearchParameters;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.repository.Constants;
-import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
 import org.apache.atlas.utils.AtlasPerfTracer;
@@ -28,7 +27,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 
@@ -36,7 +34,7 @@ public class FullTextSearchProcessor extends SearchProcessor {
     private static final Logger LOG      = LoggerFactory.getLogger(FullTextSearchProcessor.class);
     private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("FullTextSearchProcessor");
 
-    private final AtlasIndexQuery indexQuery;
+    private final String indexQueryString;
 
     public FullTextSearchProcessor(SearchContext context) {
         super(context);
@@ -74,7 +72,7 @@ public class FullTextSearchProcessor extends SearchProcessor {
 
         queryString.append(")");
 
-        indexQuery = context.getGraph().indexQuery(Constants.FULLTEXT_INDEX, queryString.toString());
+        indexQueryString = queryString.toString();
     }
 
     @Override
@@ -85,27 +83,44 @@ public class FullTextSearchProcessor extends SearchProcessor {
 
         List<AtlasVertex> ret = new ArrayList<>();
 
-        AtlasPerfTracer perf = null;
+        AtlasPerfTracer           perf       = AtlasPerfTracer.getPerfTracer(PERF_LOG, "FullTextSearchProcessor.execute");
+        IndexPagePrefetcher.Pages indexPages = null;
 
         if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "FullTextSearchProcessor.execute(" + context +  ")");
+            perf.setTag("FullTextSearchProcessor.execute(" + context +  ")");
         }
 
         try {
-            final int     startIdx   = context.getSearchParameters().getOffset();
-            final int     limit      = context.getSearchParameters().getLimit();
-            final boolean activeOnly = context.getSearchParameters().getExcludeDeletedEntities();
+            final SearchCursor cursor     = context.getCursor();
+            final int          limit      = context.getSearchParameters().getLimit();
+            final boolean      activeOnly = context.getSearchParameters().getExcludeDeletedEntities();
+            final int          startIdx;
+            final int          windowSize;
+            int                qryOffset;
+
+            if (cursor != null) {
+                // continue from the window where the previous page stopped; first 'startIdx' number of entries in
+                // that window were consumed by earlier pages
+                startIdx   = cursor.getConsumed();
+                windowSize = cursor.getWindowSize();
+                qryOffset  = cursor.getQueryOffset();
+            } else {
+                // query to start at 0, even though startIdx can be higher - because few results in earlier retrieval could
+                // have been dropped: like vertices of non-entity or non-active-entity
+                //
+                // first 'startIdx' number of entries will be ignored
+                startIdx   = context.getSearchParameters().getOffset();
+                windowSize = limit;
+                qryOffset  = 0;
+            }
 
-            // query to start at 0, even though startIdx can be higher - because few results in earlier retrieval could
-            // have been dropped: like vertices of non-entity or non-active-entity
-            //
-            // first 'startIdx' number of entries will be ignored
-            int qryOffset = 0;
-            int resultIdx = qryOffset;
+            int resultIdx = 0;
 
             final List<AtlasVertex> entityVertices = new ArrayList<>();
 
-            for (; ret.size() < limit; qryOffset += limit) {
+            indexPages = getIndexPages(Constants.FULLTEXT_INDEX, indexQueryString, qryOffset, windowSize);
+
+            for (; ret.size() < limit; qryOffset += windowSize) {
                 entityVertices.clear();
 
                 if (context.terminateSearch()) {
@@ -114,15 +129,13 @@ public class FullTextSearchProcessor extends SearchProcessor {
                     break;
                 }
 
-                Iterator<AtlasIndexQuery.Result> idxQueryResult = indexQuery.vertices(qryOffset, limit);
+                List<AtlasVertex> idxQueryResult = indexPages.next();
 
-                if (!idxQueryResult.hasNext()) { // no more results from solr - end of search
+                if (idxQueryResult.isEmpty()) { // no more results from solr - end of search
                     break;
                 }
 
-                while (idxQueryResult.hasNext()) {
-                    AtlasVertex vertex = idxQueryResult.next().getVertex();
-
+                for (AtlasVertex vertex : idxQueryResult) {
                     // skip non-entity vertices
                     if (!AtlasGraphUtilsV1.isEntityVertex(vertex)) {
                         if (LOG.isDebugEnabled()) {
@@ -141,9 +154,19 @@ public class FullTextSearchProcessor extends SearchProcessor {
 
                 super.filter(entityVertices);
 
+                int windowStartIdx = resultIdx;
+
                 resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
+
+                if (ret.size() == limit) {
+                    setNextCursor(qryOffset, windowSize, resultIdx - windowStartIdx);
+                }
             }
         } finally {
+            if (indexPages != null) {
+                indexPages.close();
+            }
+
             AtlasPerfTracer.log(perf);
         }
 
@@ -0,0 +1,314 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.commons.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches pages of index query results ahead of the search processor that consumes them, so that the index query for
+ * page N+1 runs while page N is being filtered. Each search gets one worker, which stays at most 'depth' pages ahead
+ * and stops when the search is terminated or the processor is done with the pages.
+ *
+ * A graph transaction is bound to the thread that started it, and is not safe to be used by another; hence the worker
+ * runs the index query in a read transaction of its own, and hands over only ids of the vertices found. These are
+ * resolved to vertices on the request thread, in the transaction of the search. When all workers are busy, pages of
+ * the search are fetched on the request thread, as before.
+ */
+@Component
+public class IndexPagePrefetcher {
+    private static final Logger LOG = LoggerFactory.getLogger(IndexPagePrefetcher.class);
+
+    public static final String SEARCH_PREFETCH_DEPTH_PROPERTY   = "atlas.search.prefetch.depth";
+    public static final String SEARCH_PREFETCH_THREADS_PROPERTY = "atlas.search.prefetch.threads";
+    public static final int    DEFAULT_SEARCH_PREFETCH_DEPTH    = 1;
+    public static final int    DEFAULT_SEARCH_PREFETCH_THREADS  = 10;
+
+    private static final String THREAD_NAME_FORMAT = "atlas-search-prefetch-%d";
+    private static final long   POLL_INTERVAL_MS   = 100;
+
+    private final int                depth;
+    private final ThreadPoolExecutor executor;
+
+    @Inject
+    public IndexPagePrefetcher() throws AtlasException {
+        this(ApplicationProperties.get());
+    }
+
+    @VisibleForTesting
+    public IndexPagePrefetcher(Configuration configuration) {
+        int threads = configuration.getInt(SEARCH_PREFETCH_THREADS_PROPERTY, DEFAULT_SEARCH_PREFETCH_THREADS);
+
+        this.depth = configuration.getInt(SEARCH_PREFETCH_DEPTH_PROPERTY, DEFAULT_SEARCH_PREFETCH_DEPTH);
+
+        if (depth > 0 && threads > 0) {
+            // no queue: a search is either given a worker right away, or fetches its pages itself
+            this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+                                                   new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_FORMAT).setDaemon(true).build());
+
+            this.executor.allowCoreThreadTimeOut(true);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    /**
+     * @return pages of results of the given query on the given index, each of windowSize results, starting at the
+     * given offset; to be closed once the caller is done with them
+     */
+    public Pages getPages(SearchContext context, String indexName, String queryString, int offset, int windowSize) {
+        if (executor != null) {
+            PrefetchedPages ret = new PrefetchedPages(context, indexName, queryString, offset, windowSize, depth);
+
+            try {
+                executor.execute(ret);
+
+                return ret;
+            } catch (RejectedExecutionException e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("IndexPagePrefetcher: all {} workers busy; fetching pages on request thread", executor.getMaximumPoolSize());
+                }
+            }
+        }
+
+        return new RequestThreadPages(context.getGraph().indexQuery(indexName, queryString), offset, windowSize);
+    }
+
+    /**
+     * Pages of index query results.
+     */
+    public interface Pages {
+        /**
+         * @return vertices in the next page; empty at the end of results
+         */
+        List<AtlasVertex> next();
+
+        void close();
+    }
+
+    /*
+     * Pages fetched on the request thread, in the transaction of the search.
+     */
+    private static class RequestThreadPages implements Pages {
+        private final AtlasIndexQuery indexQuery;
+        private final int             windowSize;
+        private       int             offset;
+
+        RequestThreadPages(AtlasIndexQuery indexQuery, int offset, int windowSize) {
+            this.indexQuery = indexQuery;
+            this.offset     = offset;
+            this.windowSize = windowSize;
+        }
+
+        @Override
+        public List<AtlasVertex> next() {
+            List<AtlasVertex>                ret    = new ArrayList<>();
+            Iterator<AtlasIndexQuery.Result> result = indexQuery.vertices(offset, windowSize);
+
+            while (result.hasNext()) {
+                ret.add(result.next().getVertex());
+            }
+
+            offset += windowSize;
+
+            return ret;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /*
+     * Pages fetched by a worker, as ids of vertices, into a queue. The worker fetches a page only while fewer than
+     * 'depth' fetched pages are yet to be consumed, and ends after a page shorter than windowSize, a failure,
+     * termination of the search or close(); its transaction is then rolled back, as it only read. A failure is passed
+     * through the queue, to be thrown on the request thread.
+     */
+    private static class PrefetchedPages implements Pages, Runnable {
+        private static final Object END_OF_PAGES = new Object();
+
+        private final    SearchContext         context;
+        private final    String                indexName;
+        private final    String                queryString;
+        private final    int                   startOffset;
+        private final    int                   windowSize;
+        private final    Semaphore             pagesAhead;
+        private final    BlockingQueue<Object> queue    = new LinkedBlockingQueue<>();
+        private final    CountDownLatch        finished = new CountDownLatch(1);
+        private volatile boolean               isClosed = false;
+        private          boolean               isEnded  = false;
+
+        PrefetchedPages(SearchContext context, String indexName, String queryString, int offset, int windowSize, int depth) {
+            this.context     = context;
+            this.indexName   = indexName;
+            this.queryString = queryString;
+            this.startOffset = offset;
+            this.windowSize  = windowSize;
+            this.pagesAhead  = new Semaphore(depth);
+        }
+
+        @Override
+        public void run() {
+            AtlasGraph graph = context.getGraph();
+
+            try {
+                // created on this thread, hence bound to a transaction of this thread rather than of the search
+                AtlasIndexQuery indexQuery = graph.indexQuery(indexName, queryString);
+
+                for (int pageOffset = startOffset; awaitRoom(); pageOffset += windowSize) {
+                    List<String> page = fetchIds(indexQuery, pageOffset);
+
+                    queue.add(page);
+
+                    if (page.size() < windowSize) {
+                        break;
+                    }
+                }
+
+                queue.add(END_OF_PAGES);
+            } catch (RuntimeException | Error e) {
+                queue.add(e);
+            } finally {
+                try {
+                    graph.rollback();
+                } catch (RuntimeException e) {
+                    LOG.warn("IndexPagePrefetcher: failed to end transaction of worker", e);
+                } finally {
+                    finished.countDown();
+                }
+            }
+        }
+
+        @Override
+        public List<AtlasVertex> next() {
+            try {
+                while (!isEnded && !context.terminateSearch()) {
+                    Object page = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+                    if (page == END_OF_PAGES) {
+                        isEnded = true;
+                    } else if (page instanceof RuntimeException) {
+                        isEnded = true;
+
+                        throw (RuntimeException) page;
+                    } else if (page instanceof Error) {
+                        isEnded = true;
+
+                        throw (Error) page;
+                    } else if (page != null) {
+                        pagesAhead.release();
+
+                        return getVertices((List<String>) page);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            // terminated searches end with the pages already filtered
+            return Collections.emptyList();
+        }
+
+        // waits for the worker, whose fetch in progress - if any - is dropped once done
+        @Override
+        public void close() {
+            isClosed = true;
+
+            boolean isInterrupted = false;
+
+            while (finished.getCount() > 0) {
+                try {
+                    finished.await();
+                } catch (InterruptedException e) {
+                    isInterrupted = true;
+                }
+            }
+
+            queue.clear();
+
+            if (isInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // the worker is not interrupted on close, as that could fail the index query midway; it polls for close instead
+        private boolean awaitRoom() {
+            try {
+                while (!isClosed && !context.terminateSearch()) {
+                    if (pagesAhead.tryAcquire(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return false;
+        }
+
+        private List<String> fetchIds(AtlasIndexQuery indexQuery, int offset) {
+            List<String>                     ret    = new ArrayList<>();
+            Iterator<AtlasIndexQuery.Result> result = indexQuery.vertices(offset, windowSize);
+
+            while (result.hasNext()) {
+                ret.add(result.next().getVertex().getIdForDisplay());
+            }
+
+            return ret;
+        }
+
+        // on the request thread, in a single lookup; vertices removed since the index query ran are skipped. Their
+        // properties are then loaded together, as the page is about to be filtered on them
+        private List<AtlasVertex> getVertices(List<String> vertexIds) {
+            AtlasGraph        graph = context.getGraph();
+            List<AtlasVertex> ret   = graph.getVertices(vertexIds);
+
+            graph.prefetch(ret, Collections.<String>emptySet());
+
+            return ret;
+        }
+    }
+}
@@ -40,28 +40,33 @@ import java.util.Set;
  * possible chaining of processor(s)
  */
 public class SearchContext {
-    private final SearchParameters        searchParameters;
-    private final AtlasTypeRegistry       typeRegistry;
-    private final AtlasGraph              graph;
-    private final Set<String>             indexedKeys;
-    private final Set<String>             entityAttributes;
-    private final AtlasEntityType         entityType;
-    private final AtlasClassificationType classificationType;
-    private       SearchProcessor         searchProcessor;
-    private       boolean                 terminateSearch = false;
+    private final    SearchParameters        searchParameters;
+    private final    AtlasTypeRegistry       typeRegistry;
+    private final    AtlasGraph              graph;
+    private final    Set<String>             indexedKeys;
+    private final    Set<String>             entityAttributes;
+    private final    AtlasEntityType         entityType;
+    private final    AtlasClassificationType classificationType;
+    private final    SearchCursor            cursor;
+    private final    IndexPagePrefetcher     indexPagePrefetcher;
+    private          SearchProcessor         searchProcessor;
+    private          SearchCursor            nextCursor;
+    private volatile boolean                 terminateSearch = false;
 
     public final static AtlasClassificationType MATCH_ALL_CLASSIFICATION = new AtlasClassificationType(new AtlasClassificationDef("*"));
 
-    public SearchContext(SearchParameters searchParameters, AtlasTypeRegistry typeRegistry, AtlasGraph graph, Set<String> indexedKeys) throws AtlasBaseException {
+    public SearchContext(SearchParameters searchParameters, AtlasTypeRegistry typeRegistry, AtlasGraph graph, Set<String> indexedKeys,
+                         IndexPagePrefetcher indexPagePrefetcher) throws AtlasBaseException {
         String classificationName = searchParameters.getClassification();
 
-        this.searchParameters   = searchParameters;
-        this.typeRegistry       = typeRegistry;
-        this.graph              = graph;
-        this.indexedKeys        = indexedKeys;
-        this.entityAttributes   = new HashSet<>();
-        this.entityType         = typeRegistry.getEntityTypeByName(searchParameters.getTypeName());
-        this.classificationType = getClassificationType(classificationName);
+        this.searchParameters    = searchParameters;
+        this.typeRegistry        = typeRegistry;
+        this.graph               = graph;
+        this.indexedKeys         = indexedKeys;
+        this.entityAttributes    = new HashSet<>();
+        this.entityType          = typeRegistry.getEntityTypeByName(searchParameters.getTypeName());
+        this.classificationType  = getClassificationType(classificationName);
+        this.indexPagePrefetcher = indexPagePrefetcher;
 
         // Validate if the type name exists
         if (StringUtils.isNotEmpty(searchParameters.getTypeName()) && entityType == null) {
@@ -79,6 +84,9 @@ public class SearchContext {
         // Invalid attributes will raise an exception with 400 error code
         validateAttributes(classificationType, searchParameters.getTagFilters());
 
+        // Invalid cursor, or a cursor of another search, will raise an exception with 400 error code
+        this.cursor = SearchCursor.decode(searchParameters);
+
         if (needFullTextProcessor()) {
             addProcessor(new FullTextSearchProcessor(this));
         }
@@ -108,6 +116,14 @@ public class SearchContext {
 
     public SearchProcessor getSearchProcessor() { return searchProcessor; }
 
+    public IndexPagePrefetcher getIndexPagePrefetcher() { return indexPagePrefetcher; }
+
+    public SearchCursor getCursor() { return cursor; }
+
+    public SearchCursor getNextCursor() { return nextCursor; }
+
+    public void setNextCursor(SearchCursor nextCursor) { this.nextCursor = nextCursor; }
+
     public boolean terminateSearch() { return terminateSearch; }
 
     public void terminateSearch(boolean terminateSearch) { this.terminateSearch = terminateSearch; }
@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.type.AtlasType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/*
+ * Position of a basic search, from which the next page continues: the offset of a window of the query of the first
+ * search processor, the size of the windows, and the number of results - after filtering - already consumed from that
+ * window. Unlike an offset, this lets the next page skip the windows before the position, instead of filtering them again.
+ * The number of results before the position - the offset of the next page - is carried as well.
+ *
+ * A search that removes duplicate results - like a classification search, which finds an entity once for each of its
+ * classifications of the searched types - also needs the guids of results before the window that can be found again;
+ * these are carried in the cursor, up to atlas.search.cursor.max.guids of them. Past that, the cursor falls back to
+ * the offset: the next page starts from the first window and skips as many results as were returned before it.
+ *
+ * A cursor is valid only for the search it was created for; to the client, it is an opaque string.
+ */
+public class SearchCursor {
+    public static final String SEARCH_CURSOR_MAX_GUIDS_PROPERTY = "atlas.search.cursor.max.guids";
+
+    private static final String VERSION        = "3";
+    private static final String SEPARATOR      = ":";
+    private static final String GUID_SEPARATOR = ",";
+
+    private final String      fingerprint;
+    private final int         queryOffset;
+    private final int         windowSize;
+    private final int         consumed;
+    private final int         resultOffset;
+    private final Set<String> processedGuids;
+
+    public SearchCursor(SearchParameters searchParameters, int queryOffset, int windowSize, int consumed, int resultOffset) {
+        this(searchParameters, queryOffset, windowSize, consumed, resultOffset, Collections.<String>emptySet());
+    }
+
+    public SearchCursor(SearchParameters searchParameters, int queryOffset, int windowSize, int consumed, int resultOffset, Set<String> processedGuids) {
+        this(getFingerprint(searchParameters), queryOffset, windowSize, consumed, resultOffset, processedGuids);
+    }
+
+    private SearchCursor(String fingerprint, int queryOffset, int windowSize, int consumed, int resultOffset, Set<String> processedGuids) {
+        this.fingerprint    = fingerprint;
+        this.queryOffset    = queryOffset;
+        this.windowSize     = windowSize;
+        this.consumed       = consumed;
+        this.resultOffset   = resultOffset;
+        this.processedGuids = processedGuids;
+    }
+
+    public int getQueryOffset() { return queryOffset; }
+
+    public int getWindowSize() { return windowSize; }
+
+    public int getConsumed() { return consumed; }
+
+    /**
+     * @return number of results before the position, i.e. the offset of the next page
+     */
+    public int getResultOffset() { return resultOffset; }
+
+    /**
+     * @return guids of results before the window, which are to be skipped if found again
+     */
+    public Set<String> getProcessedGuids() { return processedGuids; }
+
+    public String encode() {
+        String str = VERSION + SEPARATOR + fingerprint + SEPARATOR + queryOffset + SEPARATOR + windowSize + SEPARATOR + consumed +
+                     SEPARATOR + resultOffset + SEPARATOR + String.join(GUID_SEPARATOR, processedGuids);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(str.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return cursor in the given search parameters; null if none is set
+     * @throws AtlasBaseException if the cursor is malformed, or was created for a different search
+     */
+    public static SearchCursor decode(SearchParameters searchParameters) throws AtlasBaseException {
+        String cursor = searchParameters.getCursor();
+
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+
+        final SearchCursor ret;
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+
+            if (parts.length != 7 || !VERSION.equals(parts[0])) {
+                throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "invalid cursor: " + cursor);
+            }
+
+            Set<String> processedGuids = parts[6].isEmpty() ? Collections.<String>emptySet() : new HashSet<>(Arrays.asList(parts[6].split(GUID_SEPARATOR)));
+
+            ret = new SearchCursor(parts[1], Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), Integer.parseInt(parts[4]), Integer.parseInt(parts[5]), processedGuids);
+        } catch (IllegalArgumentException e) { // includes NumberFormatException
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, e, "invalid cursor: " + cursor);
+        }
+
+        if (ret.queryOffset < 0 || ret.windowSize <= 0 || ret.consumed < 0 || ret.resultOffset < 0) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "invalid cursor: " + cursor);
+        }
+
+        if (!ret.fingerprint.equals(getFingerprint(searchParameters))) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "cursor is not for this search: " + cursor);
+        }
+
+        return ret;
+    }
+
+    // identifies the search, independent of the page requested
+    private static String getFingerprint(SearchParameters searchParameters) {
+        SearchParameters params = AtlasType.fromJson(AtlasType.toJson(searchParameters), SearchParameters.class);
+
+        params.setLimit(0);
+        params.setOffset(0);
+        params.setCursor(null);
+
+        if (params.getAttributes() != null) {
+            params.setAttributes(new TreeSet<>(params.getAttributes()));
+        }
+
+        return Integer.toHexString(AtlasType.toJson(params).hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return "SearchCursor{queryOffset=" + queryOffset + ", windowSize=" + windowSize + ", consumed=" + consumed + ", resultOffset=" + resultOffset + ", processedGuids=" + processedGuids.size() + "}";
+    }
+}
@@ -60,6 +60,7 @@ public abstract class SearchProcessor {
     public static final int     MAX_RESULT_SIZE            = getApplicationProperty(Constants.INDEX_SEARCH_MAX_RESULT_SET_SIZE, 150);
     public static final int     MAX_QUERY_STR_LENGTH_TYPES = getApplicationProperty(Constants.INDEX_SEARCH_TYPES_MAX_QUERY_STR_LENGTH, 512);
     public static final int     MAX_QUERY_STR_LENGTH_TAGS  = getApplicationProperty(Constants.INDEX_SEARCH_TAGS_MAX_QUERY_STR_LENGTH, 512);
+    public static final int     MAX_CURSOR_GUIDS           = getApplicationProperty(SearchCursor.SEARCH_CURSOR_MAX_GUIDS_PROPERTY, 1000);
     public static final String  AND_STR         = " AND ";
     public static final String  EMPTY_STRING    = "";
     public static final String  SPACE_STRING    = " ";
@@ -132,6 +133,42 @@ public abstract class SearchProcessor {
 
     public abstract List<AtlasVertex> execute();
 
+    /*
+     * Records where the next page continues from: the window of the query at queryOffset, of which 'consumed' number
+     * of results - after filtering - are either in this page or in earlier pages
+     */
+    protected void setNextCursor(int queryOffset, int windowSize, int consumed) {
+        context.setNextCursor(new SearchCursor(context.getSearchParameters(), queryOffset, windowSize, consumed, getNextResultOffset()));
+    }
+
+    /*
+     * As above, for a search that removes duplicate results: processedGuids are of results before the window that can
+     * be found again. If there are more than MAX_CURSOR_GUIDS of these, the next page starts from the first window
+     * instead, skipping as many results as were returned before it - like a page requested by offset
+     */
+    protected void setNextCursor(int queryOffset, int windowSize, int consumed, Set<String> processedGuids) {
+        int resultOffset = getNextResultOffset();
+
+        if (processedGuids.size() > MAX_CURSOR_GUIDS) {
+            context.setNextCursor(new SearchCursor(context.getSearchParameters(), 0, windowSize, resultOffset, resultOffset));
+        } else {
+            context.setNextCursor(new SearchCursor(context.getSearchParameters(), queryOffset, windowSize, consumed, resultOffset, processedGuids));
+        }
+    }
+
+    // offset of the next page; called when this page is full
+    private int getNextResultOffset() {
+        SearchCursor     cursor = context.getCursor();
+        SearchParameters params = context.getSearchParameters();
+
+        return (cursor != null ? cursor.getResultOffset() : params.getOffset()) + params.getLimit();
+    }
+
+    // pages of the index query; fetched ahead by a worker while the current page is filtered, if prefetch is enabled
+    protected IndexPagePrefetcher.Pages getIndexPages(String indexName, String indexQueryString, int offset, int windowSize) {
+        return context.getIndexPagePrefetcher().getPages(context, indexName, indexQueryString, offset, windowSize);
+    }
+
     protected int collectResultVertices(final List<AtlasVertex> ret, final int startIdx, final int limit, int resultIdx, final List<AtlasVertex> entityVertices) {
         for (AtlasVertex entityVertex : entityVertices) {
             resultIdx++;
@@ -152,7 +189,14 @@ public abstract class SearchProcessor {
 
     public void filter(List<AtlasVertex> entityVertices) {
         if (nextProcessor != null && CollectionUtils.isNotEmpty(entityVertices)) {
-            nextProcessor.filter(entityVertices);
+            // results of a terminated search can't be filtered by subsequent processors; discard them
+            if (context.terminateSearch()) {
+                LOG.warn("query terminated: {}", context.getSearchParameters());
+
+                entityVertices.clear();
+            } else {
+                nextProcessor.filter(entityVertices);
+            }
         }
     }
 
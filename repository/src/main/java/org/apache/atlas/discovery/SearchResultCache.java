@@ -0,0 +1,379 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.listener.ChangedTypeDefs;
+import org.apache.atlas.listener.TypeDefChangeListener;
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
+import org.apache.atlas.query.DSLQueryCache;
+import org.apache.atlas.type.AtlasArrayType;
+import org.apache.atlas.type.AtlasBuiltInTypes.AtlasObjectIdType;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in cache of results of basic and DSL searches.
+ *
+ * Each entity type has a generation number, incremented on every change to an entity of the type - including its
+ * classifications and relationships. A cached result records the generations of the types it depends on, and is
+ * served only while none of them has changed. A basic search on a type depends on the type, its sub-types and the
+ * types of requested reference attributes; other searches, like DSL and classification-only searches, can touch any
+ * type and hence depend on changes to entities of every type. Type changes clear the entire cache.
+ *
+ * Search results are not filtered per user - authorization is enforced per request - hence cached results are shared
+ * by all users.
+ */
+@Component
+public class SearchResultCache implements TypeDefChangeListener, ActiveStateChangeHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(SearchResultCache.class);
+
+    public static final String SEARCH_RESULT_CACHE_MAX_ENTITIES_PROPERTY = "atlas.search.result.cache.max.entities";
+
+    private final AtlasTypeRegistry                 typeRegistry;
+    private final Cache<String, CacheEntry>         cache;
+    private final ConcurrentMap<String, AtomicLong> typeGenerations   = new ConcurrentHashMap<>();
+    private final AtomicLong                        anyTypeGeneration = new AtomicLong();
+    private final AtomicLong                        flushGeneration   = new AtomicLong();
+    private final AtomicLong                        hitCount          = new AtomicLong();
+    private final AtomicLong                        missCount         = new AtomicLong();
+
+    @Inject
+    public SearchResultCache(AtlasTypeRegistry typeRegistry) throws AtlasException {
+        this(typeRegistry, ApplicationProperties.get());
+    }
+
+    @VisibleForTesting
+    public SearchResultCache(AtlasTypeRegistry typeRegistry, Configuration configuration) {
+        long maxEntities = configuration.getLong(SEARCH_RESULT_CACHE_MAX_ENTITIES_PROPERTY, 0);
+
+        this.typeRegistry = typeRegistry;
+        this.cache        = maxEntities > 0 ? CacheBuilder.newBuilder().maximumWeight(maxEntities).weigher(new ResultWeigher()).<String, CacheEntry>build() : null;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public String getKey(SearchParameters searchParameters) {
+        SearchParameters params     = searchParameters;
+        Set<String>      attributes = searchParameters.getAttributes();
+
+        // attributes of equal searches can be listed in different order; sorted in a copy, as the search continues with the given parameters
+        if (attributes != null && !(attributes instanceof TreeSet)) {
+            params = AtlasType.fromJson(AtlasType.toJson(searchParameters), SearchParameters.class);
+
+            params.setAttributes(new TreeSet<>(attributes));
+        }
+
+        return flushGeneration.get() + ":basic:" + AtlasType.toJson(params);
+    }
+
+    public String getKey(String dslQuery, int limit, int offset) {
+        return flushGeneration.get() + ":dsl:" + offset + ":" + limit + ":" + DSLQueryCache.normalize(dslQuery);
+    }
+
+    /**
+     * @return generations of the types the given search depends on; to be taken before the search is executed
+     */
+    public Dependencies getDependencies(SearchParameters searchParameters) {
+        AtlasEntityType entityType = typeRegistry.getEntityTypeByName(searchParameters.getTypeName());
+
+        // full-text of an entity includes text of the entities it refers to
+        if (entityType == null || StringUtils.isNotEmpty(searchParameters.getQuery())) {
+            return getDependenciesOnAnyType();
+        }
+
+        Set<String> typeNames      = new HashSet<>(entityType.getTypeAndAllSubTypes());
+        Set<String> attributeNames = new HashSet<>();
+
+        if (searchParameters.getAttributes() != null) {
+            attributeNames.addAll(searchParameters.getAttributes());
+        }
+
+        addFilterAttributeNames(searchParameters.getEntityFilters(), attributeNames);
+
+        // headers of referred entities are included in the result
+        for (String attributeName : attributeNames) {
+            AtlasAttribute attribute     = entityType.getAttribute(attributeName);
+            AtlasType      attributeType = attribute != null ? attribute.getAttributeType() : null;
+
+            if (attributeType instanceof AtlasArrayType) {
+                attributeType = ((AtlasArrayType) attributeType).getElementType();
+            }
+
+            if (attributeType instanceof AtlasEntityType) {
+                typeNames.addAll(((AtlasEntityType) attributeType).getTypeAndAllSubTypes());
+            } else if (attributeType instanceof AtlasObjectIdType) {
+                AtlasEntityType referredType = typeRegistry.getEntityTypeByName(((AtlasObjectIdType) attributeType).getObjectType());
+
+                if (referredType == null) {
+                    return getDependenciesOnAnyType();
+                }
+
+                typeNames.addAll(referredType.getTypeAndAllSubTypes());
+            }
+        }
+
+        Map<String, Long> generations = new HashMap<>();
+
+        for (String typeName : typeNames) {
+            generations.put(typeName, getGeneration(typeName));
+        }
+
+        return new Dependencies(generations, null);
+    }
+
+    public Dependencies getDependenciesOnAnyType() {
+        return new Dependencies(null, anyTypeGeneration.get());
+    }
+
+    /**
+     * @return copy of the cached result for the given key, which the caller is free to change; null if not cached, or
+     * if entities of the types it depends on changed
+     */
+    public AtlasSearchResult get(String key) {
+        CacheEntry        entry = cache != null ? cache.getIfPresent(key) : null;
+        AtlasSearchResult ret   = null;
+
+        if (entry != null) {
+            if (entry.dependencies.isCurrent()) {
+                ret = AtlasType.fromJson(entry.resultJson, AtlasSearchResult.class);
+            } else {
+                cache.invalidate(key);
+            }
+        }
+
+        if (ret != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+
+        return ret;
+    }
+
+    // the result is cached as JSON, so that later changes to it - by the caller, or by callers of get() - are not seen
+    public void put(String key, AtlasSearchResult result, Dependencies dependencies) {
+        if (cache != null && result != null) {
+            cache.put(key, new CacheEntry(AtlasType.toJson(result), getWeight(result), dependencies));
+        }
+    }
+
+    /**
+     * Invalidates cached results that depend on the given types. To be called within the graph transaction that
+     * changes the entities; results are invalidated again when the transaction completes, as searches that ran
+     * during the transaction would not have seen the changes.
+     *
+     * @param typeNames type names of changed entities; a null type name invalidates all cached results
+     */
+    public void onEntitiesChanged(final Collection<String> typeNames) {
+        if (cache == null || CollectionUtils.isEmpty(typeNames)) {
+            return;
+        }
+
+        incrementGenerations(typeNames);
+
+        new GraphTransactionInterceptor.PostTransactionHook() {
+            @Override
+            public void onComplete(boolean isSuccess) {
+                incrementGenerations(typeNames);
+            }
+        };
+    }
+
+    public void clear() {
+        flushGeneration.incrementAndGet();
+
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public long size() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public double getHitRate() {
+        long hits     = hitCount.get();
+        long requests = hits + missCount.get();
+
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    @Override
+    public void onChange(ChangedTypeDefs changedTypeDefs) {
+        clear();
+    }
+
+    // entities might have been changed by the other instance while this instance was passive
+    @Override
+    public void instanceIsActive() {
+        clear();
+    }
+
+    @Override
+    public void instanceIsPassive() {
+        clear();
+    }
+
+    @Override
+    public int getHandlerOrder() {
+        return HandlerOrder.SEARCH_RESULT_CACHE.getOrder();
+    }
+
+    private void incrementGenerations(Collection<String> typeNames) {
+        for (String typeName : typeNames) {
+            if (typeName == null) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("SearchResultCache: type of changed entity not known; clearing");
+                }
+
+                clear();
+            } else {
+                typeGenerations.computeIfAbsent(typeName, k -> new AtomicLong()).incrementAndGet();
+            }
+        }
+
+        anyTypeGeneration.incrementAndGet();
+    }
+
+    private long getGeneration(String typeName) {
+        AtomicLong generation = typeGenerations.get(typeName);
+
+        return generation != null ? generation.get() : 0;
+    }
+
+    private static void addFilterAttributeNames(FilterCriteria filterCriteria, Set<String> attributeNames) {
+        if (filterCriteria == null) {
+            return;
+        }
+
+        if (filterCriteria.getAttributeName() != null) {
+            attributeNames.add(filterCriteria.getAttributeName());
+        }
+
+        if (filterCriteria.getCriterion() != null) {
+            for (FilterCriteria criteria : filterCriteria.getCriterion()) {
+                addFilterAttributeNames(criteria, attributeNames);
+            }
+        }
+    }
+
+    public class Dependencies {
+        private final Map<String, Long> typeGenerations;
+        private final Long              anyTypeGeneration;
+
+        Dependencies(Map<String, Long> typeGenerations, Long anyTypeGeneration) {
+            this.typeGenerations   = typeGenerations;
+            this.anyTypeGeneration = anyTypeGeneration;
+        }
+
+        boolean isCurrent() {
+            if (anyTypeGeneration != null) {
+                return anyTypeGeneration == SearchResultCache.this.anyTypeGeneration.get();
+            }
+
+            for (Map.Entry<String, Long> entry : typeGenerations.entrySet()) {
+                if (entry.getValue() != getGeneration(entry.getKey())) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    // weight of a result is the number of entities in it
+    private static int getWeight(AtlasSearchResult result) {
+        int ret = 1;
+
+        if (result.getEntities() != null) {
+            ret += result.getEntities().size();
+        }
+
+        if (result.getFullTextResult() != null) {
+            ret += result.getFullTextResult().size();
+        }
+
+        if (result.getReferredEntities() != null) {
+            ret += result.getReferredEntities().size();
+        }
+
+        if (result.getAttributes() != null && result.getAttributes().getValues() != null) {
+            ret += result.getAttributes().getValues().size();
+        }
+
+        return ret;
+    }
+
+    private static class CacheEntry {
+        final String       resultJson;
+        final int          weight;
+        final Dependencies dependencies;
+
+        CacheEntry(String resultJson, int weight, Dependencies dependencies) {
+            this.resultJson   = resultJson;
+            this.weight       = weight;
+            this.dependencies = dependencies;
+        }
+    }
+
+    private static class ResultWeigher implements Weigher<String, CacheEntry> {
+        @Override
+        public int weigh(String key, CacheEntry entry) {
+            return entry.weight;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.query;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.listener.ChangedTypeDefs;
+import org.apache.atlas.listener.TypeDefChangeListener;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.commons.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of Gremlin queries translated from DSL queries, keyed by the DSL text - with whitespace outside
+ * literals and comments collapsed - limit and offset. Translation depends on the types in the registry, hence the cache is cleared
+ * on every type change.
+ */
+@Component
+public class DSLQueryCache implements TypeDefChangeListener, ActiveStateChangeHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(DSLQueryCache.class);
+
+    public static final String DSL_QUERY_CACHE_SIZE_PROPERTY = "atlas.dsl.query.cache.size";
+    public static final int    DEFAULT_DSL_QUERY_CACHE_SIZE  = 1000;
+
+    private final AtlasTypeRegistry           typeRegistry;
+    private final Cache<String, GremlinQuery> cache;
+    private final AtomicLong                  generation = new AtomicLong();
+
+    @Inject
+    public DSLQueryCache(AtlasTypeRegistry typeRegistry) throws AtlasException {
+        this(typeRegistry, ApplicationProperties.get());
+    }
+
+    @VisibleForTesting
+    public DSLQueryCache(AtlasTypeRegistry typeRegistry, Configuration configuration) {
+        int maxSize = configuration.getInt(DSL_QUERY_CACHE_SIZE_PROPERTY, DEFAULT_DSL_QUERY_CACHE_SIZE);
+
+        this.typeRegistry = typeRegistry;
+        this.cache        = maxSize > 0 ? CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().<String, GremlinQuery>build() : null;
+    }
+
+    /**
+     * @return Gremlin query for the given DSL query, from the cache if present; translated otherwise
+     */
+    public GremlinQuery translate(String query, int offset, int limit) throws AtlasBaseException {
+        if (cache == null) {
+            return new AtlasDSL.Translator(query, typeRegistry, offset, limit).translate();
+        }
+
+        // key includes the generation, so that a translation that started before a type change is never served after it
+        String       key = generation.get() + ":" + offset + ":" + limit + ":" + normalize(query);
+        GremlinQuery ret = cache.getIfPresent(key);
+
+        if (ret == null) {
+            ret = new AtlasDSL.Translator(query, typeRegistry, offset, limit).translate();
+
+            if (ret != null) {
+                cache.put(key, ret);
+            }
+        } else if (LOG.isDebugEnabled()) {
+            LOG.debug("DSLQueryCache: found translation for {}", query);
+        }
+
+        return ret;
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public long size() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    public long getHitCount() {
+        return cache != null ? cache.stats().hitCount() : 0;
+    }
+
+    public long getMissCount() {
+        return cache != null ? cache.stats().missCount() : 0;
+    }
+
+    public double getHitRate() {
+        return cache != null ? cache.stats().hitRate() : 1.0;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    @Override
+    public void onChange(ChangedTypeDefs changedTypeDefs) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("DSLQueryCache: clearing on type change {}", changedTypeDefs);
+        }
+
+        clear();
+    }
+
+    // types are reloaded when the instance becomes active
+    @Override
+    public void instanceIsActive() {
+        clear();
+    }
+
+    @Override
+    public void instanceIsPassive() {
+        clear();
+    }
+
+    @Override
+    public int getHandlerOrder() {
+        return HandlerOrder.DSL_QUERY_CACHE.getOrder();
+    }
+
+    /*
+     * Collapses runs of whitespace outside of literals and comments to a single space - or to a single newline, when the
+     * run includes one, as a newline ends a '--' comment. The lexer skips whitespace, hence this doesn't change the
+     * meaning of the query. Literals are enclosed in ", ' or `, without escapes.
+     */
+    public static String normalize(String query) {
+        StringBuilder sb        = new StringBuilder(query.length());
+        boolean       inSpace   = false;
+        boolean       inNewLine = false;
+
+        for (int i = 0; i < query.length(); ) {
+            char c = query.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                inSpace   = true;
+                inNewLine = inNewLine || c == '\n' || c == '\r';
+
+                i++;
+
+                continue;
+            }
+
+            if (inSpace) {
+                if (sb.length() > 0) {
+                    sb.append(inNewLine ? '\n' : ' ');
+                }
+
+                inSpace   = false;
+                inNewLine = false;
+            }
+
+            int end = getTokenEnd(query, i);
+
+            sb.append(query, i, end);
+
+            i = end;
+        }
+
+        return sb.toString();
+    }
+
+    // end of the literal or comment starting at the given index, which are kept as is; the next character otherwise
+    private static int getTokenEnd(String query, int start) {
+        char c = query.charAt(start);
+        int  ret;
+
+        if (c == '"' || c == '\'' || c == '`') {
+            ret = query.indexOf(c, start + 1);
+            ret = ret == -1 ? query.length() : ret + 1;
+        } else if (query.startsWith("--", start)) {
+            ret = start + 2;
+
+            while (ret < query.length() && query.charAt(ret) != '\n' && query.charAt(ret) != '\r') {
+                ret++;
+            }
+        } else if (query.startsWith("/*", start)) {
+            ret = query.indexOf("*/", start + 2);
+            ret = ret == -1 ? query.length() : ret + 2;
+        } else {
+            ret = start + 1;
+        }
+
+        return ret;
+    }
+}
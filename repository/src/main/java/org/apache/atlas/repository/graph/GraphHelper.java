@@ -122,6 +122,16 @@ public final class GraphHelper {
         return INSTANCE;
     }
 
+    /**
+     * Loads properties - and adjacent edges with the given labels - of the given vertices in a single round trip
+     * to the storage backend, where supported by the graph.
+     */
+    public void prefetch(Collection<AtlasVertex> vertices, Set<String> edgeLabels) {
+        if (CollectionUtils.isNotEmpty(vertices)) {
+            graph.prefetch(vertices, edgeLabels);
+        }
+    }
+
 
     public AtlasVertex createVertexWithIdentity(Referenceable typedInstance, Set<String> superTypeNames) {
         final String guid = UUID.randomUUID().toString();
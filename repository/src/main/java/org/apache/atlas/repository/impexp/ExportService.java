@@ -18,6 +18,8 @@
 package org.apache.atlas.repository.impexp;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.AtlasServiceException;
@@ -36,7 +38,13 @@ import org.apache.atlas.model.typedef.AtlasEnumDef;
 import org.apache.atlas.model.typedef.AtlasStructDef;
 import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
+import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
 import org.apache.atlas.repository.store.graph.v1.EntityGraphRetriever;
 import org.apache.atlas.type.AtlasArrayType;
 import org.apache.atlas.type.AtlasClassificationType;
@@ -47,7 +55,6 @@ import org.apache.atlas.type.AtlasStructType;
 import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
 import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.type.AtlasTypeRegistry;
-import org.apache.atlas.type.AtlasTypeUtil;
 import org.apache.atlas.util.AtlasGremlinQueryProvider;
 import org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery;
 import org.apache.commons.collections.CollectionUtils;
@@ -61,12 +68,22 @@ import javax.inject.Inject;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import static org.apache.atlas.model.impexp.AtlasExportRequest.*;
 
@@ -74,10 +91,20 @@ import static org.apache.atlas.model.impexp.AtlasExportRequest.*;
 public class ExportService {
     private static final Logger LOG = LoggerFactory.getLogger(ExportService.class);
 
+    public static final String EXPORT_WORKER_THREADS_PROPERTY       = "atlas.export.worker.threads";
+    public static final String EXPORT_CHANGE_MARKER_WINDOW_PROPERTY = "atlas.export.change.marker.safety.window.ms";
+
+    private static final int    DEFAULT_EXPORT_WORKER_THREADS       = 4;
+    private static final long   DEFAULT_EXPORT_CHANGE_MARKER_WINDOW = 60 * 1000;
+    private static final int    ENTITIES_PER_WORKER           = 16;
+    private static final String EXPORT_THREAD_NAME_FORMAT     = "atlas-export-%d";
+
     private final AtlasTypeRegistry         typeRegistry;
     private final AtlasGraph                atlasGraph;
     private final EntityGraphRetriever      entityGraphRetriever;
     private final AtlasGremlinQueryProvider gremlinQueryProvider;
+    private final int                       workerCount;
+    private final long                      changeMarkerWindowMs;
 
     @Inject
     public ExportService(final AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph) throws AtlasBaseException {
@@ -85,6 +112,8 @@ public class ExportService {
         this.entityGraphRetriever = new EntityGraphRetriever(this.typeRegistry);
         this.atlasGraph           = atlasGraph;
         this.gremlinQueryProvider = AtlasGremlinQueryProvider.INSTANCE;
+        this.workerCount          = getWorkerCount();
+        this.changeMarkerWindowMs = getChangeMarkerWindowMs();
     }
 
     public AtlasExportResult run(ZipSink exportSink, AtlasExportRequest request, String userName, String hostName,
@@ -93,8 +122,12 @@ public class ExportService {
         AtlasExportResult result    = new AtlasExportResult(request, userName, requestingIP, hostName, startTime);
         ExportContext     context   = new ExportContext(result, exportSink);
 
+        // entities updated by transactions still in flight at start, or on a server whose clock lags, can carry a
+        // modification timestamp before startTime; the next incremental export starts early enough to include them
+        result.setChangeMarker(Math.max(0, startTime - changeMarkerWindowMs));
+
         try {
-            LOG.info("==> export(user={}, from={})", userName, requestingIP);
+            LOG.info("==> export(user={}, from={}, changedSince={})", userName, requestingIP, context.changedSince);
 
             AtlasExportResult.OperationStatus[] statuses = processItems(request, context);
 
@@ -103,7 +136,7 @@ public class ExportService {
         } catch(Exception ex) {
             LOG.error("Operation failed: ", ex);
         } finally {
-            atlasGraph.releaseGremlinScriptEngine(context.scriptEngine);
+            context.close();
             LOG.info("<== export(user={}, from={}): status {}", userName, requestingIP, context.result.getOperationStatus());
             context.clear();
             result.clear();
@@ -161,6 +194,15 @@ public class ExportService {
     private AtlasExportResult.OperationStatus[] processItems(AtlasExportRequest request, ExportContext context) throws AtlasServiceException, AtlasException, AtlasBaseException {
         AtlasExportResult.OperationStatus statuses[] = new AtlasExportResult.OperationStatus[request.getItemsToExport().size()];
         List<AtlasObjectId> itemsToExport = request.getItemsToExport();
+
+        if (context.isIncremental() && context.changedGuids.isEmpty()) {
+            LOG.info("export(): no entities changed since {}", context.changedSince);
+
+            Arrays.fill(statuses, AtlasExportResult.OperationStatus.SUCCESS);
+
+            return statuses;
+        }
+
         for (int i = 0; i < itemsToExport.size(); i++) {
             AtlasObjectId item = itemsToExport.get(i);
             statuses[i] = processObjectId(item, context);
@@ -199,8 +241,7 @@ public class ExportService {
 
             while (!context.guidsToProcess.isEmpty()) {
                 while (!context.guidsToProcess.isEmpty()) {
-                    String guid = context.guidsToProcess.remove(0);
-                    processEntity(guid, context);
+                    processEntities(context);
                 }
 
                 if (!context.lineageToProcess.isEmpty()) {
@@ -290,28 +331,74 @@ public class ExportService {
     }
 
     private void processEntity(String guid, ExportContext context) throws AtlasBaseException {
+        if (!context.guidsProcessed.contains(guid)) {
+            processEntity(fetchEntity(guid, context.guidDirection.get(guid), context), context);
+        }
+    }
+
+    /*
+     * Entities are processed in batches taken from the head of guidsToProcess: entities of a batch are retrieved,
+     * serialized and their connected entities queried by worker threads, while the results are applied to the
+     * context in the order of guidsToProcess - which keeps the export order same as processing one entity at a time.
+     */
+    private void processEntities(ExportContext context) throws AtlasBaseException {
+        List<Future<ExportedEntity>> batch = new ArrayList<>();
+
+        while (!context.guidsToProcess.isEmpty() && batch.size() < context.batchSize) {
+            String guid = context.guidsToProcess.remove(0);
+
+            if (!context.guidsProcessed.contains(guid)) {
+                batch.add(context.submit(createFetchTask(guid, context.guidDirection.get(guid), context)));
+            }
+        }
+
+        for (Future<ExportedEntity> future : batch) {
+            processEntity(getExportedEntity(future), context);
+        }
+    }
+
+    private void processEntity(ExportedEntity exportedEntity, ExportContext context) throws AtlasBaseException {
+        String guid = exportedEntity.guid;
+
         if (LOG.isDebugEnabled()) {
             LOG.debug("==> processEntity({})", guid);
         }
 
         if (!context.guidsProcessed.contains(guid)) {
-            TraversalDirection      direction         = context.guidDirection.get(guid);
-            AtlasEntityWithExtInfo  entityWithExtInfo = entityGraphRetriever.toAtlasEntityWithExtInfo(guid);
+            TraversalDirection direction = context.guidDirection.get(guid);
 
-            if(!context.lineageProcessed.contains(guid)) {
+            // direction of the entity was updated by an entity processed earlier in the batch; connected entities need to be fetched again
+            if (context.fetchType == ExportFetchType.CONNECTED && direction != exportedEntity.direction) {
+                exportedEntity = fetchEntity(guid, direction, context);
+            }
+
+            AtlasEntityWithExtInfo entityWithExtInfo = exportedEntity.entityWithExtInfo;
+
+            if (entityWithExtInfo == null) { // unchanged entity in an incremental export: only find connected entities
+                context.guidsProcessed.add(guid);
+                addConnectedEntities(exportedEntity.connectedEntities.get(guid), context);
+
+                return;
+            }
+
+            if (context.isIncremental()) {
+                addReferencedEntities(entityWithExtInfo, context);
+            }
+
+            if(!context.lineageProcessed.contains(guid) && !(context.isIncremental() && context.sink.hasEntity(guid))) {
                 context.result.getData().getEntityCreationOrder().add(entityWithExtInfo.getEntity().getGuid());
             }
 
-            addEntity(entityWithExtInfo, context);
+            addEntity(exportedEntity, context);
             addTypes(entityWithExtInfo.getEntity(), context);
 
             context.guidsProcessed.add(entityWithExtInfo.getEntity().getGuid());
-            getConntedEntitiesBasedOnOption(entityWithExtInfo.getEntity(), context, direction);
+            addConnectedEntities(exportedEntity.connectedEntities.get(entityWithExtInfo.getEntity().getGuid()), context);
 
             if(entityWithExtInfo.getReferredEntities() != null) {
                 for (AtlasEntity e : entityWithExtInfo.getReferredEntities().values()) {
                     addTypes(e, context);
-                    getConntedEntitiesBasedOnOption(e, context, direction);
+                    addConnectedEntities(exportedEntity.connectedEntities.get(e.getGuid()), context);
                 }
 
                 context.guidsProcessed.addAll(entityWithExtInfo.getReferredEntities().keySet());
@@ -323,126 +410,279 @@ public class ExportService {
         }
     }
 
-    private void getConntedEntitiesBasedOnOption(AtlasEntity entity, ExportContext context, TraversalDirection direction) throws AtlasBaseException {
+    private Callable<ExportedEntity> createFetchTask(final String guid, final TraversalDirection direction, final ExportContext context) {
+        return new Callable<ExportedEntity>() {
+            @Override
+            public ExportedEntity call() throws Exception {
+                boolean isWorkerThread = context.executor != null;
+
+                try {
+                    return fetchEntity(guid, direction, context);
+                } finally {
+                    if (isWorkerThread) { // end the read-only transaction of the worker thread
+                        atlasGraph.rollback();
+                    }
+                }
+            }
+        };
+    }
+
+    private ExportedEntity getExportedEntity(Future<ExportedEntity> future) throws AtlasBaseException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            throw cause instanceof AtlasBaseException ? (AtlasBaseException) cause : new AtlasBaseException(cause);
+        }
+    }
+
+    // retrieves the entity, serializes it and finds entities connected to the entity and its referred entities; doesn't update the context
+    private ExportedEntity fetchEntity(String guid, TraversalDirection direction, ExportContext context) throws AtlasBaseException {
+        if (context.isIncremental() && !context.changedGuids.contains(guid)) {
+            return fetchUnchangedEntity(guid, direction, context);
+        }
+
+        AtlasEntityWithExtInfo entityWithExtInfo = entityGraphRetriever.toAtlasEntityWithExtInfo(guid);
+        ExportedEntity         ret               = new ExportedEntity(guid, direction, entityWithExtInfo, AtlasType.toJson(entityWithExtInfo));
+
+        ret.connectedEntities.put(entityWithExtInfo.getEntity().getGuid(), getConntedEntitiesBasedOnOption(entityWithExtInfo.getEntity().getGuid(), entityWithExtInfo.getEntity().getTypeName(), context, direction));
+
+        if(entityWithExtInfo.getReferredEntities() != null) {
+            for (AtlasEntity e : entityWithExtInfo.getReferredEntities().values()) {
+                ret.connectedEntities.put(e.getGuid(), getConntedEntitiesBasedOnOption(e.getGuid(), e.getTypeName(), context, direction));
+            }
+        }
+
+        return ret;
+    }
+
+    // entity not changed since the previous export is not retrieved; only the entities connected to it are found
+    private ExportedEntity fetchUnchangedEntity(String guid, TraversalDirection direction, ExportContext context) throws AtlasBaseException {
+        AtlasVertex vertex = AtlasGraphUtilsV1.findByGuid(guid);
+
+        if (vertex == null) {
+            throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_NOT_FOUND, guid);
+        }
+
+        ExportedEntity ret = new ExportedEntity(guid, direction, null, null);
+
+        ret.connectedEntities.put(guid, getConntedEntitiesBasedOnOption(guid, AtlasGraphUtilsV1.getTypeName(vertex), context, direction));
+
+        return ret;
+    }
+
+    private List<ConnectedEntities> getConntedEntitiesBasedOnOption(String guid, String typeName, ExportContext context, TraversalDirection direction) throws AtlasBaseException {
         switch (context.fetchType) {
             case CONNECTED:
-                getEntityGuidsForConnectedFetch(entity, context, direction);
-                break;
+                return getEntityGuidsForConnectedFetch(guid, typeName, direction);
 
             case FULL:
             default:
-                getEntityGuidsForFullFetch(entity, context);
+                return Collections.singletonList(getConnectedEntities(guid, TraversalDirection.BOTH));
         }
     }
 
-    private void getEntityGuidsForConnectedFetch(AtlasEntity entity, ExportContext context, TraversalDirection direction) throws AtlasBaseException {
+    private List<ConnectedEntities> getEntityGuidsForConnectedFetch(String guid, String typeName, TraversalDirection direction) throws AtlasBaseException {
         if (direction == null || direction == TraversalDirection.UNKNOWN) {
-            getConnectedEntityGuids(entity, context, TraversalDirection.OUTWARD, TraversalDirection.INWARD);
+            return Arrays.asList(getConnectedEntities(guid, TraversalDirection.OUTWARD), getConnectedEntities(guid, TraversalDirection.INWARD));
         } else {
-            if (isProcessEntity(entity)) {
+            if (isProcessType(typeName)) {
                 direction = TraversalDirection.OUTWARD;
             }
 
-            getConnectedEntityGuids(entity, context, direction);
+            return Collections.singletonList(getConnectedEntities(guid, direction));
         }
     }
 
-    private boolean isProcessEntity(AtlasEntity entity) throws AtlasBaseException {
-        String          typeName   = entity.getTypeName();
+    private boolean isProcessType(String typeName) {
         AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
 
-        return entityType.isSubTypeOf(AtlasBaseTypeDef.ATLAS_TYPE_PROCESS);
+        return entityType != null && entityType.isSubTypeOf(AtlasBaseTypeDef.ATLAS_TYPE_PROCESS);
     }
 
-    private void getConnectedEntityGuids(AtlasEntity entity, ExportContext context, TraversalDirection... directions) {
-        if(directions == null) {
-            return;
+    /*
+     * Finds entities connected to the given entity by walking its edges in the given direction: adjacent edges of
+     * the vertex are read in one call, and properties of the vertices at the other end are then loaded in one batch
+     * (where the graph supports it) - only their guid and typeName are used.
+     */
+    private ConnectedEntities getConnectedEntities(String entityGuid, TraversalDirection direction) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> getConnectedEntities({}, {})", entityGuid, direction);
         }
 
-        for (TraversalDirection direction : directions) {
-            String query = getQueryForTraversalDirection(direction);
+        Map<String, ConnectedEntity> connected = new LinkedHashMap<>();
+        AtlasVertex                  vertex    = AtlasGraphUtilsV1.findByGuid(entityGuid);
 
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("==> getConnectedEntityGuids({}): guidsToProcess {} query {}", AtlasTypeUtil.getAtlasObjectId(entity), context.guidsToProcess.size(), query);
-            }
+        if (vertex != null) {
+            Object                   vertexId         = vertex.getId();
+            Map<Object, AtlasVertex> adjacentVertices = new LinkedHashMap<>();
 
-            context.bindings.clear();
-            context.bindings.put("startGuid", entity.getGuid());
+            for (AtlasEdge edge : (Iterable<AtlasEdge>) vertex.getEdges(getEdgeDirection(direction))) {
+                AtlasVertex outVertex = edge.getOutVertex();
+                AtlasVertex adjacent  = vertexId.equals(outVertex.getId()) ? edge.getInVertex() : outVertex;
 
-            List<Map<String, Object>> result = executeGremlinQuery(query, context);
-
-            if (CollectionUtils.isEmpty(result)) {
-                continue;
+                adjacentVertices.put(adjacent.getId(), adjacent);
             }
 
-            for (Map<String, Object> map : result) {
-                String             guid             = (String) map.get("__guid");
-                TraversalDirection currentDirection = context.guidDirection.get(guid);
-                boolean            isLineage        = (boolean) map.get("isProcess");
+            atlasGraph.prefetch(adjacentVertices.values(), Collections.<String>emptySet());
 
-                if (currentDirection == null) {
-                    context.addToBeProcessed(isLineage, guid, direction);
+            for (AtlasVertex adjacent : adjacentVertices.values()) {
+                String guid = AtlasGraphUtilsV1.getIdFromVertex(adjacent);
 
-                } else if (currentDirection == TraversalDirection.OUTWARD && direction == TraversalDirection.INWARD) {
-                    // the entity should be reprocessed to get inward entities
-                    context.guidsProcessed.remove(guid);
-                    context.addToBeProcessed(isLineage, guid, direction);
+                if (guid != null && !connected.containsKey(guid)) {
+                    connected.put(guid, new ConnectedEntity(guid, AtlasGraphUtilsV1.getTypeName(adjacent)));
                 }
             }
+        }
 
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("<== getConnectedEntityGuids({}): found {} guids; guidsToProcess {}", entity.getGuid(), result.size(), context.guidsToProcess.size());
-            }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== getConnectedEntities({}, {}): found {} guids", entityGuid, direction, connected.size());
         }
+
+        return new ConnectedEntities(direction, new ArrayList<>(connected.values()));
     }
 
-    private String getQueryForTraversalDirection(TraversalDirection direction) {
+    private AtlasEdgeDirection getEdgeDirection(TraversalDirection direction) {
         switch (direction) {
             case INWARD:
-                return this.gremlinQueryProvider.getQuery(AtlasGremlinQuery.EXPORT_BY_GUID_CONNECTED_IN_EDGE);
+                return AtlasEdgeDirection.IN;
 
-            default:
             case OUTWARD:
-                return this.gremlinQueryProvider.getQuery(AtlasGremlinQuery.EXPORT_BY_GUID_CONNECTED_OUT_EDGE);
+                return AtlasEdgeDirection.OUT;
+
+            default:
+                return AtlasEdgeDirection.BOTH;
         }
     }
 
-    private void getEntityGuidsForFullFetch(AtlasEntity entity, ExportContext context) {
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("==> getEntityGuidsForFullFetch({}): guidsToProcess {}", AtlasTypeUtil.getAtlasObjectId(entity), context.guidsToProcess.size());
+    /*
+     * In an incremental export, entities referenced by a changed entity are exported as well - even if unchanged - so
+     * that the changed entity can be imported in a cluster that doesn't have them. Referenced entities are added to
+     * the export order ahead of the referring entity.
+     */
+    private void addReferencedEntities(AtlasEntityWithExtInfo entityWithExtInfo, ExportContext context) throws AtlasBaseException {
+        Set<String> referencedGuids = new LinkedHashSet<>();
+
+        collectReferencedGuids(entityWithExtInfo.getEntity(), referencedGuids);
+
+        if (entityWithExtInfo.getReferredEntities() != null) {
+            for (AtlasEntity referredEntity : entityWithExtInfo.getReferredEntities().values()) {
+                collectReferencedGuids(referredEntity, referencedGuids);
+            }
+
+            referencedGuids.removeAll(entityWithExtInfo.getReferredEntities().keySet());
         }
 
-        String query = this.gremlinQueryProvider.getQuery(AtlasGremlinQuery.EXPORT_BY_GUID_FULL);
+        referencedGuids.remove(entityWithExtInfo.getEntity().getGuid());
 
-        context.bindings.clear();
-        context.bindings.put("startGuid", entity.getGuid());
+        for (String referencedGuid : referencedGuids) {
+            if (context.sink.hasEntity(referencedGuid)) {
+                continue;
+            }
 
-        List<Map<String, Object>> result = executeGremlinQuery(query, context);
+            AtlasEntityWithExtInfo referencedEntity = entityGraphRetriever.toAtlasEntityWithExtInfo(referencedGuid);
 
-        if (CollectionUtils.isEmpty(result)) {
-            return;
+            context.result.getData().getEntityCreationOrder().add(referencedGuid);
+
+            addEntity(new ExportedEntity(referencedGuid, null, referencedEntity, AtlasType.toJson(referencedEntity)), context);
+            addTypes(referencedEntity.getEntity(), context);
+
+            if (referencedEntity.getReferredEntities() != null) {
+                for (AtlasEntity e : referencedEntity.getReferredEntities().values()) {
+                    addTypes(e, context);
+                }
+            }
         }
+    }
 
-        for (Map<String, Object> map : result) {
-            String  guid      = (String) map.get("__guid");
-            boolean isLineage = (boolean) map.get("isProcess");
+    private void collectReferencedGuids(AtlasEntity entity, Set<String> guids) {
+        if (MapUtils.isNotEmpty(entity.getAttributes())) {
+            for (Object value : entity.getAttributes().values()) {
+                collectReferencedGuids(value, guids);
+            }
+        }
+    }
 
-            if (!context.guidsProcessed.contains(guid)) {
-                context.addToBeProcessed(isLineage, guid, TraversalDirection.BOTH);
+    private void collectReferencedGuids(Object value, Set<String> guids) {
+        if (value instanceof AtlasObjectId) {
+            String guid = ((AtlasObjectId) value).getGuid();
+
+            if (guid != null) {
+                guids.add(guid);
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection) value) {
+                collectReferencedGuids(element, guids);
+            }
+        } else if (value instanceof Map) {
+            for (Object element : ((Map) value).values()) {
+                collectReferencedGuids(element, guids);
             }
         }
+    }
 
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("<== getEntityGuidsForFullFetch({}): found {} guids; guidsToProcess {}", entity.getGuid(), result.size(), context.guidsToProcess.size());
+    private Set<String> findEntitiesChangedSince(long changedSince) {
+        Set<String>     ret   = new HashSet<>();
+        AtlasGraphQuery query = atlasGraph.query().has(Constants.MODIFICATION_TIMESTAMP_PROPERTY_KEY, AtlasGraphQuery.ComparisionOperator.GREATER_THAN, changedSince);
+
+        for (AtlasVertex vertex : (Iterable<AtlasVertex>) query.vertices()) {
+            String guid = AtlasGraphUtilsV1.getIdFromVertex(vertex);
+
+            if (guid != null) {
+                ret.add(guid);
+            }
         }
+
+        LOG.info("export(): {} entities changed since {}", ret.size(), changedSince);
+
+        return ret;
     }
 
-    private void addEntity(AtlasEntityWithExtInfo entity, ExportContext context) throws AtlasBaseException {
+    private void addConnectedEntities(List<ConnectedEntities> connectedEntitiesList, ExportContext context) {
+        if (connectedEntitiesList == null) {
+            return;
+        }
+
+        for (ConnectedEntities connectedEntities : connectedEntitiesList) {
+            TraversalDirection direction = connectedEntities.direction;
+
+            for (ConnectedEntity connectedEntity : connectedEntities.entities) {
+                String  guid      = connectedEntity.guid;
+                boolean isLineage = isProcessType(connectedEntity.typeName);
+
+                if (direction == TraversalDirection.BOTH) { // full fetch
+                    if (!context.guidsProcessed.contains(guid)) {
+                        context.addToBeProcessed(isLineage, guid, TraversalDirection.BOTH);
+                    }
+                } else {
+                    TraversalDirection currentDirection = context.guidDirection.get(guid);
+
+                    if (currentDirection == null) {
+                        context.addToBeProcessed(isLineage, guid, direction);
+
+                    } else if (currentDirection == TraversalDirection.OUTWARD && direction == TraversalDirection.INWARD) {
+                        // the entity should be reprocessed to get inward entities
+                        context.guidsProcessed.remove(guid);
+                        context.addToBeProcessed(isLineage, guid, direction);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addEntity(ExportedEntity exportedEntity, ExportContext context) throws AtlasBaseException {
+        AtlasEntityWithExtInfo entity = exportedEntity.entityWithExtInfo;
+
         if(context.sink.hasEntity(entity.getEntity().getGuid())) {
             return;
         }
 
-        context.sink.add(entity);
+        context.sink.add(entity, exportedEntity.json);
 
         context.result.incrementMeticsCounter(String.format("entity:%s", entity.getEntity().getTypeName()));
         if(entity.getReferredEntities() != null) {
@@ -566,21 +806,32 @@ public class ExportService {
         }
     }
 
-    private List<Map<String, Object>> executeGremlinQuery(String query, ExportContext context) {
+    private List<String> executeGremlinQueryForGuids(String query, ExportContext context) {
         try {
-            return (List<Map<String, Object>>) atlasGraph.executeGremlinScript(context.scriptEngine, context.bindings, query, false);
+            return (List<String>) atlasGraph.executeGremlinScript(context.scriptEngine, context.bindings, query, false);
         } catch (ScriptException e) {
             LOG.error("Script execution failed for query: ", query, e);
             return null;
         }
     }
 
-    private List<String> executeGremlinQueryForGuids(String query, ExportContext context) {
+    private int getWorkerCount() {
         try {
-            return (List<String>) atlasGraph.executeGremlinScript(context.scriptEngine, context.bindings, query, false);
-        } catch (ScriptException e) {
-            LOG.error("Script execution failed for query: ", query, e);
-            return null;
+            return Math.max(1, ApplicationProperties.get().getInt(EXPORT_WORKER_THREADS_PROPERTY, DEFAULT_EXPORT_WORKER_THREADS));
+        } catch (AtlasException excp) {
+            LOG.warn("failed to read {}; using default {}", EXPORT_WORKER_THREADS_PROPERTY, DEFAULT_EXPORT_WORKER_THREADS, excp);
+
+            return DEFAULT_EXPORT_WORKER_THREADS;
+        }
+    }
+
+    private long getChangeMarkerWindowMs() {
+        try {
+            return Math.max(0, ApplicationProperties.get().getLong(EXPORT_CHANGE_MARKER_WINDOW_PROPERTY, DEFAULT_EXPORT_CHANGE_MARKER_WINDOW));
+        } catch (AtlasException excp) {
+            LOG.warn("failed to read {}; using default {}", EXPORT_CHANGE_MARKER_WINDOW_PROPERTY, DEFAULT_EXPORT_CHANGE_MARKER_WINDOW, excp);
+
+            return DEFAULT_EXPORT_CHANGE_MARKER_WINDOW;
         }
     }
 
@@ -663,6 +914,42 @@ public class ExportService {
     }
 
 
+    private static class ExportedEntity {
+        final String                               guid;
+        final TraversalDirection                   direction;
+        final AtlasEntityWithExtInfo               entityWithExtInfo;
+        final String                               json;
+        final Map<String, List<ConnectedEntities>> connectedEntities = new LinkedHashMap<>();
+
+        ExportedEntity(String guid, TraversalDirection direction, AtlasEntityWithExtInfo entityWithExtInfo, String json) {
+            this.guid              = guid;
+            this.direction         = direction;
+            this.entityWithExtInfo = entityWithExtInfo;
+            this.json              = json;
+        }
+    }
+
+    // entities found by walking edges of an entity in the given direction
+    private static class ConnectedEntities {
+        final TraversalDirection    direction;
+        final List<ConnectedEntity> entities;
+
+        ConnectedEntities(TraversalDirection direction, List<ConnectedEntity> entities) {
+            this.direction = direction;
+            this.entities  = entities;
+        }
+    }
+
+    private static class ConnectedEntity {
+        final String guid;
+        final String typeName;
+
+        ConnectedEntity(String guid, String typeName) {
+            this.guid     = guid;
+            this.typeName = typeName;
+        }
+    }
+
     private class ExportContext {
         final Set<String>                     guidsProcessed = new HashSet<>();
         final UniqueList<String>              guidsToProcess = new UniqueList<>();
@@ -680,6 +967,10 @@ public class ExportService {
         private final Map<String, Object> bindings;
         private final ExportFetchType     fetchType;
         private final String              matchType;
+        private final ExecutorService     executor;
+        private final int                 batchSize;
+        private final long                changedSince;
+        private final Set<String>         changedGuids;
 
         private       int                 progressReportCount = 0;
 
@@ -687,10 +978,53 @@ public class ExportService {
             this.result = result;
             this.sink   = sink;
 
-            scriptEngine = atlasGraph.getGremlinScriptEngine();
             bindings     = new HashMap<>();
             fetchType    = getFetchType(result.getRequest());
             matchType    = getMatchType(result.getRequest());
+            batchSize    = workerCount * ENTITIES_PER_WORKER;
+            changedSince = getChangedSince(result.getRequest());
+            changedGuids = changedSince > 0 ? findEntitiesChangedSince(changedSince) : null;
+
+            if (workerCount > 1) {
+                executor = Executors.newFixedThreadPool(workerCount, new ThreadFactoryBuilder().setNameFormat(EXPORT_THREAD_NAME_FORMAT).setDaemon(true).build());
+
+                sink.startWriterThread(batchSize);
+            } else {
+                executor = null;
+            }
+
+            // borrowed last, as close() - which releases it - is not called when the constructor fails
+            scriptEngine = atlasGraph.getGremlinScriptEngine();
+        }
+
+        boolean isIncremental() {
+            return changedGuids != null;
+        }
+
+        Future<ExportedEntity> submit(Callable<ExportedEntity> task) {
+            if (executor != null) {
+                return executor.submit(task);
+            }
+
+            FutureTask<ExportedEntity> ret = new FutureTask<>(task);
+
+            ret.run();
+
+            return ret;
+        }
+
+        void close() {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+
+            try {
+                sink.stopWriterThread();
+            } catch (AtlasBaseException excp) {
+                LOG.error("export(): failed to write entities", excp);
+            }
+
+            atlasGraph.releaseGremlinScriptEngine(scriptEngine);
         }
 
         private ExportFetchType getFetchType(AtlasExportRequest request) {
@@ -705,6 +1039,41 @@ public class ExportService {
             return ExportFetchType.FULL;
         }
 
+        // changedSince option can be a timestamp, or the result of a previous export
+        private long getChangedSince(AtlasExportRequest request) throws AtlasBaseException {
+            Object changedSince = request.getOptions() != null ? request.getOptions().get(OPTION_CHANGED_SINCE) : null;
+
+            if (changedSince instanceof Number) {
+                return ((Number) changedSince).longValue();
+            } else if (changedSince instanceof String && StringUtils.isNotBlank((String) changedSince)) {
+                return parseChangedSince((String) changedSince);
+            } else if (changedSince instanceof AtlasExportResult) {
+                return ((AtlasExportResult) changedSince).getChangeMarker();
+            } else if (changedSince instanceof Map) {
+                return getChangedSince(((Map) changedSince).get("changeMarker"));
+            }
+
+            return 0;
+        }
+
+        private long getChangedSince(Object changeMarker) throws AtlasBaseException {
+            if (changeMarker instanceof Number) {
+                return ((Number) changeMarker).longValue();
+            } else if (changeMarker instanceof String && StringUtils.isNotBlank((String) changeMarker)) {
+                return parseChangedSince((String) changeMarker);
+            }
+
+            return 0;
+        }
+
+        private long parseChangedSince(String changedSince) throws AtlasBaseException {
+            try {
+                return Long.parseLong(changedSince.trim());
+            } catch (NumberFormatException excp) {
+                throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, excp, OPTION_CHANGED_SINCE + "=" + changedSince);
+            }
+        }
+
         private String getMatchType(AtlasExportRequest request) {
             String matchType = null;
 
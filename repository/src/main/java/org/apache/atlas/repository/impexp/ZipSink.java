@@ -30,13 +30,18 @@ import java.io.OutputStream;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 public class ZipSink {
     private static final Logger LOG = LoggerFactory.getLogger(ZipSink.class);
 
+    private static final String WRITER_THREAD_NAME = "atlas-export-zip-writer";
+
     private ZipOutputStream zipOutputStream;
+    private EntryWriter     entryWriter;
     final Set<String>       guids = new HashSet<>();
 
 
@@ -44,6 +49,44 @@ public class ZipSink {
         zipOutputStream = new ZipOutputStream(outputStream);
     }
 
+    /**
+     * Entities added after this call are written to the zip by a separate thread, so that the caller can continue
+     * to retrieve entities. The writer is stopped - after writing pending entities - by stopWriterThread(), which
+     * is also called before the export order, typesdef or result is written.
+     */
+    public void startWriterThread(int queueSize) {
+        if (entryWriter == null) {
+            entryWriter = new EntryWriter(queueSize);
+
+            entryWriter.start();
+        }
+    }
+
+    public void stopWriterThread() throws AtlasBaseException {
+        if (entryWriter != null) {
+            EntryWriter writer = entryWriter;
+
+            entryWriter = null;
+
+            writer.stop();
+        }
+    }
+
+    /**
+     * Adds an entity already serialized by the caller.
+     */
+    public void add(AtlasEntity.AtlasEntityWithExtInfo entityWithExtInfo, String jsonData) throws AtlasBaseException {
+        String guid = entityWithExtInfo.getEntity().getGuid();
+
+        if (entryWriter != null) {
+            entryWriter.write(guid, jsonData);
+        } else {
+            saveToZip(guid, jsonData);
+        }
+
+        recordAddedEntityGuids(entityWithExtInfo);
+    }
+
     public void add(AtlasEntity entity) throws AtlasBaseException {
         String jsonData = convertToJSON(entity);
         saveToZip(entity.getGuid(), jsonData);
@@ -57,21 +100,33 @@ public class ZipSink {
     }
 
     public void setResult(AtlasExportResult result) throws AtlasBaseException {
+        stopWriterThread();
+
         String jsonData = convertToJSON(result);
         saveToZip(ZipExportFileNames.ATLAS_EXPORT_INFO_NAME, jsonData);
     }
 
     public void setTypesDef(AtlasTypesDef typesDef) throws AtlasBaseException {
+        stopWriterThread();
+
         String jsonData = convertToJSON(typesDef);
         saveToZip(ZipExportFileNames.ATLAS_TYPESDEF_NAME, jsonData);
     }
 
     public void setExportOrder(List<String> result) throws AtlasBaseException {
+        stopWriterThread();
+
         String jsonData = convertToJSON(result);
         saveToZip(ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME, jsonData);
     }
 
     public void close() {
+        try {
+            stopWriterThread();
+        } catch (AtlasBaseException e) {
+            LOG.error("Error writing entities to Zip file", e);
+        }
+
         try {
             if(zipOutputStream != null) {
                 zipOutputStream.close();
@@ -121,4 +176,84 @@ public class ZipSink {
     private void recordAddedEntityGuids(AtlasEntity entity) {
         guids.add(entity.getGuid());
     }
+
+    private class EntryWriter implements Runnable {
+        private final BlockingQueue<String[]> queue;
+        private final Thread                  thread;
+        private volatile AtlasBaseException   error;
+
+        EntryWriter(int queueSize) {
+            this.queue  = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+            this.thread = new Thread(this, WRITER_THREAD_NAME);
+
+            thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void write(String fileName, String jsonData) throws AtlasBaseException {
+            checkError();
+
+            put(new String[] { fileName, jsonData });
+        }
+
+        void stop() throws AtlasBaseException {
+            put(new String[0]);
+
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new AtlasBaseException("Interrupted while writing to Zip file", e);
+            }
+
+            checkError();
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                String[] entry;
+
+                try {
+                    entry = queue.take();
+                } catch (InterruptedException e) {
+                    error = new AtlasBaseException("Zip writer interrupted", e);
+
+                    continue;
+                }
+
+                if (entry.length == 0) { // stop
+                    return;
+                }
+
+                if (error == null) { // after an error, entries are consumed without writing, to not block the producer
+                    try {
+                        saveToZip(entry[0], entry[1]);
+                    } catch (AtlasBaseException e) {
+                        error = e;
+                    }
+                }
+            }
+        }
+
+        private void put(String[] entry) throws AtlasBaseException {
+            try {
+                queue.put(entry);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new AtlasBaseException("Interrupted while writing to Zip file", e);
+            }
+        }
+
+        private void checkError() throws AtlasBaseException {
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
 }
@@ -24,28 +24,43 @@ import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.store.graph.v1.EntityImportStream;
 import org.apache.atlas.type.AtlasType;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
-
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
 
+/**
+ * Reads entities from an export zip file on demand: ZipFile indexes the entries by name (i.e. guid) from the
+ * central directory of the archive, and an entry is decoded only when it is read. Uploaded streams are spilled to
+ * a temporary file first, which is deleted on close().
+ */
 public class ZipSource implements EntityImportStream {
     private static final Logger LOG = LoggerFactory.getLogger(ZipSource.class);
 
-    private final InputStream    inputStream;
+    private static final String TEMP_FILE_PREFIX = "atlas-import-";
+    private static final String TEMP_FILE_SUFFIX = ".zip";
+
+    private final File           file;
+    private final boolean        isTempFile;
+    private final ZipFile        zipFile;
+    private final Set<String>    importedGuids = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
     private List<String>         creationOrder;
     private Iterator<String>     iterator;
-    private Map<String, String>  guidEntityJsonMap;
     private ImportTransforms     importTransform;
     private int currentPosition;
 
@@ -54,11 +69,36 @@ public class ZipSource implements EntityImportStream {
     }
 
     public ZipSource(InputStream inputStream, ImportTransforms importTransform) throws IOException {
-        this.inputStream       = inputStream;
-        this.guidEntityJsonMap = new HashMap<>();
-        this.importTransform   = importTransform;
+        this(spillToTempFile(inputStream), true, importTransform);
+    }
+
+    public ZipSource(File file) throws IOException {
+        this(file, null);
+    }
+
+    public ZipSource(File file, ImportTransforms importTransform) throws IOException {
+        this(file, false, importTransform);
+    }
+
+    private ZipSource(File file, boolean isTempFile, ImportTransforms importTransform) throws IOException {
+        if (!file.exists()) {
+            throw new FileNotFoundException(file.getAbsolutePath());
+        }
+
+        this.file            = file;
+        this.isTempFile      = isTempFile;
+        this.importTransform = importTransform;
+
+        try {
+            this.zipFile = openZipFile(file);
+        } catch (IOException excp) {
+            if (isTempFile) { // close() won't be called
+                FileUtils.deleteQuietly(file);
+            }
+
+            throw excp;
+        }
 
-        updateGuidZipEntryMap();
         setCreationOrder();
     }
 
@@ -71,7 +111,7 @@ public class ZipSource implements EntityImportStream {
     public AtlasTypesDef getTypesDef() throws AtlasBaseException {
         final String fileName = ZipExportFileNames.ATLAS_TYPESDEF_NAME.toString();
 
-        String s = (String) getFromCache(fileName);
+        String s = getFromCache(fileName);
         return convertFromJson(AtlasTypesDef.class, s);
     }
 
@@ -94,29 +134,28 @@ public class ZipSource implements EntityImportStream {
         }
     }
 
-    private void updateGuidZipEntryMap() throws IOException {
-
-        ZipInputStream zipInputStream = new ZipInputStream(inputStream);
-        ZipEntry zipEntry = zipInputStream.getNextEntry();
-        while (zipEntry != null) {
-            String entryName = zipEntry.getName().replace(".json", "");
+    private static File spillToTempFile(InputStream inputStream) throws IOException {
+        File ret = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
 
-            if (guidEntityJsonMap.containsKey(entryName)) continue;
+        try {
+            FileUtils.copyInputStreamToFile(inputStream, ret);
+        } catch (IOException excp) {
+            FileUtils.deleteQuietly(ret);
 
-            byte[] buf = new byte[1024];
+            throw excp;
+        }
 
-            int n = 0;
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            while ((n = zipInputStream.read(buf, 0, 1024)) > -1) {
-                bos.write(buf, 0, n);
-            }
+        return ret;
+    }
 
-            guidEntityJsonMap.put(entryName, bos.toString());
-            zipEntry = zipInputStream.getNextEntry();
+    private static ZipFile openZipFile(File file) throws IOException {
+        try {
+            return new ZipFile(file);
+        } catch (ZipException excp) {
+            LOG.error("{}: not a valid zip file", file, excp);
 
+            return null;
         }
-
-        zipInputStream.close();
     }
 
     public List<String> getCreationOrder() throws AtlasBaseException {
@@ -150,16 +189,37 @@ public class ZipSource implements EntityImportStream {
     }
 
     private String getFromCache(String entryName) {
-        return guidEntityJsonMap.get(entryName);
+        ZipEntry zipEntry = getZipEntry(entryName);
+
+        if (zipEntry == null) {
+            return null;
+        }
+
+        try (InputStream inputStream = zipFile.getInputStream(zipEntry)) {
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        } catch (IOException excp) {
+            LOG.error("{}: error reading entry {}", file, entryName, excp);
+
+            return null;
+        }
+    }
+
+    private ZipEntry getZipEntry(String entryName) {
+        return zipFile != null && entryName != null ? zipFile.getEntry(entryName + ".json") : null;
     }
 
     public void close() {
         try {
-            inputStream.close();
-            guidEntityJsonMap.clear();
+            if (zipFile != null) {
+                zipFile.close();
+            }
         }
         catch(IOException ex) {
-            LOG.warn("{}: Error closing streams.");
+            LOG.warn("{}: Error closing streams.", file);
+        }
+
+        if (isTempFile) {
+            FileUtils.deleteQuietly(file);
         }
     }
 
@@ -208,7 +268,7 @@ public class ZipSource implements EntityImportStream {
     }
 
     private AtlasEntity getEntity(String guid) throws AtlasBaseException {
-        if(guidEntityJsonMap.containsKey(guid)) {
+        if(!importedGuids.contains(guid) && getZipEntry(guid) != null) {
             AtlasEntityWithExtInfo extInfo = getEntityWithExtInfo(guid);
             return (extInfo != null) ? extInfo.getEntity() : null;
         }
@@ -222,7 +282,9 @@ public class ZipSource implements EntityImportStream {
 
     @Override
     public void onImportComplete(String guid) {
-        guidEntityJsonMap.remove(guid);
+        if (guid != null) {
+            importedGuids.add(guid);
+        }
     }
 
 
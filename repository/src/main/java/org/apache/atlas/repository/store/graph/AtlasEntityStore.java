@@ -22,6 +22,7 @@ import org.apache.atlas.model.instance.AtlasClassification;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.repository.store.graph.v1.EntityRetrievalOptions;
 import org.apache.atlas.repository.store.graph.v1.EntityStream;
 import org.apache.atlas.type.AtlasEntityType;
 
@@ -49,6 +50,14 @@ public interface AtlasEntityStore {
      */
     AtlasEntityWithExtInfo getById(String guid) throws AtlasBaseException;
 
+    /**
+     * Get entity definition by its guid, with attributes and referred entities as per the given options
+     * @param guid
+     * @param options attributes and referred entities to return
+     * @return AtlasEntityWithExtInfo
+     */
+    AtlasEntityWithExtInfo getById(String guid, EntityRetrievalOptions options) throws AtlasBaseException;
+
     /**
      * Batch GET to retrieve entities by their ID
      * @param guid
@@ -57,6 +66,15 @@ public interface AtlasEntityStore {
      */
     AtlasEntitiesWithExtInfo getByIds(List<String> guid) throws AtlasBaseException;
 
+    /**
+     * Batch GET to retrieve entities by their ID, with attributes and referred entities as per the given options
+     * @param guid
+     * @param options attributes and referred entities to return
+     * @return
+     * @throws AtlasBaseException
+     */
+    AtlasEntitiesWithExtInfo getByIds(List<String> guid, EntityRetrievalOptions options) throws AtlasBaseException;
+
     /**
      *
      * Get an eneity by its unique attribute
@@ -67,6 +85,17 @@ public interface AtlasEntityStore {
     AtlasEntityWithExtInfo getByUniqueAttributes(AtlasEntityType entityType, Map<String, Object> uniqAttributes)
             throws AtlasBaseException;
 
+    /**
+     *
+     * Get an entity by its unique attribute, with attributes and referred entities as per the given options
+     * @param entityType     type of the entity
+     * @param uniqAttributes Attributes that uniquely identify the entity
+     * @param options        attributes and referred entities to return
+     * @return AtlasEntityWithExtInfo
+     */
+    AtlasEntityWithExtInfo getByUniqueAttributes(AtlasEntityType entityType, Map<String, Object> uniqAttributes, EntityRetrievalOptions options)
+            throws AtlasBaseException;
+
     /**
      * Create or update  entities in the stream
      * @param entityStream AtlasEntityStream
@@ -20,6 +20,7 @@ package org.apache.atlas.repository.store.graph.v1;
 
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
+import org.apache.atlas.discovery.SearchResultCache;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.listener.EntityChangeListener;
 import org.apache.atlas.model.instance.AtlasClassification;
@@ -43,6 +44,7 @@ import org.springframework.stereotype.Component;
 import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -57,6 +59,9 @@ public class AtlasEntityChangeNotifier {
     @Inject
     private FullTextMapperV2 fullTextMapperV2;
 
+    @Inject
+    private SearchResultCache searchResultCache;
+
     @Inject
     public AtlasEntityChangeNotifier(Set<EntityChangeListener> entityChangeListeners,
                                      AtlasInstanceConverter    instanceConverter) {
@@ -65,6 +70,13 @@ public class AtlasEntityChangeNotifier {
     }
 
     public void onEntitiesMutated(EntityMutationResponse entityMutationResponse, boolean isImport) throws AtlasBaseException {
+        // unique attribute values of updated/deleted entities might have changed
+        invalidateUniqueAttributeCache(entityMutationResponse.getUpdatedEntities());
+        invalidateUniqueAttributeCache(entityMutationResponse.getPartialUpdatedEntities());
+        invalidateUniqueAttributeCache(entityMutationResponse.getDeletedEntities());
+
+        invalidateSearchResultCache(entityMutationResponse);
+
         if (CollectionUtils.isEmpty(entityChangeListeners) || instanceConverter == null) {
             return;
         }
@@ -94,6 +106,8 @@ public class AtlasEntityChangeNotifier {
         Referenceable entity = toReferenceable(entityId);
         List<Struct>  traits = toStruct(classifications);
 
+        invalidateSearchResultCache(entity);
+
         if (entity == null || CollectionUtils.isEmpty(traits)) {
             return;
         }
@@ -113,6 +127,8 @@ public class AtlasEntityChangeNotifier {
 
         Referenceable entity = toReferenceable(entityId);
 
+        invalidateSearchResultCache(entity);
+
         if (entity == null || CollectionUtils.isEmpty(traitNames)) {
             return;
         }
@@ -133,6 +149,8 @@ public class AtlasEntityChangeNotifier {
         Referenceable entity = toReferenceable(entityId);
         List<Struct>  traits = toStruct(classifications);
 
+        invalidateSearchResultCache(entity);
+
         if (entity == null || CollectionUtils.isEmpty(traits)) {
             return;
         }
@@ -146,6 +164,50 @@ public class AtlasEntityChangeNotifier {
         }
     }
 
+    private void invalidateUniqueAttributeCache(List<AtlasEntityHeader> entityHeaders) {
+        UniqueAttributeCache cache = AtlasGraphUtilsV1.getUniqueAttributeCache();
+
+        if (cache == null || CollectionUtils.isEmpty(entityHeaders)) {
+            return;
+        }
+
+        for (AtlasEntityHeader entityHeader : entityHeaders) {
+            cache.invalidate(entityHeader.getGuid());
+        }
+    }
+
+    private void invalidateSearchResultCache(EntityMutationResponse entityMutationResponse) {
+        if (searchResultCache == null || !searchResultCache.isEnabled()) {
+            return;
+        }
+
+        Set<String> typeNames = new HashSet<>();
+
+        addTypeNames(entityMutationResponse.getCreatedEntities(), typeNames);
+        addTypeNames(entityMutationResponse.getUpdatedEntities(), typeNames);
+        addTypeNames(entityMutationResponse.getPartialUpdatedEntities(), typeNames);
+        addTypeNames(entityMutationResponse.getDeletedEntities(), typeNames);
+
+        searchResultCache.onEntitiesChanged(typeNames);
+    }
+
+    private void invalidateSearchResultCache(Referenceable entity) {
+        if (searchResultCache == null || !searchResultCache.isEnabled()) {
+            return;
+        }
+
+        // a null type name invalidates all results
+        searchResultCache.onEntitiesChanged(Collections.singleton(entity != null ? entity.getTypeName() : null));
+    }
+
+    private static void addTypeNames(List<AtlasEntityHeader> entityHeaders, Set<String> typeNames) {
+        if (entityHeaders != null) {
+            for (AtlasEntityHeader entityHeader : entityHeaders) {
+                typeNames.add(entityHeader.getTypeName());
+            }
+        }
+    }
+
     private String getListenerName(EntityChangeListener listener) {
         return listener.getClass().getSimpleName();
     }
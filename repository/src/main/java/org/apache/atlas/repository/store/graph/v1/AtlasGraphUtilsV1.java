@@ -37,6 +37,7 @@ import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasStructType;
 import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
 import org.apache.atlas.type.AtlasType;
+import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.lang.StringUtils;
@@ -47,6 +48,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -64,18 +67,27 @@ public class AtlasGraphUtilsV1 {
     public static final String VERTEX_TYPE          = "typeSystem";
     public static final String RELATIONSHIPTYPE_EDGE_LABEL = PROPERTY_PREFIX + ".relationshipType";
 
+    private static final int MAX_VALUES_PER_UNIQUE_ATTRIBUTE_QUERY = 500;
+
     private static boolean USE_INDEX_QUERY_TO_FIND_ENTITY_BY_UNIQUE_ATTRIBUTES = false;
+    private static int     UNIQUE_ATTRIBUTE_CACHE_SIZE                         = 10000;
+
+    private static final UniqueAttributeCache UNIQUE_ATTRIBUTE_CACHE;
 
     static {
         try {
             Configuration conf = ApplicationProperties.get();
 
             USE_INDEX_QUERY_TO_FIND_ENTITY_BY_UNIQUE_ATTRIBUTES = conf.getBoolean("atlas.use.index.query.to.find.entity.by.unique.attributes", USE_INDEX_QUERY_TO_FIND_ENTITY_BY_UNIQUE_ATTRIBUTES);
+            UNIQUE_ATTRIBUTE_CACHE_SIZE                         = conf.getInt("atlas.unique.attribute.cache.size", UNIQUE_ATTRIBUTE_CACHE_SIZE);
         } catch (Exception excp) {
             LOG.error("Error reading configuration", excp);
         } finally {
             LOG.info("atlas.use.index.query.to.find.entity.by.unique.attributes=" + USE_INDEX_QUERY_TO_FIND_ENTITY_BY_UNIQUE_ATTRIBUTES);
+            LOG.info("atlas.unique.attribute.cache.size=" + UNIQUE_ATTRIBUTE_CACHE_SIZE);
         }
+
+        UNIQUE_ATTRIBUTE_CACHE = UNIQUE_ATTRIBUTE_CACHE_SIZE > 0 ? new UniqueAttributeCache(UNIQUE_ATTRIBUTE_CACHE_SIZE) : null;
     }
 
     public static String getTypeDefPropertyKey(AtlasBaseTypeDef typeDef) {
@@ -239,6 +251,12 @@ public class AtlasGraphUtilsV1 {
                     continue;
                 }
 
+                vertex = UNIQUE_ATTRIBUTE_CACHE != null ? UNIQUE_ATTRIBUTE_CACHE.get(entityType, attribute, attrValue) : null;
+
+                if (vertex != null) {
+                    break;
+                }
+
                 if (canUseIndexQuery(entityType, attribute.getName())) {
                     vertex = AtlasGraphUtilsV1.getAtlasVertexFromIndexQuery(entityType, attribute, attrValue);
                 } else {
@@ -249,6 +267,10 @@ public class AtlasGraphUtilsV1 {
                     }
                 }
 
+                if (vertex != null && UNIQUE_ATTRIBUTE_CACHE != null) {
+                    UNIQUE_ATTRIBUTE_CACHE.put(entityType, attribute, attrValue, vertex);
+                }
+
                 if (vertex != null) {
                     if (LOG.isDebugEnabled()) {
                         LOG.debug("findByUniqueAttributes(type={}, attrName={}, attrValue={}: found vertex {}",
@@ -263,6 +285,141 @@ public class AtlasGraphUtilsV1 {
         return vertex;
     }
 
+    /**
+     * Finds vertices of entities, of the given type or its sub-types, having the given unique attribute values. Unlike
+     * calling findByUniqueAttributes() for each entry, this issues one graph query for each unique attribute - with
+     * values of all the entries - instead of up to two queries per entry.
+     *
+     * @return map of entries in attrValuesList to the vertex found, keyed by identity of the entries; entries not found
+     *         are not in the map
+     */
+    public static Map<Map<String, Object>, AtlasVertex> findByUniqueAttributes(AtlasEntityType entityType, List<Map<String, Object>> attrValuesList) {
+        Map<Map<String, Object>, AtlasVertex> ret = new IdentityHashMap<>();
+
+        final Map<String, AtlasAttribute> uniqueAttributes = entityType.getUniqAttributes();
+
+        if (MapUtils.isEmpty(uniqueAttributes) || CollectionUtils.isEmpty(attrValuesList)) {
+            return ret;
+        }
+
+        List<Map<String, Object>> pending = new ArrayList<>(attrValuesList);
+
+        // like findByUniqueAttributes(), try the unique attributes in order, until a vertex is found for the entry
+        for (AtlasAttribute attribute : uniqueAttributes.values()) {
+            if (pending.isEmpty()) {
+                break;
+            }
+
+            if (canUseIndexQuery(entityType, attribute.getName())) {
+                for (Iterator<Map<String, Object>> iter = pending.iterator(); iter.hasNext(); ) {
+                    Map<String, Object> attrValues = iter.next();
+                    Object              attrValue  = attrValues != null ? attrValues.get(attribute.getName()) : null;
+                    AtlasVertex         vertex     = attrValue != null && UNIQUE_ATTRIBUTE_CACHE != null ? UNIQUE_ATTRIBUTE_CACHE.get(entityType, attribute, attrValue) : null;
+
+                    if (vertex == null && attrValue != null) {
+                        vertex = getAtlasVertexFromIndexQuery(entityType, attribute, attrValue);
+
+                        if (vertex != null && UNIQUE_ATTRIBUTE_CACHE != null) {
+                            UNIQUE_ATTRIBUTE_CACHE.put(entityType, attribute, attrValue, vertex);
+                        }
+                    }
+
+                    if (vertex != null) {
+                        ret.put(attrValues, vertex);
+
+                        iter.remove();
+                    }
+                }
+
+                continue;
+            }
+
+            Map<String, List<Map<String, Object>>> entriesByValue = new HashMap<>();
+
+            for (Iterator<Map<String, Object>> iter = pending.iterator(); iter.hasNext(); ) {
+                Map<String, Object> attrValues = iter.next();
+                Object              attrValue  = attrValues != null ? attrValues.get(attribute.getName()) : null;
+                AtlasVertex         vertex     = attrValue != null && UNIQUE_ATTRIBUTE_CACHE != null ? UNIQUE_ATTRIBUTE_CACHE.get(entityType, attribute, attrValue) : null;
+
+                if (vertex != null) {
+                    ret.put(attrValues, vertex);
+
+                    iter.remove();
+                } else if (attrValue != null) {
+                    List<Map<String, Object>> entries = entriesByValue.get(attrValue.toString());
+
+                    if (entries == null) {
+                        entries = new ArrayList<>();
+
+                        entriesByValue.put(attrValue.toString(), entries);
+                    }
+
+                    entries.add(attrValues);
+                }
+            }
+
+            if (entriesByValue.isEmpty()) {
+                continue;
+            }
+
+            String       propertyName = attribute.getVertexPropertyName();
+            List<Object> attrValues   = new ArrayList<>(entriesByValue.size());
+
+            for (List<Map<String, Object>> entries : entriesByValue.values()) {
+                attrValues.add(entries.get(0).get(attribute.getName()));
+            }
+
+            for (int i = 0; i < attrValues.size(); i += MAX_VALUES_PER_UNIQUE_ATTRIBUTE_QUERY) {
+                List<Object> batchValues = attrValues.subList(i, Math.min(attrValues.size(), i + MAX_VALUES_PER_UNIQUE_ATTRIBUTE_QUERY));
+
+                AtlasGraphQuery query = AtlasGraphProvider.getGraphInstance().query()
+                                                          .in(Constants.ENTITY_TYPE_PROPERTY_KEY, entityType.getTypeAndAllSubTypes())
+                                                          .has(Constants.STATE_PROPERTY_KEY, AtlasEntity.Status.ACTIVE.name())
+                                                          .in(propertyName, batchValues);
+
+                for (Iterator<AtlasVertex> iter = query.vertices().iterator(); iter.hasNext(); ) {
+                    AtlasVertex vertex      = iter.next();
+                    Object      vertexValue = vertex.getProperty(propertyName, Object.class);
+
+                    if (vertexValue == null) {
+                        continue;
+                    }
+
+                    List<Map<String, Object>> entries = entriesByValue.get(vertexValue.toString());
+
+                    if (entries != null) {
+                        for (Map<String, Object> entry : entries) {
+                            ret.put(entry, vertex);
+                        }
+
+                        if (UNIQUE_ATTRIBUTE_CACHE != null) {
+                            UNIQUE_ATTRIBUTE_CACHE.put(entityType, attribute, entries.get(0).get(attribute.getName()), vertex);
+                        }
+                    }
+                }
+            }
+
+            for (Iterator<Map<String, Object>> iter = pending.iterator(); iter.hasNext(); ) {
+                if (ret.containsKey(iter.next())) {
+                    iter.remove();
+                }
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("findByUniqueAttributes(type={}, count={}): found {} vertices", entityType.getTypeName(), attrValuesList.size(), ret.size());
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return cache of unique attribute value to entity vertex; null if the cache is disabled
+     */
+    public static UniqueAttributeCache getUniqueAttributeCache() {
+        return UNIQUE_ATTRIBUTE_CACHE;
+    }
+
     public static AtlasVertex findByGuid(String guid) {
         AtlasGraphQuery query = AtlasGraphProvider.getGraphInstance().query()
                                                   .has(Constants.GUID_PROPERTY_KEY, guid);
@@ -19,6 +19,7 @@ package org.apache.atlas.repository.store.graph.v1;
 
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.annotation.GraphTransaction;
+import org.apache.atlas.discovery.SearchResultCache;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.TypeCategory;
 import org.apache.atlas.model.instance.AtlasObjectId;
@@ -44,6 +45,7 @@ import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -62,12 +64,14 @@ public class AtlasRelationshipStoreV1 implements AtlasRelationshipStore {
 
     private final AtlasTypeRegistry    typeRegistry;
     private final EntityGraphRetriever entityRetriever;
+    private final SearchResultCache    searchResultCache;
     private final GraphHelper          graphHelper = GraphHelper.getInstance();
 
     @Inject
-    public AtlasRelationshipStoreV1(AtlasTypeRegistry typeRegistry) {
-        this.typeRegistry    = typeRegistry;
-        this.entityRetriever = new EntityGraphRetriever(typeRegistry);
+    public AtlasRelationshipStoreV1(AtlasTypeRegistry typeRegistry, SearchResultCache searchResultCache) {
+        this.typeRegistry      = typeRegistry;
+        this.entityRetriever   = new EntityGraphRetriever(typeRegistry);
+        this.searchResultCache = searchResultCache;
     }
 
     @Override
@@ -83,6 +87,9 @@ public class AtlasRelationshipStoreV1 implements AtlasRelationshipStore {
         AtlasVertex       end2Vertex = getVertexFromEndPoint(relationship.getEnd2());
         AtlasRelationship ret        = createRelationship(relationship, end1Vertex, end2Vertex);
 
+        // relationship attributes of both ends have changed
+        searchResultCache.onEntitiesChanged(Arrays.asList(getTypeName(end1Vertex), getTypeName(end2Vertex)));
+
         if (LOG.isDebugEnabled()) {
             LOG.debug("<== create({}): {}", relationship, ret);
         }
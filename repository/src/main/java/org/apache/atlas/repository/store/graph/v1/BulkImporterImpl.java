@@ -18,41 +18,80 @@
 package org.apache.atlas.repository.store.graph.v1;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.RequestContextV1;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasImportResult;
 import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.repository.store.graph.BulkImporter;
+import org.apache.commons.collections.MapUtils;
+import org.apache.commons.configuration.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
+/**
+ * Imports entities of an EntityImportStream in chunks: entities are grouped in creation order into chunks of
+ * atlas.import.batch.size entities, each chunk being created/updated in a single transaction. Chunks are imported
+ * by atlas.import.worker.threads threads; a chunk that refers to, or includes as referred entity, an entity of a chunk
+ * being imported is imported only after that chunk is committed. Chunks that refer to entities not yet imported are
+ * retried at the end.
+ */
 @Component
 public class BulkImporterImpl implements BulkImporter {
     private static final Logger LOG = LoggerFactory.getLogger(AtlasEntityStoreV1.class);
 
+    public static final String IMPORT_BATCH_SIZE_PROPERTY     = "atlas.import.batch.size";
+    public static final String IMPORT_WORKER_THREADS_PROPERTY = "atlas.import.worker.threads";
+
+    private static final String IMPORT_THREAD_NAME_FORMAT = "atlas-import-%d";
+
     private final AtlasEntityStore entityStore;
+    private final int              batchSize;
+    private final int              workerCount;
 
     @Inject
-    public BulkImporterImpl(AtlasEntityStore entityStore) {
+    public BulkImporterImpl(AtlasEntityStore entityStore) throws AtlasException {
+        this(entityStore, ApplicationProperties.get());
+    }
+
+    @VisibleForTesting
+    BulkImporterImpl(AtlasEntityStore entityStore, Configuration configuration) {
         this.entityStore = entityStore;
+        this.batchSize   = Math.max(1, configuration.getInt(IMPORT_BATCH_SIZE_PROPERTY, 1));
+        this.workerCount = Math.max(1, configuration.getInt(IMPORT_WORKER_THREADS_PROPERTY, 1));
     }
 
     @Override
     public EntityMutationResponse bulkImport(EntityImportStream entityStream, AtlasImportResult importResult) throws AtlasBaseException {
         if (LOG.isDebugEnabled()) {
-            LOG.debug("==> bulkImport()");
+            LOG.debug("==> bulkImport(batchSize={}, workerCount={})", batchSize, workerCount);
         }
 
         if (entityStream == null || !entityStream.hasNext()) {
@@ -62,60 +101,157 @@ public class BulkImporterImpl implements BulkImporter {
         EntityMutationResponse ret = new EntityMutationResponse();
         ret.setGuidAssignments(new HashMap<String, String>());
 
-        Set<String>  processedGuids = new HashSet<>();
-        float        currentPercent = 0f;
-        List<String> residualList   = new ArrayList<>();
+        ExecutorService executor = workerCount > 1 ? Executors.newFixedThreadPool(workerCount, new ThreadFactoryBuilder().setNameFormat(IMPORT_THREAD_NAME_FORMAT).setDaemon(true).build()) : null;
+
+        try {
+            ImportContext context = new ImportContext(entityStream, importResult, ret, executor, RequestContextV1.get().getUser());
 
-        EntityImportStreamWithResidualList entityImportStreamWithResidualList = new EntityImportStreamWithResidualList(entityStream, residualList);
+            while (entityStream.hasNext()) {
+                ImportChunk chunk = readChunk(context);
 
-        while (entityImportStreamWithResidualList.hasNext()) {
-            AtlasEntityWithExtInfo entityWithExtInfo = entityImportStreamWithResidualList.getNextEntityWithExtInfo();
+                if (chunk != null) {
+                    submit(chunk, context);
+                }
+            }
+
+            context.completeAll();
+
+            importResiduals(context);
+
+            importResult.getProcessedEntities().addAll(context.processedGuids);
+            LOG.info("bulkImport(): done. Total number of entities (including referred entities) imported: {}", context.processedGuids.size());
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        return ret;
+    }
+
+    private ImportChunk readChunk(ImportContext context) {
+        EntityImportStream entityStream = context.entityStream;
+        ImportChunk        ret          = null;
+
+        while (entityStream.hasNext() && (ret == null || ret.size() < batchSize)) {
+            AtlasEntityWithExtInfo entityWithExtInfo = entityStream.getNextEntityWithExtInfo();
             AtlasEntity            entity            = entityWithExtInfo != null ? entityWithExtInfo.getEntity() : null;
 
-            if (entity == null || processedGuids.contains(entity.getGuid())) {
+            if (entity == null || context.processedGuids.contains(entity.getGuid()) || context.inProgressGuids.containsKey(entity.getGuid()) || (ret != null && ret.contains(entity.getGuid()))) {
                 continue;
             }
 
-            AtlasEntityStreamForImport oneEntityStream = new AtlasEntityStreamForImport(entityWithExtInfo, entityStream);
+            if (ret == null) {
+                ret = new ImportChunk();
+            }
+
+            ret.add(entityWithExtInfo, entityStream.getPosition());
+        }
 
-            try {
-                EntityMutationResponse resp = entityStore.createOrUpdateForImport(oneEntityStream);
+        return ret;
+    }
 
-                if (resp.getGuidAssignments() != null) {
-                    ret.getGuidAssignments().putAll(resp.getGuidAssignments());
-                }
+    private void submit(ImportChunk chunk, ImportContext context) throws AtlasBaseException {
+        // entities referred by the chunk must be committed before the chunk is imported; entities included in the
+        // chunk, including its referred entities, must not be created/updated by another chunk at the same time
+        Set<String> guids = chunk.getReferredGuids();
 
-                currentPercent = updateImportMetrics(entityWithExtInfo, resp, importResult, processedGuids, entityStream.getPosition(), entityImportStreamWithResidualList.getStreamSize(), currentPercent);
+        guids.addAll(chunk.getGuids());
 
-                entityStream.onImportComplete(entity.getGuid());
-            } catch (AtlasBaseException e) {
-                if (!updateResidualList(e, residualList, entityWithExtInfo.getEntity().getGuid())) {
-                    throw e;
-                }
-            } catch (Throwable e) {
-                AtlasBaseException abe = new AtlasBaseException(e);
+        for (String guid : guids) {
+            ImportChunk inProgressChunk = context.inProgressGuids.get(guid);
 
-                if (!updateResidualList(abe, residualList, entityWithExtInfo.getEntity().getGuid())) {
-                    throw abe;
-                }
+            if (inProgressChunk != null) {
+                context.completeUpTo(inProgressChunk);
             }
         }
 
-        importResult.getProcessedEntities().addAll(processedGuids);
-        LOG.info("bulkImport(): done. Total number of entities (including referred entities) imported: {}", processedGuids.size());
+        while (context.inProgress.size() >= workerCount) {
+            context.completeUpTo(context.inProgress.peekFirst());
+        }
 
-        return ret;
+        context.submit(chunk, createTask(chunk, context));
     }
 
+    private void importResiduals(ImportContext context) throws AtlasBaseException {
+        // retry chunks that referred to entities imported later, as long as each pass imports at least one chunk
+        while (!context.residualChunks.isEmpty()) {
+            List<ImportChunk>  residualChunks = new ArrayList<>(context.residualChunks);
+            AtlasBaseException lastException  = null;
 
-    private boolean updateResidualList(AtlasBaseException e, List<String> lineageList, String guid) {
-        if (!e.getAtlasErrorCode().getErrorCode().equals(AtlasErrorCode.INVALID_OBJECT_ID.getErrorCode())) {
-            return false;
+            context.residualChunks.clear();
+
+            for (ImportChunk chunk : residualChunks) {
+                lastException = chunk.residualException;
+
+                chunk.residualException = null;
+
+                submit(chunk, context);
+            }
+
+            context.completeAll();
+
+            if (context.residualChunks.size() == residualChunks.size()) {
+                throw lastException;
+            }
         }
+    }
 
-        lineageList.add(guid);
+    private Callable<EntityMutationResponse> createTask(final ImportChunk chunk, final ImportContext context) {
+        return new Callable<EntityMutationResponse>() {
+            @Override
+            public EntityMutationResponse call() throws Exception {
+                boolean isWorkerThread = context.executor != null;
+
+                if (isWorkerThread) {
+                    RequestContextV1.clear();
+                    RequestContextV1.get().setUser(context.user);
+                }
+
+                try {
+                    return entityStore.createOrUpdateForImport(new AtlasEntityStreamForImport(chunk.entities, context.entityStream));
+                } finally {
+                    if (isWorkerThread) {
+                        RequestContextV1.clear();
+                    }
+                }
+            }
+        };
+    }
+
+    private void onChunkComplete(ImportChunk chunk, ImportContext context) throws AtlasBaseException {
+        try {
+            EntityMutationResponse resp = chunk.future.get();
+
+            if (resp.getGuidAssignments() != null) {
+                context.response.getGuidAssignments().putAll(resp.getGuidAssignments());
+            }
+
+            context.currentPercent = updateImportMetrics(chunk.lastEntity, resp, context.importResult, context.processedGuids, chunk.lastPosition, context.getStreamSize(), context.currentPercent);
+
+            for (AtlasEntity entity : chunk.entities.getEntities()) {
+                context.entityStream.onImportComplete(entity.getGuid());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException(e);
+        } catch (ExecutionException e) {
+            Throwable          cause = e.getCause();
+            AtlasBaseException abe   = cause instanceof AtlasBaseException ? (AtlasBaseException) cause : new AtlasBaseException(cause);
+
+            if (!isResidual(abe)) {
+                throw abe;
+            }
+
+            chunk.residualException = abe;
+
+            context.residualChunks.add(chunk);
+        }
+    }
 
-        return true;
+    private boolean isResidual(AtlasBaseException e) {
+        return e.getAtlasErrorCode().getErrorCode().equals(AtlasErrorCode.INVALID_OBJECT_ID.getErrorCode());
     }
 
     private float updateImportMetrics(AtlasEntity.AtlasEntityWithExtInfo currentEntity,
@@ -163,41 +299,172 @@ public class BulkImporterImpl implements BulkImporter {
         }
     }
 
-    private static class EntityImportStreamWithResidualList {
-        private final EntityImportStream stream;
-        private final List<String>       residualList;
-        private       boolean            navigateResidualList;
-        private       int                currentResidualListIndex;
+    private class ImportContext {
+        final EntityImportStream       entityStream;
+        final AtlasImportResult        importResult;
+        final EntityMutationResponse   response;
+        final ExecutorService          executor;
+        final String                   user;
+        final Set<String>              processedGuids  = new HashSet<>();
+        final Deque<ImportChunk>       inProgress      = new ArrayDeque<>();
+        final Map<String, ImportChunk> inProgressGuids = new HashMap<>();
+        final List<ImportChunk>        residualChunks  = new ArrayList<>();
+        float                          currentPercent  = 0f;
+
+        ImportContext(EntityImportStream entityStream, AtlasImportResult importResult, EntityMutationResponse response, ExecutorService executor, String user) {
+            this.entityStream = entityStream;
+            this.importResult = importResult;
+            this.response     = response;
+            this.executor     = executor;
+            this.user         = user;
+        }
+
+        void submit(ImportChunk chunk, Callable<EntityMutationResponse> task) {
+            if (executor != null) {
+                chunk.future = executor.submit(task);
+            } else { // import in the caller's thread
+                FutureTask<EntityMutationResponse> future = new FutureTask<>(task);
+
+                future.run();
+
+                chunk.future = future;
+            }
 
+            inProgress.addLast(chunk);
 
-        public EntityImportStreamWithResidualList(EntityImportStream stream, List<String> residualList) {
-            this.stream                   = stream;
-            this.residualList             = residualList;
-            this.navigateResidualList     = false;
-            this.currentResidualListIndex = 0;
+            for (String guid : chunk.getGuids()) {
+                inProgressGuids.put(guid, chunk);
+            }
         }
 
-        public AtlasEntity.AtlasEntityWithExtInfo getNextEntityWithExtInfo() {
-            if (navigateResidualList == false) {
-                return stream.getNextEntityWithExtInfo();
-            } else {
-                stream.setPositionUsingEntityGuid(residualList.get(currentResidualListIndex++));
-                return stream.getNextEntityWithExtInfo();
+        // completes chunks in the order they were submitted, so that progress is reported in stream order
+        void completeUpTo(ImportChunk chunk) throws AtlasBaseException {
+            while (inProgress.contains(chunk)) {
+                ImportChunk completed = inProgress.removeFirst();
+
+                for (String guid : completed.getGuids()) {
+                    inProgressGuids.remove(guid);
+                }
+
+                onChunkComplete(completed, this);
             }
         }
 
-        public boolean hasNext() {
-            if (!navigateResidualList) {
-                boolean streamHasNext = stream.hasNext();
-                navigateResidualList = (streamHasNext == false);
-                return streamHasNext ? streamHasNext : (currentResidualListIndex < residualList.size());
-            } else {
-                return (currentResidualListIndex < residualList.size());
+        void completeAll() throws AtlasBaseException {
+            if (!inProgress.isEmpty()) {
+                completeUpTo(inProgress.peekLast());
             }
         }
 
-        public int getStreamSize() {
-            return stream.size() + residualList.size();
+        int getStreamSize() {
+            int ret = entityStream.size();
+
+            for (ImportChunk chunk : residualChunks) {
+                ret += chunk.size();
+            }
+
+            return ret;
+        }
+    }
+
+    private static class ImportChunk {
+        final AtlasEntitiesWithExtInfo entities = new AtlasEntitiesWithExtInfo();
+        AtlasEntityWithExtInfo         lastEntity;
+        int                            lastPosition;
+        Future<EntityMutationResponse> future;
+        AtlasBaseException             residualException;
+
+        void add(AtlasEntityWithExtInfo entityWithExtInfo, int position) {
+            entities.addEntity(entityWithExtInfo.getEntity());
+
+            if (MapUtils.isNotEmpty(entityWithExtInfo.getReferredEntities())) {
+                for (AtlasEntity referredEntity : entityWithExtInfo.getReferredEntities().values()) {
+                    entities.addReferredEntity(referredEntity);
+                }
+            }
+
+            lastEntity   = entityWithExtInfo;
+            lastPosition = position;
+        }
+
+        boolean contains(String guid) {
+            for (AtlasEntity entity : entities.getEntities()) {
+                if (guid.equals(entity.getGuid())) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        int size() {
+            return entities.getEntities().size();
+        }
+
+        // guids of the entities created/updated by the chunk: its entities and their referred entities
+        Set<String> getGuids() {
+            Set<String> ret = new HashSet<>();
+
+            for (AtlasEntity entity : entities.getEntities()) {
+                ret.add(entity.getGuid());
+            }
+
+            if (MapUtils.isNotEmpty(entities.getReferredEntities())) {
+                ret.addAll(entities.getReferredEntities().keySet());
+            }
+
+            return ret;
+        }
+
+        // guids of the entities referred by the chunk that are not created/updated by the chunk
+        Set<String> getReferredGuids() {
+            Set<String> ret = new HashSet<>();
+
+            for (AtlasEntity entity : entities.getEntities()) {
+                collectEntityReferredGuids(entity, ret);
+            }
+
+            if (MapUtils.isNotEmpty(entities.getReferredEntities())) {
+                for (AtlasEntity entity : entities.getReferredEntities().values()) {
+                    collectEntityReferredGuids(entity, ret);
+                }
+            }
+
+            ret.removeAll(getGuids());
+
+            return ret;
+        }
+
+        private static void collectEntityReferredGuids(AtlasEntity entity, Set<String> guids) {
+            if (MapUtils.isNotEmpty(entity.getAttributes())) {
+                collectReferredGuids(entity.getAttributes().values(), guids);
+            }
+
+            if (MapUtils.isNotEmpty(entity.getRelationshipAttributes())) {
+                collectReferredGuids(entity.getRelationshipAttributes().values(), guids);
+            }
+        }
+
+        private static void collectReferredGuids(Object value, Set<String> guids) {
+            if (value instanceof AtlasObjectId) {
+                String guid = ((AtlasObjectId) value).getGuid();
+
+                if (guid != null) {
+                    guids.add(guid);
+                }
+            } else if (value instanceof Map) {
+                Map map = (Map) value;
+
+                if (map.get(AtlasObjectId.KEY_GUID) instanceof String) {
+                    guids.add((String) map.get(AtlasObjectId.KEY_GUID));
+                } else {
+                    collectReferredGuids(map.values(), guids);
+                }
+            } else if (value instanceof Collection) {
+                for (Object element : (Collection) value) {
+                    collectReferredGuids(element, guids);
+                }
+            }
         }
     }
 }
@@ -21,6 +21,7 @@ package org.apache.atlas.repository.store.graph.v1;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.RequestContextV1;
+import org.apache.atlas.discovery.SearchResultCache;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.TypeCategory;
 import org.apache.atlas.model.instance.AtlasEntity;
@@ -44,8 +45,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -73,6 +76,9 @@ public abstract class DeleteHandlerV1 {
 
     protected static final GraphHelper graphHelper = GraphHelper.getInstance();
 
+    @Inject
+    private SearchResultCache searchResultCache;
+
     public DeleteHandlerV1(AtlasTypeRegistry typeRegistry, boolean shouldUpdateInverseReference, boolean softDelete) {
         this.typeRegistry = typeRegistry;
         this.shouldUpdateInverseReferences = shouldUpdateInverseReference;
@@ -253,6 +259,8 @@ public abstract class DeleteHandlerV1 {
             // for relationship edges, inverse vertex's relationship attribute doesn't need to be updated.
             // only delete the reference relationship edge
             if (isRelationshipEdge(edge)) {
+                onRelationshipDeleted(edge);
+
                 deleteEdge(edge, false);
 
                 AtlasObjectId deletedReferenceObjectId = getReferenceObjectId(edge, relationshipDirection, entityVertex);
@@ -288,6 +296,13 @@ public abstract class DeleteHandlerV1 {
     }
 
 
+    // relationship attributes of both ends change with the relationship; read before a hard delete removes the edge
+    private void onRelationshipDeleted(AtlasEdge edge) {
+        if (searchResultCache != null && searchResultCache.isEnabled()) {
+            searchResultCache.onEntitiesChanged(Arrays.asList(GraphHelper.getTypeName(edge.getOutVertex()), GraphHelper.getTypeName(edge.getInVertex())));
+        }
+    }
+
     protected void deleteTypeVertex(AtlasVertex instanceVertex, TypeCategory typeCategory, boolean force) throws AtlasBaseException {
         switch (typeCategory) {
         case STRUCT:
@@ -55,9 +55,11 @@ import org.slf4j.LoggerFactory;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -83,10 +85,21 @@ public final class EntityGraphRetriever {
 
     private static final GraphHelper graphHelper = GraphHelper.getInstance();
 
-    private final AtlasTypeRegistry typeRegistry;
+    private final AtlasTypeRegistry      typeRegistry;
+    private final EntityRetrievalOptions options;
+    private       int                    referredEntityCount = 0;
 
     public EntityGraphRetriever(AtlasTypeRegistry typeRegistry) {
+        this(typeRegistry, EntityRetrievalOptions.DEFAULT);
+    }
+
+    /**
+     * A retriever created with options counts the referred entities of each call to enforce the limit on their number,
+     * hence must not be shared by concurrent callers.
+     */
+    public EntityGraphRetriever(AtlasTypeRegistry typeRegistry, EntityRetrievalOptions options) {
         this.typeRegistry = typeRegistry;
+        this.options      = options;
     }
 
     public AtlasEntity toAtlasEntity(String guid) throws AtlasBaseException {
@@ -98,7 +111,7 @@ public final class EntityGraphRetriever {
     }
 
     public AtlasEntity toAtlasEntity(AtlasVertex entityVertex) throws AtlasBaseException {
-        return mapVertexToAtlasEntity(entityVertex, null);
+        return mapVertexToAtlasEntity(entityVertex, null, options.getAttributes());
     }
 
     public AtlasEntityWithExtInfo toAtlasEntityWithExtInfo(String guid) throws AtlasBaseException {
@@ -110,8 +123,10 @@ public final class EntityGraphRetriever {
     }
 
     public AtlasEntityWithExtInfo toAtlasEntityWithExtInfo(AtlasVertex entityVertex) throws AtlasBaseException {
+        referredEntityCount = 0;
+
         AtlasEntityExtInfo     entityExtInfo = new AtlasEntityExtInfo();
-        AtlasEntity            entity        = mapVertexToAtlasEntity(entityVertex, entityExtInfo);
+        AtlasEntity            entity        = mapVertexToAtlasEntity(entityVertex, entityExtInfo, options.getAttributes());
         AtlasEntityWithExtInfo ret           = new AtlasEntityWithExtInfo(entity, entityExtInfo);
 
         ret.compact();
@@ -120,16 +135,29 @@ public final class EntityGraphRetriever {
     }
 
     public AtlasEntitiesWithExtInfo toAtlasEntitiesWithExtInfo(List<String> guids) throws AtlasBaseException {
-        AtlasEntitiesWithExtInfo ret = new AtlasEntitiesWithExtInfo();
+        AtlasEntitiesWithExtInfo ret      = new AtlasEntitiesWithExtInfo();
+        List<AtlasVertex>        vertices = new ArrayList<>(guids.size());
 
         for (String guid : guids) {
-            AtlasVertex vertex = getEntityVertex(guid);
+            vertices.add(getEntityVertex(guid));
+        }
 
-            AtlasEntity entity = mapVertexToAtlasEntity(vertex, ret);
+        prefetch(vertices, options.getAttributes(), true);
+
+        referredEntityCount = 0;
+
+        // requested entities are not mapped as referred entities of an earlier one: they are mapped with the requested
+        // attributes when their turn comes, and don't count against the limit on the number of referred entities
+        RequestedEntitiesExtInfo entityExtInfo = new RequestedEntitiesExtInfo(guids);
+
+        for (AtlasVertex vertex : vertices) {
+            AtlasEntity entity = mapVertexToAtlasEntity(vertex, entityExtInfo, options.getAttributes());
 
             ret.addEntity(entity);
         }
 
+        ret.setReferredEntities(entityExtInfo.getReferredEntities());
+
         ret.compact();
 
         return ret;
@@ -147,6 +175,51 @@ public final class EntityGraphRetriever {
         return atlasVertex != null ? mapVertexToAtlasEntityHeader(atlasVertex, attributes) : null;
     }
 
+    public List<AtlasEntityHeader> toAtlasEntityHeaders(List<AtlasVertex> entityVertices, Set<String> attributes) throws AtlasBaseException {
+        List<AtlasEntityHeader> ret = new ArrayList<>(entityVertices.size());
+
+        // edges are read only for reference attributes
+        if (CollectionUtils.isNotEmpty(attributes)) {
+            Set<String> attributeNames = new HashSet<>(attributes.size());
+
+            for (String attrName : attributes) {
+                attributeNames.add(toNonQualifiedName(attrName));
+            }
+
+            prefetch(entityVertices, attributeNames, false);
+        } else {
+            graphHelper.prefetch(entityVertices, Collections.<String>emptySet());
+        }
+
+        for (AtlasVertex entityVertex : entityVertices) {
+            ret.add(toAtlasEntityHeader(entityVertex, attributes));
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return headers of the entities with the given guids, keyed by guid
+     */
+    public Map<String, AtlasEntityHeader> toAtlasEntityHeaders(Collection<String> guids) throws AtlasBaseException {
+        Map<String, AtlasEntityHeader> ret      = new HashMap<>(guids.size());
+        List<AtlasVertex>              vertices = new ArrayList<>(guids.size());
+
+        for (String guid : guids) {
+            vertices.add(getEntityVertex(guid));
+        }
+
+        graphHelper.prefetch(vertices, Collections.<String>emptySet());
+
+        for (AtlasVertex vertex : vertices) {
+            AtlasEntityHeader header = mapVertexToAtlasEntityHeader(vertex);
+
+            ret.put(header.getGuid(), header);
+        }
+
+        return ret;
+    }
+
     public AtlasVertex getEntityVertex(String guid) throws AtlasBaseException {
         AtlasVertex ret = AtlasGraphUtilsV1.findByGuid(guid);
 
@@ -181,6 +254,11 @@ public final class EntityGraphRetriever {
     }
 
     private AtlasEntity mapVertexToAtlasEntity(AtlasVertex entityVertex, AtlasEntityExtInfo entityExtInfo) throws AtlasBaseException {
+        return mapVertexToAtlasEntity(entityVertex, entityExtInfo, Collections.<String>emptySet());
+    }
+
+    // attributeNames: attributes and relationship attributes to map; all if empty
+    private AtlasEntity mapVertexToAtlasEntity(AtlasVertex entityVertex, AtlasEntityExtInfo entityExtInfo, Set<String> attributeNames) throws AtlasBaseException {
         String      guid   = GraphHelper.getGuid(entityVertex);
         AtlasEntity entity = entityExtInfo != null ? entityExtInfo.getEntity(guid) : null;
 
@@ -197,9 +275,13 @@ public final class EntityGraphRetriever {
 
             mapSystemAttributes(entityVertex, entity);
 
-            mapAttributes(entityVertex, entity, entityExtInfo);
+            if (entityExtInfo != null) {
+                prefetchOwnedReferences(entityVertex, entity, attributeNames);
+            }
+
+            mapAttributes(entityVertex, entity, entityExtInfo, attributeNames);
 
-            mapRelationshipAttributes(entityVertex, entity);
+            mapRelationshipAttributes(entityVertex, entity, attributeNames);
 
             mapClassifications(entityVertex, entity, entityExtInfo);
         }
@@ -207,6 +289,159 @@ public final class EntityGraphRetriever {
         return entity;
     }
 
+    // entities referred by owned attributes are mapped into ext-info; load them together rather than one at a time
+    private void prefetchOwnedReferences(AtlasVertex entityVertex, AtlasEntity entity, Set<String> attributeNames) {
+        AtlasEntityType entityType = typeRegistry.getEntityTypeByName(entity.getTypeName());
+        int             remaining  = options.getRemainingReferredEntities(referredEntityCount);
+
+        if (entityType == null || remaining == 0) {
+            return;
+        }
+
+        // no more than the referred entities that can still be returned; references past the limit are not mapped
+        List<AtlasVertex> referenceVertices = new ArrayList<>();
+
+        for (AtlasAttribute attribute : entityType.getAllAttributes().values()) {
+            if (referenceVertices.size() >= remaining) {
+                break;
+            }
+
+            if (!attribute.isOwnedRef() || !isAttributeToMap(attribute, attributeNames)) {
+                continue;
+            }
+
+            String                         edgeLabel = EDGE_LABEL_PREFIX + attribute.getQualifiedName();
+            AtlasRelationshipEdgeDirection direction = attribute.getRelationshipEdgeDirection();
+            Iterator<AtlasEdge>            edges     = GraphHelper.getEdgesForLabel(entityVertex, edgeLabel, direction);
+
+            while (edges != null && edges.hasNext() && referenceVertices.size() < remaining) {
+                AtlasEdge   edge            = edges.next();
+                AtlasVertex referenceVertex = getOtherVertex(edge, entityVertex, direction);
+
+                if (referenceVertex != null) {
+                    referenceVertices.add(referenceVertex);
+                }
+            }
+        }
+
+        // edges of referred entities are not read in min-ext-info mode
+        if (options.isMinExtInfo()) {
+            graphHelper.prefetch(referenceVertices, Collections.<String>emptySet());
+        } else {
+            prefetch(referenceVertices, Collections.<String>emptySet(), true);
+        }
+    }
+
+    // loads properties of the vertices, then the edges read to map the given attributes - all if empty - and, if
+    // includeClassifications is true, the classifications of their entities; the labels of these edges are told by
+    // the types and classification names of the entities, hence properties are loaded first
+    private void prefetch(List<AtlasVertex> vertices, Set<String> attributeNames, boolean includeClassifications) {
+        graphHelper.prefetch(vertices, Collections.<String>emptySet());
+
+        if (CollectionUtils.isEmpty(vertices)) {
+            return;
+        }
+
+        Set<String> edgeLabels = new HashSet<>();
+        Set<String> typeNames  = new HashSet<>();
+
+        for (AtlasVertex vertex : vertices) {
+            String typeName = GraphHelper.getTypeName(vertex);
+
+            typeNames.add(typeName);
+
+            if (includeClassifications) {
+                for (String classificationName : GraphHelper.getTraitNames(vertex)) {
+                    edgeLabels.add(GraphHelper.getTraitLabel(typeName, classificationName));
+                }
+            }
+        }
+
+        for (String typeName : typeNames) {
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
+
+            if (entityType == null) {
+                continue;
+            }
+
+            for (AtlasAttribute attribute : entityType.getAllAttributes().values()) {
+                if (isAttributeToMap(attribute, attributeNames) && isReferenceAttribute(attribute)) {
+                    edgeLabels.add(EDGE_LABEL_PREFIX + attribute.getQualifiedName());
+                    edgeLabels.add(attribute.getRelationshipEdgeLabel());
+                }
+            }
+
+            for (AtlasAttribute attribute : entityType.getRelationshipAttributes().values()) {
+                if (isAttributeToMap(attribute, attributeNames)) {
+                    edgeLabels.add(attribute.getRelationshipEdgeLabel());
+                }
+            }
+        }
+
+        graphHelper.prefetch(vertices, edgeLabels);
+    }
+
+    // attributes whose values are stored in edges: references to entities and structs, and collections of these
+    private static boolean isReferenceAttribute(AtlasAttribute attribute) {
+        switch (attribute.getAttributeType().getTypeCategory()) {
+            case OBJECT_ID_TYPE:
+            case STRUCT:
+            case ARRAY:
+            case MAP:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    // the end of the edge other than the given vertex; told by the direction of the edge, rather than by reading guids
+    private static AtlasVertex getOtherVertex(AtlasEdge edge, AtlasVertex vertex, AtlasRelationshipEdgeDirection direction) {
+        if (direction == OUT) {
+            return edge.getInVertex();
+        } else if (direction == IN) {
+            return edge.getOutVertex();
+        }
+
+        AtlasVertex ret = edge.getInVertex();
+
+        return ret != null && ret.getId().equals(vertex.getId()) ? edge.getOutVertex() : ret;
+    }
+
+    // in min-ext-info mode, referred entities include only the attributes returned in entity headers
+    private AtlasEntity mapVertexToAtlasEntityMin(AtlasVertex entityVertex, AtlasEntityExtInfo entityExtInfo) throws AtlasBaseException {
+        AtlasEntityHeader header = mapVertexToAtlasEntityHeader(entityVertex);
+        AtlasEntity       ret    = new AtlasEntity(header.getTypeName(), header.getAttributes());
+
+        mapSystemAttributes(entityVertex, ret);
+
+        entityExtInfo.addReferredEntity(ret.getGuid(), ret);
+
+        return ret;
+    }
+
+    /*
+     * @return entity for the given referred vertex; null if the limit on the number of referred entities has been
+     * reached or if the entity is one of those requested but not mapped yet, in which case the reference is returned
+     * without the entity
+     */
+    private AtlasEntity mapReferredVertexToAtlasEntity(AtlasVertex referenceVertex, AtlasEntityExtInfo entityExtInfo) throws AtlasBaseException {
+        String      guid = GraphHelper.getGuid(referenceVertex);
+        AtlasEntity ret  = entityExtInfo.getEntity(guid);
+
+        if (ret == null && !RequestedEntitiesExtInfo.isRequested(entityExtInfo, guid) && !options.isReferredEntityLimitReached(referredEntityCount)) {
+            referredEntityCount++;
+
+            ret = options.isMinExtInfo() ? mapVertexToAtlasEntityMin(referenceVertex, entityExtInfo) : mapVertexToAtlasEntity(referenceVertex, entityExtInfo);
+        }
+
+        return ret;
+    }
+
+    private static boolean isAttributeToMap(AtlasAttribute attribute, Set<String> attributeNames) {
+        return CollectionUtils.isEmpty(attributeNames) || attributeNames.contains(attribute.getName());
+    }
+
     private AtlasEntityHeader mapVertexToAtlasEntityHeader(AtlasVertex entityVertex) throws AtlasBaseException {
         return mapVertexToAtlasEntityHeader(entityVertex, Collections.<String>emptySet());
     }
@@ -298,6 +533,10 @@ public final class EntityGraphRetriever {
     }
 
     private void mapAttributes(AtlasVertex entityVertex, AtlasStruct struct, AtlasEntityExtInfo entityExtInfo) throws AtlasBaseException {
+        mapAttributes(entityVertex, struct, entityExtInfo, Collections.<String>emptySet());
+    }
+
+    private void mapAttributes(AtlasVertex entityVertex, AtlasStruct struct, AtlasEntityExtInfo entityExtInfo, Set<String> attributeNames) throws AtlasBaseException {
         AtlasType objType = typeRegistry.getType(struct.getTypeName());
 
         if (!(objType instanceof AtlasStructType)) {
@@ -307,6 +546,10 @@ public final class EntityGraphRetriever {
         AtlasStructType structType = (AtlasStructType) objType;
 
         for (AtlasAttribute attribute : structType.getAllAttributes().values()) {
+            if (!isAttributeToMap(attribute, attributeNames)) {
+                continue;
+            }
+
             Object attrValue = mapVertexToAttribute(entityVertex, attribute, entityExtInfo);
 
             struct.setAttribute(attribute.getName(), attrValue);
@@ -593,12 +836,10 @@ public final class EntityGraphRetriever {
             }
 
             if (referenceVertex != null) {
-                if (entityExtInfo != null && isOwnedAttribute) {
-                    AtlasEntity entity = mapVertexToAtlasEntity(referenceVertex, entityExtInfo);
+                AtlasEntity entity = entityExtInfo != null && isOwnedAttribute ? mapReferredVertexToAtlasEntity(referenceVertex, entityExtInfo) : null;
 
-                    if (entity != null) {
-                        ret = AtlasTypeUtil.getAtlasObjectId(entity);
-                    }
+                if (entity != null) {
+                    ret = AtlasTypeUtil.getAtlasObjectId(entity);
                 } else {
                     ret = new AtlasObjectId(GraphHelper.getGuid(referenceVertex), GraphHelper.getTypeName(referenceVertex));
                 }
@@ -629,7 +870,7 @@ public final class EntityGraphRetriever {
         return vertex != null && attribute != null ? mapVertexToAttribute(vertex, attribute, null) : null;
     }
 
-    private void mapRelationshipAttributes(AtlasVertex entityVertex, AtlasEntity entity) throws AtlasBaseException {
+    private void mapRelationshipAttributes(AtlasVertex entityVertex, AtlasEntity entity, Set<String> attributeNames) throws AtlasBaseException {
         AtlasEntityType entityType = typeRegistry.getEntityTypeByName(entity.getTypeName());
 
         if (entityType == null) {
@@ -637,6 +878,10 @@ public final class EntityGraphRetriever {
         }
 
         for (AtlasAttribute attribute : entityType.getRelationshipAttributes().values()) {
+            if (!isAttributeToMap(attribute, attributeNames)) {
+                continue;
+            }
+
             Object attrValue = mapVertexToRelationshipAttribute(entityVertex, entityType, attribute);
 
             entity.setRelationshipAttribute(attribute.getName(), attrValue);
@@ -816,4 +1061,17 @@ public final class EntityGraphRetriever {
             relationship.setAttribute(attribute.getName(), attrValue);
         }
     }
+
+    // ext-info of toAtlasEntitiesWithExtInfo(), which tells the entities requested
+    private static class RequestedEntitiesExtInfo extends AtlasEntityExtInfo {
+        private final Set<String> requestedGuids;
+
+        RequestedEntitiesExtInfo(Collection<String> requestedGuids) {
+            this.requestedGuids = new HashSet<>(requestedGuids);
+        }
+
+        static boolean isRequested(AtlasEntityExtInfo entityExtInfo, String guid) {
+            return entityExtInfo instanceof RequestedEntitiesExtInfo && ((RequestedEntitiesExtInfo) entityExtInfo).requestedGuids.contains(guid);
+        }
+    }
 }
@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v1;
+
+import org.apache.commons.collections.CollectionUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Options of entity retrieval: the attributes to return for the requested entities, and how many - and how much of -
+ * the referred entities to return in ext-info.
+ */
+public class EntityRetrievalOptions {
+    public static final EntityRetrievalOptions DEFAULT = new EntityRetrievalOptions(null, false, -1);
+
+    private final Set<String> attributes;
+    private final boolean     isMinExtInfo;
+    private final int         maxReferredEntities;
+
+    /**
+     * @param attributes names of the attributes to return; all attributes if empty
+     * @param isMinExtInfo if true, referred entities include only the attributes returned in entity headers
+     * @param maxReferredEntities maximum number of referred entities to return; 0 for none, no limit if negative
+     */
+    public EntityRetrievalOptions(Collection<String> attributes, boolean isMinExtInfo, int maxReferredEntities) {
+        this.attributes          = CollectionUtils.isEmpty(attributes) ? Collections.<String>emptySet() : Collections.unmodifiableSet(new HashSet<>(attributes));
+        this.isMinExtInfo        = isMinExtInfo;
+        this.maxReferredEntities = maxReferredEntities;
+    }
+
+    public Set<String> getAttributes() {
+        return attributes;
+    }
+
+    public boolean isAllAttributes() {
+        return attributes.isEmpty();
+    }
+
+    public boolean isMinExtInfo() {
+        return isMinExtInfo;
+    }
+
+    public int getMaxReferredEntities() {
+        return maxReferredEntities;
+    }
+
+    public boolean isReferredEntityLimitReached(int referredEntityCount) {
+        return maxReferredEntities >= 0 && referredEntityCount >= maxReferredEntities;
+    }
+
+    /**
+     * @return number of referred entities that can be returned after the given number already returned; Integer.MAX_VALUE if there is no limit
+     */
+    public int getRemainingReferredEntities(int referredEntityCount) {
+        return maxReferredEntities >= 0 ? Math.max(0, maxReferredEntities - referredEntityCount) : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityRetrievalOptions{attributes=" + attributes + ", isMinExtInfo=" + isMinExtInfo + ", maxReferredEntities=" + maxReferredEntities + "}";
+    }
+}
@@ -30,6 +30,11 @@ import org.apache.atlas.type.AtlasTypeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 
 public class IDBasedEntityResolver implements EntityResolver {
     private static final Logger LOG = LoggerFactory.getLogger(IDBasedEntityResolver.class);
@@ -45,7 +50,9 @@ public class IDBasedEntityResolver implements EntityResolver {
             throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, "IDBasedEntityResolver.resolveEntityReferences(): context is null");
         }
 
-        EntityStream entityStream = context.getEntityStream();
+        EntityStream                       entityStream  = context.getEntityStream();
+        Map<String, AtlasVertex>           resolvedGuids = new LinkedHashMap<>();
+        Map<AtlasEntityType, List<String>> guidsByType   = new LinkedHashMap<>();
 
         for (String guid : context.getReferencedGuids()) {
             boolean isAssignedGuid = AtlasTypeUtil.isAssignedGuid(guid);
@@ -54,23 +61,53 @@ public class IDBasedEntityResolver implements EntityResolver {
             if (vertex == null && !(entityStream instanceof EntityImportStream)) { // if not found in the store, look if the entity is present in the stream
                 AtlasEntity entity = entityStream.getByGuid(guid);
 
-                if (entity != null) { // look for the entity in the store using unique-attributes
+                if (entity != null) { // look for the entity in the store using unique-attributes; entities of a type are looked up together
                     AtlasEntityType entityType = typeRegistry.getEntityTypeByName(entity.getTypeName());
 
                     if (entityType == null) {
                         throw new AtlasBaseException(AtlasErrorCode.TYPE_NAME_INVALID, TypeCategory.ENTITY.name(), entity.getTypeName());
                     }
 
-                    vertex = AtlasGraphUtilsV1.findByUniqueAttributes(entityType, entity.getAttributes());
+                    List<String> guids = guidsByType.get(entityType);
+
+                    if (guids == null) {
+                        guids = new ArrayList<>();
+
+                        guidsByType.put(entityType, guids);
+                    }
+
+                    guids.add(guid);
                 } else if (!isAssignedGuid) { // for local-guids, entity must be in the stream
                     throw new AtlasBaseException(AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND, guid);
                 }
             }
 
+            resolvedGuids.put(guid, vertex);
+        }
+
+        for (Map.Entry<AtlasEntityType, List<String>> entry : guidsByType.entrySet()) {
+            List<String>              guids      = entry.getValue();
+            List<Map<String, Object>> attributes = new ArrayList<>(guids.size());
+
+            for (String guid : guids) {
+                attributes.add(entityStream.getByGuid(guid).getAttributes());
+            }
+
+            Map<Map<String, Object>, AtlasVertex> vertices = AtlasGraphUtilsV1.findByUniqueAttributes(entry.getKey(), attributes);
+
+            for (int i = 0; i < guids.size(); i++) {
+                resolvedGuids.put(guids.get(i), vertices.get(attributes.get(i)));
+            }
+        }
+
+        for (Map.Entry<String, AtlasVertex> entry : resolvedGuids.entrySet()) {
+            String      guid   = entry.getKey();
+            AtlasVertex vertex = entry.getValue();
+
             if (vertex != null) {
                 context.addResolvedGuid(guid, vertex);
             } else {
-                if (isAssignedGuid && !(entityStream instanceof EntityImportStream)) {
+                if (AtlasTypeUtil.isAssignedGuid(guid) && !(entityStream instanceof EntityImportStream)) {
                     throw new AtlasBaseException(AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND, guid);
                 } else {
                     context.addLocalGuidReference(guid);
@@ -30,7 +30,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 public class UniqAttrBasedEntityResolver implements EntityResolver {
@@ -48,24 +50,47 @@ public class UniqAttrBasedEntityResolver implements EntityResolver {
             throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, "UniqAttrBasedEntityResolver.resolveEntityReferences(): context is null");
         }
 
-        //Resolve attribute references
-        List<AtlasObjectId> resolvedReferences = new ArrayList<>();
+        //Resolve attribute references; references of each type are looked up together
+        Map<AtlasEntityType, List<AtlasObjectId>> objIdsByType = new LinkedHashMap<>();
 
         for (AtlasObjectId objId : context.getReferencedByUniqAttribs()) {
-            //query in graph repo that given unique attribute - check for deleted also?
             AtlasEntityType entityType = typeRegistry.getEntityTypeByName(objId.getTypeName());
 
             if (entityType == null) {
                 throw new AtlasBaseException(AtlasErrorCode.TYPE_NAME_INVALID, TypeCategory.ENTITY.name(), objId.getTypeName());
             }
 
-            AtlasVertex vertex = AtlasGraphUtilsV1.findByUniqueAttributes(entityType, objId.getUniqueAttributes());
+            List<AtlasObjectId> objIds = objIdsByType.get(entityType);
+
+            if (objIds == null) {
+                objIds = new ArrayList<>();
+
+                objIdsByType.put(entityType, objIds);
+            }
+
+            objIds.add(objId);
+        }
+
+        for (Map.Entry<AtlasEntityType, List<AtlasObjectId>> entry : objIdsByType.entrySet()) {
+            AtlasEntityType           entityType = entry.getKey();
+            List<AtlasObjectId>       objIds     = entry.getValue();
+            List<Map<String, Object>> uniqAttrs  = new ArrayList<>(objIds.size());
+
+            for (AtlasObjectId objId : objIds) {
+                uniqAttrs.add(objId.getUniqueAttributes());
+            }
+
+            //query in graph repo that given unique attribute - check for deleted also?
+            Map<Map<String, Object>, AtlasVertex> vertices = AtlasGraphUtilsV1.findByUniqueAttributes(entityType, uniqAttrs);
+
+            for (AtlasObjectId objId : objIds) {
+                AtlasVertex vertex = objId.getUniqueAttributes() != null ? vertices.get(objId.getUniqueAttributes()) : null;
 
-            if (vertex != null) {
-                context.addResolvedIdByUniqAttribs(objId, vertex);
-                resolvedReferences.add(objId);
-            } else {
-                throw new AtlasBaseException(AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND, objId.toString());
+                if (vertex != null) {
+                    context.addResolvedIdByUniqAttribs(objId, vertex);
+                } else {
+                    throw new AtlasBaseException(AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND, objId.toString());
+                }
             }
         }
 
@@ -0,0 +1,219 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v1;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of unique attribute value to guid/vertex-id of the entity, to avoid index lookups for entities that
+ * are referred to repeatedly - like hive_db, hdfs_path by hook messages.
+ *
+ * Entries are invalidated when the entity is updated or deleted. In addition, the vertex of a cached entry is
+ * verified on every hit - to be active, of the expected type, and to have the same guid and attribute value - so that
+ * stale entries, like ones cached before an HA failover, are never returned.
+ */
+public class UniqueAttributeCache {
+    private static final Logger LOG = LoggerFactory.getLogger(UniqueAttributeCache.class);
+
+    private final Cache<String, CacheEntry>          cache;
+    private final ConcurrentMap<String, Set<String>> guidKeys   = new ConcurrentHashMap<>();
+    private final AtomicLong                         staleCount = new AtomicLong();
+
+    public UniqueAttributeCache(int maxSize) {
+        this.cache = CacheBuilder.newBuilder()
+                                 .maximumSize(maxSize)
+                                 .recordStats()
+                                 .removalListener(new RemovalListener<String, CacheEntry>() {
+                                     @Override
+                                     public void onRemoval(RemovalNotification<String, CacheEntry> notification) {
+                                         // explicit removals and replacements update guidKeys themselves
+                                         if (notification.wasEvicted()) {
+                                             removeGuidKey(notification.getValue().guid, notification.getKey());
+                                         }
+                                     }
+                                 })
+                                 .build();
+    }
+
+    /**
+     * @return vertex of the entity having the given unique attribute value, if present in the cache and verified
+     */
+    public AtlasVertex get(AtlasEntityType entityType, AtlasAttribute attribute, Object attrValue) {
+        String      key   = getKey(entityType, attribute, attrValue);
+        CacheEntry  entry = cache.getIfPresent(key);
+        AtlasVertex ret   = null;
+
+        if (entry != null) {
+            ret = AtlasGraphProvider.getGraphInstance().getVertex(entry.vertexId);
+
+            if (!isValid(ret, entry, entityType, attribute, attrValue)) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("UniqueAttributeCache: stale entry for {}", key);
+                }
+
+                staleCount.incrementAndGet();
+
+                cache.invalidate(key);
+
+                removeGuidKey(entry.guid, key);
+
+                ret = null;
+            }
+        }
+
+        return ret;
+    }
+
+    public void put(AtlasEntityType entityType, AtlasAttribute attribute, Object attrValue, AtlasVertex vertex) {
+        String guid = AtlasGraphUtilsV1.getIdFromVertex(vertex);
+
+        if (guid == null) {
+            return;
+        }
+
+        String     key      = getKey(entityType, attribute, attrValue);
+        CacheEntry previous = cache.asMap().put(key, new CacheEntry(guid, vertex.getId().toString()));
+
+        if (previous != null && !previous.guid.equals(guid)) {
+            removeGuidKey(previous.guid, key);
+        }
+
+        addGuidKey(guid, key);
+    }
+
+    /**
+     * Removes all entries of the entity with the given guid. To be called when the entity is updated or deleted.
+     */
+    public void invalidate(String guid) {
+        Set<String> keys = guidKeys.remove(guid);
+
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+        guidKeys.clear();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount() - staleCount.get();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount() + staleCount.get();
+    }
+
+    public double getHitRate() {
+        CacheStats stats    = cache.stats();
+        long       requests = stats.requestCount();
+
+        return requests == 0 ? 1.0 : (double) (stats.hitCount() - staleCount.get()) / requests;
+    }
+
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    private boolean isValid(AtlasVertex vertex, CacheEntry entry, AtlasEntityType entityType, AtlasAttribute attribute, Object attrValue) {
+        if (vertex == null || !vertex.exists()) {
+            return false;
+        }
+
+        if (!AtlasEntity.Status.ACTIVE.name().equals(vertex.getProperty(Constants.STATE_PROPERTY_KEY, String.class))) {
+            return false;
+        }
+
+        if (!entry.guid.equals(AtlasGraphUtilsV1.getIdFromVertex(vertex))) {
+            return false;
+        }
+
+        if (!entityType.getTypeAndAllSubTypes().contains(AtlasGraphUtilsV1.getTypeName(vertex))) {
+            return false;
+        }
+
+        Object vertexValue = vertex.getProperty(attribute.getVertexPropertyName(), Object.class);
+
+        return vertexValue != null && vertexValue.toString().equals(attrValue.toString());
+    }
+
+    private void addGuidKey(String guid, String key) {
+        Set<String> keys = guidKeys.get(guid);
+
+        if (keys == null) {
+            Set<String> newKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+            keys = guidKeys.putIfAbsent(guid, newKeys);
+
+            if (keys == null) {
+                keys = newKeys;
+            }
+        }
+
+        keys.add(key);
+    }
+
+    private void removeGuidKey(String guid, String key) {
+        Set<String> keys = guidKeys.get(guid);
+
+        if (keys != null) {
+            keys.remove(key);
+
+            if (keys.isEmpty()) {
+                guidKeys.remove(guid, keys);
+            }
+        }
+    }
+
+    private static String getKey(AtlasEntityType entityType, AtlasAttribute attribute, Object attrValue) {
+        return entityType.getTypeName() + '\u0000' + attribute.getName() + '\u0000' + attrValue;
+    }
+
+    private static class CacheEntry {
+        final String guid;
+        final String vertexId;
+
+        CacheEntry(String guid, String vertexId) {
+            this.guid     = guid;
+            this.vertexId = vertexId;
+        }
+    }
+}
@@ -0,0 +1,548 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.services;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasClient;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.listener.EntityChangeListener;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v1.HardDeleteHandlerV1;
+import org.apache.atlas.service.Service;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.util.AtlasRepositoryConfiguration;
+import org.apache.atlas.v1.model.instance.Id;
+import org.apache.atlas.v1.model.instance.Referenceable;
+import org.apache.atlas.v1.model.instance.Struct;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Number of entities per type, per classification and per state - kept current from entity change notifications,
+ * so that metrics don't require scanning the graph. Changes are collected per graph transaction, and applied to the
+ * counters only once the transaction is committed.
+ *
+ * Counters are persisted in the graph periodically, and loaded on startup (or on becoming active, with HA). Changes
+ * made after the last persist, before a restart, are not reflected; MetricsService rebuilds the counters from a
+ * full scan of the graph when there are no persisted counters, or when asked to.
+ */
+@Component
+public class MetricsCounters implements EntityChangeListener, Service, ActiveStateChangeHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsCounters.class);
+
+    public static final String PERSIST_INTERVAL_SECS_PROPERTY = "atlas.metric.counters.persist.interval.secs";
+    public static final int    DEFAULT_PERSIST_INTERVAL_SECS  = 60;
+
+    private static final String VERTEX_TYPE         = "metricsCounters";
+    private static final String COUNTERS_PROPERTY   = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "metricsCounters";
+    private static final String PERSIST_THREAD_NAME = "atlas-metrics-counters-%d";
+    private static final String KEY_ENTITY_COUNT    = "entityCount";
+    private static final String KEY_DELETED_COUNT   = "deletedEntityCount";
+    private static final String KEY_TAGGED_COUNT    = "taggedEntityCount";
+    private static final String KEY_TYPE_ENTITIES   = "typeEntities";
+    private static final String KEY_TAG_ENTITIES    = "tagEntities";
+    private static final String KEY_COLLECTION_TIME = "collectionTime";
+
+    private final AtlasGraph        atlasGraph;
+    private final AtlasTypeRegistry typeRegistry;
+    private final Configuration     configuration;
+    private final boolean           isHardDelete;
+    private final AtomicBoolean     isDirty = new AtomicBoolean();
+
+    private final ThreadLocal<Counts> pendingDeltas = new ThreadLocal<>();
+
+    private volatile Counts                   counts         = new Counts(false);
+    private volatile long                     collectionTime = 0;
+    private          Counts                   rebuildDeltas;
+    private          ScheduledExecutorService persistExecutor;
+
+    @Inject
+    public MetricsCounters(AtlasGraph atlasGraph, AtlasTypeRegistry typeRegistry) throws AtlasException {
+        this(atlasGraph, typeRegistry, ApplicationProperties.get(), HardDeleteHandlerV1.class.equals(AtlasRepositoryConfiguration.getDeleteHandlerV1Impl()));
+    }
+
+    @VisibleForTesting
+    MetricsCounters(AtlasGraph atlasGraph, AtlasTypeRegistry typeRegistry, Configuration configuration, boolean isHardDelete) {
+        this.atlasGraph    = atlasGraph;
+        this.typeRegistry  = typeRegistry;
+        this.configuration = configuration;
+        this.isHardDelete  = isHardDelete;
+    }
+
+    public boolean isInitialized() {
+        return counts.isInitialized;
+    }
+
+    public long getEntityCount() {
+        return counts.entityCount.get();
+    }
+
+    public long getDeletedEntityCount() {
+        return counts.deletedEntityCount.get();
+    }
+
+    public long getTaggedEntityCount() {
+        return counts.taggedEntityCount.get();
+    }
+
+    public Map<String, Long> getTypeEntities() {
+        return toMap(counts.typeEntities);
+    }
+
+    public Map<String, Long> getTagEntities() {
+        return toMap(counts.tagEntities);
+    }
+
+    /**
+     * @return time of the last full scan the counters were reset from; 0 if the counters were never reset
+     */
+    public long getCollectionTime() {
+        return collectionTime;
+    }
+
+    /**
+     * Starts recording the changes committed from now on, to be applied on top of the values given to the following
+     * reset() - so that changes committed while the graph is being scanned are not lost.
+     */
+    public synchronized void beginRebuild() {
+        rebuildDeltas = new Counts(false);
+    }
+
+    /**
+     * Replaces the counters with the given values - collected from a full scan of the graph. Counters for which null
+     * is given retain their current values; counters are considered initialized only when all values are given.
+     * Changes committed since beginRebuild() are added to the given values.
+     */
+    public synchronized void reset(Long entityCount, Long deletedEntityCount, Long taggedEntityCount, Map<String, ? extends Number> typeEntities, Map<String, ? extends Number> tagEntities) {
+        Counts  current       = this.counts;
+        Counts  deltas        = rebuildDeltas != null ? rebuildDeltas : new Counts(false);
+        boolean isInitialized = current.isInitialized || (entityCount != null && deletedEntityCount != null && taggedEntityCount != null && typeEntities != null && tagEntities != null);
+        Counts  counts        = new Counts(isInitialized);
+
+        counts.entityCount.set(entityCount != null ? entityCount + deltas.entityCount.get() : current.entityCount.get());
+        counts.deletedEntityCount.set(deletedEntityCount != null ? deletedEntityCount + deltas.deletedEntityCount.get() : current.deletedEntityCount.get());
+        counts.taggedEntityCount.set(taggedEntityCount != null ? taggedEntityCount + deltas.taggedEntityCount.get() : current.taggedEntityCount.get());
+
+        if (typeEntities != null) {
+            counts.addAll(counts.typeEntities, typeEntities);
+            counts.addAll(counts.typeEntities, toMap(deltas.typeEntities, false));
+        } else {
+            counts.addAll(counts.typeEntities, toMap(current.typeEntities));
+        }
+
+        if (tagEntities != null) {
+            counts.addAll(counts.tagEntities, tagEntities);
+            counts.addAll(counts.tagEntities, toMap(deltas.tagEntities, false));
+        } else {
+            counts.addAll(counts.tagEntities, toMap(current.tagEntities));
+        }
+
+        this.counts         = counts;
+        this.collectionTime = System.currentTimeMillis();
+        this.rebuildDeltas  = null;
+
+        isDirty.set(true);
+    }
+
+    @Override
+    public void onEntitiesAdded(Collection<Referenceable> entities, boolean isImport) {
+        Counts counts = getPendingDeltas();
+
+        for (Referenceable entity : entities) {
+            if (entity == null) {
+                continue;
+            }
+
+            // entityCount, like the full scan, counts only entities of Referenceable types
+            if (isReferenceable(entity.getTypeName())) {
+                counts.entityCount.incrementAndGet();
+            }
+
+            counts.increment(counts.typeEntities, entity.getTypeName(), 1);
+
+            if (entity.getId() != null && entity.getId().getState() == Id.EntityState.DELETED) {
+                counts.deletedEntityCount.incrementAndGet();
+            }
+
+            if (CollectionUtils.isNotEmpty(entity.getTraitNames())) {
+                counts.taggedEntityCount.incrementAndGet();
+
+                for (String traitName : entity.getTraitNames()) {
+                    counts.increment(counts.tagEntities, traitName, 1);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onEntitiesUpdated(Collection<Referenceable> entities, boolean isImport) {
+        // type and state of an entity don't change on update
+    }
+
+    @Override
+    public void onTraitsAdded(Referenceable entity, Collection<? extends Struct> traits) {
+        Counts counts = getPendingDeltas();
+
+        for (Struct trait : traits) {
+            counts.increment(counts.tagEntities, trait.getTypeName(), 1);
+        }
+
+        // entity given is after the traits were added
+        if (entity.getTraitNames() != null && entity.getTraitNames().size() == traits.size()) {
+            counts.taggedEntityCount.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onTraitsDeleted(Referenceable entity, Collection<String> traitNames) {
+        Counts counts = getPendingDeltas();
+
+        // classification vertices are removed on delete even with soft-delete (see EntityGraphMapper.deleteClassifications)
+        for (String traitName : traitNames) {
+            counts.increment(counts.tagEntities, traitName, -1);
+        }
+
+        // entity given is after the traits were deleted
+        if (CollectionUtils.isEmpty(entity.getTraitNames())) {
+            counts.taggedEntityCount.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void onTraitsUpdated(Referenceable entity, Collection<? extends Struct> traits) {
+        // number of traits doesn't change on update
+    }
+
+    @Override
+    public void onEntitiesDeleted(Collection<Referenceable> entities, boolean isImport) {
+        Counts counts = getPendingDeltas();
+
+        for (Referenceable entity : entities) {
+            if (entity == null) {
+                continue;
+            }
+
+            if (isHardDelete) { // entity and its traits are removed from the graph
+                if (isReferenceable(entity.getTypeName())) {
+                    counts.entityCount.decrementAndGet();
+                }
+
+                counts.increment(counts.typeEntities, entity.getTypeName(), -1);
+
+                if (CollectionUtils.isNotEmpty(entity.getTraitNames())) {
+                    counts.taggedEntityCount.decrementAndGet();
+
+                    for (String traitName : entity.getTraitNames()) {
+                        counts.increment(counts.tagEntities, traitName, -1);
+                    }
+                }
+            } else {
+                counts.deletedEntityCount.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void start() throws AtlasException {
+        if (!HAConfiguration.isHAEnabled(configuration)) {
+            LOG.info("HA is disabled, loading metrics counters");
+
+            load();
+            startPersistThread();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopPersistThread();
+    }
+
+    @Override
+    public void instanceIsActive() {
+        LOG.info("Reacting to active state: loading metrics counters");
+
+        load();
+        startPersistThread();
+    }
+
+    @Override
+    public void instanceIsPassive() {
+        LOG.info("Reacting to passive state: stopping metrics counters persistence");
+
+        stopPersistThread();
+    }
+
+    @Override
+    public int getHandlerOrder() {
+        return HandlerOrder.METRICS_COUNTERS.getOrder();
+    }
+
+    @VisibleForTesting
+    void load() {
+        try {
+            AtlasVertex vertex = findCountersVertex();
+            String      json   = vertex != null ? vertex.getProperty(COUNTERS_PROPERTY, String.class) : null;
+
+            Map map = StringUtils.isNotEmpty(json) ? AtlasType.fromJson(json, Map.class) : null;
+
+            // persisted counters missing a count are not used, rather than taking the count as 0
+            if (map != null && map.get(KEY_ENTITY_COUNT) instanceof Number && map.get(KEY_DELETED_COUNT) instanceof Number && map.get(KEY_TAGGED_COUNT) instanceof Number) {
+                Counts counts = new Counts(true);
+
+                counts.entityCount.set(((Number) map.get(KEY_ENTITY_COUNT)).longValue());
+                counts.deletedEntityCount.set(((Number) map.get(KEY_DELETED_COUNT)).longValue());
+                counts.taggedEntityCount.set(((Number) map.get(KEY_TAGGED_COUNT)).longValue());
+                counts.addAll(counts.typeEntities, (Map<String, Number>) map.get(KEY_TYPE_ENTITIES));
+                counts.addAll(counts.tagEntities, (Map<String, Number>) map.get(KEY_TAG_ENTITIES));
+
+                this.counts         = counts;
+                this.collectionTime = map.get(KEY_COLLECTION_TIME) instanceof Number ? ((Number) map.get(KEY_COLLECTION_TIME)).longValue() : 0;
+
+                LOG.info("loaded metrics counters: entityCount={}, collectionTime={}", counts.entityCount.get(), collectionTime);
+            } else {
+                LOG.info("no persisted metrics counters found; will be initialized from a full scan");
+            }
+        } catch (Exception excp) {
+            LOG.error("failed to load metrics counters; will be initialized from a full scan", excp);
+        } finally {
+            atlasGraph.rollback();
+        }
+    }
+
+    @VisibleForTesting
+    void persist() {
+        Counts counts = this.counts;
+
+        if (!counts.isInitialized || !isDirty.getAndSet(false)) {
+            return;
+        }
+
+        Map<String, Object> map = new HashMap<>();
+
+        map.put(KEY_ENTITY_COUNT, counts.entityCount.get());
+        map.put(KEY_DELETED_COUNT, counts.deletedEntityCount.get());
+        map.put(KEY_TAGGED_COUNT, counts.taggedEntityCount.get());
+        map.put(KEY_TYPE_ENTITIES, toMap(counts.typeEntities));
+        map.put(KEY_TAG_ENTITIES, toMap(counts.tagEntities));
+        map.put(KEY_COLLECTION_TIME, collectionTime);
+
+        try {
+            AtlasVertex vertex = findCountersVertex();
+
+            if (vertex == null) {
+                vertex = atlasGraph.addVertex();
+
+                vertex.setProperty(Constants.VERTEX_TYPE_PROPERTY_KEY, VERTEX_TYPE);
+            }
+
+            vertex.setProperty(COUNTERS_PROPERTY, AtlasType.toJson(map));
+
+            atlasGraph.commit();
+        } catch (Exception excp) {
+            LOG.warn("failed to persist metrics counters", excp);
+
+            isDirty.set(true);
+
+            atlasGraph.rollback();
+        }
+    }
+
+    // deltas of the graph transaction in progress on the current thread
+    private Counts getPendingDeltas() {
+        Counts ret = pendingDeltas.get();
+
+        if (ret == null) {
+            ret = new Counts(false);
+
+            pendingDeltas.set(ret);
+
+            new CountersUpdateHook();
+        }
+
+        return ret;
+    }
+
+    // synchronized with reset(), so that deltas are neither applied to the counts being replaced nor missed in rebuildDeltas
+    private synchronized void apply(Counts deltas) {
+        add(this.counts, deltas);
+
+        if (rebuildDeltas != null) {
+            add(rebuildDeltas, deltas);
+        }
+
+        isDirty.set(true);
+    }
+
+    private boolean isReferenceable(String typeName) {
+        AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
+
+        return entityType != null && entityType.getAllSuperTypes().contains(AtlasClient.REFERENCEABLE_SUPER_TYPE);
+    }
+
+    private static void add(Counts counts, Counts deltas) {
+        counts.entityCount.addAndGet(deltas.entityCount.get());
+        counts.deletedEntityCount.addAndGet(deltas.deletedEntityCount.get());
+        counts.taggedEntityCount.addAndGet(deltas.taggedEntityCount.get());
+
+        for (Map.Entry<String, AtomicLong> entry : deltas.typeEntities.entrySet()) {
+            counts.increment(counts.typeEntities, entry.getKey(), entry.getValue().get());
+        }
+
+        for (Map.Entry<String, AtomicLong> entry : deltas.tagEntities.entrySet()) {
+            counts.increment(counts.tagEntities, entry.getKey(), entry.getValue().get());
+        }
+    }
+
+    private AtlasVertex findCountersVertex() {
+        Iterator<AtlasVertex> vertices = atlasGraph.query().has(Constants.VERTEX_TYPE_PROPERTY_KEY, VERTEX_TYPE).vertices().iterator();
+
+        return (vertices != null && vertices.hasNext()) ? vertices.next() : null;
+    }
+
+    private synchronized void startPersistThread() {
+        if (persistExecutor == null) {
+            int intervalSecs = configuration.getInt(PERSIST_INTERVAL_SECS_PROPERTY, DEFAULT_PERSIST_INTERVAL_SECS);
+
+            persistExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat(PERSIST_THREAD_NAME).setDaemon(true).build());
+
+            persistExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    persist();
+                }
+            }, intervalSecs, intervalSecs, TimeUnit.SECONDS);
+        }
+    }
+
+    private synchronized void stopPersistThread() {
+        if (persistExecutor != null) {
+            persistExecutor.shutdown();
+
+            try {
+                persistExecutor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException excp) {
+                Thread.currentThread().interrupt();
+            }
+
+            persistExecutor = null;
+
+            persist();
+        }
+    }
+
+    private static Map<String, Long> toMap(ConcurrentMap<String, AtomicLong> counters) {
+        return toMap(counters, true);
+    }
+
+    // deltas can be negative, and are to be kept
+    private static Map<String, Long> toMap(ConcurrentMap<String, AtomicLong> counters, boolean positiveOnly) {
+        Map<String, Long> ret = new HashMap<>();
+
+        for (Map.Entry<String, AtomicLong> entry : counters.entrySet()) {
+            long count = entry.getValue().get();
+
+            if (count > 0 || (!positiveOnly && count != 0)) {
+                ret.put(entry.getKey(), count);
+            }
+        }
+
+        return ret;
+    }
+
+    private class CountersUpdateHook extends GraphTransactionInterceptor.PostTransactionHook {
+        @Override
+        public void onComplete(boolean isSuccess) {
+            Counts deltas = pendingDeltas.get();
+
+            pendingDeltas.remove();
+
+            // changes of rolled back transactions are not counted
+            if (isSuccess && deltas != null) {
+                apply(deltas);
+            }
+        }
+    }
+
+    private static class Counts {
+        final boolean                           isInitialized;
+        final AtomicLong                        entityCount        = new AtomicLong();
+        final AtomicLong                        deletedEntityCount = new AtomicLong();
+        final AtomicLong                        taggedEntityCount  = new AtomicLong();
+        final ConcurrentMap<String, AtomicLong> typeEntities       = new ConcurrentHashMap<>();
+        final ConcurrentMap<String, AtomicLong> tagEntities        = new ConcurrentHashMap<>();
+
+        Counts(boolean isInitialized) {
+            this.isInitialized = isInitialized;
+        }
+
+        void increment(ConcurrentMap<String, AtomicLong> counters, String name, long delta) {
+            if (name == null) {
+                return;
+            }
+
+            AtomicLong counter = counters.get(name);
+
+            if (counter == null) {
+                AtomicLong newCounter = new AtomicLong();
+
+                counter = counters.putIfAbsent(name, newCounter);
+
+                if (counter == null) {
+                    counter = newCounter;
+                }
+            }
+
+            counter.addAndGet(delta);
+        }
+
+        void addAll(ConcurrentMap<String, AtomicLong> counters, Map<String, ? extends Number> values) {
+            if (MapUtils.isNotEmpty(values)) {
+                for (Map.Entry<String, ? extends Number> entry : values.entrySet()) {
+                    increment(counters, entry.getKey(), entry.getValue() != null ? entry.getValue().longValue() : 0);
+                }
+            }
+        }
+    }
+}
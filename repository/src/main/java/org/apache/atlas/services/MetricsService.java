@@ -18,24 +18,46 @@
 package org.apache.atlas.services;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.annotation.AtlasService;
-import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.discovery.SearchResultCache;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
 import org.apache.atlas.model.metrics.AtlasMetrics;
+import org.apache.atlas.model.typedef.AtlasEntityDef;
+import org.apache.atlas.query.DSLQueryCache;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
+import org.apache.atlas.repository.store.graph.v1.UniqueAttributeCache;
+import org.apache.atlas.service.Service;
+import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.AtlasGremlinQueryProvider;
 import org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery;
+import org.apache.atlas.utils.AtlasPerfMetrics;
 import org.apache.commons.configuration.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @AtlasService
-public class MetricsService {
+public class MetricsService implements Service, ActiveStateChangeHandler {
     private static final Logger LOG = LoggerFactory.getLogger(MetricsService.class);
 
     // Query Category constants
@@ -43,6 +65,7 @@ public class MetricsService {
     public static final String ENTITY  = "entity";
     public static final String TAG     = "tag";
     public static final String GENERAL = "general";
+    public static final String PERF    = "perf";
 
     // Query names
     protected static final String METRIC_TYPE_COUNT        = TYPE + "Count";
@@ -57,70 +80,389 @@ public class MetricsService {
     protected static final String METRIC_TAG_COUNT        = TAG + "Count";
     protected static final String METRIC_ENTITIES_PER_TAG = TAG + "Entities";
 
-    public static final String METRIC_QUERY_PREFIX       = "atlas.metric.query.";
-    public static final String METRIC_QUERY_CACHE_TTL    = "atlas.metric.query.cache.ttlInSecs";
-    public static final int    DEFAULT_CACHE_TTL_IN_SECS = 900;
+    public static final String METRIC_QUERY_PREFIX                   = "atlas.metric.query.";
+    public static final String METRIC_QUERY_TIMEOUT_SECS             = "atlas.metric.query.timeout.secs";
+    public static final String METRIC_QUERY_THREADS                  = "atlas.metric.query.threads";
+    public static final String METRIC_COUNTERS_REFRESH_INTERVAL_SECS = "atlas.metric.counters.refresh.interval.secs";
+    public static final int    DEFAULT_QUERY_TIMEOUT_SECS            = 600;
 
-    public static final String METRIC_COLLECTION_TIME = "collectionTime";
+    public static final String METRIC_COLLECTION_TIME          = "collectionTime";
+    public static final String METRIC_COUNTERS_COLLECTION_TIME = "countersCollectionTime";
+    public static final String METRIC_COUNTERS_AGE             = "countersAgeInMillis";
+
+    private static final String REFRESH_THREAD_NAME_FORMAT = "atlas-metrics-refresh-%d";
+    private static final String QUERY_THREAD_NAME_FORMAT   = "atlas-metrics-query-%d";
+
+    public static final String METRIC_UNIQUE_ATTRIBUTE_CACHE_SIZE     = "uniqueAttributeCacheSize";
+    public static final String METRIC_UNIQUE_ATTRIBUTE_CACHE_HITS     = "uniqueAttributeCacheHits";
+    public static final String METRIC_UNIQUE_ATTRIBUTE_CACHE_MISSES   = "uniqueAttributeCacheMisses";
+    public static final String METRIC_UNIQUE_ATTRIBUTE_CACHE_HIT_RATE = "uniqueAttributeCacheHitRate";
+
+    public static final String METRIC_SEARCH_RESULT_CACHE_SIZE     = "searchResultCacheSize";
+    public static final String METRIC_SEARCH_RESULT_CACHE_HITS     = "searchResultCacheHits";
+    public static final String METRIC_SEARCH_RESULT_CACHE_MISSES   = "searchResultCacheMisses";
+    public static final String METRIC_SEARCH_RESULT_CACHE_HIT_RATE = "searchResultCacheHitRate";
+
+    public static final String METRIC_DSL_QUERY_CACHE_SIZE     = "dslQueryCacheSize";
+    public static final String METRIC_DSL_QUERY_CACHE_HITS     = "dslQueryCacheHits";
+    public static final String METRIC_DSL_QUERY_CACHE_MISSES   = "dslQueryCacheMisses";
+    public static final String METRIC_DSL_QUERY_CACHE_HIT_RATE = "dslQueryCacheHitRate";
 
     private static Configuration            configuration = null;
     private static AtlasGremlinQueryProvider gremlinQueryProvider = null;
 
-    private final AtlasGraph                atlasGraph;
-    private final int                       cacheTTLInSecs;
+    private final AtlasGraph               atlasGraph;
+    private final AtlasTypeRegistry        typeRegistry;
+    private final MetricsCounters          counters;
+    private final SearchResultCache        searchResultCache;
+    private final DSLQueryCache            dslQueryCache;
+    private final int                      queryThreads;
+    private final long                     queryTimeoutMs;
+    private final long                     refreshInterval;
 
-    private AtlasMetrics cachedMetrics       = null;
-    private long         cacheExpirationTime = 0;
+    private ScheduledExecutorService refreshExecutor = null;
+    private ExecutorService          queryExecutor   = null;
+    private Future<?>                refreshFuture   = null;
 
 
     @Inject
-    public MetricsService(AtlasGraph atlasGraph) throws AtlasException {
-        this(ApplicationProperties.get(), atlasGraph);
+    public MetricsService(AtlasGraph atlasGraph, AtlasTypeRegistry typeRegistry, MetricsCounters counters, SearchResultCache searchResultCache,
+                          DSLQueryCache dslQueryCache) throws AtlasException {
+        this(ApplicationProperties.get(), atlasGraph, typeRegistry, counters, searchResultCache, dslQueryCache);
     }
 
     @VisibleForTesting
-    MetricsService(Configuration configuration, AtlasGraph graph) {
+    MetricsService(Configuration configuration, AtlasGraph graph, AtlasTypeRegistry typeRegistry, MetricsCounters counters, SearchResultCache searchResultCache,
+                   DSLQueryCache dslQueryCache) {
         MetricsService.configuration = configuration;
 
-        atlasGraph        = graph;
-        cacheTTLInSecs    = configuration != null ? configuration.getInt(METRIC_QUERY_CACHE_TTL, DEFAULT_CACHE_TTL_IN_SECS)
-                : DEFAULT_CACHE_TTL_IN_SECS;
+        atlasGraph             = graph;
+        this.typeRegistry      = typeRegistry;
+        this.counters          = counters;
+        this.searchResultCache = searchResultCache;
+        this.dslQueryCache     = dslQueryCache;
         gremlinQueryProvider = AtlasGremlinQueryProvider.INSTANCE;
+
+        AtlasPerfMetrics.registerMBean();
+
+        queryThreads    = configuration != null ? configuration.getInt(METRIC_QUERY_THREADS, MetricQuery.values().length) : MetricQuery.values().length;
+        queryTimeoutMs  = TimeUnit.SECONDS.toMillis(configuration != null ? configuration.getInt(METRIC_QUERY_TIMEOUT_SECS, DEFAULT_QUERY_TIMEOUT_SECS) : DEFAULT_QUERY_TIMEOUT_SECS);
+        refreshInterval = configuration != null ? configuration.getLong(METRIC_COUNTERS_REFRESH_INTERVAL_SECS, 0) : 0;
     }
 
-    @SuppressWarnings("unchecked")
+    @Override
+    public void start() throws AtlasException {
+        if (configuration == null || !HAConfiguration.isHAEnabled(configuration)) {
+            startExecutors();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopExecutors();
+    }
+
+    @Override
+    public void instanceIsActive() {
+        LOG.info("Reacting to active state: starting metrics refresh");
+
+        startExecutors();
+    }
+
+    @Override
+    public void instanceIsPassive() {
+        LOG.info("Reacting to passive state: stopping metrics refresh");
+
+        stopExecutors();
+    }
+
+    @Override
+    public int getHandlerOrder() {
+        return HandlerOrder.METRICS_SERVICE.getOrder();
+    }
+
+    /**
+     * Metrics are computed from counters kept current from entity changes; the counters are rebuilt from a full scan
+     * of the graph, in the background, when not available or when ignoreCache is true. Only the very first call waits
+     * for the scan to complete.
+     */
     public AtlasMetrics getMetrics(boolean ignoreCache) {
-        if (ignoreCache || !isCacheValid()) {
-            AtlasMetrics metrics = new AtlasMetrics();
+        if (ignoreCache || !counters.isInitialized()) {
+            Future<?> refresh = refreshCounters();
 
-            for (MetricQuery metricQuery : MetricQuery.values()) {
-                try {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Executing query: {}", metricQuery);
-                    }
-                    executeGremlinQuery(metrics, metricQuery.group, metricQuery.name, metricQuery.query);
-                } catch (AtlasBaseException e) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Gremlin execution failed for metric {}", metricQuery, e);
-                    } else {
-                        LOG.warn("Gremlin execution failed for metric {}", metricQuery);
+            if (counters.getCollectionTime() == 0) {
+                waitForRefresh(refresh);
+            }
+        }
+
+        AtlasMetrics      metrics      = new AtlasMetrics();
+        Map<String, Long> typeEntities = counters.getTypeEntities();
+        Map<String, Long> tagEntities  = counters.getTagEntities();
+        int               typeCount    = typeRegistry.getAllEnumDefs().size() + typeRegistry.getAllStructDefs().size() +
+                                         typeRegistry.getAllEntityDefs().size() + typeRegistry.getAllRelationshipDefs().size();
+        int               unusedCount  = 0;
+
+        for (AtlasEntityDef entityDef : typeRegistry.getAllEntityDefs()) {
+            if (!typeEntities.containsKey(entityDef.getName())) {
+                unusedCount++;
+            }
+        }
+
+        metrics.addData(GENERAL, METRIC_TYPE_COUNT, typeCount);
+        metrics.addData(GENERAL, METRIC_TYPE_UNUSED_COUNT, unusedCount);
+        metrics.addData(GENERAL, METRIC_TAG_COUNT, typeRegistry.getAllClassificationDefs().size());
+        metrics.addData(GENERAL, METRIC_ENTITY_COUNT, (int) counters.getEntityCount());
+        metrics.addData(GENERAL, METRIC_ENTITY_DELETED, (int) counters.getDeletedEntityCount());
+        metrics.addData(ENTITY, METRIC_TAGGED_ENTITIES, (int) counters.getTaggedEntityCount());
+
+        for (Map.Entry<String, Long> entry : typeEntities.entrySet()) {
+            metrics.addData(ENTITY, entry.getKey(), entry.getValue().intValue());
+        }
+
+        for (Map.Entry<String, Long> entry : tagEntities.entrySet()) {
+            metrics.addData(TAG, entry.getKey(), entry.getValue().intValue());
+        }
+
+        long collectionTime         = System.currentTimeMillis();
+        long countersCollectionTime = counters.getCollectionTime();
+
+        metrics.addData(GENERAL, METRIC_COLLECTION_TIME, collectionTime);
+        metrics.addData(GENERAL, METRIC_COUNTERS_COLLECTION_TIME, countersCollectionTime);
+
+        if (countersCollectionTime > 0) {
+            metrics.addData(GENERAL, METRIC_COUNTERS_AGE, collectionTime - countersCollectionTime);
+        }
+
+        // cache statistics are cheap to collect, hence always current
+        addUniqueAttributeCacheMetrics(metrics);
+        addSearchResultCacheMetrics(metrics);
+        addDslQueryCacheMetrics(metrics);
+        addPerfMetrics(metrics);
+
+        return metrics;
+    }
+
+    // starts rebuilding the counters in the background, unless a rebuild is already in progress
+    private synchronized Future<?> refreshCounters() {
+        startExecutors(); // metrics can be requested before start(), or after stop()
+
+        if (refreshFuture == null || refreshFuture.isDone()) {
+            refreshFuture = refreshExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    rebuildCounters();
+                }
+            });
+        }
+
+        return refreshFuture;
+    }
+
+    private void waitForRefresh(Future<?> refresh) {
+        try {
+            refresh.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOG.warn("failed to collect metrics", e.getCause());
+        } catch (CancellationException e) {
+            LOG.warn("collection of metrics cancelled, as the service is stopping");
+        }
+    }
+
+    private synchronized void startExecutors() {
+        if (refreshExecutor != null) {
+            return;
+        }
+
+        refreshExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat(REFRESH_THREAD_NAME_FORMAT).setDaemon(true).build());
+        queryExecutor   = Executors.newFixedThreadPool(Math.max(1, queryThreads), new ThreadFactoryBuilder().setNameFormat(QUERY_THREAD_NAME_FORMAT).setDaemon(true).build());
+
+        // counters might drift from the graph - for example, due to changes made after the last persist before a restart
+        if (refreshInterval > 0) {
+            refreshExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    rebuildCounters();
+                }
+            }, refreshInterval, refreshInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    // metric queries in progress are interrupted; counters retain their values
+    private synchronized void stopExecutors() {
+        if (refreshExecutor == null) {
+            return;
+        }
+
+        if (refreshFuture != null) {
+            refreshFuture.cancel(true);
+
+            refreshFuture = null;
+        }
+
+        refreshExecutor.shutdownNow();
+        queryExecutor.shutdownNow();
+
+        refreshExecutor = null;
+        queryExecutor   = null;
+    }
+
+    private synchronized ExecutorService getQueryExecutor() {
+        return queryExecutor;
+    }
+
+    /*
+     * Counts entities with the metric queries, which scan the graph, and resets the counters with the results. Queries
+     * run in parallel; counters of a query that fails or doesn't complete within the timeout retain their values.
+     */
+    private void rebuildCounters() {
+        Map<MetricQuery, Future<Object>> futures  = new EnumMap<>(MetricQuery.class);
+        Map<MetricQuery, AtlasMetrics>   results  = new EnumMap<>(MetricQuery.class);
+        long                             deadline = System.currentTimeMillis() + queryTimeoutMs;
+        ExecutorService                  executor = getQueryExecutor();
+
+        if (executor == null) { // stopped
+            return;
+        }
+
+        // changes committed while the queries run are added to the query results on reset
+        counters.beginRebuild();
+
+        for (final MetricQuery metricQuery : MetricQuery.values()) {
+            final Future<Object> future;
+
+            try {
+                future = executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Executing query: {}", metricQuery);
+                        }
+
+                        try {
+                            return atlasGraph.executeGremlinScript(metricQuery.query, false);
+                        } finally { // end the read-only transaction of the query thread
+                            atlasGraph.rollback();
+                        }
                     }
+                });
+            } catch (RejectedExecutionException e) { // stopped while submitting the queries
+                for (Future<Object> submitted : futures.values()) {
+                    submitted.cancel(true);
+                }
+
+                return;
+            }
+
+            futures.put(metricQuery, future);
+        }
+
+        for (Map.Entry<MetricQuery, Future<Object>> entry : futures.entrySet()) {
+            MetricQuery    metricQuery = entry.getKey();
+            Future<Object> future      = entry.getValue();
+
+            try {
+                Object       result  = future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                AtlasMetrics metrics = new AtlasMetrics();
+
+                if (addQueryResult(metrics, metricQuery.group, metricQuery.name, metricQuery.query, result)) {
+                    results.put(metricQuery, metrics);
                 }
+            } catch (TimeoutException e) {
+                LOG.warn("Gremlin execution for metric {} did not complete in {}ms", metricQuery, queryTimeoutMs);
+
+                future.cancel(true);
+            } catch (ExecutionException e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Gremlin execution failed for metric {}", metricQuery, e.getCause());
+                } else {
+                    LOG.warn("Gremlin execution failed for metric {}", metricQuery);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                future.cancel(true);
             }
+        }
+
+        if (Thread.currentThread().isInterrupted()) { // stopped while waiting for the queries; counters retain their values
+            return;
+        }
 
-            long collectionTime = System.currentTimeMillis();
+        Map<String, Number> typeEntities   = getMetricsGroup(results.get(MetricQuery.ENTITIES_PER_TYPE), ENTITY);
+        Map<String, Number> tagEntities    = getMetricsGroup(results.get(MetricQuery.ENTITIES_WITH_SPECIFIC_TAG), TAG);
+        Number              entityCount    = getMetric(results.get(MetricQuery.ENTITY_COUNT), GENERAL, METRIC_ENTITY_COUNT);
+        Number              deletedCount   = getMetric(results.get(MetricQuery.DELETED_ENTITY_COUNT), GENERAL, METRIC_ENTITY_DELETED);
+        Number              taggedEntities = getMetric(results.get(MetricQuery.TAGGED_ENTITIES), ENTITY, METRIC_TAGGED_ENTITIES);
 
-            metrics.addData(GENERAL, METRIC_COLLECTION_TIME, collectionTime);
+        counters.reset(toLong(entityCount), toLong(deletedCount), toLong(taggedEntities), typeEntities, tagEntities);
+    }
+
+    // returns null if the query didn't complete
+    private static Map<String, Number> getMetricsGroup(AtlasMetrics metrics, String group) {
+        if (metrics == null) {
+            return null;
+        }
+
+        Map<String, Number> ret = metrics.getData() != null ? metrics.getData().get(group) : null;
+
+        return ret != null ? new HashMap<>(ret) : new HashMap<String, Number>();
+    }
+
+    private static Number getMetric(AtlasMetrics metrics, String group, String name) {
+        return metrics != null ? metrics.getMetric(group, name) : null;
+    }
+
+    private static Long toLong(Number value) {
+        return value != null ? value.longValue() : null;
+    }
+
+    private void addUniqueAttributeCacheMetrics(AtlasMetrics metrics) {
+        UniqueAttributeCache cache = AtlasGraphUtilsV1.getUniqueAttributeCache();
+
+        if (cache != null) {
+            metrics.addData(GENERAL, METRIC_UNIQUE_ATTRIBUTE_CACHE_SIZE, cache.size());
+            metrics.addData(GENERAL, METRIC_UNIQUE_ATTRIBUTE_CACHE_HITS, cache.getHitCount());
+            metrics.addData(GENERAL, METRIC_UNIQUE_ATTRIBUTE_CACHE_MISSES, cache.getMissCount());
+            metrics.addData(GENERAL, METRIC_UNIQUE_ATTRIBUTE_CACHE_HIT_RATE, cache.getHitRate());
+        }
+    }
 
-            this.cachedMetrics       = metrics;
-            this.cacheExpirationTime = (collectionTime + cacheTTLInSecs * 1000);
+    private void addSearchResultCacheMetrics(AtlasMetrics metrics) {
+        if (searchResultCache != null && searchResultCache.isEnabled()) {
+            metrics.addData(GENERAL, METRIC_SEARCH_RESULT_CACHE_SIZE, searchResultCache.size());
+            metrics.addData(GENERAL, METRIC_SEARCH_RESULT_CACHE_HITS, searchResultCache.getHitCount());
+            metrics.addData(GENERAL, METRIC_SEARCH_RESULT_CACHE_MISSES, searchResultCache.getMissCount());
+            metrics.addData(GENERAL, METRIC_SEARCH_RESULT_CACHE_HIT_RATE, searchResultCache.getHitRate());
+        }
+    }
+
+    private void addDslQueryCacheMetrics(AtlasMetrics metrics) {
+        if (dslQueryCache != null && dslQueryCache.isEnabled()) {
+            metrics.addData(GENERAL, METRIC_DSL_QUERY_CACHE_SIZE, dslQueryCache.size());
+            metrics.addData(GENERAL, METRIC_DSL_QUERY_CACHE_HITS, dslQueryCache.getHitCount());
+            metrics.addData(GENERAL, METRIC_DSL_QUERY_CACHE_MISSES, dslQueryCache.getMissCount());
+            metrics.addData(GENERAL, METRIC_DSL_QUERY_CACHE_HIT_RATE, dslQueryCache.getHitRate());
+        }
+    }
+
+    // latencies of operations traced with AtlasPerfTracer, as <operation>.<statistic>; and counters, by their name
+    private void addPerfMetrics(AtlasMetrics metrics) {
+        for (Map.Entry<String, Map<String, Long>> operation : AtlasPerfMetrics.getLatencies().entrySet()) {
+            for (Map.Entry<String, Long> stat : operation.getValue().entrySet()) {
+                metrics.addData(PERF, operation.getKey() + "." + stat.getKey(), stat.getValue());
+            }
         }
 
-        return cachedMetrics;
+        for (Map.Entry<String, Long> counter : AtlasPerfMetrics.getCounters().entrySet()) {
+            metrics.addData(PERF, counter.getKey(), counter.getValue());
+        }
     }
 
-    private void executeGremlinQuery(AtlasMetrics metrics, String type, String name, String query) throws AtlasBaseException {
-        Object result = atlasGraph.executeGremlinScript(query, false);
+    @SuppressWarnings("unchecked")
+    private boolean addQueryResult(AtlasMetrics metrics, String type, String name, String query, Object result) {
+        boolean ret = true;
 
         if (result instanceof Number) {
             metrics.addData(type, name, ((Number) result).intValue());
@@ -134,19 +476,11 @@ public class MetricsService {
             String returnClassName = result != null ? result.getClass().getSimpleName() : "null";
 
             LOG.warn("Unhandled return type {} for {}. Ignoring", returnClassName, query);
-        }
-    }
 
-    private boolean isCacheValid() {
-        boolean valid = cachedMetrics != null && System.currentTimeMillis() < cacheExpirationTime;
-
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("cachedMetrics: {}", cachedMetrics != null);
-            LOG.debug("cacheExpirationTime: {}", cacheExpirationTime);
-            LOG.debug("valid: {}", valid);
+            ret = false;
         }
 
-        return valid;
+        return ret;
     }
 
     private static String getQuery(String type, String name, String defaultQuery) {
@@ -167,10 +501,7 @@ public class MetricsService {
      * query is not blank/empty.
      */
     private enum MetricQuery {
-        TYPE_COUNT(GENERAL, METRIC_TYPE_COUNT, AtlasGremlinQuery.TYPE_COUNT_METRIC),
-        UNUSED_TYPE_COUNT(GENERAL, METRIC_TYPE_UNUSED_COUNT, AtlasGremlinQuery.TYPE_UNUSED_COUNT_METRIC),
         ENTITY_COUNT(GENERAL, METRIC_ENTITY_COUNT, AtlasGremlinQuery.ENTITY_COUNT_METRIC),
-        TAGS_COUNT(GENERAL, METRIC_TAG_COUNT, AtlasGremlinQuery.TAG_COUNT_METRIC),
         DELETED_ENTITY_COUNT(GENERAL, METRIC_ENTITY_DELETED, AtlasGremlinQuery.ENTITY_DELETED_METRIC),
 
         ENTITIES_PER_TYPE(ENTITY, METRIC_TYPE_ENTITIES, AtlasGremlinQuery.ENTITIES_PER_TYPE_METRIC),
@@ -23,8 +23,6 @@ public class AtlasGremlin3QueryProvider extends AtlasGremlin2QueryProvider {
         // In case any overrides are necessary, a specific switch case can be added here to
         // return Gremlin 3 specific query otherwise delegate to super.getQuery
         switch (gremlinQuery) {
-            case TYPE_UNUSED_COUNT_METRIC:
-                return "g.V().has('__type', 'typeSystem').filter({ !it.getProperty('__type.category').name().matches('TRAIT') && it.inE().count() == 0}).count()";
             case ENTITY_COUNT_METRIC:
                 return "g.V().has('__superTypeNames', within(['Referenceable'])).count()";
             case EXPORT_TYPE_STARTS_WITH:
@@ -37,20 +35,6 @@ public class AtlasGremlin3QueryProvider extends AtlasGremlin2QueryProvider {
                 return "g.V().has('__typeName',typeName).filter({it.get().value(attrName).matches(attrValue)}).has('__guid').values('__guid').toList()";
             case EXPORT_TYPE_DEFAULT:
                 return "g.V().has('__typeName',typeName).has(attrName, attrValue).has('__guid').values('__guid').toList()";
-            case EXPORT_BY_GUID_FULL:
-                return "g.V().has('__guid', startGuid).bothE().bothV().has('__guid').project('__guid', 'isProcess').by('__guid').by(map {it.get().values('__superTypeNames').toSet().contains('Process')}).dedup().toList()";
-            case EXPORT_BY_GUID_CONNECTED_IN_EDGE:
-                return "g.V().has('__guid', startGuid).inE().outV().has('__guid').project('__guid', 'isProcess').by('__guid').by(map {it.get().values('__superTypeNames').toSet().contains('Process')}).dedup().toList()";
-            case EXPORT_BY_GUID_CONNECTED_OUT_EDGE:
-                return "g.V().has('__guid', startGuid).outE().inV().has('__guid').project('__guid', 'isProcess').by('__guid').by(map {it.get().values('__superTypeNames').toSet().contains('Process')}).dedup().toList()";
-            case FULL_LINEAGE:
-                return "g.V().has('__guid', '%s').repeat(__.in('%s').out('%s'))." +
-                        "emit(has('__superTypeNames').and().properties('__superTypeNames').hasValue('DataSet'))." +
-                        "path().toList()";
-            case PARTIAL_LINEAGE:
-                return "g.V().has('__guid', '%s').repeat(__.in('%s').out('%s')).times(%s)." +
-                        "emit(has('__superTypeNames').and().properties('__superTypeNames').hasValue('DataSet'))." +
-                        "path().toList()";
             case TO_RANGE_LIST:
                 return ".range(startIdx, endIdx).toList()";
             case RELATIONSHIP_SEARCH:
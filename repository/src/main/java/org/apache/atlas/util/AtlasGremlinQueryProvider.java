@@ -32,29 +32,19 @@ public abstract class AtlasGremlinQueryProvider {
 
     public enum AtlasGremlinQuery {
         // Metrics related Queries
-        TYPE_COUNT_METRIC,
-        TYPE_UNUSED_COUNT_METRIC,
         ENTITY_COUNT_METRIC,
-        TAG_COUNT_METRIC,
         ENTITY_DELETED_METRIC,
         ENTITIES_PER_TYPE_METRIC,
         TAGGED_ENTITIES_METRIC,
         ENTITIES_FOR_TAG_METRIC,
 
         // Import Export related Queries
-        EXPORT_BY_GUID_FULL,
-        EXPORT_BY_GUID_CONNECTED_IN_EDGE,
-        EXPORT_BY_GUID_CONNECTED_OUT_EDGE,
         EXPORT_TYPE_STARTS_WITH,
         EXPORT_TYPE_ENDS_WITH,
         EXPORT_TYPE_CONTAINS,
         EXPORT_TYPE_MATCHES,
         EXPORT_TYPE_DEFAULT,
 
-        // Lineage Queries
-        FULL_LINEAGE,
-        PARTIAL_LINEAGE,
-
         // Discovery Queries
         BASIC_SEARCH_TYPE_FILTER,
         BASIC_SEARCH_CLASSIFICATION_FILTER,
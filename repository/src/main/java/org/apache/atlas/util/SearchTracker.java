@@ -17,25 +17,81 @@
  */
 package org.apache.atlas.util;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasException;
 import org.apache.atlas.annotation.AtlasService;
 import org.apache.atlas.discovery.SearchContext;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.commons.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
+import javax.inject.Inject;
+import java.util.Collections;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Tracks searches in progress, so that they can be listed and terminated. Searches running longer than the
+ * configured duration are terminated automatically; search processors stop at the next page of results, and the
+ * search fails rather than return incomplete results.
+ */
 @AtlasService
 public class SearchTracker {
-    private Map<String, SearchContext> activeSearches = new HashMap<>();
+    private static final Logger LOG = LoggerFactory.getLogger(SearchTracker.class);
+
+    public static final String SEARCH_MAX_DURATION_MS_PROPERTY = "atlas.search.max.duration.ms";
+
+    private static final String TIMER_THREAD_NAME_FORMAT = "atlas-search-timer-%d";
+
+    private final ConcurrentMap<String, ActiveSearch> activeSearches = new ConcurrentHashMap<>();
+    private final long                                maxDurationMs;
+    private final ScheduledExecutorService            timer;
+
+    @Inject
+    public SearchTracker() throws AtlasException {
+        this(ApplicationProperties.get());
+    }
+
+    @VisibleForTesting
+    public SearchTracker(Configuration configuration) {
+        this.maxDurationMs = configuration.getLong(SEARCH_MAX_DURATION_MS_PROPERTY, 0);
+        this.timer         = maxDurationMs > 0 ? Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat(TIMER_THREAD_NAME_FORMAT).setDaemon(true).build()) : null;
+    }
 
     /**
      *
      * @param context
+     * @return id of the search, to be used to terminate or remove the search
      */
     public String add(SearchContext context) {
-        String searchId = Thread.currentThread().getName();
+        final String       searchId = UUID.randomUUID().toString();
+        final ActiveSearch search   = new ActiveSearch(searchId, context);
+
+        activeSearches.put(searchId, search);
+
+        if (timer != null) {
+            search.timeout = timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (activeSearches.containsKey(searchId)) {
+                        LOG.warn("search {} running for {}ms; terminating: {}", searchId, System.currentTimeMillis() - search.getStartTime(), search.getSearchParameters());
+
+                        search.timedOut = true;
 
-        activeSearches.put(searchId, context);
+                        search.getContext().terminateSearch(true);
+                    }
+                }
+            }, maxDurationMs, TimeUnit.MILLISECONDS);
+        }
 
         return searchId;
     }
@@ -43,31 +99,70 @@ public class SearchTracker {
     /**
      *
      * @param searchId
-     * @return
+     * @return context of the terminated search; null if no such search is in progress
      */
     public SearchContext terminate(String searchId) {
-        SearchContext ret = null;
+        ActiveSearch search = remove(searchId);
+
+        if (search == null) {
+            return null;
+        }
+
+        search.getContext().terminateSearch(true);
 
-        if (activeSearches.containsKey(searchId)) {
-            SearchContext pipelineToTerminate = activeSearches.remove(searchId);
+        return search.getContext();
+    }
 
-            pipelineToTerminate.terminateSearch(true);
+    public ActiveSearch remove(String searchId) {
+        ActiveSearch ret = searchId != null ? activeSearches.remove(searchId) : null;
 
-            ret = pipelineToTerminate;
+        if (ret != null && ret.timeout != null) {
+            ret.timeout.cancel(false);
         }
 
         return ret;
     }
 
-    public SearchContext remove(String id) {
-        return activeSearches.remove(id);
-    }
-
     /**
      *
-     * @return
+     * @return ids of searches in progress
      */
     public Set<String> getActiveSearches() {
-        return activeSearches.keySet();
+        return Collections.unmodifiableSet(activeSearches.keySet());
+    }
+
+    public ActiveSearch getActiveSearch(String searchId) {
+        return activeSearches.get(searchId);
+    }
+
+    public long getMaxDurationMs() {
+        return maxDurationMs;
+    }
+
+    public static class ActiveSearch {
+        private final    String             searchId;
+        private final    SearchContext      context;
+        private final    long               startTime;
+        private volatile ScheduledFuture<?> timeout;
+        private volatile boolean            timedOut = false;
+
+        ActiveSearch(String searchId, SearchContext context) {
+            this.searchId  = searchId;
+            this.context   = context;
+            this.startTime = System.currentTimeMillis();
+        }
+
+        public String getSearchId() { return searchId; }
+
+        public SearchContext getContext() { return context; }
+
+        public SearchParameters getSearchParameters() { return context.getSearchParameters(); }
+
+        public long getStartTime() { return startTime; }
+
+        /**
+         * @return true if the search was terminated for running longer than the configured duration
+         */
+        public boolean isTimedOut() { return timedOut; }
     }
 }
@@ -0,0 +1,200 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.RequestContextV1;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.typedef.AtlasClassificationDef;
+import org.apache.atlas.model.typedef.AtlasEntityDef;
+import org.apache.atlas.model.typedef.AtlasEnumDef;
+import org.apache.atlas.model.typedef.AtlasStructDef;
+import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.query.BasicTestSetup;
+import org.apache.atlas.runner.LocalSolrRunner;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Paging a basic search with the cursor of each page must return the same results, in the same order, as paging it
+ * with offsets.
+ */
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class BasicSearchCursorTest extends BasicTestSetup {
+    private static final String COLUMN_TYPE = "hive_column";
+    private static final String TAG         = "CursorTag";
+    private static final String SUB_TAG     = "CursorSubTag";
+
+    @Inject
+    private AtlasDiscoveryService discoveryService;
+
+    private List<String> columnGuids;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        LocalSolrRunner.start();
+        setupTestData();
+
+        RequestContextV1.clear();
+        RequestContextV1.get().setUser(TestUtilsV2.TEST_USER);
+
+        AtlasClassificationDef tag    = new AtlasClassificationDef(TAG, "tag of cursor test", "1.0");
+        AtlasClassificationDef subTag = new AtlasClassificationDef(SUB_TAG, "sub-tag of cursor test", "1.0",
+                                                                   Collections.<AtlasAttributeDef>emptyList(), Collections.singleton(TAG));
+
+        typeDefStore.createTypesDef(new AtlasTypesDef(Collections.<AtlasEnumDef>emptyList(), Collections.<AtlasStructDef>emptyList(),
+                                                      Arrays.asList(tag, subTag), Collections.<AtlasEntityDef>emptyList()));
+
+        columnGuids = getGuids(searchAll(searchParameters(COLUMN_TYPE, null)));
+
+        // every column has the tag; every other column has the sub-tag too, hence is found twice by a search for the tag
+        entityStore.addClassification(columnGuids, new AtlasClassification(TAG));
+
+        for (int i = 0; i < columnGuids.size(); i += 2) {
+            entityStore.addClassification(Collections.singletonList(columnGuids.get(i)), new AtlasClassification(SUB_TAG));
+        }
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        LocalSolrRunner.stop();
+    }
+
+    @Test
+    public void testEntitySearch() throws AtlasBaseException {
+        assertCursorPagingMatchesOffsetPaging(searchParameters(HIVE_TABLE_TYPE, null), 10);
+        assertCursorPagingMatchesOffsetPaging(searchParameters(COLUMN_TYPE, null), columnGuids.size());
+    }
+
+    @Test
+    public void testClassificationSearch() throws AtlasBaseException {
+        assertCursorPagingMatchesOffsetPaging(searchParameters(null, PII_CLASSIFICATION), 4);
+    }
+
+    @Test
+    public void testClassificationSearchWithDuplicates() throws AtlasBaseException {
+        assertCursorPagingMatchesOffsetPaging(searchParameters(null, TAG), columnGuids.size());
+    }
+
+    @Test
+    public void testOffsetCursorMatchesOffsetPaging() throws AtlasBaseException {
+        // cursor that a search falls back to when too many guids would be carried: first window, skipping earlier results
+        SearchParameters params   = searchParameters(null, TAG);
+        int              pageSize = 3;
+
+        for (int offset = 0; offset < columnGuids.size(); offset += pageSize) {
+            SearchParameters offsetParams = copy(params, pageSize);
+            SearchParameters cursorParams = copy(params, pageSize);
+
+            offsetParams.setOffset(offset);
+            cursorParams.setCursor(new SearchCursor(params, 0, pageSize, offset, offset).encode());
+
+            assertEquals(getGuids(discoveryService.searchWithParameters(cursorParams)), getGuids(discoveryService.searchWithParameters(offsetParams)), "offset=" + offset);
+        }
+    }
+
+    private void assertCursorPagingMatchesOffsetPaging(SearchParameters params, int expectedCount) throws AtlasBaseException {
+        for (int pageSize : new int[] { 1, 3, 4 }) {
+            List<String> byOffset = new ArrayList<>();
+            List<String> byCursor = new ArrayList<>();
+            String       cursor   = null;
+
+            for (int offset = 0; offset <= expectedCount; offset += pageSize) {
+                SearchParameters offsetParams = copy(params, pageSize);
+                SearchParameters cursorParams = copy(params, pageSize);
+
+                offsetParams.setOffset(offset);
+                cursorParams.setCursor(cursor);
+
+                byOffset.addAll(getGuids(discoveryService.searchWithParameters(offsetParams)));
+
+                AtlasSearchResult cursorPage = discoveryService.searchWithParameters(cursorParams);
+
+                byCursor.addAll(getGuids(cursorPage));
+
+                cursor = cursorPage.getNextCursor();
+
+                if (cursor == null) {
+                    break;
+                }
+            }
+
+            assertEquals(byCursor, byOffset, "pageSize=" + pageSize);
+            assertEquals(byOffset.size(), expectedCount, "pageSize=" + pageSize);
+            assertEquals(new HashSet<>(byOffset).size(), expectedCount, "pageSize=" + pageSize);
+        }
+    }
+
+    private AtlasSearchResult searchAll(SearchParameters params) throws AtlasBaseException {
+        params.setLimit(100);
+
+        AtlasSearchResult ret = discoveryService.searchWithParameters(params);
+
+        assertNull(ret.getNextCursor());
+
+        return ret;
+    }
+
+    private static SearchParameters searchParameters(String typeName, String classification) {
+        SearchParameters ret = new SearchParameters();
+
+        ret.setTypeName(typeName);
+        ret.setClassification(classification);
+        ret.setExcludeDeletedEntities(true);
+
+        return ret;
+    }
+
+    private static SearchParameters copy(SearchParameters params, int limit) {
+        SearchParameters ret = searchParameters(params.getTypeName(), params.getClassification());
+
+        ret.setLimit(limit);
+
+        return ret;
+    }
+
+    private static List<String> getGuids(AtlasSearchResult result) {
+        List<String> ret = new ArrayList<>();
+
+        if (result.getEntities() != null) {
+            for (AtlasEntityHeader entity : result.getEntities()) {
+                ret.add(entity.getGuid());
+            }
+        }
+
+        return ret;
+    }
+}
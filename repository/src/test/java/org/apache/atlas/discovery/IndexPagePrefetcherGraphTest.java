@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.TestModules;
+import org.apache.atlas.query.BasicTestSetup;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
+import org.apache.atlas.runner.LocalSolrRunner;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+/**
+ * Pages fetched ahead by a worker, in a transaction of its own, must be the pages fetched on the request thread, with
+ * vertices usable in the transaction of the request thread.
+ */
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class IndexPagePrefetcherGraphTest extends BasicTestSetup {
+    private static final String COLUMN_TYPE  = "hive_column";
+    private static final int    COLUMN_COUNT = 17;
+
+    @Inject
+    private AtlasGraph graph;
+
+    private SearchContext context;
+    private String        queryString;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        LocalSolrRunner.start();
+        setupTestData();
+
+        context     = mock(SearchContext.class);
+        queryString = "v.\"" + Constants.TYPE_NAME_PROPERTY_KEY + "\":" + typeRegistry.getEntityTypeByName(COLUMN_TYPE).getTypeAndAllSubTypesQryStr();
+
+        when(context.getGraph()).thenReturn(graph);
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        LocalSolrRunner.stop();
+    }
+
+    @Test
+    public void testPrefetchedPagesMatchRequestThreadPages() {
+        for (int windowSize : new int[] { 1, 3, COLUMN_COUNT }) {
+            List<AtlasVertex> expected   = getAll(new IndexPagePrefetcher(configuration(0)), windowSize);
+            List<AtlasVertex> prefetched = getAll(new IndexPagePrefetcher(configuration(1)), windowSize);
+
+            assertEquals(getIds(prefetched), getIds(expected), "windowSize=" + windowSize);
+            assertEquals(new HashSet<>(getIds(prefetched)).size(), COLUMN_COUNT, "windowSize=" + windowSize);
+
+            for (AtlasVertex vertex : prefetched) {
+                assertNotNull(AtlasGraphUtilsV1.getIdFromVertex(vertex));
+                assertEquals(AtlasGraphUtilsV1.getTypeName(vertex), COLUMN_TYPE);
+            }
+        }
+    }
+
+    @Test
+    public void testPagesClosedBeforeEnd() {
+        IndexPagePrefetcher       prefetcher = new IndexPagePrefetcher(configuration(2));
+        IndexPagePrefetcher.Pages pages      = prefetcher.getPages(context, Constants.VERTEX_INDEX, queryString, 0, 2);
+
+        try {
+            assertEquals(pages.next().size(), 2);
+        } finally {
+            pages.close();
+        }
+
+        // the worker is done, and the graph is still usable on the request thread
+        assertEquals(getAll(prefetcher, 5).size(), COLUMN_COUNT);
+    }
+
+    private List<AtlasVertex> getAll(IndexPagePrefetcher prefetcher, int windowSize) {
+        List<AtlasVertex>         ret   = new ArrayList<>();
+        IndexPagePrefetcher.Pages pages = prefetcher.getPages(context, Constants.VERTEX_INDEX, queryString, 0, windowSize);
+
+        try {
+            for (List<AtlasVertex> page = pages.next(); !page.isEmpty(); page = pages.next()) {
+                ret.addAll(page);
+            }
+        } finally {
+            pages.close();
+        }
+
+        return ret;
+    }
+
+    private static List<Object> getIds(List<AtlasVertex> vertices) {
+        List<Object> ret = new ArrayList<>();
+
+        for (AtlasVertex vertex : vertices) {
+            ret.add(vertex.getId());
+        }
+
+        return ret;
+    }
+
+    private static PropertiesConfiguration configuration(int depth) {
+        PropertiesConfiguration ret = new PropertiesConfiguration();
+
+        ret.setProperty(IndexPagePrefetcher.SEARCH_PREFETCH_DEPTH_PROPERTY, depth);
+        ret.setProperty(IndexPagePrefetcher.SEARCH_PREFETCH_THREADS_PROPERTY, 2);
+
+        return ret;
+    }
+}
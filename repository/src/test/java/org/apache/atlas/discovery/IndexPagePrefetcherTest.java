@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class IndexPagePrefetcherTest {
+    private static final int    RESULT_COUNT = 25;
+    private static final int    WINDOW_SIZE  = 10;
+    private static final String INDEX_NAME   = "vertex_index";
+    private static final String QUERY        = "v.\"__typeName\":(hive_table)";
+
+    private final AtomicBoolean terminated    = new AtomicBoolean();
+    private final AtomicInteger activeFetches = new AtomicInteger();
+
+    private SearchContext   context;
+    private AtlasGraph      graph;
+    private AtlasIndexQuery indexQuery;
+    private long            fetchDelayMs;
+
+    @BeforeMethod
+    public void setup() {
+        context    = mock(SearchContext.class);
+        graph      = mock(AtlasGraph.class);
+        indexQuery = mock(AtlasIndexQuery.class);
+
+        terminated.set(false);
+        activeFetches.set(0);
+        fetchDelayMs = 0;
+
+        when(context.getGraph()).thenReturn(graph);
+        when(graph.indexQuery(anyString(), anyString())).thenReturn(indexQuery);
+
+        // stubbed up-front, as workers check for termination concurrently
+        when(context.terminateSearch()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                return terminated.get();
+            }
+        });
+
+        when(graph.getVertex(anyString())).thenAnswer(new Answer<AtlasVertex>() {
+            @Override
+            public AtlasVertex answer(InvocationOnMock invocation) {
+                return vertex((String) invocation.getArguments()[0]);
+            }
+        });
+
+        when(indexQuery.vertices(anyInt(), anyInt())).thenAnswer(new Answer<Iterator<AtlasIndexQuery.Result>>() {
+            @Override
+            public Iterator<AtlasIndexQuery.Result> answer(InvocationOnMock invocation) throws InterruptedException {
+                int                          offset = (Integer) invocation.getArguments()[0];
+                int                          limit  = (Integer) invocation.getArguments()[1];
+                List<AtlasIndexQuery.Result> ret    = new ArrayList<>();
+
+                activeFetches.incrementAndGet();
+
+                try {
+                    Thread.sleep(fetchDelayMs);
+
+                    for (int i = offset; i < Math.min(offset + limit, RESULT_COUNT); i++) {
+                        AtlasIndexQuery.Result result = mock(AtlasIndexQuery.Result.class);
+                        AtlasVertex            vertex = vertex(Integer.toString(i));
+
+                        when(result.getVertex()).thenReturn(vertex);
+
+                        ret.add(result);
+                    }
+                } finally {
+                    activeFetches.decrementAndGet();
+                }
+
+                return ret.iterator();
+            }
+        });
+    }
+
+    @Test
+    public void testPagesAreReturnedInOrder() {
+        for (int depth : new int[] { 0, 1, 3 }) {
+            IndexPagePrefetcher       prefetcher = new IndexPagePrefetcher(configuration(depth));
+            IndexPagePrefetcher.Pages pages      = prefetcher.getPages(context, INDEX_NAME, QUERY, 5, WINDOW_SIZE);
+
+            assertEquals(prefetcher.isEnabled(), depth > 0);
+
+            try {
+                assertEquals(getIds(pages.next()), range(5, 15));
+                assertEquals(getIds(pages.next()), range(15, 25));
+                assertTrue(pages.next().isEmpty());
+            } finally {
+                pages.close();
+            }
+        }
+    }
+
+    @Test
+    public void testWorkerStopsAfterLastPage() {
+        IndexPagePrefetcher.Pages pages = new IndexPagePrefetcher(configuration(3)).getPages(context, INDEX_NAME, QUERY, 0, WINDOW_SIZE);
+
+        try {
+            assertEquals(getIds(pages.next()), range(0, 10));
+            assertEquals(getIds(pages.next()), range(10, 20));
+            assertEquals(getIds(pages.next()), range(20, 25));
+            assertTrue(pages.next().isEmpty());
+        } finally {
+            pages.close();
+        }
+
+        // the third page is shorter than the window, hence the last one: no query for a page after it
+        verify(indexQuery, times(3)).vertices(anyInt(), anyInt());
+        verify(graph).rollback();
+    }
+
+    @Test
+    public void testWorkerStaysWithinDepth() {
+        fetchDelayMs = 50;
+
+        IndexPagePrefetcher.Pages pages = new IndexPagePrefetcher(configuration(1)).getPages(context, INDEX_NAME, QUERY, 0, WINDOW_SIZE);
+
+        try {
+            assertEquals(getIds(pages.next()), range(0, 10));
+        } finally {
+            pages.close();
+        }
+
+        // close waits for the fetch in progress, and the worker fetched at most one page ahead of the consumer
+        assertEquals(activeFetches.get(), 0);
+        verify(indexQuery, atMost(2)).vertices(anyInt(), anyInt());
+        verify(graph).rollback();
+    }
+
+    @Test
+    public void testTerminatedSearchEndsPages() {
+        IndexPagePrefetcher.Pages pages = new IndexPagePrefetcher(configuration(1)).getPages(context, INDEX_NAME, QUERY, 0, WINDOW_SIZE);
+
+        try {
+            assertFalse(pages.next().isEmpty());
+
+            terminated.set(true);
+
+            assertTrue(pages.next().isEmpty());
+        } finally {
+            pages.close();
+        }
+    }
+
+    @Test
+    public void testFailureIsThrownToConsumer() {
+        when(indexQuery.vertices(anyInt(), anyInt())).thenThrow(new IllegalStateException("index unavailable"));
+
+        IndexPagePrefetcher.Pages pages = new IndexPagePrefetcher(configuration(1)).getPages(context, INDEX_NAME, QUERY, 0, WINDOW_SIZE);
+
+        try {
+            pages.next();
+
+            fail("expected failure of index query to be thrown");
+        } catch (IllegalStateException e) {
+            assertEquals(e.getMessage(), "index unavailable");
+        } finally {
+            pages.close();
+        }
+
+        verify(graph).rollback();
+    }
+
+    private static AtlasVertex vertex(String id) {
+        AtlasVertex ret = mock(AtlasVertex.class);
+
+        when(ret.getId()).thenReturn(Integer.valueOf(id));
+        when(ret.getIdForDisplay()).thenReturn(id);
+
+        return ret;
+    }
+
+    private static List<Object> getIds(List<AtlasVertex> vertices) {
+        List<Object> ret = new ArrayList<>();
+
+        for (AtlasVertex vertex : vertices) {
+            ret.add(vertex.getId());
+        }
+
+        return ret;
+    }
+
+    private static List<Object> range(int from, int to) {
+        List<Object> ret = new ArrayList<>();
+
+        for (int i = from; i < to; i++) {
+            ret.add(i);
+        }
+
+        return ret;
+    }
+
+    private static PropertiesConfiguration configuration(int depth) {
+        PropertiesConfiguration ret = new PropertiesConfiguration();
+
+        ret.setProperty(IndexPagePrefetcher.SEARCH_PREFETCH_DEPTH_PROPERTY, depth);
+        ret.setProperty(IndexPagePrefetcher.SEARCH_PREFETCH_THREADS_PROPERTY, 2);
+
+        return ret;
+    }
+}
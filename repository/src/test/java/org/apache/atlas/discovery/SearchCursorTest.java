@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+public class SearchCursorTest {
+    @Test
+    public void testCursorOfNextPage() throws AtlasBaseException {
+        SearchParameters params = searchParameters("hive_table", 0, "name", "owner");
+        String           cursor = new SearchCursor(params, 300, 100, 42, 125).encode();
+
+        // next page: different offset and limit, attributes listed in different order
+        SearchParameters nextPageParams = searchParameters("hive_table", 100, "owner", "name");
+
+        nextPageParams.setLimit(50);
+        nextPageParams.setCursor(cursor);
+
+        SearchCursor decoded = SearchCursor.decode(nextPageParams);
+
+        assertEquals(decoded.getQueryOffset(), 300);
+        assertEquals(decoded.getWindowSize(), 100);
+        assertEquals(decoded.getConsumed(), 42);
+        assertEquals(decoded.getResultOffset(), 125);
+        assertEquals(decoded.getProcessedGuids(), Collections.<String>emptySet());
+    }
+
+    @Test
+    public void testCursorWithProcessedGuids() throws AtlasBaseException {
+        SearchParameters params = searchParameters("hive_table", 0, "name");
+
+        params.setCursor(new SearchCursor(params, 200, 100, 7, 50, new HashSet<>(Arrays.asList("guid1", "guid2"))).encode());
+
+        SearchCursor decoded = SearchCursor.decode(params);
+
+        assertEquals(decoded.getQueryOffset(), 200);
+        assertEquals(decoded.getConsumed(), 7);
+        assertEquals(decoded.getResultOffset(), 50);
+        assertEquals(decoded.getProcessedGuids(), new HashSet<>(Arrays.asList("guid1", "guid2")));
+    }
+
+    @Test
+    public void testNoCursor() throws AtlasBaseException {
+        assertNull(SearchCursor.decode(searchParameters("hive_table", 0)));
+    }
+
+    @Test
+    public void testCursorOfAnotherSearchIsRejected() {
+        SearchParameters params = searchParameters("hive_table", 0, "name");
+
+        params.setCursor(new SearchCursor(searchParameters("hive_db", 0, "name"), 0, 100, 100, 100).encode());
+
+        assertInvalidCursor(params);
+    }
+
+    @Test
+    public void testMalformedCursorIsRejected() {
+        SearchParameters params = searchParameters("hive_table", 0);
+
+        params.setCursor("not-a-cursor");
+
+        assertInvalidCursor(params);
+    }
+
+    private static void assertInvalidCursor(SearchParameters params) {
+        try {
+            SearchCursor.decode(params);
+
+            fail("expected invalid cursor to be rejected");
+        } catch (AtlasBaseException e) {
+            assertEquals(e.getAtlasErrorCode(), AtlasErrorCode.BAD_REQUEST);
+        }
+    }
+
+    private static SearchParameters searchParameters(String typeName, int offset, String... attributes) {
+        SearchParameters ret = new SearchParameters();
+
+        ret.setTypeName(typeName);
+        ret.setLimit(25);
+        ret.setOffset(offset);
+        ret.setAttributes(new LinkedHashSet<>(Arrays.asList(attributes)));
+
+        return ret;
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.AtlasSearchResult.AtlasQueryType;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+
+public class SearchResultCacheTest {
+    private SearchResultCache cache;
+
+    @BeforeMethod
+    public void setup() {
+        AtlasTypeRegistry       typeRegistry = mock(AtlasTypeRegistry.class);
+        AtlasEntityType         tableType    = mock(AtlasEntityType.class);
+        PropertiesConfiguration config       = new PropertiesConfiguration();
+
+        when(tableType.getTypeAndAllSubTypes()).thenReturn(new HashSet<>(Arrays.asList("hive_table", "hive_view")));
+        when(typeRegistry.getEntityTypeByName("hive_table")).thenReturn(tableType);
+
+        config.setProperty(SearchResultCache.SEARCH_RESULT_CACHE_MAX_ENTITIES_PROPERTY, 1000);
+
+        cache = new SearchResultCache(typeRegistry, config);
+    }
+
+    @Test
+    public void testResultIsInvalidatedByChangeToDependentType() {
+        SearchParameters  params = searchParameters("hive_table", "name", "owner");
+        AtlasSearchResult result = new AtlasSearchResult(params);
+
+        cache.put(cache.getKey(params), result, cache.getDependencies(params));
+
+        // same search, with attributes listed in different order - which getKey() leaves as is
+        SearchParameters reordered = searchParameters("hive_table", "owner", "name");
+
+        assertCached(cache.getKey(reordered), result);
+        assertEquals(new ArrayList<>(reordered.getAttributes()), Arrays.asList("owner", "name"));
+
+        cache.onEntitiesChanged(Collections.singleton("hive_db"));
+
+        assertCached(cache.getKey(params), result);
+
+        cache.onEntitiesChanged(Collections.singleton("hive_view"));
+
+        assertNull(cache.get(cache.getKey(params)));
+        assertEquals(cache.getHitCount(), 2);
+        assertEquals(cache.getMissCount(), 1);
+    }
+
+    @Test
+    public void testDslResultIsInvalidatedByAnyChange() {
+        AtlasSearchResult result = new AtlasSearchResult("hive_db", AtlasQueryType.DSL);
+
+        cache.put(cache.getKey("hive_db", 25, 0), result, cache.getDependenciesOnAnyType());
+
+        assertCached(cache.getKey(" hive_db ", 25, 0), result);
+        assertNull(cache.get(cache.getKey("hive_db", 10, 0)));
+
+        cache.onEntitiesChanged(Collections.singleton("hive_column"));
+
+        assertNull(cache.get(cache.getKey("hive_db", 25, 0)));
+    }
+
+    @Test
+    public void testResultIsInvalidatedByTypeChange() {
+        SearchParameters  params = searchParameters("hive_table", "name");
+        AtlasSearchResult result = new AtlasSearchResult(params);
+
+        cache.put(cache.getKey(params), result, cache.getDependencies(params));
+
+        cache.onChange(null);
+
+        assertNull(cache.get(cache.getKey(params)));
+    }
+
+    @Test
+    public void testCachedResultIsNotSharedWithCallers() {
+        SearchParameters  params = searchParameters("hive_table", "name");
+        AtlasSearchResult result = new AtlasSearchResult(params);
+        String            key    = cache.getKey(params);
+
+        result.addEntity(new AtlasEntityHeader("hive_table", "guid1", Collections.<String, Object>singletonMap("name", "t1")));
+
+        cache.put(key, result, cache.getDependencies(params));
+
+        // changes by the caller that cached the result, or by one that got it from the cache, are not seen by others
+        result.addEntity(new AtlasEntityHeader("hive_table", "guid2", Collections.<String, Object>singletonMap("name", "t2")));
+
+        AtlasSearchResult cached = cache.get(key);
+
+        assertNotSame(cached, result);
+        assertEquals(cached.getEntities().size(), 1);
+
+        cached.getEntities().clear();
+
+        assertEquals(cache.get(key).getEntities().size(), 1);
+        assertEquals(cache.get(key).getEntities().get(0).getGuid(), "guid1");
+    }
+
+    private void assertCached(String key, AtlasSearchResult expected) {
+        AtlasSearchResult cached = cache.get(key);
+
+        assertNotNull(cached);
+        assertEquals(AtlasType.toJson(cached), AtlasType.toJson(expected));
+    }
+
+    private static SearchParameters searchParameters(String typeName, String... attributes) {
+        SearchParameters ret = new SearchParameters();
+
+        ret.setTypeName(typeName);
+        ret.setLimit(25);
+        ret.setAttributes(new LinkedHashSet<>(Arrays.asList(attributes)));
+
+        return ret;
+    }
+}
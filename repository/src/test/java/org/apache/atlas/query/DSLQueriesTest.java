@@ -33,8 +33,11 @@ import java.util.List;
 import java.util.Map;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 @Guice(modules = TestModules.TestOnlyModule.class)
@@ -42,6 +45,9 @@ public class DSLQueriesTest extends BasicTestSetup {
     @Inject
     private EntityDiscoveryService discoveryService;
 
+    @Inject
+    private DSLQueryCache dslQueryCache;
+
     @BeforeClass
     public void setup() throws Exception {
         LocalSolrRunner.start();
@@ -158,6 +164,32 @@ public class DSLQueriesTest extends BasicTestSetup {
         assertSearchResult(searchResult, expected);
     }
 
+    @Test
+    public void translationIsCachedUntilTypeChange() throws AtlasBaseException {
+        GremlinQuery query = dslQueryCache.translate("hive_db where name = \"Reporting\"", 0, 25);
+
+        assertSame(dslQueryCache.translate("  hive_db  where\tname = \"Reporting\" ", 0, 25), query);
+        assertNotSame(dslQueryCache.translate("hive_db where name = \"Reporting \"", 0, 25), query);
+        assertNotSame(dslQueryCache.translate("hive_db where name = \"Reporting\"", 0, 10), query);
+
+        dslQueryCache.onChange(null);
+
+        GremlinQuery queryAfterTypeChange = dslQueryCache.translate("hive_db where name = \"Reporting\"", 0, 25);
+
+        assertNotSame(queryAfterTypeChange, query);
+        assertEquals(queryAfterTypeChange.queryStr(), query.queryStr());
+    }
+
+    @Test
+    public void normalizeKeepsLiteralsCommentsAndLineBreaks() {
+        assertEquals(DSLQueryCache.normalize("  hive_db \t where  name = 'a  b' "), "hive_db where name = 'a  b'");
+        assertEquals(DSLQueryCache.normalize("hive_db  -- a  comment \n  where name = 'a'"), "hive_db -- a  comment \nwhere name = 'a'");
+        assertEquals(DSLQueryCache.normalize("hive_db /* a  comment */  limit 10"), "hive_db /* a  comment */ limit 10");
+
+        // a line break ends a comment: queries differing only in that must not share a cache entry
+        assertNotEquals(DSLQueryCache.normalize("hive_db -- x\nwhere name = 'a'"), DSLQueryCache.normalize("hive_db -- x where name = 'a'"));
+    }
+
     @DataProvider(name = "limitProvider")
     private Object[][] limitQueries() {
         return new Object[][]{
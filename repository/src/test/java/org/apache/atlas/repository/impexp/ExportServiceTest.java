@@ -18,6 +18,7 @@
 package org.apache.atlas.repository.impexp;
 
 
+import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.RequestContextV1;
 import org.apache.atlas.TestModules;
 import org.apache.atlas.TestUtilsV2;
@@ -54,15 +55,19 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
 import static org.apache.atlas.graph.GraphSandboxUtil.useLocalSolr;
 import static org.mockito.Mockito.mock;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 @Guice(modules = TestModules.TestOnlyModule.class)
 public class ExportServiceTest {
@@ -265,6 +270,83 @@ public class ExportServiceTest {
         verifyExportForEmployeeData(zipSource);
     }
 
+    @Test
+    public void requestingDeptEntityWithChangedSince_ContainsDataChangedSince() throws Exception {
+        long               startTime = System.currentTimeMillis();
+        AtlasExportRequest request   = getRequestForDept(true, "CONNECTED", false, "");
+
+        request.getOptions().put(AtlasExportRequest.OPTION_CHANGED_SINCE, 0L);
+
+        ZipSource source = runExportWithParameters(request);
+
+        verifyExportForHrDataForConnected(source);
+
+        // the change marker is backed off from the start of the export, to include changes still being committed then
+        assertTrue(source.getExportResult().getChangeMarker() < startTime);
+        assertTrue(source.getExportResult().getChangeMarker() > 0);
+
+        // nothing changed since now
+        request = getRequestForDept(true, "CONNECTED", false, "");
+
+        request.getOptions().put(AtlasExportRequest.OPTION_CHANGED_SINCE, System.currentTimeMillis());
+
+        source = runExportWithParameters(request);
+
+        assertNotNull(source.getCreationOrder());
+        assertEquals(source.getCreationOrder().size(), 0);
+        assertEquals(source.getExportResult().getOperationStatus(), AtlasExportResult.OperationStatus.SUCCESS);
+    }
+
+    @Test
+    public void requestingDeptEntityWithChangedSince_ContainsOnlyChangedEntities() throws Exception {
+        long   changedSince = System.currentTimeMillis();
+        String hrGuid       = getGuid("Department", "hr");
+        String juliusGuid   = getGuid(TestUtilsV2.MANAGER_TYPE, "Julius");
+        String maxGuid      = getGuid(TestUtilsV2.EMPLOYEE_TYPE, "Max");
+        String johnGuid     = getGuid(TestUtilsV2.EMPLOYEE_TYPE, "John");
+
+        Thread.sleep(10);
+
+        AtlasEntity juliusUpdate = new AtlasEntity(TestUtilsV2.MANAGER_TYPE);
+
+        juliusUpdate.setAttribute("age", 42);
+
+        entityStore.updateByUniqueAttributes(typeRegistry.getEntityTypeByName(TestUtilsV2.MANAGER_TYPE),
+                                             Collections.<String, Object>singletonMap("name", "Julius"),
+                                             new AtlasEntity.AtlasEntityWithExtInfo(juliusUpdate));
+
+        AtlasExportRequest request = getRequestForDept(true, "FULL", false, "");
+
+        request.getOptions().put(AtlasExportRequest.OPTION_CHANGED_SINCE, Long.toString(changedSince));
+
+        ZipSource source = runExportWithParameters(request);
+
+        // only the changed entity, and the entities it refers to
+        assertEquals(source.getExportResult().getOperationStatus(), AtlasExportResult.OperationStatus.SUCCESS);
+        assertEquals(new HashSet<>(source.getCreationOrder()), new HashSet<>(Arrays.asList(hrGuid, juliusGuid)));
+        assertFalse(source.getCreationOrder().contains(maxGuid));
+        assertFalse(source.getCreationOrder().contains(johnGuid));
+    }
+
+    @Test
+    public void requestingInvalidChangedSince_IsRejected() throws Exception {
+        AtlasExportRequest request = getRequestForDept(true, "FULL", false, "");
+
+        request.getOptions().put(AtlasExportRequest.OPTION_CHANGED_SINCE, "yesterday");
+
+        try {
+            runExportWithParameters(request);
+
+            fail("expected invalid changedSince to be rejected");
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.INVALID_PARAMETERS);
+        }
+    }
+
+    private String getGuid(String typeName, String name) throws AtlasBaseException {
+        return entityStore.getByUniqueAttributes(typeRegistry.getEntityTypeByName(typeName), Collections.<String, Object>singletonMap("name", name)).getEntity().getGuid();
+    }
+
     @Test
     public void verifyOverallStatus() throws Exception {
 
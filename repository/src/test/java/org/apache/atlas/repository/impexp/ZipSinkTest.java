@@ -179,6 +179,37 @@ public class ZipSinkTest {
         zs.close();
     }
 
+    @Test
+    public void writerThreadWritesEntitiesInOrder() throws AtlasBaseException, IOException {
+        final int             maxEntries       = 10;
+        ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
+        ZipSink               zs               = new ZipSink(byteOutputStream);
+
+        zs.startWriterThread(2);
+
+        for (int i = 0; i < maxEntries; i++) {
+            AtlasEntity entity = new AtlasEntity();
+            entity.setGuid(String.format(knownEntityGuidFormat, i));
+
+            AtlasEntity.AtlasEntityWithExtInfo entityWithExtInfo = new AtlasEntity.AtlasEntityWithExtInfo(entity);
+
+            zs.add(entityWithExtInfo, AtlasType.toJson(entityWithExtInfo));
+            assertTrue(zs.hasEntity(entity.getGuid()));
+        }
+
+        zs.setExportOrder(defaultExportOrder);
+        zs.close();
+
+        ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(byteOutputStream.toByteArray()));
+
+        for (int i = 0; i < maxEntries; i++) {
+            assertEquals(zipStream.getNextEntry().getName(), String.format(knownEntityGuidFormat, i) + ".json");
+        }
+
+        assertEquals(zipStream.getNextEntry().getName().replace(".json", ""), ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME.toString());
+        assertNull(zipStream.getNextEntry());
+    }
+
     private void addReferredEntities(AtlasEntity.AtlasEntityWithExtInfo entityWithExtInfo, int maxEntries) {
 
         for (int i = 1; i <= maxEntries; i++) {
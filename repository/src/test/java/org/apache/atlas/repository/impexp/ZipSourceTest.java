@@ -20,12 +20,14 @@ package org.apache.atlas.repository.impexp;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.utils.TestResourceFileUtils;
 import org.testng.Assert;
 import org.testng.ITestContext;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.List;
@@ -65,6 +67,26 @@ public class ZipSourceTest {
         Assert.assertNull(s);
     }
 
+    @Test
+    public void fileSource_ReadsEntitiesOnDemand() throws IOException, AtlasBaseException {
+        File      file      = new File(TestResourceFileUtils.getTestFilePath("stocks.zip"));
+        ZipSource zipSource = new ZipSource(file);
+
+        try {
+            List<String> creationOrder = zipSource.getCreationOrder();
+
+            assertNotNull(creationOrder);
+            assertTrue(creationOrder.size() > 0);
+
+            useCreationOrderToFetchEntitiesWithExtInfo(zipSource, creationOrder);
+            verifyGuidRemovalOnImportComplete(zipSource, creationOrder.get(0));
+        } finally {
+            zipSource.close();
+        }
+
+        assertTrue(file.exists());
+    }
+
     @Test(dataProvider = "zipFileStocks")
     public void examineContents_BehavesAsExpected(ZipSource zipSource) throws IOException, AtlasBaseException {
         List<String> creationOrder = zipSource.getCreationOrder();
@@ -42,11 +42,13 @@ import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.graph.AtlasGraphProvider;
 import org.apache.atlas.repository.graph.GraphBackedSearchIndexer;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.runner.LocalSolrRunner;
 import org.apache.atlas.store.AtlasTypeDefStore;
 import org.apache.atlas.type.AtlasArrayType;
+import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasMapType;
 import org.apache.atlas.type.AtlasStructType;
 import org.apache.atlas.type.AtlasType;
@@ -79,6 +81,9 @@ import static org.apache.atlas.TestUtilsV2.TABLE_TYPE;
 import static org.apache.atlas.graph.GraphSandboxUtil.useLocalSolr;
 import static org.mockito.Mockito.mock;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
@@ -562,6 +567,100 @@ public class AtlasEntityStoreV1Test {
         validateEntity(entitiesInfo, getEntityFromStore(updatedTable));
     }
 
+    @Test(dependsOnMethods = "testCreate")
+    public void testFindByUniqueAttributesInBulk() throws Exception {
+        AtlasEntityType     dbType   = typeRegistry.getEntityTypeByName(TestUtilsV2.DATABASE_TYPE);
+        AtlasEntity         db       = dbEntity.getEntity();
+        Map<String, Object> existing = Collections.<String, Object>singletonMap(NAME, db.getAttribute(NAME));
+        Map<String, Object> missing  = Collections.<String, Object>singletonMap(NAME, randomString(10));
+
+        Map<Map<String, Object>, AtlasVertex> vertices = AtlasGraphUtilsV1.findByUniqueAttributes(dbType, Arrays.asList(existing, missing));
+
+        assertEquals(vertices.size(), 1);
+        assertEquals(AtlasGraphUtilsV1.getIdFromVertex(vertices.get(existing)), AtlasGraphUtilsV1.getIdFromVertex(AtlasGraphUtilsV1.findByUniqueAttributes(dbType, existing)));
+    }
+
+    @Test(dependsOnMethods = "testCreate")
+    public void testUniqueAttributeCacheIsInvalidatedOnDelete() throws Exception {
+        UniqueAttributeCache cache = AtlasGraphUtilsV1.getUniqueAttributeCache();
+
+        if (cache == null) {
+            return;
+        }
+
+        init();
+        AtlasEntity            db       = TestUtilsV2.createDBEntity();
+        EntityMutationResponse response = entityStore.createOrUpdate(new AtlasEntityStream(db), false);
+        String                 dbGuid   = response.getFirstCreatedEntityByTypeName(TestUtilsV2.DATABASE_TYPE).getGuid();
+        AtlasEntityType        dbType   = typeRegistry.getEntityTypeByName(TestUtilsV2.DATABASE_TYPE);
+        Map<String, Object>    uniqAttr = Collections.<String, Object>singletonMap(NAME, db.getAttribute(NAME));
+
+        assertNotNull(AtlasGraphUtilsV1.findByUniqueAttributes(dbType, uniqAttr));
+
+        long hitCount = cache.getHitCount();
+
+        assertNotNull(AtlasGraphUtilsV1.findByUniqueAttributes(dbType, uniqAttr));
+        assertEquals(cache.getHitCount(), hitCount + 1);
+
+        init();
+        entityStore.deleteById(dbGuid);
+
+        assertNull(AtlasGraphUtilsV1.findByUniqueAttributes(dbType, uniqAttr));
+    }
+
+    @Test(dependsOnMethods = "testCreate")
+    public void testGetWithReferredEntityLimit() throws Exception {
+        String                 deptGuid = getDeptGuid();
+        AtlasEntityWithExtInfo dept     = entityStore.getById(deptGuid, new EntityRetrievalOptions(null, false, 2));
+
+        // all owned references are returned, but only as many of the entities referred as the limit allows
+        assertEquals(((List) dept.getEntity().getAttribute("employees")).size(), 4);
+        assertEquals(dept.getReferredEntities().size(), 2);
+
+        dept = entityStore.getById(deptGuid, new EntityRetrievalOptions(null, false, 10));
+
+        assertEquals(dept.getReferredEntities().size(), 4);
+    }
+
+    @Test(dependsOnMethods = "testCreate")
+    public void testGetWithMinExtInfo() throws Exception {
+        String                 deptGuid = getDeptGuid();
+        AtlasEntityWithExtInfo full     = entityStore.getById(deptGuid);
+        AtlasEntityWithExtInfo min      = entityStore.getById(deptGuid, new EntityRetrievalOptions(null, true, -1));
+
+        assertEquals(min.getReferredEntities().keySet(), full.getReferredEntities().keySet());
+
+        // owned employees refer to their manager, mentor and department: included in full, not in min-ext-info
+        for (AtlasEntity employee : min.getReferredEntities().values()) {
+            AtlasEntity fullEmployee = full.getReferredEntity(employee.getGuid());
+
+            assertNotNull(fullEmployee.getAttribute("department"));
+            assertNull(employee.getAttribute("department"));
+            assertNull(employee.getAttribute("manager"));
+            assertEquals(employee.getAttribute(NAME), fullEmployee.getAttribute(NAME));
+        }
+    }
+
+    @Test(dependsOnMethods = "testCreate")
+    public void testGetByIdsDoesNotReferRequestedEntities() throws Exception {
+        String        deptGuid     = getDeptGuid();
+        List          employees    = (List) entityStore.getById(deptGuid).getEntity().getAttribute("employees");
+        String        employeeGuid = ((AtlasObjectId) employees.get(0)).getGuid();
+        List<String>  attributes   = Arrays.asList(NAME, "employees");
+
+        // the employee is referred by the department requested before it: it is returned with the requested attributes
+        AtlasEntitiesWithExtInfo entities = entityStore.getByIds(Arrays.asList(deptGuid, employeeGuid), new EntityRetrievalOptions(attributes, false, 2));
+        AtlasEntity              employee = entities.getEntity(employeeGuid);
+
+        assertEquals(entities.getEntities().size(), 2);
+        assertNotNull(employee.getAttribute(NAME));
+        assertNull(employee.getAttribute("department"));
+
+        // and it doesn't count against the limit on the number of referred entities
+        assertFalse(entities.getReferredEntities().containsKey(employeeGuid));
+        assertEquals(entities.getReferredEntities().size(), 2);
+    }
+
     @Test(dependsOnMethods = "testCreate")
     public void testClassUpdate() throws Exception {
 
@@ -1057,4 +1156,11 @@ public class AtlasEntityStoreV1Test {
 
         return entity != null ? entity.getEntity() : null;
     }
+
+    private String getDeptGuid() throws AtlasBaseException {
+        AtlasEntityType     deptType = typeRegistry.getEntityTypeByName(TestUtilsV2.DEPARTMENT_TYPE);
+        Map<String, Object> uniqAttr = Collections.<String, Object>singletonMap(NAME, deptEntity.getEntities().get(0).getAttribute(NAME));
+
+        return entityStore.getByUniqueAttributes(deptType, uniqAttr).getEntity().getGuid();
+    }
 }
@@ -0,0 +1,285 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v1;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.impexp.AtlasImportResult;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.instance.EntityMutations.EntityOperation;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+
+public class BulkImporterImplTest {
+    @Test
+    public void testEntitiesAreImportedInChunks() throws Exception {
+        FakeEntityStore   store        = new FakeEntityStore();
+        AtlasImportResult importResult = new AtlasImportResult();
+
+        BulkImporterImpl bulkImporter = new BulkImporterImpl(store.entityStore, configuration(2, 2));
+
+        EntityMutationResponse resp = bulkImporter.bulkImport(new ListImportStream(entity("t1"), entity("t2"), entity("t3"), entity("t4"), entity("t5")), importResult);
+
+        assertEquals(store.commitCount.get(), 3);
+        assertEquals(importResult.getProcessedEntities().size(), 5);
+        assertEquals(resp.getGuidAssignments().size(), 5);
+    }
+
+    @Test
+    public void testChunkReferringToLaterEntityIsRetried() throws Exception {
+        FakeEntityStore   store        = new FakeEntityStore();
+        AtlasImportResult importResult = new AtlasImportResult();
+        AtlasEntity       t4           = entity("t4");
+        AtlasEntity       t2           = entity("t2");
+
+        t2.setAttribute("ref", new AtlasObjectId(t4.getGuid(), "test_type"));
+
+        BulkImporterImpl bulkImporter = new BulkImporterImpl(store.entityStore, configuration(2, 1));
+
+        bulkImporter.bulkImport(new ListImportStream(entity("t1"), t2, entity("t3"), t4), importResult);
+
+        // [t1, t2] fails as t4 is not yet imported, [t3, t4] is imported, then [t1, t2] is retried
+        assertEquals(store.commitCount.get(), 2);
+        assertEquals(store.failureCount.get(), 1);
+        assertEquals(importResult.getProcessedEntities().size(), 4);
+    }
+
+    @Test
+    public void testChunksWithCommonReferredEntityAreNotImportedConcurrently() throws Exception {
+        FakeEntityStore        store        = new FakeEntityStore();
+        AtlasImportResult      importResult = new AtlasImportResult();
+        AtlasEntity            db           = entity("db");
+        AtlasEntityWithExtInfo t1           = new AtlasEntityWithExtInfo(entity("t1"));
+        AtlasEntityWithExtInfo t2           = new AtlasEntityWithExtInfo(entity("t2"));
+
+        t1.addReferredEntity(db);
+        t2.addReferredEntity(db);
+
+        BulkImporterImpl bulkImporter = new BulkImporterImpl(store.entityStore, configuration(1, 2));
+
+        bulkImporter.bulkImport(new ListImportStream(t1, t2), importResult);
+
+        // [t2] includes db, which is being created/updated by [t1], so it is imported after [t1] is committed
+        assertEquals(store.commitCount.get(), 2);
+        assertEquals(store.overlapCount.get(), 0);
+        assertEquals(importResult.getProcessedEntities().size(), 3);
+    }
+
+    @Test(expectedExceptions = AtlasBaseException.class)
+    public void testUnresolvableReferenceFailsImport() throws Exception {
+        FakeEntityStore store = new FakeEntityStore();
+        AtlasEntity     t1    = entity("t1");
+
+        t1.setAttribute("ref", new AtlasObjectId("missing-guid", "test_type"));
+
+        new BulkImporterImpl(store.entityStore, configuration(2, 2)).bulkImport(new ListImportStream(t1, entity("t2")), new AtlasImportResult());
+    }
+
+    private PropertiesConfiguration configuration(int batchSize, int workerCount) {
+        PropertiesConfiguration ret = new PropertiesConfiguration();
+
+        ret.setProperty(BulkImporterImpl.IMPORT_BATCH_SIZE_PROPERTY, batchSize);
+        ret.setProperty(BulkImporterImpl.IMPORT_WORKER_THREADS_PROPERTY, workerCount);
+
+        return ret;
+    }
+
+    private static AtlasEntity entity(String name) {
+        AtlasEntity ret = new AtlasEntity("test_type", "name", name);
+
+        ret.setGuid(name + "-guid");
+
+        return ret;
+    }
+
+    // creates entities of the stream, failing with INVALID_OBJECT_ID when an entity refers to an entity not yet created;
+    // counts entities being created/updated by more than one chunk at the same time
+    private static class FakeEntityStore {
+        final AtlasEntityStore entityStore   = mock(AtlasEntityStore.class);
+        final Set<String>      createdGuids  = Collections.synchronizedSet(new HashSet<String>());
+        final Set<String>      inFlightGuids = Collections.synchronizedSet(new HashSet<String>());
+        final AtomicInteger    commitCount   = new AtomicInteger();
+        final AtomicInteger    failureCount  = new AtomicInteger();
+        final AtomicInteger    overlapCount  = new AtomicInteger();
+
+        FakeEntityStore() throws AtlasBaseException {
+            doAnswer(new Answer<EntityMutationResponse>() {
+                @Override
+                public EntityMutationResponse answer(InvocationOnMock invocation) throws Throwable {
+                    AtlasEntityStreamForImport stream   = (AtlasEntityStreamForImport) invocation.getArguments()[0];
+                    List<AtlasEntity>          entities = new ArrayList<>();
+
+                    for (AtlasEntity entity = stream.next(); entity != null; entity = stream.next()) {
+                        entities.add(entity);
+                    }
+
+                    if (stream.entitiesWithExtInfo.getReferredEntities() != null) {
+                        entities.addAll(stream.entitiesWithExtInfo.getReferredEntities().values());
+                    }
+
+                    for (AtlasEntity entity : entities) {
+                        if (!inFlightGuids.add(entity.getGuid())) {
+                            overlapCount.incrementAndGet();
+                        }
+                    }
+
+                    try {
+                        Thread.sleep(50);
+
+                        return createEntities(entities);
+                    } finally {
+                        for (AtlasEntity entity : entities) {
+                            inFlightGuids.remove(entity.getGuid());
+                        }
+                    }
+                }
+            }).when(entityStore).createOrUpdateForImport(any(EntityStream.class));
+        }
+
+        private EntityMutationResponse createEntities(List<AtlasEntity> entities) throws AtlasBaseException {
+            EntityMutationResponse ret = new EntityMutationResponse();
+
+            for (AtlasEntity entity : entities) {
+                AtlasObjectId ref = (AtlasObjectId) entity.getAttribute("ref");
+
+                if (ref != null && !createdGuids.contains(ref.getGuid()) && !contains(entities, ref.getGuid())) {
+                    failureCount.incrementAndGet();
+
+                    throw new AtlasBaseException(AtlasErrorCode.INVALID_OBJECT_ID, ref.getGuid());
+                }
+            }
+
+            ret.setGuidAssignments(new HashMap<String, String>());
+
+            for (AtlasEntity entity : entities) {
+                createdGuids.add(entity.getGuid());
+
+                ret.addEntity(EntityOperation.CREATE, new AtlasEntityHeader(entity.getTypeName(), entity.getGuid(), entity.getAttributes()));
+                ret.getGuidAssignments().put(entity.getGuid(), entity.getGuid());
+            }
+
+            commitCount.incrementAndGet();
+
+            return ret;
+        }
+
+        private static boolean contains(List<AtlasEntity> entities, String guid) {
+            for (AtlasEntity entity : entities) {
+                if (entity.getGuid().equals(guid)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    private static class ListImportStream implements EntityImportStream {
+        private final List<AtlasEntityWithExtInfo> entities = new ArrayList<>();
+        private       int                          position;
+
+        ListImportStream(AtlasEntity... entities) {
+            for (AtlasEntity entity : entities) {
+                this.entities.add(new AtlasEntityWithExtInfo(entity));
+            }
+        }
+
+        ListImportStream(AtlasEntityWithExtInfo... entities) {
+            this.entities.addAll(Arrays.asList(entities));
+        }
+
+        @Override
+        public int size() {
+            return entities.size();
+        }
+
+        @Override
+        public void setPosition(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public int getPosition() {
+            return position;
+        }
+
+        @Override
+        public void setPositionUsingEntityGuid(String guid) {
+        }
+
+        @Override
+        public AtlasEntityWithExtInfo getNextEntityWithExtInfo() {
+            return position < entities.size() ? entities.get(position++) : null;
+        }
+
+        @Override
+        public void onImportComplete(String guid) {
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < entities.size();
+        }
+
+        @Override
+        public AtlasEntity next() {
+            AtlasEntityWithExtInfo entityWithExtInfo = getNextEntityWithExtInfo();
+
+            return entityWithExtInfo != null ? entityWithExtInfo.getEntity() : null;
+        }
+
+        @Override
+        public void reset() {
+            position = 0;
+        }
+
+        @Override
+        public AtlasEntity getByGuid(String guid) {
+            for (AtlasEntityWithExtInfo entity : entities) {
+                AtlasEntity ret = entity.getEntity(guid);
+
+                if (ret != null) {
+                    return ret;
+                }
+            }
+
+            return null;
+        }
+    }
+}
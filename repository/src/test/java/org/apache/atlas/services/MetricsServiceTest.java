@@ -17,11 +17,21 @@
  */
 package org.apache.atlas.services;
 
+import org.apache.atlas.AtlasClient;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.discovery.SearchResultCache;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.metrics.AtlasMetrics;
+import org.apache.atlas.query.DSLQueryCache;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.runner.LocalSolrRunner;
+import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.v1.model.instance.Referenceable;
+import org.apache.atlas.v1.model.instance.Struct;
+import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.configuration.Configuration;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -31,6 +41,7 @@ import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +52,8 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 public class MetricsServiceTest {
     private Configuration mockConfig = mock(Configuration.class);
@@ -66,11 +79,19 @@ public class MetricsServiceTest {
         when(mockConfig.getInt(anyString(), anyInt())).thenReturn(5);
         assertEquals(mockConfig.getInt("test", 1), 5);
         when(mockConfig.getString(anyString(), anyString()))
-                .thenReturn("count()", "count()", "count()", "count()", "count()", "toList()", "count()", "toList()");
+                .thenReturn("count()", "count()", "toList()", "count()", "toList()");
         when(mockTypeRegistry.getAllEntityDefNames()).thenReturn(Arrays.asList("a", "b", "c"));
+
+        AtlasEntityType referenceableType = mock(AtlasEntityType.class);
+        AtlasEntityType internalType      = mock(AtlasEntityType.class);
+
+        when(referenceableType.getAllSuperTypes()).thenReturn(Collections.singleton(AtlasClient.REFERENCEABLE_SUPER_TYPE));
+        when(internalType.getAllSuperTypes()).thenReturn(Collections.<String>emptySet());
+        when(mockTypeRegistry.getEntityTypeByName(anyString())).thenReturn(referenceableType);
+        when(mockTypeRegistry.getEntityTypeByName("internal")).thenReturn(internalType);
         setupMockGraph();
 
-        metricsService = new MetricsService(mockConfig, mockGraph);
+        metricsService = new MetricsService(mockConfig, mockGraph, mockTypeRegistry, new MetricsCounters(mockGraph, mockTypeRegistry, mockConfig, false), new SearchResultCache(mockTypeRegistry, mockConfig), new DSLQueryCache(mockTypeRegistry, mockConfig));
     }
 
     @AfterClass
@@ -124,14 +145,217 @@ public class MetricsServiceTest {
         assertEquals(cTags, 3);
 
         verify(mockGraph, atLeastOnce()).executeGremlinScript(anyString(), anyBoolean());
+        verify(mockGraph, atLeastOnce()).rollback();
 
-        // Subsequent call within the cache timeout window
+        // Subsequent call is answered from the counters
         metricsService.getMetrics(false);
         verifyZeroInteractions(mockGraph);
 
-        // Now test the cache refresh
-        Thread.sleep(6000);
+        // Now test the refresh, which runs in the background; 5 queries are run on every refresh
         metricsService.getMetrics(true);
-        verify(mockGraph, atLeastOnce()).executeGremlinScript(anyString(), anyBoolean());
+        verify(mockGraph, timeout(10000).times(10)).executeGremlinScript(anyString(), anyBoolean());
+    }
+
+    @Test
+    public void testMetricsReflectEntityChanges() throws Throwable {
+        final MetricsCounters counters = new MetricsCounters(mockGraph, mockTypeRegistry, mockConfig, false);
+        MetricsService        service  = new MetricsService(mockConfig, mockGraph, mockTypeRegistry, counters, new SearchResultCache(mockTypeRegistry, mockConfig), new DSLQueryCache(mockTypeRegistry, mockConfig));
+
+        counters.reset(3L, 0L, 1L, Collections.singletonMap("a", 3), Collections.singletonMap("t1", 1));
+
+        runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                counters.onEntitiesAdded(Arrays.asList(new Referenceable("a"), new Referenceable("b", "t1", "t2")), false);
+                counters.onTraitsAdded(new Referenceable("a", "t2"), Arrays.asList(new Struct("t2")));
+
+                // not applied until the transaction is committed
+                assertEquals(counters.getEntityCount(), 3);
+            }
+        });
+
+        runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                counters.onTraitsDeleted(new Referenceable("b", "t2"), Arrays.asList("t1"));
+                counters.onEntitiesDeleted(Arrays.asList(new Referenceable("a")), false);
+            }
+        });
+
+        AtlasMetrics metrics = service.getMetrics(false);
+
+        assertEquals(metrics.getMetric(MetricsService.GENERAL, MetricsService.METRIC_ENTITY_COUNT), 5);
+        assertEquals(metrics.getMetric(MetricsService.GENERAL, MetricsService.METRIC_ENTITY_DELETED), 1);
+        assertEquals(metrics.getMetric(MetricsService.ENTITY, MetricsService.METRIC_TAGGED_ENTITIES), 3);
+        assertEquals(metrics.getMetric(MetricsService.ENTITY, "a"), 4);
+        assertEquals(metrics.getMetric(MetricsService.ENTITY, "b"), 1);
+        assertEquals(metrics.getMetric(MetricsService.TAG, "t1"), 1);
+        assertEquals(metrics.getMetric(MetricsService.TAG, "t2"), 2);
+    }
+
+    @Test
+    public void testRolledBackChangesAreNotCounted() throws Throwable {
+        final MetricsCounters counters = new MetricsCounters(mockGraph, mockTypeRegistry, mockConfig, false);
+
+        counters.reset(3L, 0L, 1L, Collections.singletonMap("a", 3), Collections.singletonMap("t1", 1));
+
+        try {
+            runInTransaction(new Runnable() {
+                @Override
+                public void run() {
+                    counters.onEntitiesAdded(Arrays.asList(new Referenceable("a", "t1")), false);
+
+                    throw new IllegalStateException("entity store failure");
+                }
+            });
+
+            fail("expected the transaction to fail");
+        } catch (IllegalStateException excp) {
+            // expected
+        }
+
+        assertEquals(counters.getEntityCount(), 3);
+        assertEquals(counters.getTaggedEntityCount(), 1);
+        assertEquals(counters.getTypeEntities(), Collections.singletonMap("a", 3L));
+        assertEquals(counters.getTagEntities(), Collections.singletonMap("t1", 1L));
+    }
+
+    @Test
+    public void testEntityCountIncludesOnlyReferenceableTypes() throws Throwable {
+        final MetricsCounters counters = new MetricsCounters(mockGraph, mockTypeRegistry, mockConfig, true);
+
+        counters.reset(3L, 0L, 0L, Collections.singletonMap("a", 3), Collections.<String, Number>emptyMap());
+
+        runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                counters.onEntitiesAdded(Arrays.asList(new Referenceable("a"), new Referenceable("internal")), false);
+            }
+        });
+
+        assertEquals(counters.getEntityCount(), 4);
+        assertEquals(counters.getTypeEntities().get("internal"), Long.valueOf(1));
+
+        runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                counters.onEntitiesDeleted(Arrays.asList(new Referenceable("internal")), false);
+            }
+        });
+
+        assertEquals(counters.getEntityCount(), 4);
+        assertEquals(counters.getTypeEntities().get("internal"), null);
+    }
+
+    @Test
+    public void testChangesDuringRebuildAreNotLost() throws Throwable {
+        final MetricsCounters counters = new MetricsCounters(mockGraph, mockTypeRegistry, mockConfig, false);
+
+        counters.reset(3L, 0L, 1L, Collections.singletonMap("a", 3), Collections.singletonMap("t1", 1));
+        counters.beginRebuild();
+
+        // committed after the scan has counted the entities
+        runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                counters.onEntitiesAdded(Arrays.asList(new Referenceable("a", "t1")), false);
+            }
+        });
+
+        // tagEntities not given - retains its current value, which already has the change
+        counters.reset(5L, 0L, 2L, Collections.singletonMap("a", 5), null);
+
+        assertEquals(counters.getEntityCount(), 6);
+        assertEquals(counters.getTaggedEntityCount(), 3);
+        assertEquals(counters.getTypeEntities(), Collections.singletonMap("a", 6L));
+        assertEquals(counters.getTagEntities(), Collections.singletonMap("t1", 2L));
+
+        // changes are recorded only until the reset
+        runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                counters.onEntitiesAdded(Arrays.asList(new Referenceable("a")), false);
+            }
+        });
+
+        counters.reset(5L, 0L, 2L, null, null);
+
+        assertEquals(counters.getEntityCount(), 5);
+    }
+
+    @Test
+    public void testMetricsAfterPassiveAndStop() throws Exception {
+        AtlasGraph      graph    = mock(AtlasGraph.class);
+        MetricsCounters counters = new MetricsCounters(graph, mockTypeRegistry, mockConfig, false);
+        MetricsService  service  = new MetricsService(mockConfig, graph, mockTypeRegistry, counters, new SearchResultCache(mockTypeRegistry, mockConfig), new DSLQueryCache(mockTypeRegistry, mockConfig));
+
+        when(graph.executeGremlinScript(anyString(), eq(false))).thenReturn(7);
+
+        service.instanceIsActive();
+        service.instanceIsPassive();
+        service.stop();
+
+        // executors are started again, on demand
+        AtlasMetrics metrics = service.getMetrics(true);
+
+        assertEquals(metrics.getMetric(MetricsService.GENERAL, MetricsService.METRIC_ENTITY_COUNT), 7);
+        assertTrue(counters.getCollectionTime() > 0);
+
+        service.stop();
+    }
+
+    @Test
+    public void testCountersCollectionTimeIsPersisted() {
+        final String[]  persisted = new String[1];
+        AtlasGraph      graph     = mock(AtlasGraph.class);
+        AtlasGraphQuery query     = mock(AtlasGraphQuery.class);
+        AtlasVertex     vertex    = mock(AtlasVertex.class);
+
+        when(graph.query()).thenReturn(query);
+        when(query.has(anyString(), anyObject())).thenReturn(query);
+        when(query.vertices()).thenReturn(Collections.singletonList(vertex));
+        when(vertex.getProperty(anyString(), eq(String.class))).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) {
+                return persisted[0];
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                persisted[0] = (String) invocation.getArguments()[1];
+
+                return null;
+            }
+        }).when(vertex).setProperty(anyString(), anyObject());
+
+        MetricsCounters counters = new MetricsCounters(graph, mockTypeRegistry, mockConfig, false);
+
+        counters.reset(3L, 0L, 1L, Collections.singletonMap("a", 3), Collections.singletonMap("t1", 1));
+        counters.persist();
+
+        MetricsCounters loaded = new MetricsCounters(graph, mockTypeRegistry, mockConfig, false);
+
+        loaded.load();
+
+        assertTrue(loaded.isInitialized());
+        assertEquals(loaded.getEntityCount(), 3);
+        assertEquals(loaded.getCollectionTime(), counters.getCollectionTime());
+    }
+
+    // runs the given changes as a @GraphTransaction method would, committing unless the changes fail
+    private static void runInTransaction(final Runnable changes) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+
+        when(invocation.proceed()).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocationOnMock) {
+                changes.run();
+
+                return null;
+            }
+        });
+
+        new GraphTransactionInterceptor(mock(AtlasGraph.class)).invoke(invocation);
     }
 }
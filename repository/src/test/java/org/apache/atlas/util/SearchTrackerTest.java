@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.util;
+
+import org.apache.atlas.discovery.SearchContext;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class SearchTrackerTest {
+    @Test
+    public void testSearchesOnSameThreadHaveDistinctIds() {
+        SearchTracker tracker  = new SearchTracker(configuration(0));
+        SearchContext context1 = searchContext();
+        SearchContext context2 = searchContext();
+
+        String searchId1 = tracker.add(context1);
+        String searchId2 = tracker.add(context2);
+
+        assertNotEquals(searchId1, searchId2);
+        assertEquals(tracker.getActiveSearches().size(), 2);
+        assertSame(tracker.getActiveSearch(searchId2).getContext(), context2);
+        assertFalse(tracker.getActiveSearch(searchId2).isTimedOut());
+
+        assertSame(tracker.terminate(searchId1), context1);
+        verify(context1).terminateSearch(true);
+        verify(context2, never()).terminateSearch(true);
+
+        tracker.remove(searchId2);
+
+        assertTrue(tracker.getActiveSearches().isEmpty());
+        assertNull(tracker.terminate(searchId2));
+    }
+
+    @Test
+    public void testSearchIsTerminatedAfterMaxDuration() {
+        SearchTracker tracker = new SearchTracker(configuration(50));
+        SearchContext context = searchContext();
+
+        String searchId = tracker.add(context);
+
+        verify(context, timeout(10000)).terminateSearch(true);
+
+        assertTrue(tracker.getActiveSearches().contains(searchId));
+        assertTrue(tracker.getActiveSearch(searchId).isTimedOut());
+    }
+
+    @Test
+    public void testCompletedSearchIsNotTerminated() throws Exception {
+        SearchTracker tracker = new SearchTracker(configuration(50));
+        SearchContext context = searchContext();
+
+        tracker.remove(tracker.add(context));
+
+        Thread.sleep(200);
+
+        verify(context, never()).terminateSearch(true);
+        assertFalse(tracker.getActiveSearches().iterator().hasNext());
+    }
+
+    private PropertiesConfiguration configuration(long maxDurationMs) {
+        PropertiesConfiguration ret = new PropertiesConfiguration();
+
+        ret.setProperty(SearchTracker.SEARCH_MAX_DURATION_MS_PROPERTY, maxDurationMs);
+
+        return ret;
+    }
+
+    private SearchContext searchContext() {
+        SearchContext ret = mock(SearchContext.class);
+
+        when(ret.getSearchParameters()).thenReturn(new SearchParameters());
+
+        return ret;
+    }
+}
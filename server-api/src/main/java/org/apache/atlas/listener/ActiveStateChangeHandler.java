@@ -31,7 +31,11 @@ public interface ActiveStateChangeHandler {
         GRAPH_BACKED_SEARCH_INDEXER(1),
         TYPEDEF_STORE_INITIALIZER(2),
         DEFAULT_METADATA_SERVICE(3),
-        NOTIFICATION_HOOK_CONSUMER(4);
+        NOTIFICATION_HOOK_CONSUMER(4),
+        METRICS_COUNTERS(5),
+        DSL_QUERY_CACHE(6),
+        SEARCH_RESULT_CACHE(7),
+        METRICS_SERVICE(8);
 
 
         private final int order;
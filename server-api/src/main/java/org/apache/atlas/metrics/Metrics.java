@@ -23,7 +23,7 @@ import java.util.Map;
 
 public class Metrics {
     public static class Counters {
-        private short invocations = 0;
+        private long invocations    = 0;
         private long totalTimeMSecs = 0;
 
         @Override
@@ -31,7 +31,7 @@ public class Metrics {
             return "[count=" + invocations + ", totalTimeMSec=" + totalTimeMSecs + "]";
         }
 
-        public short getInvocations() {
+        public long getInvocations() {
             return invocations;
         }
 
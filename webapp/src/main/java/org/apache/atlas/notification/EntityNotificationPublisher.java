@@ -0,0 +1,463 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.notification.NotificationInterface.NotificationType;
+import org.apache.atlas.service.Service;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.v1.model.notification.EntityNotificationV1;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes entity notifications of committed transactions to ATLAS_ENTITIES topic from a background thread.
+ *
+ * Notifications are queued in memory and sent in batches, across requests. When the queue is full - i.e. the
+ * messaging system is slow or unavailable - notifications are appended to a spool file in the local file system,
+ * and are replayed once the queue is drained. Notifications are sent in the order they were published:
+ * while the spool has notifications, newly published notifications are appended to the spool as well.
+ *
+ * Once the queue is drained, the spool file is renamed to a replay file and sent from there. The number of lines
+ * of the replay file already sent is saved in a position file next to it, so that a replay interrupted by stop or
+ * crash continues where it stopped. On stop, notifications not yet sent - those of the batch being sent, and those
+ * in the queue - are written to the head of the spool file, as they are older than the ones already in it.
+ */
+@Component
+@Order(4)
+public class EntityNotificationPublisher implements Service {
+    private static final Logger LOG = LoggerFactory.getLogger(EntityNotificationPublisher.class);
+
+    public static final String QUEUE_SIZE_PROPERTY        = "atlas.notification.entity.publisher.queue.size";
+    public static final String BATCH_SIZE_PROPERTY        = "atlas.notification.entity.publisher.batch.size";
+    public static final String RETRY_INTERVAL_MS_PROPERTY = "atlas.notification.entity.publisher.retry.interval.ms";
+    public static final String SPOOL_DIR_PROPERTY         = "atlas.notification.entity.publisher.spool.dir";
+
+    private static final String THREAD_NAME        = "atlas-entity-notification-publisher";
+    private static final String SPOOL_FILE_NAME    = "entity-notifications.spool";
+    private static final String REPLAY_FILE_NAME   = "entity-notifications.replay";
+    private static final String POSITION_FILE_NAME = "entity-notifications.replay.position";
+    private static final long   POLL_INTERVAL_MS   = 100;
+
+    private final NotificationInterface               notificationInterface;
+    private final BlockingQueue<EntityNotificationV1> queue;
+    private final int                                 batchSize;
+    private final long                                retryIntervalMs;
+    private final File                                spoolFile;
+    private final File                                replayFile;
+    private final File                                positionFile;
+    private final Object                              spoolLock = new Object();
+
+    private          BufferedWriter             spoolWriter;
+    private          boolean                    isSpoolPending;
+    private          long                       replayedCount;
+    private          List<EntityNotificationV1> unsentBatch;
+    private          Thread                     publisherThread;
+    private volatile boolean                    isStopped;
+
+    @Inject
+    public EntityNotificationPublisher(NotificationInterface notificationInterface) throws AtlasException {
+        this(notificationInterface, ApplicationProperties.get());
+    }
+
+    @VisibleForTesting
+    EntityNotificationPublisher(NotificationInterface notificationInterface, Configuration configuration) {
+        this.notificationInterface = notificationInterface;
+        this.queue                 = new LinkedBlockingQueue<>(configuration.getInt(QUEUE_SIZE_PROPERTY, 10000));
+        this.batchSize             = Math.max(1, configuration.getInt(BATCH_SIZE_PROPERTY, 100));
+        this.retryIntervalMs       = configuration.getLong(RETRY_INTERVAL_MS_PROPERTY, 1000);
+
+        String spoolDir = configuration.getString(SPOOL_DIR_PROPERTY);
+
+        if (StringUtils.isEmpty(spoolDir)) {
+            String atlasHome = System.getProperty("atlas.home", System.getProperty("java.io.tmpdir"));
+
+            spoolDir = atlasHome + File.separator + "data" + File.separator + "spool";
+        }
+
+        this.spoolFile    = new File(spoolDir, SPOOL_FILE_NAME);
+        this.replayFile   = new File(spoolDir, REPLAY_FILE_NAME);
+        this.positionFile = new File(spoolDir, POSITION_FILE_NAME);
+
+        // notifications spooled before a restart are sent first; a replay interrupted by the restart continues
+        this.isSpoolPending = spoolFile.exists();
+        this.replayedCount  = replayFile.exists() ? readReplayPosition() : 0;
+    }
+
+    @Override
+    public void start() throws AtlasException {
+        LOG.info("==> EntityNotificationPublisher.start()");
+
+        startPublisherThread();
+
+        LOG.info("<== EntityNotificationPublisher.start()");
+    }
+
+    @Override
+    public void stop() {
+        LOG.info("==> EntityNotificationPublisher.stop()");
+
+        Thread thread;
+
+        synchronized (this) {
+            isStopped = true;
+            thread    = publisherThread;
+        }
+
+        if (thread != null) {
+            thread.interrupt();
+
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException excp) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // notifications that could not be sent are retained in the spool, to be sent after restart - ahead of the
+        // ones already spooled, which are newer. The replay file, if any, is left as is to be continued after restart
+        synchronized (spoolLock) {
+            List<EntityNotificationV1> pending = new ArrayList<>();
+
+            if (unsentBatch != null) {
+                pending.addAll(unsentBatch);
+
+                unsentBatch = null;
+            }
+
+            queue.drainTo(pending);
+
+            closeSpoolWriter();
+
+            prependToSpool(pending);
+        }
+
+        LOG.info("<== EntityNotificationPublisher.stop()");
+    }
+
+    /**
+     * Queues the given notifications to be sent; doesn't wait for the messaging system.
+     */
+    public void publish(List<EntityNotificationV1> notifications) {
+        if (notifications == null || notifications.isEmpty()) {
+            return;
+        }
+
+        startPublisherThread();
+
+        synchronized (spoolLock) {
+            for (EntityNotificationV1 notification : notifications) {
+                if (isSpoolPending || !queue.offer(notification)) {
+                    if (!isSpoolPending) {
+                        LOG.warn("entity notification queue is full; spooling notifications to {}", spoolFile);
+                    }
+
+                    appendToSpool(notification);
+                }
+            }
+        }
+    }
+
+    @VisibleForTesting
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    @VisibleForTesting
+    boolean isSpoolPending() {
+        synchronized (spoolLock) {
+            return isSpoolPending;
+        }
+    }
+
+    @VisibleForTesting
+    void publishPending() throws InterruptedException {
+        if (replayFile.exists()) {
+            replay();
+        }
+
+        List<EntityNotificationV1> batch = new ArrayList<>(batchSize);
+
+        EntityNotificationV1 first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        if (first != null) {
+            batch.add(first);
+
+            queue.drainTo(batch, batchSize - 1);
+
+            if (!send(batch)) {
+                synchronized (spoolLock) {
+                    unsentBatch = batch;
+                }
+            }
+        } else {
+            synchronized (spoolLock) {
+                // queue is drained; notifications spooled after the queue was full can be sent now
+                if (isSpoolPending && queue.isEmpty()) {
+                    closeSpoolWriter();
+
+                    if (spoolFile.renameTo(replayFile)) {
+                        isSpoolPending = false;
+                        replayedCount  = 0;
+
+                        deleteReplayPosition();
+                    } else {
+                        LOG.error("failed to rename {} to {}", spoolFile, replayFile);
+                    }
+                }
+            }
+        }
+    }
+
+    private synchronized void startPublisherThread() {
+        if (publisherThread == null && !isStopped) {
+            publisherThread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while (!isStopped) {
+                        try {
+                            publishPending();
+                        } catch (InterruptedException excp) {
+                            LOG.info("{} interrupted", THREAD_NAME);
+                        } catch (Throwable t) {
+                            LOG.error("{}: unexpected error", THREAD_NAME, t);
+                        }
+                    }
+                }
+            }, THREAD_NAME);
+
+            publisherThread.setDaemon(true);
+            publisherThread.start();
+        }
+    }
+
+    // sends the batch, retrying until it succeeds; returns false if stopped before the batch could be sent
+    private boolean send(List<EntityNotificationV1> batch) throws InterruptedException {
+        while (true) {
+            try {
+                notificationInterface.send(NotificationType.ENTITIES, batch);
+
+                return true;
+            } catch (NotificationException excp) {
+                LOG.error("failed to send {} entity notifications; will retry in {}ms", batch.size(), retryIntervalMs, excp);
+
+                if (isStopped) {
+                    return false;
+                }
+
+                try {
+                    Thread.sleep(retryIntervalMs);
+                } catch (InterruptedException ie) {
+                    if (!isStopped) {
+                        throw ie;
+                    }
+
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void replay() throws InterruptedException {
+        LOG.info("sending spooled entity notifications from {}", replayFile);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(replayFile), StandardCharsets.UTF_8))) {
+            List<EntityNotificationV1> batch   = new ArrayList<>(batchSize);
+            long                       lineNum = 0;
+
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNum++;
+
+                // skip notifications sent by an earlier, interrupted, replay
+                if (lineNum <= replayedCount || StringUtils.isBlank(line)) {
+                    continue;
+                }
+
+                batch.add(AtlasType.fromV1Json(line, EntityNotificationV1.class));
+
+                if (batch.size() == batchSize) {
+                    // on stop, the replay file is left with the position of the notifications sent
+                    if (!send(batch)) {
+                        return;
+                    }
+
+                    replayedCount = lineNum;
+
+                    saveReplayPosition(replayedCount);
+
+                    batch.clear();
+                }
+            }
+
+            if (!batch.isEmpty() && !send(batch)) {
+                return;
+            }
+        } catch (IOException excp) {
+            LOG.error("failed to read spooled entity notifications from {}", replayFile, excp);
+
+            return;
+        }
+
+        if (!replayFile.delete()) {
+            LOG.warn("failed to delete {}", replayFile);
+        }
+
+        replayedCount = 0;
+
+        deleteReplayPosition();
+
+        LOG.info("sent spooled entity notifications");
+    }
+
+    private long readReplayPosition() {
+        long ret = 0;
+
+        if (positionFile.exists()) {
+            try {
+                ret = Long.parseLong(new String(Files.readAllBytes(positionFile.toPath()), StandardCharsets.UTF_8).trim());
+            } catch (IOException | NumberFormatException excp) {
+                LOG.warn("failed to read {}; spooled entity notifications will be sent from the start of {}", positionFile, replayFile, excp);
+            }
+        }
+
+        return ret;
+    }
+
+    // written to a temporary file first, so that a crash doesn't leave a partially written position
+    private void saveReplayPosition(long position) {
+        File tmpFile = new File(positionFile.getPath() + ".tmp");
+
+        try {
+            Files.write(tmpFile.toPath(), Long.toString(position).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmpFile.toPath(), positionFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException excp) {
+            LOG.warn("failed to save replay position to {}", positionFile, excp);
+        }
+    }
+
+    private void deleteReplayPosition() {
+        if (positionFile.exists() && !positionFile.delete()) {
+            LOG.warn("failed to delete {}", positionFile);
+        }
+    }
+
+    // caller should hold spoolLock, with the spool writer closed
+    private void prependToSpool(List<EntityNotificationV1> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        if (!spoolFile.exists()) {
+            for (EntityNotificationV1 notification : notifications) {
+                appendToSpool(notification);
+            }
+
+            closeSpoolWriter();
+
+            return;
+        }
+
+        File tmpFile = new File(spoolFile.getPath() + ".tmp");
+
+        try {
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmpFile), StandardCharsets.UTF_8))) {
+                for (EntityNotificationV1 notification : notifications) {
+                    writer.write(AtlasType.toV1Json(notification));
+                    writer.newLine();
+                }
+
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(spoolFile), StandardCharsets.UTF_8))) {
+                    for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                        writer.write(line);
+                        writer.newLine();
+                    }
+                }
+            }
+
+            Files.move(tmpFile.toPath(), spoolFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException excp) {
+            LOG.error("failed to spool {} entity notifications to {}; appending them instead", notifications.size(), spoolFile, excp);
+
+            for (EntityNotificationV1 notification : notifications) {
+                appendToSpool(notification);
+            }
+
+            closeSpoolWriter();
+        }
+    }
+
+    // caller should hold spoolLock
+    private void appendToSpool(EntityNotificationV1 notification) {
+        try {
+            if (spoolWriter == null) {
+                File spoolDir = spoolFile.getParentFile();
+
+                if (!spoolDir.exists() && !spoolDir.mkdirs()) {
+                    throw new IOException("failed to create directory " + spoolDir);
+                }
+
+                spoolWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(spoolFile, true), StandardCharsets.UTF_8));
+            }
+
+            spoolWriter.write(AtlasType.toV1Json(notification));
+            spoolWriter.newLine();
+            spoolWriter.flush();
+
+            isSpoolPending = true;
+        } catch (IOException excp) {
+            LOG.error("failed to spool entity notification: {}", AtlasType.toV1Json(notification), excp);
+        }
+    }
+
+    // caller should hold spoolLock
+    private void closeSpoolWriter() {
+        if (spoolWriter != null) {
+            try {
+                spoolWriter.close();
+            } catch (IOException excp) {
+                LOG.warn("failed to close {}", spoolFile, excp);
+            }
+
+            spoolWriter = null;
+        }
+    }
+}
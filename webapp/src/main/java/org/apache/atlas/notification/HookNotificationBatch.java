@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Entities of consecutive hook messages, merged to be written to the store in a single transaction.
+ *
+ * Entities are de-duplicated by their unique attributes (or guid, when no unique attribute is set). When an entity is
+ * present in more than one message, attributes of later messages override earlier ones - same as applying the
+ * messages one after another - and references to the dropped copies are updated to refer to the retained copy.
+ */
+class HookNotificationBatch {
+    private final AtlasTypeRegistry        typeRegistry;
+    private final Map<String, AtlasEntity> entities      = new LinkedHashMap<>();
+    private final Set<String>              topLevelGuids = new HashSet<>();
+    private final Map<String, String>      guidAliases   = new HashMap<>();
+
+    HookNotificationBatch(AtlasTypeRegistry typeRegistry) {
+        this.typeRegistry = typeRegistry;
+    }
+
+    public void add(AtlasEntitiesWithExtInfo messageEntities) {
+        if (messageEntities == null) {
+            return;
+        }
+
+        if (CollectionUtils.isNotEmpty(messageEntities.getEntities())) {
+            for (AtlasEntity entity : messageEntities.getEntities()) {
+                topLevelGuids.add(addEntity(entity));
+            }
+        }
+
+        if (MapUtils.isNotEmpty(messageEntities.getReferredEntities())) {
+            for (AtlasEntity entity : messageEntities.getReferredEntities().values()) {
+                addEntity(entity);
+            }
+        }
+    }
+
+    public AtlasEntitiesWithExtInfo getEntities() {
+        AtlasEntitiesWithExtInfo ret = new AtlasEntitiesWithExtInfo();
+
+        for (AtlasEntity entity : entities.values()) {
+            updateReferences(entity.getAttributes());
+
+            if (topLevelGuids.contains(entity.getGuid())) {
+                ret.addEntity(entity);
+            } else {
+                ret.addReferredEntity(entity);
+            }
+        }
+
+        return ret;
+    }
+
+    // returns guid of the retained copy of the entity
+    private String addEntity(AtlasEntity entity) {
+        String      key      = getEntityKey(entity);
+        AtlasEntity existing = entities.get(key);
+
+        if (existing == null) {
+            entities.put(key, entity);
+
+            return entity.getGuid();
+        }
+
+        if (existing != entity) {
+            if (entity.getGuid() != null && !entity.getGuid().equals(existing.getGuid())) {
+                guidAliases.put(entity.getGuid(), existing.getGuid());
+            }
+
+            if (MapUtils.isNotEmpty(entity.getAttributes())) {
+                for (Map.Entry<String, Object> attribute : entity.getAttributes().entrySet()) {
+                    existing.setAttribute(attribute.getKey(), attribute.getValue());
+                }
+            }
+
+            if (entity.getClassifications() != null) {
+                existing.setClassifications(entity.getClassifications());
+            }
+        }
+
+        return existing.getGuid();
+    }
+
+    private String getEntityKey(AtlasEntity entity) {
+        AtlasEntityType entityType = typeRegistry.getEntityTypeByName(entity.getTypeName());
+
+        if (entityType != null && MapUtils.isNotEmpty(entityType.getUniqAttributes())) {
+            StringBuilder sb = new StringBuilder(entity.getTypeName());
+
+            for (AtlasAttribute attribute : entityType.getUniqAttributes().values()) {
+                Object value = entity.getAttribute(attribute.getName());
+
+                if (value != null) {
+                    sb.append('|').append(attribute.getName()).append('=').append(value);
+
+                    return sb.toString();
+                }
+            }
+        }
+
+        return entity.getGuid();
+    }
+
+    private void updateReferences(Object value) {
+        if (guidAliases.isEmpty() || value == null) {
+            return;
+        }
+
+        if (value instanceof AtlasObjectId) {
+            AtlasObjectId objectId = (AtlasObjectId) value;
+            String        alias    = guidAliases.get(objectId.getGuid());
+
+            if (alias != null) {
+                objectId.setGuid(alias);
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection) value) {
+                updateReferences(element);
+            }
+        } else if (value instanceof Map) {
+            for (Object element : ((Map) value).values()) {
+                updateReferences(element);
+            }
+        }
+    }
+}
@@ -20,8 +20,8 @@ package org.apache.atlas.notification;
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.listener.EntityChangeListener;
-import org.apache.atlas.notification.NotificationInterface.NotificationType;
 import org.apache.atlas.v1.model.instance.Referenceable;
 import org.apache.atlas.v1.model.instance.Struct;
 import org.apache.atlas.v1.model.notification.EntityNotificationV1;
@@ -44,9 +44,10 @@ import java.util.*;
 public class NotificationEntityChangeListener implements EntityChangeListener {
     private static final String ATLAS_ENTITY_NOTIFICATION_PROPERTY = "atlas.notification.entity";
 
-    private final NotificationInterface     notificationInterface;
-    private final AtlasTypeRegistry         typeRegistry;
-    private final Map<String, List<String>> notificationAttributesCache = new HashMap<>();
+    private final EntityNotificationPublisher             notificationPublisher;
+    private final AtlasTypeRegistry                       typeRegistry;
+    private final Map<String, List<String>>               notificationAttributesCache = new HashMap<>();
+    private final ThreadLocal<List<EntityNotificationV1>> pendingNotifications        = new ThreadLocal<>();
 
     private static Configuration APPLICATION_PROPERTIES = null;
 
@@ -57,12 +58,12 @@ public class NotificationEntityChangeListener implements EntityChangeListener {
     /**
      * Construct a NotificationEntityChangeListener.
      *
-     * @param notificationInterface the notification framework interface
+     * @param notificationPublisher publisher of entity notifications
      * @param typeRegistry the Atlas type system
      */
     @Inject
-    public NotificationEntityChangeListener(NotificationInterface notificationInterface, AtlasTypeRegistry typeRegistry) {
-        this.notificationInterface = notificationInterface;
+    public NotificationEntityChangeListener(EntityNotificationPublisher notificationPublisher, AtlasTypeRegistry typeRegistry) {
+        this.notificationPublisher = notificationPublisher;
         this.typeRegistry          = typeRegistry;
     }
 
@@ -173,10 +174,25 @@ public class NotificationEntityChangeListener implements EntityChangeListener {
         }
 
         if (!messages.isEmpty()) {
-            notificationInterface.send(NotificationType.ENTITIES, messages);
+            addPostCommitNotifications(messages);
         }
     }
 
+    // notifications are sent only after the graph transaction is committed, by the publisher's background thread
+    private void addPostCommitNotifications(List<EntityNotificationV1> messages) {
+        List<EntityNotificationV1> pending = pendingNotifications.get();
+
+        if (pending == null) {
+            pending = new ArrayList<>();
+
+            pendingNotifications.set(pending);
+
+            new EntityNotificationHook();
+        }
+
+        pending.addAll(messages);
+    }
+
     private List<String> getNotificationAttributes(String entityType) {
         List<String> ret = null;
 
@@ -198,6 +214,20 @@ public class NotificationEntityChangeListener implements EntityChangeListener {
         return ret;
     }
 
+    private class EntityNotificationHook extends GraphTransactionInterceptor.PostTransactionHook {
+        @Override
+        public void onComplete(boolean isSuccess) {
+            List<EntityNotificationV1> notifications = pendingNotifications.get();
+
+            pendingNotifications.remove();
+
+            // no notifications for rolled back transactions
+            if (isSuccess && notifications != null) {
+                notificationPublisher.publish(notifications);
+            }
+        }
+    }
+
     private void initApplicationProperties() {
         if (APPLICATION_PROPERTIES == null) {
             try {
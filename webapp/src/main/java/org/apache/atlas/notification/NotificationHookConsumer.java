@@ -31,6 +31,7 @@ import org.apache.atlas.kafka.AtlasKafkaMessage;
 import org.apache.atlas.listener.ActiveStateChangeHandler;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.model.notification.HookNotification.HookNotificationType;
 import org.apache.atlas.notification.NotificationInterface.NotificationType;
 import org.apache.atlas.v1.model.instance.Referenceable;
 import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
@@ -49,6 +50,7 @@ import org.apache.atlas.web.filters.AuditFilter;
 import org.apache.atlas.web.service.ServiceState;
 import org.apache.atlas.web.util.DateTimeHelper;
 import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang.StringUtils;
 import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,8 +60,12 @@ import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -87,6 +93,9 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     public static final String CONSUMER_RETRY_INTERVAL           = "atlas.notification.consumer.retry.interval";
     public static final String CONSUMER_MIN_RETRY_INTERVAL       = "atlas.notification.consumer.min.retry.interval";
     public static final String CONSUMER_MAX_RETRY_INTERVAL       = "atlas.notification.consumer.max.retry.interval";
+    public static final String CONSUMER_WORKER_LANES_PROPERTY    = "atlas.notification.hook.worker.lanes";
+    public static final String CONSUMER_BATCH_SIZE_PROPERTY      = "atlas.notification.hook.batch.size";
+    public static final String CONSUMER_BATCH_LINGER_MS_PROPERTY = "atlas.notification.hook.batch.linger.ms";
 
     public static final int SERVER_READY_WAIT_TIME_MS = 1000;
 
@@ -98,6 +107,9 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     private final int                    failedMsgCacheSize;
     private final int                    minWaitDuration;
     private final int                    maxWaitDuration;
+    private final int                    numWorkerLanes;
+    private final int                    batchSize;
+    private final int                    batchLingerMs;
 
     private NotificationInterface notificationInterface;
     private ExecutorService       executors;
@@ -125,6 +137,9 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         consumerRetryInterval = applicationProperties.getInt(CONSUMER_RETRY_INTERVAL, 500);
         minWaitDuration       = applicationProperties.getInt(CONSUMER_MIN_RETRY_INTERVAL, consumerRetryInterval); // 500 ms  by default
         maxWaitDuration       = applicationProperties.getInt(CONSUMER_MAX_RETRY_INTERVAL, minWaitDuration * 60);  //  30 sec by default
+        numWorkerLanes        = applicationProperties.getInt(CONSUMER_WORKER_LANES_PROPERTY, 1);
+        batchSize             = applicationProperties.getInt(CONSUMER_BATCH_SIZE_PROPERTY, 1);
+        batchLingerMs         = applicationProperties.getInt(CONSUMER_BATCH_LINGER_MS_PROPERTY, 0);
     }
 
     @Override
@@ -291,13 +306,15 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     class HookConsumer extends ShutdownableThread {
         private final NotificationConsumer<HookNotification> consumer;
         private final AtomicBoolean                          shouldRun      = new AtomicBoolean(false);
-        private final List<HookNotification>                 failedMessages = new ArrayList<>();
+        private final List<HookNotification>                 failedMessages = Collections.synchronizedList(new ArrayList<>());
         private final AdaptiveWaiter                         adaptiveWaiter = new AdaptiveWaiter(minWaitDuration, maxWaitDuration, minWaitDuration);
+        private final ExecutorService                        laneExecutor;
 
         public HookConsumer(NotificationConsumer<HookNotification> consumer) {
             super("atlas-hook-consumer-thread", false);
 
-            this.consumer = consumer;
+            this.consumer     = consumer;
+            this.laneExecutor = numWorkerLanes > 1 ? Executors.newFixedThreadPool(numWorkerLanes, new ThreadFactoryBuilder().setNameFormat(THREADNAME_PREFIX + " lane-%d").build()) : null;
         }
 
         @Override
@@ -310,13 +327,33 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                 return;
             }
 
+            List<AtlasKafkaMessage<HookNotification>> pendingMessages = new ArrayList<>();
+            long                                      pendingSince    = 0;
+
             try {
                 while (shouldRun.get()) {
                     try {
                         List<AtlasKafkaMessage<HookNotification>> messages = consumer.receive();
 
-                        for (AtlasKafkaMessage<HookNotification> msg : messages) {
-                            handleMessage(msg);
+                        if (batchSize <= 1 || batchLingerMs <= 0) {
+                            handleMessages(messages);
+
+                            continue;
+                        }
+
+                        // hold received messages until a full batch is available, or the oldest has waited long enough
+                        if (pendingMessages.isEmpty()) {
+                            pendingSince = System.currentTimeMillis();
+                        }
+
+                        pendingMessages.addAll(messages);
+
+                        if (!pendingMessages.isEmpty() && (pendingMessages.size() >= batchSize || System.currentTimeMillis() - pendingSince >= batchLingerMs)) {
+                            messages = new ArrayList<>(pendingMessages);
+
+                            pendingMessages.clear();
+
+                            handleMessages(messages);
                         }
                     } catch (IllegalStateException ex) {
                         adaptiveWaiter.pause(ex);
@@ -331,6 +368,10 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                     }
                 }
             } finally {
+                if (laneExecutor != null) {
+                    laneExecutor.shutdownNow();
+                }
+
                 if (consumer != null) {
                     LOG.info("closing NotificationConsumer");
 
@@ -341,15 +382,273 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
             }
         }
 
+        /**
+         * Handles messages received in a single poll. With multiple worker lanes, each message is assigned to a lane
+         * based on the entities it touches (see getLanes): lanes run concurrently, while the messages within a lane are handled in
+         * the order they were received. Offsets are committed only up to the last message that has been handled,
+         * along with all the messages before it in the same partition.
+         */
+        @VisibleForTesting
+        void handleMessages(List<AtlasKafkaMessage<HookNotification>> messages) throws AtlasServiceException, AtlasException, InterruptedException {
+            if (laneExecutor == null || messages.size() < 2) {
+                if (batchSize <= 1) {
+                    for (AtlasKafkaMessage<HookNotification> msg : messages) {
+                        handleMessage(msg);
+                    }
+                } else {
+                    Set<AtlasKafkaMessage<HookNotification>> handledMessages = new HashSet<>();
+
+                    processMessages(messages, handledMessages);
+
+                    commitHandled(messages, handledMessages);
+                }
+
+                return;
+            }
+
+            List<List<AtlasKafkaMessage<HookNotification>>> lanes           = getLanes(messages);
+            Set<AtlasKafkaMessage<HookNotification>>        handledMessages = Collections.newSetFromMap(new ConcurrentHashMap<>());
+            List<Future<?>>                                 laneFutures     = new ArrayList<>(numWorkerLanes);
+
+            for (final List<AtlasKafkaMessage<HookNotification>> lane : lanes) {
+                if (lane.isEmpty()) {
+                    continue;
+                }
+
+                laneFutures.add(laneExecutor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        processMessages(lane, handledMessages);
+
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<?> laneFuture : laneFutures) {
+                try {
+                    laneFuture.get();
+                } catch (ExecutionException e) {
+                    LOG.warn("Error handling messages in worker lane", e.getCause());
+                }
+            }
+
+            commitHandled(messages, handledMessages);
+        }
+
+        /**
+         * Assigns the given messages to worker lanes. Messages that touch a common entity - create, update, delete or
+         * refer to it, like the create of a table and the create of a process reading that table - are in the same
+         * lane, in the order received; so no two lanes write the same entity concurrently. If any message is not
+         * about entities, all messages are in a single lane.
+         */
+        @VisibleForTesting
+        List<List<AtlasKafkaMessage<HookNotification>>> getLanes(List<AtlasKafkaMessage<HookNotification>> messages) {
+            int[]                groupOf     = new int[messages.size()]; // index of a message in the same group
+            Map<String, Integer> keyMessages = new HashMap<>();
+
+            for (int i = 0; i < messages.size(); i++) {
+                Set<String> keys = NotificationMessageKeys.getEntityKeys(messages.get(i).getMessage());
+
+                if (keys.isEmpty()) {
+                    return Collections.singletonList(messages);
+                }
+
+                groupOf[i] = i;
+
+                for (String key : keys) {
+                    Integer prevMessage = keyMessages.put(key, i);
+
+                    if (prevMessage != null) {
+                        groupOf[getGroup(groupOf, prevMessage)] = getGroup(groupOf, i);
+                    }
+                }
+            }
+
+            // groups in the order of their first message, each to the lane with fewest messages so far
+            Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+
+            for (int i = 0; i < messages.size(); i++) {
+                int group = getGroup(groupOf, i);
+
+                if (!groups.containsKey(group)) {
+                    groups.put(group, new ArrayList<>());
+                }
+
+                groups.get(group).add(i);
+            }
+
+            List<List<Integer>> laneIndexes = new ArrayList<>(numWorkerLanes);
+
+            for (int i = 0; i < numWorkerLanes; i++) {
+                laneIndexes.add(new ArrayList<>());
+            }
+
+            for (List<Integer> group : groups.values()) {
+                List<Integer> lane = laneIndexes.get(0);
+
+                for (List<Integer> laneIndex : laneIndexes) {
+                    if (laneIndex.size() < lane.size()) {
+                        lane = laneIndex;
+                    }
+                }
+
+                lane.addAll(group);
+            }
+
+            List<List<AtlasKafkaMessage<HookNotification>>> ret = new ArrayList<>(numWorkerLanes);
+
+            for (List<Integer> laneIndex : laneIndexes) {
+                List<AtlasKafkaMessage<HookNotification>> lane = new ArrayList<>(laneIndex.size());
+
+                Collections.sort(laneIndex);
+
+                for (Integer i : laneIndex) {
+                    lane.add(messages.get(i));
+                }
+
+                ret.add(lane);
+            }
+
+            return ret;
+        }
+
+        private int getGroup(int[] groupOf, int i) {
+            while (groupOf[i] != i) {
+                groupOf[i] = groupOf[groupOf[i]];
+                i          = groupOf[i];
+            }
+
+            return i;
+        }
+
+        private void commitHandled(List<AtlasKafkaMessage<HookNotification>> messages, Set<AtlasKafkaMessage<HookNotification>> handledMessages) {
+            Map<Integer, AtlasKafkaMessage<HookNotification>> lastHandled = new LinkedHashMap<>();
+            Set<Integer>                                      blocked     = new HashSet<>();
+
+            // messages of a partition are received in offset order
+            for (AtlasKafkaMessage<HookNotification> msg : messages) {
+                Integer partition = msg.getPartition();
+
+                if (blocked.contains(partition)) {
+                    continue;
+                }
+
+                if (handledMessages.contains(msg)) {
+                    lastHandled.put(partition, msg);
+                } else {
+                    blocked.add(partition);
+                }
+            }
+
+            for (AtlasKafkaMessage<HookNotification> msg : lastHandled.values()) {
+                commit(msg);
+            }
+        }
+
+        /**
+         * Processes the given messages in order. Consecutive entity create/full-update messages from the same user are
+         * written to the store in batches of up to batchSize messages, with a single commit per batch.
+         */
+        private void processMessages(List<AtlasKafkaMessage<HookNotification>> messages, Set<AtlasKafkaMessage<HookNotification>> handledMessages) throws AtlasServiceException, AtlasException {
+            List<AtlasKafkaMessage<HookNotification>> batch = new ArrayList<>();
+
+            for (AtlasKafkaMessage<HookNotification> msg : messages) {
+                boolean isBatchable = isBatchable(msg.getMessage());
+
+                if (!batch.isEmpty() && (!isBatchable || batch.size() >= batchSize || !StringUtils.equals(batch.get(0).getMessage().getUser(), msg.getMessage().getUser()))) {
+                    processBatch(batch, handledMessages);
+
+                    batch = new ArrayList<>();
+                }
+
+                if (isBatchable) {
+                    batch.add(msg);
+                } else {
+                    processMessage(msg);
+
+                    handledMessages.add(msg);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                processBatch(batch, handledMessages);
+            }
+        }
+
+        private boolean isBatchable(HookNotification message) {
+            return message.getType() == HookNotificationType.ENTITY_CREATE || message.getType() == HookNotificationType.ENTITY_FULL_UPDATE;
+        }
+
+        /**
+         * Writes entities of all the given messages in a single transaction. If that fails, messages are retried one
+         * at a time, so that a bad message does not fail the rest of the batch.
+         */
+        private void processBatch(List<AtlasKafkaMessage<HookNotification>> batch, Set<AtlasKafkaMessage<HookNotification>> handledMessages) throws AtlasServiceException, AtlasException {
+            boolean isBatchHandled = false;
+
+            if (batch.size() > 1) {
+                AtlasPerfTracer perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "NotificationHookConsumer.batch");
+
+                if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                    perf.setTag("NotificationHookConsumer.batch(" + batch.size() + ")");
+                }
+
+                try {
+                    String                messageUser    = batch.get(0).getMessage().getUser();
+                    HookNotificationBatch mergedEntities = new HookNotificationBatch(typeRegistry);
+
+                    RequestContextV1.get().setUser(messageUser);
+
+                    for (AtlasKafkaMessage<HookNotification> msg : batch) {
+                        EntityCreateRequest request = (EntityCreateRequest) msg.getMessage(); // also EntityUpdateRequest
+
+                        mergedEntities.add(instanceConverter.toAtlasEntities(request.getEntities()));
+                    }
+
+                    atlasEntityStore.createOrUpdate(new AtlasEntityStream(mergedEntities.getEntities()), false);
+
+                    for (AtlasKafkaMessage<HookNotification> msg : batch) {
+                        AtlasBaseClient.API api = msg.getMessage().getType() == HookNotificationType.ENTITY_CREATE ? AtlasClient.API_V1.CREATE_ENTITY : UPDATE_ENTITY;
+
+                        audit(messageUser, api.getMethod(), api.getNormalizedPath());
+                    }
+
+                    isBatchHandled = true;
+                } catch (Throwable e) {
+                    LOG.warn("Error handling batch of {} messages; will handle the messages one at a time", batch.size(), e);
+                } finally {
+                    RequestContextV1.clear();
+
+                    AtlasPerfTracer.log(perf);
+                }
+            }
+
+            if (isBatchHandled) {
+                handledMessages.addAll(batch);
+            } else {
+                for (AtlasKafkaMessage<HookNotification> msg : batch) {
+                    processMessage(msg);
+
+                    handledMessages.add(msg);
+                }
+            }
+        }
+
         @VisibleForTesting
         void handleMessage(AtlasKafkaMessage<HookNotification> kafkaMsg) throws AtlasServiceException, AtlasException {
-            AtlasPerfTracer  perf        = null;
+            if (processMessage(kafkaMsg)) {
+                commit(kafkaMsg);
+            }
+        }
+
+        /**
+         * @return false if the message could not be handled even after retries
+         */
+        private boolean processMessage(AtlasKafkaMessage<HookNotification> kafkaMsg) throws AtlasServiceException, AtlasException {
             HookNotification message     = kafkaMsg.getMessage();
             String           messageUser = message.getUser();
-
-            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, message.getType().name());
-            }
+            AtlasPerfTracer  perf        = AtlasPerfTracer.getPerfTracer(PERF_LOG, "NotificationHookConsumer." + message.getType().name());
 
             try {
                 // Used for intermediate conversions during create and update
@@ -457,25 +756,28 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                             if (failedMessages.size() >= failedMsgCacheSize) {
                                 recordFailedMessages();
                             }
-                            return;
+                            return false;
                         }
                     } finally {
                         RequestContextV1.clear();
                     }
                 }
-                commit(kafkaMsg);
+
+                return true;
             } finally {
                 AtlasPerfTracer.log(perf);
             }
         }
 
         private void recordFailedMessages() {
-            //logging failed messages
-            for (HookNotification message : failedMessages) {
-                FAILED_LOG.error("[DROPPED_NOTIFICATION] {}", AbstractNotification.getMessageJson(message));
-            }
+            synchronized (failedMessages) {
+                //logging failed messages
+                for (HookNotification message : failedMessages) {
+                    FAILED_LOG.error("[DROPPED_NOTIFICATION] {}", AbstractNotification.getMessageJson(message));
+                }
 
-            failedMessages.clear();
+                failedMessages.clear();
+            }
         }
 
         private void commit(AtlasKafkaMessage<HookNotification> kafkaMessage) {
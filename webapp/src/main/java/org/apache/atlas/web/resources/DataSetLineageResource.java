@@ -94,8 +94,10 @@ public class DataSetLineageResource {
         AtlasPerfTracer        perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DataSetLineageResource.inputsGraph");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DataSetLineageResource.inputsGraph(tableName=" + tableName + ")");
+                perf.setTag("DataSetLineageResource.inputsGraph(tableName=" + tableName + ")");
             }
 
             String guid = getGuid(tableName);
@@ -138,8 +140,10 @@ public class DataSetLineageResource {
         AtlasPerfTracer        perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DataSetLineageResource.outputsGraph");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DataSetLineageResource.outputsGraph(tableName=" + tableName + ")");
+                perf.setTag("DataSetLineageResource.outputsGraph(tableName=" + tableName + ")");
             }
 
             String guid = getGuid(tableName);
@@ -182,8 +186,10 @@ public class DataSetLineageResource {
         SchemaResponse  ret  = new SchemaResponse();
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DataSetLineageResource.schema");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DataSetLineageResource.schema(tableName=" + tableName + ")");
+                perf.setTag("DataSetLineageResource.schema(tableName=" + tableName + ")");
             }
 
             SchemaDetails schemaDetails = atlasLineageService.getSchemaForHiveTableByName(tableName);
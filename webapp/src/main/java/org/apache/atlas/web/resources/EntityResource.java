@@ -134,9 +134,7 @@ public class EntityResource {
         String entityJson = null;
         AtlasPerfTracer perf = null;
         try {
-            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.submit()");
-            }
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.submit()");
 
             entityJson = Servlets.getRequestPayload(request);
 
@@ -259,9 +257,7 @@ public class EntityResource {
         String entityJson = null;
         AtlasPerfTracer perf = null;
         try {
-            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.updateEntities()");
-            }
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.updateEntities()");
 
             entityJson = Servlets.getRequestPayload(request);
 
@@ -360,8 +356,10 @@ public class EntityResource {
         AtlasPerfTracer perf = null;
         String entityJson = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.updateByUniqueAttribute");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.updateByUniqueAttribute(" + entityType + ", " + attribute + ", " + value + ")");
+                perf.setTag("EntityResource.updateByUniqueAttribute(" + entityType + ", " + attribute + ", " + value + ")");
             }
 
             entityJson = Servlets.getRequestPayload(request);
@@ -440,8 +438,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.updateEntityByGuid");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.updateEntityByGuid(" + guid + ", " + attribute + ")");
+                perf.setTag("EntityResource.updateEntityByGuid(" + guid + ", " + attribute + ")");
             }
 
             if (StringUtils.isEmpty(attribute)) {
@@ -571,8 +571,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.deleteEntities");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.deleteEntities(" + guids + ", " + entityType + ", " + attribute + ", " + value + ")");
+                perf.setTag("EntityResource.deleteEntities(" + guids + ", " + entityType + ", " + attribute + ", " + value + ")");
             }
 
             EntityResult entityResult;
@@ -638,8 +640,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getEntityDefinition");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getEntityDefinition(" + guid + ")");
+                perf.setTag("EntityResource.getEntityDefinition(" + guid + ")");
             }
 
             if (LOG.isDebugEnabled()) {
@@ -737,8 +741,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getEntity");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getEntity(" + entityType + ", " + attribute + ", " + value + ")");
+                perf.setTag("EntityResource.getEntity(" + entityType + ", " + attribute + ", " + value + ")");
             }
 
             if (StringUtils.isEmpty(attribute)) {
@@ -840,8 +846,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getTraitNames");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getTraitNames(" + guid + ")");
+                perf.setTag("EntityResource.getTraitNames(" + guid + ")");
             }
 
             if (LOG.isDebugEnabled()) {
@@ -896,8 +904,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getTraitDefinitionsForEntity");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getTraitDefinitionsForEntity(" + guid + ")");
+                perf.setTag("EntityResource.getTraitDefinitionsForEntity(" + guid + ")");
             }
 
             if (LOG.isDebugEnabled()) {
@@ -955,8 +965,10 @@ public class EntityResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getTraitDefinitionForEntity");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getTraitDefinitionForEntity(" + guid + ", " + traitName + ")");
+                perf.setTag("EntityResource.getTraitDefinitionForEntity(" + guid + ", " + traitName + ")");
             }
 
             if (LOG.isDebugEnabled()) {
@@ -1012,8 +1024,10 @@ public class EntityResource {
         String traitDefinition = null;
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.addTrait");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.addTrait(" + guid + ")");
+                perf.setTag("EntityResource.addTrait(" + guid + ")");
             }
 
             traitDefinition = Servlets.getRequestPayload(request);
@@ -1080,8 +1094,10 @@ public class EntityResource {
         }
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.deleteTrait");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.deleteTrait(" + guid + ", " + traitName + ")");
+                perf.setTag("EntityResource.deleteTrait(" + guid + ", " + traitName + ")");
             }
 
             entitiesStore.deleteClassifications(guid, new ArrayList<String>() {{ add(traitName); }});
@@ -1138,8 +1154,10 @@ public class EntityResource {
         }
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getAuditEvents");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityResource.getAuditEvents(" + guid + ", " + startKey + ", " + count + ")");
+                perf.setTag("EntityResource.getAuditEvents(" + guid + ", " + startKey + ", " + count + ")");
             }
 
             List<EntityAuditEvent> events = entityAuditRepository.listEvents(guid, startKey, count);
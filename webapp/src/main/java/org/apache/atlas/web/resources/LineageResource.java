@@ -82,8 +82,10 @@ public class LineageResource {
 
         AtlasPerfTracer perf = null;
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageResource.inputsGraph");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageResource.inputsGraph(" + guid + ")");
+                perf.setTag("LineageResource.inputsGraph(" + guid + ")");
             }
 
             AtlasLineageInfo lineageInfo = atlasLineageService.getAtlasLineageInfo(guid, LineageDirection.INPUT, -1);
@@ -125,8 +127,10 @@ public class LineageResource {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageResource.outputsGraph");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageResource.outputsGraph(" + guid + ")");
+                perf.setTag("LineageResource.outputsGraph(" + guid + ")");
             }
 
             AtlasLineageInfo lineageInfo = atlasLineageService.getAtlasLineageInfo(guid, LineageDirection.OUTPUT, -1);
@@ -167,8 +171,10 @@ public class LineageResource {
         SchemaResponse  ret  = new SchemaResponse();
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageResource.schema");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageResource.schema(" + guid + ")");
+                perf.setTag("LineageResource.schema(" + guid + ")");
             }
 
             SchemaResponse.SchemaDetails schemaDetails = atlasLineageService.getSchemaForHiveTableByGuid(guid);
@@ -99,9 +99,7 @@ public class TypesResource {
 
         AtlasPerfTracer perf = null;
 
-        if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.submit()");
-        }
+        perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.submit()");
 
         try {
             final String typeDefinition = Servlets.getRequestPayload(request);
@@ -163,9 +161,7 @@ public class TypesResource {
 
         AtlasPerfTracer perf = null;
 
-        if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.update()");
-        }
+        perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.update()");
 
         try {
             final String typeDefinition = Servlets.getRequestPayload(request);
@@ -223,8 +219,10 @@ public class TypesResource {
 
         AtlasPerfTracer perf = null;
 
+        perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.getDefinition");
+
         if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.getDefinition(" + typeName + ")");
+            perf.setTag("TypesResource.getDefinition(" + typeName + ")");
         }
 
         Map<String, Object> response = new HashMap<>();
@@ -281,8 +279,10 @@ public class TypesResource {
 
         AtlasPerfTracer perf = null;
 
+        perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.getTypesByFilter");
+
         if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TypesResource.getTypesByFilter(" + typeCategory + ", " + supertype + ", " + notsupertype + ")");
+            perf.setTag("TypesResource.getTypesByFilter(" + typeCategory + ", " + supertype + ", " + notsupertype + ")");
         }
 
         Map<String, Object> response = new HashMap<>();
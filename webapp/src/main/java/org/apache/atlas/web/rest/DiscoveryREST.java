@@ -17,20 +17,27 @@
  */
 package org.apache.atlas.web.rest;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.SortOrder;
 import org.apache.atlas.discovery.AtlasDiscoveryService;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.AtlasSearchResult.AttributeSearchResult;
 import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
 import org.apache.atlas.model.profile.AtlasUserSavedSearch;
 import org.apache.atlas.repository.Constants;
+import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.utils.AtlasPerfTracer;
+import org.apache.atlas.web.util.JsonStreams;
 import org.apache.atlas.web.util.Servlets;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
@@ -46,8 +53,11 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST interface for data discovery using dsl or full text search
@@ -56,6 +66,7 @@ import java.util.List;
 @Singleton
 @Service
 public class DiscoveryREST {
+    private static final Logger LOG      = LoggerFactory.getLogger(DiscoveryREST.class);
     private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("rest.DiscoveryREST");
 
     @Context
@@ -105,9 +116,11 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingDSL");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingDSL(" + query + "," + typeName
-                        + "," + classification + "," + limit + "," + offset + ")");
+                perf.setTag("DiscoveryREST.searchUsingDSL(" + query + "," + typeName
+                            + "," + classification + "," + limit + "," + offset + ")");
             }
 
             String queryStr = atlasDiscoveryService.getDslQueryUsingTypeNameClassification(query, typeName, classification);
@@ -118,6 +131,68 @@ public class DiscoveryREST {
         }
     }
 
+    /**
+     * Retrieve data for the specified DSL, as a stream. The response has the same format as that of GET /dsl; results
+     * are searched and written a page at a time, hence server memory doesn't grow with the number of results. If a
+     * search fails after the response has started, the response is left incomplete.
+     *
+     * DSL queries can't continue from where the previous page ended, hence each page runs the query again up to its
+     * offset: the cost of the stream grows with the square of the number of results. The number of results is capped
+     * at atlas.rest.stream.dsl.maxlimit.
+     *
+     * @param query          DSL query
+     * @param typeName       limit the result to only entities of specified type or its sub-types
+     * @param classification limit the result to only entities tagged with the given classification or or its sub-types
+     * @param limit          total number of results to return, which can exceed atlas.search.maxlimit but not
+     *                       atlas.rest.stream.dsl.maxlimit; all results, up to atlas.rest.stream.dsl.maxlimit, if not positive
+     * @param offset         start offset of the result set
+     * @return Search results
+     * @throws AtlasBaseException
+     * @HTTP 200 On successful DSL execution with some results, might return an empty list if execution succeeded
+     * without any results
+     * @HTTP 400 Invalid DSL or query parameters
+     */
+    @GET
+    @Path("/dsl/stream")
+    @Consumes(Servlets.JSON_MEDIA_TYPE)
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public StreamingOutput searchUsingDSLAsStream(@QueryParam("query")          String query,
+                                                  @QueryParam("typeName")       String typeName,
+                                                  @QueryParam("classification") String classification,
+                                                  @QueryParam("limit")          int    limit,
+                                                  @QueryParam("offset")         int    offset) throws AtlasBaseException {
+        Servlets.validateQueryParamLength("typeName", typeName);
+        Servlets.validateQueryParamLength("classification", classification);
+
+        if (StringUtils.isNotEmpty(query) && query.length() > maxDslQueryLength) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_QUERY_LENGTH, Constants.MAX_DSL_QUERY_STR_LENGTH);
+        }
+
+        AtlasPerfTracer perf = null;
+
+        try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingDSLAsStream");
+
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf.setTag("DiscoveryREST.searchUsingDSLAsStream(" + query + "," + typeName
+                            + "," + classification + "," + limit + "," + offset + ")");
+            }
+
+            String queryStr = atlasDiscoveryService.getDslQueryUsingTypeNameClassification(query, typeName, classification);
+            int    maxLimit = AtlasConfiguration.REST_STREAM_DSL_MAX_LIMIT.getInt();
+
+            // pages are searched by offset, each running the query again - see above
+            if (maxLimit > 0 && (limit <= 0 || limit > maxLimit)) {
+                limit = maxLimit;
+            }
+
+            return streamSearchResults(null, Math.max(offset, 0), limit,
+                                       (pageOffset, pageLimit) -> atlasDiscoveryService.searchUsingDslQuery(queryStr, pageLimit, pageOffset));
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
 
 
     /**
@@ -148,9 +223,11 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingFullText");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingFullText(" + query + "," +
-                        limit + "," + offset + ")");
+                perf.setTag("DiscoveryREST.searchUsingFullText(" + query + "," +
+                            limit + "," + offset + ")");
             }
 
             return atlasDiscoveryService.searchUsingFullTextQuery(query, excludeDeletedEntities, limit, offset);
@@ -192,9 +269,11 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingBasic");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingBasic(" + query + "," +
-                        typeName + "," + classification + "," + limit + "," + offset + ")");
+                perf.setTag("DiscoveryREST.searchUsingBasic(" + query + "," +
+                            typeName + "," + classification + "," + limit + "," + offset + ")");
             }
 
             SearchParameters searchParameters = new SearchParameters();
@@ -241,9 +320,11 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingAttribute");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchUsingAttribute(" + attrName + "," +
-                        attrValuePrefix + "," + typeName + "," + limit + "," + offset + ")");
+                perf.setTag("DiscoveryREST.searchUsingAttribute(" + attrName + "," +
+                            attrValuePrefix + "," + typeName + "," + limit + "," + offset + ")");
             }
 
             if (StringUtils.isEmpty(attrName) && StringUtils.isEmpty(attrValuePrefix)) {
@@ -258,13 +339,14 @@ public class DiscoveryREST {
     }
 
     /**
-     * Attribute based search for entities satisfying the search parameters
+     * Attribute based search for entities satisfying the search parameters. To get the next page, set the cursor
+     * in the parameters to nextCursor of the result; this is faster than setting the offset, especially for deep pages
      *
      * @param parameters Search parameters
      * @return Atlas search result
      * @throws AtlasBaseException
      * @HTTP 200 On successful search
-     * @HTTP 400 Tag/Entity doesn't exist or Tag/entity filter is present without tag/type name
+     * @HTTP 400 Tag/Entity doesn't exist or Tag/entity filter is present without tag/type name, or invalid cursor
      */
     @Path("basic")
     @POST
@@ -274,29 +356,67 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchWithParameters");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchWithParameters(" + parameters + ")");
+                perf.setTag("DiscoveryREST.searchWithParameters(" + parameters + ")");
             }
 
-            if (parameters.getLimit() < 0 || parameters.getOffset() < 0) {
-                throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "Limit/offset should be non-negative");
-            }
+            validateBasicSearchParameters(parameters);
 
-            if (StringUtils.isEmpty(parameters.getTypeName()) && !isEmpty(parameters.getEntityFilters())) {
-                throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "EntityFilters specified without Type name");
-            }
+            return atlasDiscoveryService.searchWithParameters(parameters);
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
 
-            if (StringUtils.isEmpty(parameters.getClassification()) && !isEmpty(parameters.getTagFilters())) {
-                throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "TagFilters specified without tag name");
-            }
+    /**
+     * Attribute based search for entities satisfying the search parameters, as a stream. The response has the same
+     * format as that of POST /basic; results are searched and written a page at a time, hence server memory doesn't
+     * grow with the number of results. Limit is the total number of results to return, which can exceed
+     * atlas.search.maxlimit; 0 returns all results. If a search fails after the response has started, the response
+     * is left incomplete.
+     *
+     * @param parameters Search parameters
+     * @return Atlas search result
+     * @throws AtlasBaseException
+     * @HTTP 200 On successful search
+     * @HTTP 400 Tag/Entity doesn't exist or Tag/entity filter is present without tag/type name
+     */
+    @Path("basic/stream")
+    @POST
+    @Consumes(Servlets.JSON_MEDIA_TYPE)
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public StreamingOutput searchWithParametersAsStream(SearchParameters parameters) throws AtlasBaseException {
+        AtlasPerfTracer perf = null;
 
-            if (StringUtils.isEmpty(parameters.getTypeName()) && StringUtils.isEmpty(parameters.getClassification()) && StringUtils.isEmpty(parameters.getQuery())) {
-                throw new AtlasBaseException(AtlasErrorCode.INVALID_SEARCH_PARAMS);
+        try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchWithParametersAsStream");
+
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf.setTag("DiscoveryREST.searchWithParametersAsStream(" + parameters + ")");
             }
 
-            validateSearchParameters(parameters);
+            validateBasicSearchParameters(parameters);
 
-            return atlasDiscoveryService.searchWithParameters(parameters);
+            // each page is searched with a copy of the parameters, as the search result - which might be cached - refers to them.
+            // Pages after the first continue from the cursor of the previous page, instead of searching again up to the offset
+            String   requestedParameters = AtlasType.toJson(parameters);
+            String[] cursor              = new String[] { parameters.getCursor() };
+
+            return streamSearchResults(parameters, parameters.getOffset(), parameters.getLimit(), (pageOffset, pageLimit) -> {
+                SearchParameters pageParameters = AtlasType.fromJson(requestedParameters, SearchParameters.class);
+
+                pageParameters.setOffset(pageOffset);
+                pageParameters.setLimit(pageLimit);
+                pageParameters.setCursor(cursor[0]);
+
+                AtlasSearchResult ret = atlasDiscoveryService.searchWithParameters(pageParameters);
+
+                cursor[0] = ret.getNextCursor();
+
+                return ret;
+            });
         } finally {
             AtlasPerfTracer.log(perf);
         }
@@ -334,9 +454,11 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.relatedEntitiesSearchUsingGremlin");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.relatedEntitiesSearchUsingGremlin(" + guid +
-                        ", " + relation + ", " + sortByAttribute + ", " + sortOrder + ", " + excludeDeletedEntities + ", " + ", " + limit + ", " + offset + ")");
+                perf.setTag("DiscoveryREST.relatedEntitiesSearchUsingGremlin(" + guid +
+                            ", " + relation + ", " + sortByAttribute + ", " + sortOrder + ", " + excludeDeletedEntities + ", " + ", " + limit + ", " + offset + ")");
             }
 
             return atlasDiscoveryService.searchRelatedEntities(guid, relation, sortByAttribute, sortOrder, excludeDeletedEntities, limit, offset);
@@ -361,8 +483,10 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.addSavedSearch");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.addSavedSearch(userName=" + savedSearch.getOwnerName() + ", name=" + savedSearch.getName() + ", searchType=" + savedSearch.getSearchType() + ")");
+                perf.setTag("DiscoveryREST.addSavedSearch(userName=" + savedSearch.getOwnerName() + ", name=" + savedSearch.getName() + ", searchType=" + savedSearch.getSearchType() + ")");
             }
 
             return atlasDiscoveryService.addSavedSearch(Servlets.getUserName(httpServletRequest), savedSearch);
@@ -387,8 +511,10 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.updateSavedSearch");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.updateSavedSearch(userName=" + savedSearch.getOwnerName() + ", name=" + savedSearch.getName() + ", searchType=" + savedSearch.getSearchType() + ")");
+                perf.setTag("DiscoveryREST.updateSavedSearch(userName=" + savedSearch.getOwnerName() + ", name=" + savedSearch.getName() + ", searchType=" + savedSearch.getSearchType() + ")");
             }
 
             return atlasDiscoveryService.updateSavedSearch(Servlets.getUserName(httpServletRequest), savedSearch);
@@ -416,8 +542,10 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.getSavedSearch");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.getSavedSearch(userName=" + userName + ", name=" + searchName + ")");
+                perf.setTag("DiscoveryREST.getSavedSearch(userName=" + userName + ", name=" + searchName + ")");
             }
 
             return atlasDiscoveryService.getSavedSearchByName(Servlets.getUserName(httpServletRequest), userName, searchName);
@@ -442,8 +570,10 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.getSavedSearches");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.getSavedSearches(userName=" + userName + ")");
+                perf.setTag("DiscoveryREST.getSavedSearches(userName=" + userName + ")");
             }
 
             return atlasDiscoveryService.getSavedSearches(Servlets.getUserName(httpServletRequest), userName);
@@ -465,8 +595,10 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.deleteSavedSearch");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.deleteSavedSearch(guid=" + guid + ")");
+                perf.setTag("DiscoveryREST.deleteSavedSearch(guid=" + guid + ")");
             }
 
             atlasDiscoveryService.deleteSavedSearch(Servlets.getUserName(httpServletRequest), guid);
@@ -496,9 +628,10 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.executeSavedSearchByName");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG,
-                        "DiscoveryREST.executeSavedSearchByName(userName=" + userName + ", " + "name=" + searchName + ")");
+                perf.setTag("DiscoveryREST.executeSavedSearchByName(userName=" + userName + ", " + "name=" + searchName + ")");
             }
 
             AtlasUserSavedSearch savedSearch = atlasDiscoveryService.getSavedSearchByName(Servlets.getUserName(httpServletRequest), userName, searchName);
@@ -526,8 +659,10 @@ public class DiscoveryREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.executeSavedSearchByGuid");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.executeSavedSearchByGuid(" + searchGuid + ")");
+                perf.setTag("DiscoveryREST.executeSavedSearchByGuid(" + searchGuid + ")");
             }
 
             AtlasUserSavedSearch savedSearch = atlasDiscoveryService.getSavedSearchByGuid(Servlets.getUserName(httpServletRequest), searchGuid);
@@ -538,6 +673,145 @@ public class DiscoveryREST {
         }
     }
 
+    /*
+     * The first page is searched before the response starts, so that errors - like an invalid query - get their status.
+     * limit: total number of results to return; all results if not positive
+     */
+    private StreamingOutput streamSearchResults(SearchParameters searchParameters, int offset, int limit, SearchPage searchPage) throws AtlasBaseException {
+        int totalLimit = limit > 0 ? limit : Integer.MAX_VALUE;
+        int pageSize   = Math.min(JsonStreams.getPageSize(), AtlasConfiguration.SEARCH_MAX_LIMIT.getInt());
+
+        AtlasSearchResult firstPage = searchPage.search(offset, Math.min(pageSize, totalLimit));
+
+        return outputStream -> writeSearchResults(outputStream, firstPage, searchParameters, offset, totalLimit, pageSize, searchPage);
+    }
+
+    // pages are searched until one has fewer results than requested; referred entities are spooled to a file, as they are written after the results
+    private void writeSearchResults(OutputStream outputStream, AtlasSearchResult firstPage, SearchParameters searchParameters,
+                                    int offset, int limit, int pageSize, SearchPage searchPage) throws IOException {
+        AtlasPerfTracer perf = null;
+
+        try (JsonGenerator generator = JsonStreams.createGenerator(outputStream);
+             JsonStreams.Spool referredEntities = new JsonStreams.Spool()) {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.writeSearchResults");
+
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf.setTag("DiscoveryREST.writeSearchResults(" + firstPage.getQueryType() + "," + limit + ")");
+            }
+
+            // results of DSL queries with select are attribute values
+            AttributeSearchResult attributes = firstPage.getAttributes();
+
+            generator.writeStartObject();
+            generator.writeObjectField("queryType", firstPage.getQueryType());
+
+            if (searchParameters != null) {
+                generator.writeObjectField("searchParameters", searchParameters);
+            }
+
+            if (firstPage.getQueryText() != null) {
+                generator.writeStringField("queryText", firstPage.getQueryText());
+            }
+
+            if (firstPage.getType() != null) {
+                generator.writeStringField("type", firstPage.getType());
+            }
+
+            if (firstPage.getClassification() != null) {
+                generator.writeStringField("classification", firstPage.getClassification());
+            }
+
+            if (attributes != null) {
+                generator.writeObjectFieldStart("attributes");
+                generator.writeObjectField("name", attributes.getName());
+                generator.writeArrayFieldStart("values");
+            } else {
+                generator.writeArrayFieldStart("entities");
+            }
+
+            AtlasSearchResult page      = firstPage;
+            int               pageLimit = Math.min(pageSize, limit);
+            int               count     = 0;
+
+            while (page != null) {
+                int pageCount = 0;
+
+                if (attributes != null) {
+                    if (page.getAttributes() != null && page.getAttributes().getValues() != null) {
+                        for (List<Object> values : page.getAttributes().getValues()) {
+                            generator.writeObject(values);
+
+                            pageCount++;
+                        }
+                    }
+                } else if (page.getEntities() != null) {
+                    for (AtlasEntityHeader entity : page.getEntities()) {
+                        generator.writeObject(entity);
+
+                        pageCount++;
+                    }
+                }
+
+                if (page.getReferredEntities() != null) {
+                    for (Map.Entry<String, AtlasEntityHeader> entry : page.getReferredEntities().entrySet()) {
+                        referredEntities.add(entry.getKey(), entry.getValue());
+                    }
+                }
+
+                generator.flush();
+
+                count += pageCount;
+
+                if (pageCount < pageLimit || count >= limit) {
+                    page = null;
+                } else {
+                    pageLimit = Math.min(pageSize, limit - count);
+                    page      = searchPage.search(offset + count, pageLimit);
+                }
+            }
+
+            generator.writeEndArray();
+
+            if (attributes != null) {
+                generator.writeEndObject();
+            }
+
+            if (referredEntities.size() > 0) {
+                generator.writeFieldName("referredEntities");
+
+                referredEntities.writeTo(generator);
+            }
+
+            generator.writeEndObject();
+        } catch (AtlasBaseException e) {
+            LOG.error("writeSearchResults(): search failed; response is incomplete", e);
+
+            throw new IOException(e);
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
+    private void validateBasicSearchParameters(SearchParameters parameters) throws AtlasBaseException {
+        if (parameters.getLimit() < 0 || parameters.getOffset() < 0) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "Limit/offset should be non-negative");
+        }
+
+        if (StringUtils.isEmpty(parameters.getTypeName()) && !isEmpty(parameters.getEntityFilters())) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "EntityFilters specified without Type name");
+        }
+
+        if (StringUtils.isEmpty(parameters.getClassification()) && !isEmpty(parameters.getTagFilters())) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "TagFilters specified without tag name");
+        }
+
+        if (StringUtils.isEmpty(parameters.getTypeName()) && StringUtils.isEmpty(parameters.getClassification()) && StringUtils.isEmpty(parameters.getQuery())) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_SEARCH_PARAMS);
+        }
+
+        validateSearchParameters(parameters);
+    }
+
     private boolean isEmpty(SearchParameters.FilterCriteria filterCriteria) {
         return filterCriteria == null ||
                 (StringUtils.isEmpty(filterCriteria.getAttributeName()) && CollectionUtils.isEmpty(filterCriteria.getCriterion()));
@@ -575,4 +849,9 @@ public class DiscoveryREST {
 
         }
     }
+
+    // searches a page of results
+    private interface SearchPage {
+        AtlasSearchResult search(int offset, int limit) throws AtlasBaseException;
+    }
 }
@@ -17,10 +17,12 @@
  */
 package org.apache.atlas.web.rest;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.TypeCategory;
 import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.instance.ClassificationAssociateRequest;
@@ -28,16 +30,19 @@ import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.repository.store.graph.v1.AtlasEntityStream;
+import org.apache.atlas.repository.store.graph.v1.EntityRetrievalOptions;
 import org.apache.atlas.repository.store.graph.v1.EntityStream;
 import org.apache.atlas.type.AtlasClassificationType;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.utils.AtlasPerfTracer;
+import org.apache.atlas.web.util.JsonStreams;
 import org.apache.atlas.web.util.Servlets;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
@@ -45,6 +50,7 @@ import javax.inject.Singleton;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
@@ -54,10 +60,15 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 
 /**
@@ -67,10 +78,13 @@ import java.util.Map;
 @Singleton
 @Service
 public class EntityREST {
+    private static final Logger LOG      = LoggerFactory.getLogger(EntityREST.class);
     private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("rest.EntityREST");
 
     public static final String PREFIX_ATTR = "attr:";
 
+    private static final String DEFAULT_MAX_REFERRED_ENTITIES = "-1";
+
     private final AtlasTypeRegistry         typeRegistry;
     private final AtlasEntityStore          entitiesStore;
 
@@ -83,6 +97,9 @@ public class EntityREST {
     /**
      * Fetch complete definition of an entity given its GUID.
      * @param guid GUID for the entity
+     * @param attributes names of attributes to return; all attributes if not specified
+     * @param minExtInfo if true, referred entities include only the attributes returned in entity headers
+     * @param maxReferredEntities maximum number of referred entities to return; 0 for none, no limit if negative
      * @return AtlasEntity
      * @throws AtlasBaseException
      */
@@ -90,17 +107,22 @@ public class EntityREST {
     @Path("/guid/{guid}")
     @Consumes(Servlets.JSON_MEDIA_TYPE)
     @Produces(Servlets.JSON_MEDIA_TYPE)
-    public AtlasEntityWithExtInfo getById(@PathParam("guid") String guid) throws AtlasBaseException {
+    public AtlasEntityWithExtInfo getById(@PathParam("guid") String guid,
+                                          @QueryParam("attribute") List<String> attributes,
+                                          @QueryParam("minExtInfo") @DefaultValue("false") boolean minExtInfo,
+                                          @QueryParam("maxReferredEntities") @DefaultValue(DEFAULT_MAX_REFERRED_ENTITIES) int maxReferredEntities) throws AtlasBaseException {
         Servlets.validateQueryParamLength("guid", guid);
 
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getById");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getById(" + guid + ")");
+                perf.setTag("EntityREST.getById(" + guid + ")");
             }
 
-            return entitiesStore.getById(guid);
+            return entitiesStore.getById(guid, getRetrievalOptions(attributes, minExtInfo, maxReferredEntities));
         } finally {
             AtlasPerfTracer.log(perf);
         }
@@ -109,6 +131,9 @@ public class EntityREST {
     /**
      * Fetch complete definition of an entity given its type and unique attribute.
      * @param typeName
+     * @param attributeNames names of attributes to return; all attributes if not specified
+     * @param minExtInfo if true, referred entities include only the attributes returned in entity headers
+     * @param maxReferredEntities maximum number of referred entities to return; 0 for none, no limit if negative
      * @return AtlasEntityWithExtInfo
      * @throws AtlasBaseException
      */
@@ -117,6 +142,9 @@ public class EntityREST {
     @Consumes(Servlets.JSON_MEDIA_TYPE)
     @Produces(Servlets.JSON_MEDIA_TYPE)
     public AtlasEntityWithExtInfo getByUniqueAttributes(@PathParam("typeName") String typeName,
+                                                        @QueryParam("attribute") List<String> attributeNames,
+                                                        @QueryParam("minExtInfo") @DefaultValue("false") boolean minExtInfo,
+                                                        @QueryParam("maxReferredEntities") @DefaultValue(DEFAULT_MAX_REFERRED_ENTITIES) int maxReferredEntities,
                                                         @Context HttpServletRequest servletRequest) throws AtlasBaseException {
         Servlets.validateQueryParamLength("typeName", typeName);
 
@@ -125,15 +153,17 @@ public class EntityREST {
         try {
             Map<String, Object> attributes = getAttributes(servletRequest);
 
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getByUniqueAttributes");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getByUniqueAttributes(" + typeName + "," + attributes + ")");
+                perf.setTag("EntityREST.getByUniqueAttributes(" + typeName + "," + attributes + ")");
             }
 
             AtlasEntityType entityType = ensureEntityType(typeName);
 
             validateUniqueAttribute(entityType, attributes);
 
-            return entitiesStore.getByUniqueAttributes(entityType, attributes);
+            return entitiesStore.getByUniqueAttributes(entityType, attributes, getRetrievalOptions(attributeNames, minExtInfo, maxReferredEntities));
         } finally {
             AtlasPerfTracer.log(perf);
         }
@@ -153,9 +183,7 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
-            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.createOrUpdate()");
-            }
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.createOrUpdate()");
 
             return entitiesStore.createOrUpdate(new AtlasEntityStream(entity), false);
         } finally {
@@ -182,8 +210,10 @@ public class EntityREST {
         try {
             Map<String, Object> uniqueAttributes = getAttributes(servletRequest);
 
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.partialUpdateEntityByUniqueAttrs");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.partialUpdateEntityByUniqueAttrs(" + typeName + "," + uniqueAttributes + ")");
+                perf.setTag("EntityREST.partialUpdateEntityByUniqueAttrs(" + typeName + "," + uniqueAttributes + ")");
             }
 
             AtlasEntityType entityType = ensureEntityType(typeName);
@@ -215,8 +245,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.partialUpdateEntityAttrByGuid");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.partialUpdateEntityAttrByGuid(" + guid + "," + attrName + ")");
+                perf.setTag("EntityREST.partialUpdateEntityAttrByGuid(" + guid + "," + attrName + ")");
             }
 
             return entitiesStore.updateEntityAttributeByGuid(guid, attrName, attrValue);
@@ -240,8 +272,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteByGuid");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteByGuid(" + guid + ")");
+                perf.setTag("EntityREST.deleteByGuid(" + guid + ")");
             }
 
             return entitiesStore.deleteById(guid);
@@ -269,8 +303,10 @@ public class EntityREST {
         try {
             Map<String, Object> attributes = getAttributes(servletRequest);
 
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteByUniqueAttribute");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteByUniqueAttribute(" + typeName + "," + attributes + ")");
+                perf.setTag("EntityREST.deleteByUniqueAttribute(" + typeName + "," + attributes + ")");
             }
 
             AtlasEntityType entityType = ensureEntityType(typeName);
@@ -296,8 +332,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getClassification");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getClassification(" + guid + "," + classificationName + ")");
+                perf.setTag("EntityREST.getClassification(" + guid + "," + classificationName + ")");
             }
 
             if (StringUtils.isEmpty(guid)) {
@@ -325,8 +363,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getClassifications");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getClassifications(" + guid + ")");
+                perf.setTag("EntityREST.getClassifications(" + guid + ")");
             }
 
             if (StringUtils.isEmpty(guid)) {
@@ -353,8 +393,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.addClassifications");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.addClassifications(" + guid + ")");
+                perf.setTag("EntityREST.addClassifications(" + guid + ")");
             }
 
             if (StringUtils.isEmpty(guid)) {
@@ -381,8 +423,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.updateClassification");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.updateClassification(" + guid + ")");
+                perf.setTag("EntityREST.updateClassification(" + guid + ")");
             }
 
             if (StringUtils.isEmpty(guid)) {
@@ -412,8 +456,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteClassification");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteClassification(" + guid + "," + classificationName + ")");
+                perf.setTag("EntityREST.deleteClassification(" + guid + "," + classificationName + ")");
             }
 
             if (StringUtils.isEmpty(guid)) {
@@ -434,12 +480,18 @@ public class EntityREST {
 
     /**
      * Bulk API to retrieve list of entities identified by its GUIDs.
+     * @param attributes names of attributes to return; all attributes if not specified
+     * @param minExtInfo if true, referred entities include only the attributes returned in entity headers
+     * @param maxReferredEntities maximum number of referred entities to return; 0 for none, no limit if negative
      */
     @GET
     @Path("/bulk")
     @Consumes(Servlets.JSON_MEDIA_TYPE)
     @Produces(Servlets.JSON_MEDIA_TYPE)
-    public AtlasEntitiesWithExtInfo getByGuids(@QueryParam("guid") List<String> guids) throws AtlasBaseException {
+    public AtlasEntitiesWithExtInfo getByGuids(@QueryParam("guid") List<String> guids,
+                                               @QueryParam("attribute") List<String> attributes,
+                                               @QueryParam("minExtInfo") @DefaultValue("false") boolean minExtInfo,
+                                               @QueryParam("maxReferredEntities") @DefaultValue(DEFAULT_MAX_REFERRED_ENTITIES) int maxReferredEntities) throws AtlasBaseException {
         if (CollectionUtils.isNotEmpty(guids)) {
             for (String guid : guids) {
                 Servlets.validateQueryParamLength("guid", guid);
@@ -449,15 +501,64 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getByGuids");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getByGuids(" + guids + ")");
+                perf.setTag("EntityREST.getByGuids(" + guids + ")");
             }
 
             if (CollectionUtils.isEmpty(guids)) {
                 throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_NOT_FOUND, guids);
             }
 
-            return entitiesStore.getByIds(guids);
+            return entitiesStore.getByIds(guids, getRetrievalOptions(attributes, minExtInfo, maxReferredEntities));
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
+    /**
+     * Bulk API to retrieve list of entities identified by its GUIDs, as a stream. The response has the same format as
+     * that of GET /bulk; entities are retrieved and written a page at a time, hence server memory doesn't grow with
+     * the number of entities. If retrieval fails after the response has started, the response is left incomplete.
+     * @param attributes names of attributes to return; all attributes if not specified
+     * @param minExtInfo if true, referred entities include only the attributes returned in entity headers
+     * @param maxReferredEntities maximum number of referred entities to return; 0 for none, no limit if negative
+     */
+    @GET
+    @Path("/bulk/stream")
+    @Consumes(Servlets.JSON_MEDIA_TYPE)
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public StreamingOutput getByGuidsAsStream(@QueryParam("guid") List<String> guids,
+                                              @QueryParam("attribute") List<String> attributes,
+                                              @QueryParam("minExtInfo") @DefaultValue("false") boolean minExtInfo,
+                                              @QueryParam("maxReferredEntities") @DefaultValue(DEFAULT_MAX_REFERRED_ENTITIES) int maxReferredEntities) throws AtlasBaseException {
+        if (CollectionUtils.isNotEmpty(guids)) {
+            for (String guid : guids) {
+                Servlets.validateQueryParamLength("guid", guid);
+            }
+        }
+
+        AtlasPerfTracer perf = null;
+
+        try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getByGuidsAsStream");
+
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf.setTag("EntityREST.getByGuidsAsStream(guidCount=" + (CollectionUtils.isEmpty(guids) ? 0 : guids.size()) + ")");
+            }
+
+            if (CollectionUtils.isEmpty(guids)) {
+                throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_NOT_FOUND, guids);
+            }
+
+            final EntityRetrievalOptions options  = getRetrievalOptions(attributes, minExtInfo, maxReferredEntities);
+            final int                    pageSize = JsonStreams.getPageSize();
+
+            // retrieved before the response starts, so that errors - like an unknown guid in the page - get their status
+            final AtlasEntitiesWithExtInfo firstPage = entitiesStore.getByIds(guids.subList(0, Math.min(pageSize, guids.size())), options);
+
+            return outputStream -> writeEntities(outputStream, guids, firstPage, options, pageSize);
         } finally {
             AtlasPerfTracer.log(perf);
         }
@@ -475,9 +576,11 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.createOrUpdateBulk");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.createOrUpdate(entityCount=" +
-                                                               (CollectionUtils.isEmpty(entities.getEntities()) ? 0 : entities.getEntities().size()) + ")");
+                perf.setTag("EntityREST.createOrUpdateBulk(entityCount=" +
+                            (CollectionUtils.isEmpty(entities.getEntities()) ? 0 : entities.getEntities().size()) + ")");
             }
 
             EntityStream entityStream = new AtlasEntityStream(entities);
@@ -505,8 +608,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteByGuids");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.deleteByGuids(" + guids  + ")");
+                perf.setTag("EntityREST.deleteByGuids(" + guids  + ")");
             }
 
             return entitiesStore.deleteByIds(guids);
@@ -526,8 +631,10 @@ public class EntityREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.addClassification");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.addClassification(" + request  + ")");
+                perf.setTag("EntityREST.addClassification(" + request  + ")");
             }
 
             AtlasClassification classification = request == null ? null : request.getClassification();
@@ -567,6 +674,83 @@ public class EntityREST {
         return ret;
     }
 
+    // referred entities are written after all the entities; they are spooled to a file in the meantime
+    private void writeEntities(OutputStream outputStream, List<String> guids, AtlasEntitiesWithExtInfo firstPage,
+                               EntityRetrievalOptions options, int pageSize) throws IOException {
+        AtlasPerfTracer perf           = null;
+        Set<String>     requestedGuids = new HashSet<>(guids);
+
+        try (JsonGenerator generator = JsonStreams.createGenerator(outputStream);
+             JsonStreams.Spool referredEntities = new JsonStreams.Spool()) {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.writeEntities");
+
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf.setTag("EntityREST.writeEntities(" + guids.size() + ")");
+            }
+
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("entities");
+
+            AtlasEntitiesWithExtInfo page   = firstPage;
+            int                      offset = 0;
+
+            while (page != null) {
+                if (page.getEntities() != null) {
+                    for (AtlasEntity entity : page.getEntities()) {
+                        generator.writeObject(entity);
+                    }
+                }
+
+                if (page.getReferredEntities() != null) {
+                    for (Map.Entry<String, AtlasEntity> entry : page.getReferredEntities().entrySet()) {
+                        if (!requestedGuids.contains(entry.getKey())) {
+                            referredEntities.add(entry.getKey(), entry.getValue());
+                        }
+                    }
+                }
+
+                generator.flush();
+
+                offset += pageSize;
+
+                if (offset < guids.size()) {
+                    int maxReferredEntities = options.getMaxReferredEntities() < 0 ? -1 : Math.max(options.getMaxReferredEntities() - referredEntities.size(), 0);
+
+                    page = entitiesStore.getByIds(guids.subList(offset, Math.min(offset + pageSize, guids.size())),
+                                                  new EntityRetrievalOptions(options.getAttributes(), options.isMinExtInfo(), maxReferredEntities));
+                } else {
+                    page = null;
+                }
+            }
+
+            generator.writeEndArray();
+
+            if (referredEntities.size() > 0) {
+                generator.writeFieldName("referredEntities");
+
+                referredEntities.writeTo(generator);
+            }
+
+            generator.writeEndObject();
+        } catch (AtlasBaseException e) {
+            LOG.error("writeEntities(): failed to retrieve entities; response is incomplete", e);
+
+            throw new IOException(e);
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
+    private EntityRetrievalOptions getRetrievalOptions(List<String> attributes, boolean minExtInfo, int maxReferredEntities) throws AtlasBaseException {
+        if (CollectionUtils.isNotEmpty(attributes)) {
+            for (String attribute : attributes) {
+                Servlets.validateQueryParamLength("attribute", attribute);
+            }
+        }
+
+        return new EntityRetrievalOptions(attributes, minExtInfo, maxReferredEntities);
+    }
+
     private Map<String, Object> getAttributes(HttpServletRequest request) {
         Map<String, Object> attributes = new HashMap<>();
 
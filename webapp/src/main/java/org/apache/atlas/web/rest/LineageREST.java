@@ -85,9 +85,11 @@ public class LineageREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageREST.getLineageGraph");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "LineageREST.getLineageGraph(" + guid + "," + direction +
-                                                               "," + depth + ")");
+                perf.setTag("LineageREST.getLineageGraph(" + guid + "," + direction +
+                            "," + depth + ")");
             }
 
             return atlasLineageService.getAtlasLineageInfo(guid, direction, depth);
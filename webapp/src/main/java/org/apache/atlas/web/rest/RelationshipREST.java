@@ -63,8 +63,10 @@ public class RelationshipREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "RelationshipREST.create");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "RelationshipREST.create(" + relationship + ")");
+                perf.setTag("RelationshipREST.create(" + relationship + ")");
             }
 
             return relationshipStore.create(relationship);
@@ -84,8 +86,10 @@ public class RelationshipREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "RelationshipREST.update");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "RelationshipREST.update(" + relationship + ")");
+                perf.setTag("RelationshipREST.update(" + relationship + ")");
             }
 
             return relationshipStore.update(relationship);
@@ -108,8 +112,10 @@ public class RelationshipREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "RelationshipREST.getById");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "RelationshipREST.getById(" + guid + ")");
+                perf.setTag("RelationshipREST.getById(" + guid + ")");
             }
 
             return relationshipStore.getById(guid);
@@ -132,8 +138,10 @@ public class RelationshipREST {
         AtlasPerfTracer perf = null;
 
         try {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "RelationshipREST.deleteById");
+
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
-                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "RelationshipREST.deleteById(" + guid + ")");
+                perf.setTag("RelationshipREST.deleteById(" + guid + ")");
             }
 
             relationshipStore.deleteById(guid);
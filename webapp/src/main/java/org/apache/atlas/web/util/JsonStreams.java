@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.web.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.atlas.AtlasConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Helpers to write large REST responses incrementally, a page of results at a time, instead of building the entire
+ * response in memory before it is serialized. Values are serialized with the same mapper as AtlasJsonProvider.
+ */
+public final class JsonStreams {
+    private static final Logger LOG = LoggerFactory.getLogger(JsonStreams.class);
+
+    private JsonStreams() {
+    }
+
+    public static int getPageSize() {
+        return Math.max(AtlasConfiguration.REST_STREAM_PAGE_SIZE.getInt(), 1);
+    }
+
+    /**
+     * @return generator that writes to the given stream; closing the generator doesn't close the stream, nor does it
+     * complete the JSON content - a response that failed midway must not look complete to the client
+     */
+    public static JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        JsonGenerator ret = AtlasJsonProvider.getMapper().getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+
+        ret.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        ret.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+        return ret;
+    }
+
+    /**
+     * Temporary file of keyed values, for the part of a streamed response that can be written only after the rest of
+     * it - like referred entities, which are collected from every page of results. A value with a key that is already
+     * in the spool is ignored.
+     */
+    public static class Spool implements Closeable {
+        private final File          file;
+        private final JsonGenerator generator;
+        private final Set<String>   keys = new HashSet<>();
+
+        public Spool() throws IOException {
+            this.file      = File.createTempFile("atlas-stream-", ".json");
+            this.generator = AtlasJsonProvider.getMapper().getFactory().createGenerator(file, JsonEncoding.UTF8);
+        }
+
+        public int size() {
+            return keys.size();
+        }
+
+        public void add(String key, Object value) throws IOException {
+            if (keys.add(key)) {
+                generator.writeString(key);
+                generator.writeObject(value);
+            }
+        }
+
+        /**
+         * Writes the spooled values to the given generator as a JSON object, one field per key.
+         */
+        public void writeTo(JsonGenerator target) throws IOException {
+            generator.flush();
+
+            target.writeStartObject();
+
+            try (JsonParser parser = AtlasJsonProvider.getMapper().getFactory().createParser(file)) {
+                while (parser.nextToken() != null) {
+                    target.writeFieldName(parser.getText());
+
+                    parser.nextToken();
+
+                    copyValue(parser, target);
+                }
+            }
+
+            target.writeEndObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                generator.close();
+            } finally {
+                if (!file.delete()) {
+                    LOG.warn("failed to delete {}", file);
+                }
+            }
+        }
+
+        // unlike JsonGenerator.copyCurrentStructure(), keeps the text of floating point numbers - which might be BigDecimal values
+        private static void copyValue(JsonParser parser, JsonGenerator target) throws IOException {
+            int depth = 0;
+
+            do {
+                JsonToken token = parser.currentToken();
+
+                if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    target.writeNumber(parser.getText());
+                } else {
+                    target.copyCurrentEvent(parser);
+                }
+
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+            } while (depth > 0 && parser.nextToken() != null);
+        }
+    }
+}
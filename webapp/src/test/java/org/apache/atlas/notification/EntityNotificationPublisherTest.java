@@ -0,0 +1,255 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.notification.NotificationInterface.NotificationType;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.v1.model.instance.Referenceable;
+import org.apache.atlas.v1.model.notification.EntityNotificationV1;
+import org.apache.atlas.v1.model.notification.EntityNotificationV1.OperationType;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class EntityNotificationPublisherTest {
+    private static final String SPOOL_FILE_NAME    = "entity-notifications.spool";
+    private static final String REPLAY_FILE_NAME   = "entity-notifications.replay";
+    private static final String POSITION_FILE_NAME = "entity-notifications.replay.position";
+
+    private File                        spoolDir;
+    private EntityNotificationPublisher publisher;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        spoolDir = Files.createTempDirectory("entity-notification-spool").toFile();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        if (publisher != null) {
+            publisher.stop();
+        }
+    }
+
+    @Test
+    public void testNotificationsAreSentInOrderAfterSpooling() throws Exception {
+        final CountDownLatch        sendBlocked  = new CountDownLatch(1);
+        final CountDownLatch        allSent      = new CountDownLatch(4);
+        final List<String>          sentGuids    = Collections.synchronizedList(new ArrayList<String>());
+        final NotificationInterface notification = mock(NotificationInterface.class);
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                sendBlocked.await();
+
+                for (Object message : (List) invocation.getArguments()[1]) {
+                    sentGuids.add(((EntityNotificationV1) message).getEntity().getId()._getId());
+
+                    allSent.countDown();
+                }
+
+                return null;
+            }
+        }).when(notification).send(eq(NotificationType.ENTITIES), anyList());
+
+        publisher = new EntityNotificationPublisher(notification, configuration(1));
+
+        publisher.publish(Arrays.asList(entityNotification("guid-1")));
+
+        // wait for the publisher to take the first notification, and block in send()
+        while (publisher.getQueueSize() > 0) {
+            Thread.sleep(10);
+        }
+
+        publisher.publish(Arrays.asList(entityNotification("guid-2"), entityNotification("guid-3")));
+        publisher.publish(Arrays.asList(entityNotification("guid-4")));
+
+        assertTrue(publisher.isSpoolPending());
+
+        sendBlocked.countDown();
+
+        assertTrue(allSent.await(30, TimeUnit.SECONDS));
+        assertEquals(sentGuids, Arrays.asList("guid-1", "guid-2", "guid-3", "guid-4"));
+    }
+
+    @Test
+    public void testFailedSendIsRetried() throws Exception {
+        final CountDownLatch        sent         = new CountDownLatch(1);
+        final NotificationInterface notification = mock(NotificationInterface.class);
+
+        doAnswer(new Answer<Void>() {
+            private int attempts = 0;
+
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                if (++attempts < 3) {
+                    throw new NotificationException(new Exception("simulated failure"));
+                }
+
+                sent.countDown();
+
+                return null;
+            }
+        }).when(notification).send(eq(NotificationType.ENTITIES), anyList());
+
+        publisher = new EntityNotificationPublisher(notification, configuration(10));
+
+        publisher.publish(Arrays.asList(entityNotification("guid-1")));
+
+        assertTrue(sent.await(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testInterruptedReplayContinuesFromSavedPosition() throws Exception {
+        final CountDownLatch        allSent      = new CountDownLatch(2);
+        final List<String>          sentGuids    = Collections.synchronizedList(new ArrayList<String>());
+        final NotificationInterface notification = mock(NotificationInterface.class);
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                for (Object message : (List) invocation.getArguments()[1]) {
+                    sentGuids.add(((EntityNotificationV1) message).getEntity().getId()._getId());
+
+                    allSent.countDown();
+                }
+
+                return null;
+            }
+        }).when(notification).send(eq(NotificationType.ENTITIES), anyList());
+
+        writeNotifications(new File(spoolDir, REPLAY_FILE_NAME), "guid-1", "guid-2", "guid-3");
+        Files.write(new File(spoolDir, POSITION_FILE_NAME).toPath(), "1".getBytes(StandardCharsets.UTF_8));
+
+        publisher = new EntityNotificationPublisher(notification, configuration(10));
+
+        publisher.start();
+
+        assertTrue(allSent.await(30, TimeUnit.SECONDS));
+        assertEquals(sentGuids, Arrays.asList("guid-2", "guid-3"));
+
+        while (new File(spoolDir, REPLAY_FILE_NAME).exists()) {
+            Thread.sleep(10);
+        }
+
+        assertFalse(new File(spoolDir, POSITION_FILE_NAME).exists());
+    }
+
+    @Test
+    public void testStopDuringReplayKeepsOrder() throws Exception {
+        final CountDownLatch        failing      = new CountDownLatch(1);
+        final NotificationInterface notification = mock(NotificationInterface.class);
+
+        // guid-1 is sent; guid-2 fails until stop
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                EntityNotificationV1 message = (EntityNotificationV1) ((List) invocation.getArguments()[1]).get(0);
+
+                if (!message.getEntity().getId()._getId().equals("guid-1")) {
+                    failing.countDown();
+
+                    throw new NotificationException(new Exception("simulated failure"));
+                }
+
+                return null;
+            }
+        }).when(notification).send(eq(NotificationType.ENTITIES), anyList());
+
+        writeNotifications(new File(spoolDir, REPLAY_FILE_NAME), "guid-1", "guid-2", "guid-3");
+
+        publisher = new EntityNotificationPublisher(notification, configuration(1));
+
+        publisher.start();
+
+        assertTrue(failing.await(30, TimeUnit.SECONDS));
+
+        // guid-4 fills the queue, as the replay is in progress; guid-5 is spooled
+        publisher.publish(Arrays.asList(entityNotification("guid-4"), entityNotification("guid-5")));
+
+        assertTrue(publisher.isSpoolPending());
+
+        publisher.stop();
+
+        publisher = null;
+
+        // replay is left to be continued after guid-1; the queued notification is spooled ahead of newer ones
+        assertEquals(readNotifications(new File(spoolDir, REPLAY_FILE_NAME)), Arrays.asList("guid-1", "guid-2", "guid-3"));
+        assertEquals(new String(Files.readAllBytes(new File(spoolDir, POSITION_FILE_NAME).toPath()), StandardCharsets.UTF_8), "1");
+        assertEquals(readNotifications(new File(spoolDir, SPOOL_FILE_NAME)), Arrays.asList("guid-4", "guid-5"));
+    }
+
+    private void writeNotifications(File file, String... guids) throws Exception {
+        List<String> lines = new ArrayList<>();
+
+        for (String guid : guids) {
+            lines.add(AtlasType.toV1Json(entityNotification(guid)));
+        }
+
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    private List<String> readNotifications(File file) throws Exception {
+        List<String> ret = new ArrayList<>();
+
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            ret.add(AtlasType.fromV1Json(line, EntityNotificationV1.class).getEntity().getId()._getId());
+        }
+
+        return ret;
+    }
+
+    private PropertiesConfiguration configuration(int queueSize) {
+        PropertiesConfiguration ret = new PropertiesConfiguration();
+
+        ret.setProperty(EntityNotificationPublisher.QUEUE_SIZE_PROPERTY, queueSize);
+        ret.setProperty(EntityNotificationPublisher.BATCH_SIZE_PROPERTY, 1);
+        ret.setProperty(EntityNotificationPublisher.RETRY_INTERVAL_MS_PROPERTY, 10);
+        ret.setProperty(EntityNotificationPublisher.SPOOL_DIR_PROPERTY, spoolDir.getAbsolutePath());
+
+        return ret;
+    }
+
+    private EntityNotificationV1 entityNotification(String guid) {
+        Referenceable entity = new Referenceable(guid, "hive_table", Collections.<String, Object>singletonMap("qualifiedName", guid));
+
+        return new EntityNotificationV1(entity, OperationType.ENTITY_CREATE, Collections.emptyList());
+    }
+}
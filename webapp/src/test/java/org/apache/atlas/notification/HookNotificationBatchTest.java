@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+public class HookNotificationBatchTest {
+    private AtlasTypeRegistry typeRegistry;
+
+    @BeforeMethod
+    public void setup() {
+        AtlasAttribute  qualifiedName = mock(AtlasAttribute.class);
+        AtlasEntityType entityType    = mock(AtlasEntityType.class);
+
+        typeRegistry = mock(AtlasTypeRegistry.class);
+
+        when(qualifiedName.getName()).thenReturn("qualifiedName");
+        when(entityType.getUniqAttributes()).thenReturn(Collections.singletonMap("qualifiedName", qualifiedName));
+        when(typeRegistry.getEntityTypeByName("hive_db")).thenReturn(entityType);
+        when(typeRegistry.getEntityTypeByName("hive_table")).thenReturn(entityType);
+    }
+
+    @Test
+    public void testEntitiesAreMergedByUniqueAttribute() {
+        HookNotificationBatch batch = new HookNotificationBatch(typeRegistry);
+
+        AtlasEntity db1    = new AtlasEntity("hive_db", "qualifiedName", "default@cl1");
+        AtlasEntity table1 = new AtlasEntity("hive_table", "qualifiedName", "default.t1@cl1");
+        AtlasEntity db2    = new AtlasEntity("hive_db", "qualifiedName", "default@cl1");
+        AtlasEntity table2 = new AtlasEntity("hive_table", "qualifiedName", "default.t2@cl1");
+
+        db1.setAttribute("owner", "user1");
+        db2.setAttribute("description", "default database");
+        table1.setAttribute("db", new AtlasObjectId(db1.getGuid(), "hive_db"));
+        table2.setAttribute("db", new AtlasObjectId(db2.getGuid(), "hive_db"));
+
+        batch.add(entities(db1, table1));
+        batch.add(entities(db2, table2));
+
+        AtlasEntitiesWithExtInfo merged = batch.getEntities();
+
+        assertEquals(merged.getEntities().size(), 3);
+
+        AtlasEntity db = merged.getEntity(db1.getGuid());
+
+        assertNotNull(db);
+        assertEquals(db.getAttribute("owner"), "user1");
+        assertEquals(db.getAttribute("description"), "default database");
+        assertEquals(((AtlasObjectId) table2.getAttribute("db")).getGuid(), db1.getGuid());
+    }
+
+    @Test
+    public void testLaterMessageOverridesAttributes() {
+        HookNotificationBatch batch = new HookNotificationBatch(typeRegistry);
+
+        AtlasEntity table1 = new AtlasEntity("hive_table", "qualifiedName", "default.t1@cl1");
+        AtlasEntity table2 = new AtlasEntity("hive_table", "qualifiedName", "default.t1@cl1");
+
+        table1.setAttribute("owner", "user1");
+        table2.setAttribute("owner", "user2");
+
+        batch.add(entities(table1));
+        batch.add(entities(table2));
+
+        AtlasEntitiesWithExtInfo merged = batch.getEntities();
+
+        assertEquals(merged.getEntities().size(), 1);
+        assertEquals(merged.getEntities().get(0).getAttribute("owner"), "user2");
+    }
+
+    private AtlasEntitiesWithExtInfo entities(AtlasEntity... entities) {
+        AtlasEntitiesWithExtInfo ret = new AtlasEntitiesWithExtInfo();
+
+        for (AtlasEntity entity : entities) {
+            ret.addEntity(entity);
+        }
+
+        return ret;
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.apache.atlas.notification;
 
+import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.AtlasServiceException;
 import org.apache.atlas.exception.AtlasBaseException;
@@ -27,7 +28,10 @@ import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.model.notification.HookNotification.HookNotificationType;
 import org.apache.atlas.notification.NotificationInterface.NotificationType;
 import org.apache.atlas.v1.model.instance.Referenceable;
+import org.apache.atlas.model.notification.HookNotification;
 import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityDeleteRequest;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.TypeRequest;
 import org.apache.atlas.repository.converters.AtlasInstanceConverter;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.repository.store.graph.v1.EntityStream;
@@ -46,10 +50,13 @@ import org.testng.annotations.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 
 import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -320,6 +327,63 @@ public class NotificationHookConsumerTest {
         assertFalse(notificationHookConsumer.consumers.get(0).isAlive());
     }
 
+    @Test
+    public void testMessagesOnCommonEntitiesAreInSameLane() throws Exception {
+        Referenceable db1 = entity("hive_db", "db1@cl1");
+        Referenceable db2 = entity("hive_db", "db2@cl1");
+        Referenceable t1  = entity("hive_table", "db1.t1@cl1");
+        Referenceable t2  = entity("hive_table", "db2.t2@cl1");
+        Referenceable p1  = entity("hive_process", "p1@cl1");
+
+        t1.set("db", db1);
+        t2.set("db", db2);
+        p1.set("inputs", Collections.singletonList(entity("hive_table", "db1.t1@cl1")));
+
+        AtlasKafkaMessage<HookNotification> createT1  = new AtlasKafkaMessage<HookNotification>(new EntityCreateRequest("user", db1, t1), 1, 0);
+        AtlasKafkaMessage<HookNotification> createT2  = new AtlasKafkaMessage<HookNotification>(new EntityCreateRequest("user", db2, t2), 2, 0);
+        AtlasKafkaMessage<HookNotification> createP1  = new AtlasKafkaMessage<HookNotification>(new EntityCreateRequest("user", p1), 3, 0);
+        AtlasKafkaMessage<HookNotification> deleteDb1 = new AtlasKafkaMessage<HookNotification>(new EntityDeleteRequest("user", "hive_db", "qualifiedName", "db1@cl1"), 4, 0);
+
+        List<List<AtlasKafkaMessage<HookNotification>>> lanes = getLanes(4, createT1, createT2, createP1, deleteDb1);
+
+        // create of the process reading t1, and delete of the database of t1, are ordered after the create of t1
+        assertTrue(lanes.contains(Arrays.asList(createT1, createP1, deleteDb1)));
+        assertTrue(lanes.contains(Collections.singletonList(createT2)));
+
+        // a message not about entities serializes all messages
+        AtlasKafkaMessage<HookNotification> typeRequest = new AtlasKafkaMessage<HookNotification>(new TypeRequest(), 5, 0);
+
+        assertEquals(getLanes(4, createT1, createT2, typeRequest), Collections.singletonList(Arrays.asList(createT1, createT2, typeRequest)));
+    }
+
+    private List<List<AtlasKafkaMessage<HookNotification>>> getLanes(int numWorkerLanes, AtlasKafkaMessage<HookNotification>... messages) throws AtlasException {
+        Configuration applicationProperties = ApplicationProperties.get();
+        Object        lanesToRestore        = applicationProperties.getProperty(NotificationHookConsumer.CONSUMER_WORKER_LANES_PROPERTY);
+
+        applicationProperties.setProperty(NotificationHookConsumer.CONSUMER_WORKER_LANES_PROPERTY, numWorkerLanes);
+
+        try {
+            NotificationHookConsumer              notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry);
+            NotificationHookConsumer.HookConsumer hookConsumer             = notificationHookConsumer.new HookConsumer(mock(NotificationConsumer.class));
+
+            return hookConsumer.getLanes(Arrays.asList(messages));
+        } finally {
+            if (lanesToRestore != null) {
+                applicationProperties.setProperty(NotificationHookConsumer.CONSUMER_WORKER_LANES_PROPERTY, lanesToRestore);
+            } else {
+                applicationProperties.clearProperty(NotificationHookConsumer.CONSUMER_WORKER_LANES_PROPERTY);
+            }
+        }
+    }
+
+    private static Referenceable entity(String typeName, String qualifiedName) {
+        Map<String, Object> values = new HashMap<>();
+
+        values.put("qualifiedName", qualifiedName);
+
+        return new Referenceable(typeName, values);
+    }
+
     private NotificationHookConsumer setupNotificationHookConsumer() throws AtlasException {
         List<NotificationConsumer<Object>> consumers                = new ArrayList();
         NotificationConsumer               notificationConsumerMock = mock(NotificationConsumer.class);
@@ -0,0 +1,382 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.web.adapters;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.discovery.AtlasDiscoveryService;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.AtlasSearchResult.AtlasQueryType;
+import org.apache.atlas.model.discovery.AtlasSearchResult.AttributeSearchResult;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.repository.store.graph.v1.EntityRetrievalOptions;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.web.rest.DiscoveryREST;
+import org.apache.atlas.web.rest.EntityREST;
+import org.apache.atlas.web.util.JsonStreamsTest;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests of the streamed responses of DiscoveryREST and EntityREST, written a page at a time.
+ */
+public class TestStreamingREST {
+    private static final String PAGE_SIZE_PROPERTY     = "atlas.rest.stream.page.size";
+    private static final String DSL_MAX_LIMIT_PROPERTY = "atlas.rest.stream.dsl.maxlimit";
+    private static final String DSL_QUERY              = "hive_table";
+    private static final String DSL_SELECT_QUERY       = "hive_table select name";
+    private static final int    PAGE_SIZE              = 2;
+    private static final int    RESULT_COUNT           = 5;
+
+    private Object                pageSizeToRestore;
+    private AtlasDiscoveryService discoveryService;
+    private AtlasEntityStore      entityStore;
+    private DiscoveryREST         discoveryREST;
+    private EntityREST            entityREST;
+    private int                   failAtOffset;
+
+    @BeforeClass
+    public void setupPageSize() throws Exception {
+        Configuration configuration = ApplicationProperties.get();
+
+        pageSizeToRestore = configuration.getProperty(PAGE_SIZE_PROPERTY);
+
+        configuration.setProperty(PAGE_SIZE_PROPERTY, PAGE_SIZE);
+    }
+
+    @AfterClass
+    public void restorePageSize() throws Exception {
+        Configuration configuration = ApplicationProperties.get();
+
+        if (pageSizeToRestore != null) {
+            configuration.setProperty(PAGE_SIZE_PROPERTY, pageSizeToRestore);
+        } else {
+            configuration.clearProperty(PAGE_SIZE_PROPERTY);
+        }
+    }
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        discoveryService = mock(AtlasDiscoveryService.class);
+        entityStore      = mock(AtlasEntityStore.class);
+        discoveryREST    = new DiscoveryREST(discoveryService, new PropertiesConfiguration());
+        entityREST       = new EntityREST(new AtlasTypeRegistry(), entityStore);
+        failAtOffset     = -1;
+
+        // results of the search and entities of the bulk get are "guid<n>", for n below RESULT_COUNT
+        when(discoveryService.searchWithParameters(any(SearchParameters.class))).thenAnswer(new Answer<AtlasSearchResult>() {
+            @Override
+            public AtlasSearchResult answer(InvocationOnMock invocation) throws AtlasBaseException {
+                SearchParameters  params = (SearchParameters) invocation.getArguments()[0];
+                AtlasSearchResult ret    = new AtlasSearchResult(params);
+
+                if (params.getOffset() == failAtOffset) {
+                    throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, "search failed");
+                }
+
+                for (int i = params.getOffset(); i < Math.min(params.getOffset() + params.getLimit(), RESULT_COUNT); i++) {
+                    ret.addEntity(new AtlasEntityHeader("hive_table", "guid" + i, Collections.<String, Object>singletonMap("name", "t" + i)));
+                }
+
+                return ret;
+            }
+        });
+
+        // DSL results are the same, as entities - or as name values for the query with select
+        when(discoveryService.getDslQueryUsingTypeNameClassification(anyString(), anyString(), anyString())).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) {
+                return (String) invocation.getArguments()[0];
+            }
+        });
+
+        when(discoveryService.searchUsingDslQuery(anyString(), anyInt(), anyInt())).thenAnswer(new Answer<AtlasSearchResult>() {
+            @Override
+            public AtlasSearchResult answer(InvocationOnMock invocation) {
+                String             query  = (String) invocation.getArguments()[0];
+                int                limit  = (Integer) invocation.getArguments()[1];
+                int                offset = (Integer) invocation.getArguments()[2];
+                AtlasSearchResult  ret    = new AtlasSearchResult(query, AtlasQueryType.DSL);
+                List<List<Object>> values = new ArrayList<>();
+
+                for (int i = offset; i < Math.min(offset + limit, RESULT_COUNT); i++) {
+                    if (query.equals(DSL_SELECT_QUERY)) {
+                        values.add(Collections.<Object>singletonList("t" + i));
+                    } else {
+                        ret.addEntity(new AtlasEntityHeader("hive_table", "guid" + i, Collections.<String, Object>singletonMap("name", "t" + i)));
+                    }
+                }
+
+                if (query.equals(DSL_SELECT_QUERY)) {
+                    ret.setAttributes(new AttributeSearchResult(Collections.singletonList("name"), values));
+                }
+
+                return ret;
+            }
+        });
+
+        when(entityStore.getByIds(anyList(), any(EntityRetrievalOptions.class))).thenAnswer(new Answer<AtlasEntitiesWithExtInfo>() {
+            @Override
+            public AtlasEntitiesWithExtInfo answer(InvocationOnMock invocation) throws AtlasBaseException {
+                List<String>             guids = (List<String>) invocation.getArguments()[0];
+                AtlasEntitiesWithExtInfo ret   = new AtlasEntitiesWithExtInfo();
+
+                for (String guid : guids) {
+                    if (guid.equals("guid" + failAtOffset)) {
+                        throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, "retrieval failed");
+                    }
+
+                    AtlasEntity entity = new AtlasEntity("hive_table");
+                    AtlasEntity column = new AtlasEntity("hive_column");
+
+                    entity.setGuid(guid);
+                    column.setGuid(guid + "_col");
+
+                    ret.addEntity(entity);
+                    ret.addReferredEntity(column);
+                }
+
+                return ret;
+            }
+        });
+    }
+
+    @Test
+    public void testSearchResultsAreStreamedInPages() throws Exception {
+        AtlasSearchResult result = AtlasType.fromJson(write(discoveryREST.searchWithParametersAsStream(searchParameters(0))), AtlasSearchResult.class);
+
+        assertEquals(getGuids(result), range(0, RESULT_COUNT));
+        assertEquals(result.getSearchParameters().getTypeName(), "hive_table");
+
+        // 3 pages: 2 full pages, and a last page with fewer results than the page size
+        verify(discoveryService, times(3)).searchWithParameters(any(SearchParameters.class));
+    }
+
+    @Test
+    public void testSearchResultsWithLimitAndOffset() throws Exception {
+        SearchParameters params = searchParameters(1);
+
+        params.setLimit(3);
+
+        AtlasSearchResult result = AtlasType.fromJson(write(discoveryREST.searchWithParametersAsStream(params)), AtlasSearchResult.class);
+
+        assertEquals(getGuids(result), range(1, 4));
+    }
+
+    @Test
+    public void testEmptySearchResults() throws Exception {
+        AtlasSearchResult result = AtlasType.fromJson(write(discoveryREST.searchWithParametersAsStream(searchParameters(RESULT_COUNT))), AtlasSearchResult.class);
+
+        assertTrue(getGuids(result).isEmpty());
+    }
+
+    @Test
+    public void testSearchFailureMidStreamLeavesIncompleteResponse() throws Exception {
+        int                   spoolFileCount = JsonStreamsTest.getSpoolFileCount();
+        ByteArrayOutputStream out            = new ByteArrayOutputStream();
+        StreamingOutput       output         = discoveryREST.searchWithParametersAsStream(searchParameters(0));
+
+        failAtOffset = PAGE_SIZE;
+
+        try {
+            output.write(out);
+
+            fail("expected failure of the second page to fail the response");
+        } catch (IOException e) {
+            assertTrue(e.getCause() instanceof AtlasBaseException);
+        }
+
+        String json = new String(out.toByteArray(), StandardCharsets.UTF_8);
+
+        // results of the first page are written, but the response must not parse as complete
+        assertTrue(json.contains("guid1"));
+        assertNull(AtlasType.fromJson(json, AtlasSearchResult.class));
+        assertEquals(JsonStreamsTest.getSpoolFileCount(), spoolFileCount);
+    }
+
+    @Test
+    public void testDslResultsAreStreamedInPages() throws Exception {
+        AtlasSearchResult result = AtlasType.fromJson(write(discoveryREST.searchUsingDSLAsStream(DSL_QUERY, null, null, 0, 1)), AtlasSearchResult.class);
+
+        assertEquals(result.getQueryType(), AtlasQueryType.DSL);
+        assertEquals(result.getQueryText(), DSL_QUERY);
+        assertEquals(getGuids(result), range(1, RESULT_COUNT));
+
+        // pages at offsets 1, 3 and 5
+        verify(discoveryService, times(3)).searchUsingDslQuery(anyString(), anyInt(), anyInt());
+        verify(discoveryService).searchUsingDslQuery(DSL_QUERY, PAGE_SIZE, 3);
+    }
+
+    @Test
+    public void testDslSelectResultsAreStreamedInPages() throws Exception {
+        AtlasSearchResult  result   = AtlasType.fromJson(write(discoveryREST.searchUsingDSLAsStream(DSL_SELECT_QUERY, null, null, 0, 0)), AtlasSearchResult.class);
+        List<List<Object>> expected = new ArrayList<>();
+
+        for (int i = 0; i < RESULT_COUNT; i++) {
+            expected.add(Collections.<Object>singletonList("t" + i));
+        }
+
+        assertNull(result.getEntities());
+        assertEquals(result.getAttributes().getName(), Collections.singletonList("name"));
+        assertEquals(result.getAttributes().getValues(), expected);
+
+        verify(discoveryService, times(3)).searchUsingDslQuery(eq(DSL_SELECT_QUERY), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testDslResultsAreCappedAtMaxLimit() throws Exception {
+        Configuration configuration = ApplicationProperties.get();
+
+        configuration.setProperty(DSL_MAX_LIMIT_PROPERTY, 3);
+
+        try {
+            AtlasSearchResult all     = AtlasType.fromJson(write(discoveryREST.searchUsingDSLAsStream(DSL_QUERY, null, null, 0, 0)), AtlasSearchResult.class);
+            AtlasSearchResult limited = AtlasType.fromJson(write(discoveryREST.searchUsingDSLAsStream(DSL_QUERY, null, null, 4, 0)), AtlasSearchResult.class);
+
+            assertEquals(getGuids(all), range(0, 3));
+            assertEquals(getGuids(limited), range(0, 3));
+        } finally {
+            configuration.clearProperty(DSL_MAX_LIMIT_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testEntitiesAreStreamedInPages() throws Exception {
+        AtlasEntitiesWithExtInfo result = AtlasType.fromJson(write(entityREST.getByGuidsAsStream(range(0, RESULT_COUNT), null, false, -1)), AtlasEntitiesWithExtInfo.class);
+        List<String>             guids  = new ArrayList<>();
+
+        for (AtlasEntity entity : result.getEntities()) {
+            guids.add(entity.getGuid());
+        }
+
+        assertEquals(guids, range(0, RESULT_COUNT));
+        assertEquals(result.getReferredEntities().size(), RESULT_COUNT);
+        assertTrue(result.getReferredEntities().containsKey("guid4_col"));
+
+        verify(entityStore, times(3)).getByIds(anyList(), any(EntityRetrievalOptions.class));
+    }
+
+    @Test
+    public void testEntitiesOfNoGuidsAreRejected() {
+        try {
+            entityREST.getByGuidsAsStream(Collections.<String>emptyList(), null, false, -1);
+
+            fail("expected request without guids to be rejected");
+        } catch (AtlasBaseException e) {
+            assertEquals(e.getAtlasErrorCode(), AtlasErrorCode.INSTANCE_GUID_NOT_FOUND);
+        }
+    }
+
+    @Test
+    public void testEntitiesFailureMidStreamLeavesIncompleteResponse() throws Exception {
+        int                   spoolFileCount = JsonStreamsTest.getSpoolFileCount();
+        ByteArrayOutputStream out            = new ByteArrayOutputStream();
+        StreamingOutput       output         = entityREST.getByGuidsAsStream(range(0, RESULT_COUNT), null, false, -1);
+
+        failAtOffset = PAGE_SIZE;
+
+        try {
+            output.write(out);
+
+            fail("expected failure of the second page to fail the response");
+        } catch (IOException e) {
+            assertTrue(e.getCause() instanceof AtlasBaseException);
+        }
+
+        String json = new String(out.toByteArray(), StandardCharsets.UTF_8);
+
+        assertTrue(json.contains("guid1"));
+        assertFalse(json.contains("referredEntities"));
+        assertNull(AtlasType.fromJson(json, AtlasEntitiesWithExtInfo.class));
+        assertEquals(JsonStreamsTest.getSpoolFileCount(), spoolFileCount);
+    }
+
+    private static SearchParameters searchParameters(int offset) {
+        SearchParameters ret = new SearchParameters();
+
+        ret.setTypeName("hive_table");
+        ret.setOffset(offset);
+
+        return ret;
+    }
+
+    private static String write(StreamingOutput output) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        output.write(out);
+
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static List<String> getGuids(AtlasSearchResult result) {
+        List<String> ret = new ArrayList<>();
+
+        if (result.getEntities() != null) {
+            for (AtlasEntityHeader entity : result.getEntities()) {
+                ret.add(entity.getGuid());
+            }
+        }
+
+        return ret;
+    }
+
+    private static List<String> range(int from, int to) {
+        List<String> ret = new ArrayList<>();
+
+        for (int i = from; i < to; i++) {
+            ret.add("guid" + i);
+        }
+
+        return ret;
+    }
+}
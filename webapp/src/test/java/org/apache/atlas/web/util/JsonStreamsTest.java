@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.web.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.type.AtlasType;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class JsonStreamsTest {
+    @Test
+    public void testSpoolIsWrittenAsObject() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (JsonGenerator generator = JsonStreams.createGenerator(out);
+             JsonStreams.Spool spool = new JsonStreams.Spool()) {
+            spool.add("guid1", new AtlasEntityHeader("hive_table", "guid1", Collections.<String, Object>singletonMap("name", "t1")));
+            spool.add("guid2", new BigDecimal("3.141592653589793238462643383279502884197"));
+            spool.add("guid1", "ignored, as the key is already spooled");
+
+            assertEquals(spool.size(), 2);
+
+            spool.writeTo(generator);
+        }
+
+        String json   = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        Map    parsed = AtlasType.fromJson(json, Map.class);
+
+        assertEquals(parsed.keySet(), new HashSet<>(Arrays.asList("guid1", "guid2")));
+        assertEquals(((Map) parsed.get("guid1")).get("guid"), "guid1");
+        assertEquals(((Map) ((Map) parsed.get("guid1")).get("attributes")).get("name"), "t1");
+
+        // text of decimal values is kept as is, rather than read as double
+        assertTrue(json.contains("3.141592653589793238462643383279502884197"));
+    }
+
+    @Test
+    public void testSpoolFileIsDeletedOnClose() throws Exception {
+        int spoolFileCount = getSpoolFileCount();
+
+        JsonStreams.Spool spool = new JsonStreams.Spool();
+
+        spool.add("guid1", "value1");
+
+        assertEquals(getSpoolFileCount(), spoolFileCount + 1);
+
+        spool.close();
+
+        assertEquals(getSpoolFileCount(), spoolFileCount);
+    }
+
+    // spool files are temporary files named after the stream
+    public static int getSpoolFileCount() {
+        File[] files = new File(System.getProperty("java.io.tmpdir")).listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith("atlas-stream-");
+            }
+        });
+
+        return files != null ? files.length : 0;
+    }
+}